@@ -22,8 +22,8 @@ import java.util.function.Consumer;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
-import io.zeebe.broker.taskqueue.data.TaskEvent;
-import io.zeebe.broker.taskqueue.data.TaskEventType;
+import io.zeebe.broker.task.data.TaskEvent;
+import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.msgpack.spec.MsgPackReader;
 import io.zeebe.msgpack.spec.MsgPackWriter;
 import io.zeebe.util.buffer.BufferUtil;
@@ -50,7 +50,7 @@ public class POJOMappingContext
     public void setUp()
     {
 
-        taskEvent.setEventType(TaskEventType.CREATE);
+        taskEvent.setState(TaskState.CREATE);
         taskEvent.setLockTime(System.currentTimeMillis());
         taskEvent.setType(BufferUtil.wrapString("someTaskType"));
 
@@ -75,7 +75,7 @@ public class POJOMappingContext
             w.writeString(BufferUtil.wrapString("key2"));
             w.writeString(BufferUtil.wrapString("value"));
         });
-        taskEvent.setHeaders(headers);
+        taskEvent.setCustomHeaders(headers);
 
         optimalOrderMsgPack = new UnsafeBuffer(new byte[taskEvent.getLength()]);
         taskEvent.write(optimalOrderMsgPack, 0);
@@ -0,0 +1,192 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.zeebe.broker.task.data.TaskState;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.workflow.WorkflowDeployedMessageHandler;
+import io.zeebe.broker.workflow.data.WorkflowInstanceState;
+import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
+import io.zeebe.logstreams.log.LogStreamWriter;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventLifecycleContext;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.protocol.clientapi.EventType;
+import org.slf4j.Logger;
+
+/**
+ * Workflow instance stream processor which measures the processing time of
+ * the events by their state, from {@link #onEvent(LoggedEvent)} until the
+ * state is updated.
+ */
+public class ProfiledWorkflowInstanceStreamProcessor extends WorkflowInstanceStreamProcessor
+{
+    private static final WorkflowInstanceState[] WORKFLOW_INSTANCE_STATES = WorkflowInstanceState.values();
+    private static final TaskState[] TASK_STATES = TaskState.values();
+
+    private static final int WORKFLOW_CACHE_SIZE = 16;
+
+    private final long[] processingTimes = new long[WORKFLOW_INSTANCE_STATES.length + TASK_STATES.length];
+    private final long[] processingCounts = new long[processingTimes.length];
+
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong completedWorkflowInstances = new AtomicLong();
+
+    private final TimedEventProcessor timedEventProcessor = new TimedEventProcessor();
+
+    public ProfiledWorkflowInstanceStreamProcessor(
+            CommandResponseWriter responseWriter,
+            WorkflowDeployedMessageHandler workflowDeployedMessageHandler,
+            long payloadCacheSize,
+            boolean isStepFusionEnabled)
+    {
+        // the workflows are added to the cache on open, so they are never fetched
+        super(responseWriter, null, null, workflowDeployedMessageHandler, payloadCacheSize, WORKFLOW_CACHE_SIZE, isStepFusionEnabled);
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        final long startTime = System.nanoTime();
+
+        final EventProcessor eventProcessor = super.onEvent(event);
+        final int stateIndex = stateIndex();
+
+        if (stateIndex == WorkflowInstanceState.WORKFLOW_INSTANCE_COMPLETED.ordinal())
+        {
+            completedWorkflowInstances.lazySet(completedWorkflowInstances.get() + 1);
+        }
+
+        if (eventProcessor != null)
+        {
+            return timedEventProcessor.wrap(eventProcessor, stateIndex, startTime);
+        }
+        else
+        {
+            onProcessed(stateIndex, startTime);
+            return null;
+        }
+    }
+
+    private int stateIndex()
+    {
+        final EventType eventType = sourceEventMetadata.getEventType();
+
+        if (eventType == EventType.WORKFLOW_INSTANCE_EVENT)
+        {
+            return workflowInstanceEvent.getState().ordinal();
+        }
+        else if (eventType == EventType.TASK_EVENT)
+        {
+            return WORKFLOW_INSTANCE_STATES.length + taskEvent.getState().ordinal();
+        }
+        else
+        {
+            return -1;
+        }
+    }
+
+    private void onProcessed(int stateIndex, long startTime)
+    {
+        if (stateIndex >= 0)
+        {
+            processingTimes[stateIndex] += System.nanoTime() - startTime;
+            processingCounts[stateIndex] += 1;
+        }
+
+        processedEvents.lazySet(processedEvents.get() + 1);
+    }
+
+    public long getProcessedEvents()
+    {
+        return processedEvents.get();
+    }
+
+    public long getCompletedWorkflowInstances()
+    {
+        return completedWorkflowInstances.get();
+    }
+
+    /**
+     * Logs the average processing time by event state. Must be called after
+     * the stream processor is closed.
+     */
+    public void logProcessingTimes(Logger logger)
+    {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%n%-40s %12s %16s", "event state", "events", "avg time (us)"));
+
+        for (int i = 0; i < processingTimes.length; i++)
+        {
+            final long count = processingCounts[i];
+            if (count > 0)
+            {
+                final String state = i < WORKFLOW_INSTANCE_STATES.length ?
+                        "WORKFLOW_INSTANCE " + WORKFLOW_INSTANCE_STATES[i] :
+                        "TASK " + TASK_STATES[i - WORKFLOW_INSTANCE_STATES.length];
+
+                builder.append(String.format("%n%-40s %12d %16.3f", state, count, processingTimes[i] / (count * 1000.0)));
+            }
+        }
+
+        logger.info("Processing times:{}", builder);
+    }
+
+    private class TimedEventProcessor implements EventProcessor
+    {
+        private EventProcessor eventProcessor;
+        private int stateIndex;
+        private long startTime;
+
+        public EventProcessor wrap(EventProcessor eventProcessor, int stateIndex, long startTime)
+        {
+            this.eventProcessor = eventProcessor;
+            this.stateIndex = stateIndex;
+            this.startTime = startTime;
+            return this;
+        }
+
+        @Override
+        public void processEvent(EventLifecycleContext ctx)
+        {
+            eventProcessor.processEvent(ctx);
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            return eventProcessor.executeSideEffects();
+        }
+
+        @Override
+        public long writeEvent(LogStreamWriter writer)
+        {
+            return eventProcessor.writeEvent(writer);
+        }
+
+        @Override
+        public void updateState()
+        {
+            eventProcessor.updateState();
+
+            onProcessed(stateIndex, startTime);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
+import io.zeebe.broker.logstreams.processor.TypedEvent;
+import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
+import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
+import io.zeebe.broker.task.data.TaskEvent;
+import io.zeebe.broker.task.data.TaskState;
+import org.agrona.ExpandableArrayBuffer;
+
+/**
+ * Creates and completes the tasks of the workflow instances instantly, with
+ * the payload of the task. Replaces the task stream processor and the task
+ * subscribers, so that the benchmark measures the workflow instance stream processor.
+ */
+public class TaskWorker implements TypedEventProcessor<TaskEvent>
+{
+    private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+    // the batch writer serializes the events when it is written
+    private final TaskEvent createdEvent = new TaskEvent();
+    private final TaskEvent completedEvent = new TaskEvent();
+
+    @Override
+    public void processEvent(TypedEvent<TaskEvent> event)
+    {
+        final TaskEvent value = event.getValue();
+        final int length = value.getLength();
+        value.write(buffer, 0);
+
+        createdEvent.reset();
+        createdEvent.wrap(buffer, 0, length);
+        createdEvent.setState(TaskState.CREATED);
+
+        completedEvent.reset();
+        completedEvent.wrap(buffer, 0, length);
+        completedEvent.setState(TaskState.COMPLETED);
+    }
+
+    @Override
+    public long writeEvent(TypedEvent<TaskEvent> event, TypedStreamWriter writer)
+    {
+        final TypedBatchWriter batchWriter = writer.newBatch();
+
+        return batchWriter
+                .addFollowUpEvent(event.getKey(), createdEvent)
+                .addFollowUpEvent(event.getKey(), completedEvent)
+                .write();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
+import io.zeebe.broker.task.data.TaskState;
+import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.workflow.WorkflowDeployedMessageHandler;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceState;
+import io.zeebe.broker.workflow.map.WorkflowCache;
+import io.zeebe.broker.workflow.map.WorkflowCaches;
+import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
+import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.impl.service.StreamProcessorService;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.processor.EventFilter;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.spi.SnapshotStorage;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.servicecontainer.ServiceContainer;
+import io.zeebe.servicecontainer.impl.ServiceContainerImpl;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.ServerResponse;
+import io.zeebe.transport.TransportMessage;
+import io.zeebe.util.ZbLogger;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorCondition;
+import io.zeebe.util.sched.ActorScheduler;
+import org.agrona.DirectBuffer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+
+/**
+ * Runs the workflow instance stream processor on a log stream in a temporary
+ * directory, together with a {@link TaskWorker} which completes the tasks.
+ */
+@State(Scope.Thread)
+public class WorkflowEngineContext
+{
+    private static final Logger LOG = new ZbLogger("io.zeebe.broker.benchmarks");
+
+    private static final DirectBuffer TOPIC_NAME = BufferUtil.wrapString("benchmark");
+    private static final long WORKFLOW_KEY = 1L;
+    private static final long PAYLOAD_CACHE_SIZE = 16 * 1024 * 1024;
+
+    private static final long AWAIT_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+    private static final long CLOSE_TIMEOUT = 10;
+
+    @Param
+    protected WorkflowShape shape;
+
+    @Param({"false", "true"})
+    protected boolean stepFusion;
+
+    protected Path directory;
+
+    protected ActorScheduler actorScheduler;
+    protected ServiceContainer serviceContainer;
+
+    protected LogStream logStream;
+    protected SnapshotStorage snapshotStorage;
+
+    protected ProfiledWorkflowInstanceStreamProcessor workflowInstanceStreamProcessor;
+    protected StreamProcessorService workflowInstanceStreamProcessorService;
+    protected StreamProcessorService taskWorkerService;
+
+    protected TypedStreamWriter writer;
+    protected final WorkflowInstanceEvent createWorkflowInstanceEvent = new WorkflowInstanceEvent();
+
+    protected long createdWorkflowInstances;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        directory = Files.createTempDirectory("zeebe-benchmark");
+
+        actorScheduler = ActorScheduler.newActorScheduler()
+            .setMetricsManager(new MetricsManager("zb_", Collections.emptyMap()))
+            .setCpuBoundActorThreadCount(2)
+            .setIoBoundActorThreadCount(1)
+            .build();
+        actorScheduler.start();
+
+        serviceContainer = new ServiceContainerImpl(actorScheduler);
+        serviceContainer.start();
+
+        logStream = LogStreams.createFsLogStream(TOPIC_NAME, 0)
+            .logRootPath(directory.toString())
+            .serviceContainer(serviceContainer)
+            .logName("benchmark")
+            .deleteOnClose(true)
+            .build()
+            .join();
+
+        logStream.openAppender().join();
+
+        // there is no replication - commit the events as soon as they are appended
+        actorScheduler.submitActor(new Actor()
+        {
+            @Override
+            protected void onActorStarted()
+            {
+                final ActorCondition condition = actor.onCondition("on-append", () -> logStream.setCommitPosition(Long.MAX_VALUE));
+                logStream.registerOnAppendCondition(condition);
+            }
+        });
+
+        snapshotStorage = LogStreams.createFsSnapshotStore(directory.toString()).build();
+
+        final ServerOutput output = new NoopServerOutput();
+
+        workflowInstanceStreamProcessor = new ProfiledWorkflowInstanceStreamProcessor(
+                new CommandResponseWriter(output),
+                new WorkflowDeployer(shape),
+                PAYLOAD_CACHE_SIZE,
+                stepFusion);
+
+        workflowInstanceStreamProcessorService = openStreamProcessor("workflow-instance", 0, workflowInstanceStreamProcessor,
+                metadataFilter(WorkflowInstanceStreamProcessor.eventFilter()));
+
+        final TypedStreamEnvironment environment = new TypedStreamEnvironment(logStream, output);
+
+        final TypedStreamProcessor taskWorker = environment.newStreamProcessor()
+            .onEvent(EventType.TASK_EVENT, TaskState.CREATE, new TaskWorker())
+            .build();
+
+        taskWorkerService = openStreamProcessor("task-worker", 1, taskWorker,
+                metadataFilter(m -> m.getEventType() == EventType.TASK_EVENT));
+
+        writer = environment.buildStreamWriter();
+
+        createWorkflowInstanceEvent
+            .setState(WorkflowInstanceState.CREATE_WORKFLOW_INSTANCE)
+            .setWorkflowKey(WORKFLOW_KEY)
+            .setPayload(shape.getPayload());
+    }
+
+    private StreamProcessorService openStreamProcessor(String name, int id, StreamProcessor streamProcessor, EventFilter eventFilter)
+    {
+        return LogStreams.createStreamProcessor(name, id, streamProcessor)
+            .logStream(logStream)
+            .snapshotStorage(snapshotStorage)
+            .actorScheduler(actorScheduler)
+            .serviceContainer(serviceContainer)
+            .eventFilter(eventFilter)
+            .build()
+            .join();
+    }
+
+    private static EventFilter metadataFilter(MetadataFilter metadataFilter)
+    {
+        final BrokerEventMetadata metadata = new BrokerEventMetadata();
+
+        return event ->
+        {
+            metadata.reset();
+            event.readMetadata(metadata);
+            return metadataFilter.applies(metadata);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        taskWorkerService.close();
+        workflowInstanceStreamProcessorService.close();
+        logStream.close();
+
+        serviceContainer.close(CLOSE_TIMEOUT, TimeUnit.SECONDS);
+        actorScheduler.stop().get(CLOSE_TIMEOUT, TimeUnit.SECONDS);
+
+        workflowInstanceStreamProcessor.logProcessingTimes(LOG);
+
+        deleteDirectory(directory);
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            files.sorted(Comparator.reverseOrder())
+                .forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Appends the commands to create the given number of workflow instances.
+     */
+    public void createWorkflowInstances(int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            while (writer.writeNewEvent(createWorkflowInstanceEvent) < 0)
+            {
+                // backpressure
+                Thread.yield();
+            }
+        }
+
+        createdWorkflowInstances += count;
+    }
+
+    /**
+     * Waits until all created workflow instances are completed.
+     */
+    public void awaitCompletedWorkflowInstances()
+    {
+        long completedWorkflowInstances = workflowInstanceStreamProcessor.getCompletedWorkflowInstances();
+        long lastProgress = System.nanoTime();
+
+        while (completedWorkflowInstances < createdWorkflowInstances)
+        {
+            Thread.yield();
+
+            final long completed = workflowInstanceStreamProcessor.getCompletedWorkflowInstances();
+            if (completed > completedWorkflowInstances)
+            {
+                completedWorkflowInstances = completed;
+                lastProgress = System.nanoTime();
+            }
+            else if (System.nanoTime() - lastProgress > AWAIT_TIMEOUT)
+            {
+                throw new IllegalStateException(String.format("Workflow instances are not completed: %d of %d",
+                        completedWorkflowInstances, createdWorkflowInstances));
+            }
+        }
+    }
+
+    public long getProcessedEvents()
+    {
+        return workflowInstanceStreamProcessor.getProcessedEvents();
+    }
+
+    /**
+     * Adds the benchmark workflow to the cache of the stream processor, so that
+     * it is not fetched from the leader of the system partition.
+     */
+    private static class WorkflowDeployer extends WorkflowDeployedMessageHandler
+    {
+        private final DirectBuffer bpmnProcessId = BufferUtil.wrapString(WorkflowShape.BPMN_PROCESS_ID);
+        private final WorkflowShape shape;
+
+        WorkflowDeployer(WorkflowShape shape)
+        {
+            this.shape = shape;
+        }
+
+        @Override
+        public void addWorkflowCache(WorkflowCache workflowCache)
+        {
+            // called when the stream processor is opened
+            WorkflowCaches.addWorkflow(workflowCache, WORKFLOW_KEY, 1, bpmnProcessId, shape.getBpmnXml());
+        }
+
+        @Override
+        public void removeWorkflowCache(WorkflowCache workflowCache)
+        {
+        }
+    }
+
+    private static class NoopServerOutput implements ServerOutput
+    {
+        @Override
+        public boolean sendMessage(TransportMessage transportMessage)
+        {
+            return true;
+        }
+
+        @Override
+        public boolean sendResponse(ServerResponse response)
+        {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the workflow instance stream processor in
+ * completed workflow instances and processed events per second. Run with the
+ * GC profiler to get the allocation rate. The average processing time by
+ * event state is printed after each trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class WorkflowInstanceBenchmark
+{
+    public static final int WORKFLOW_INSTANCES_PER_INVOCATION = 1_000;
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(WORKFLOW_INSTANCES_PER_INVOCATION)
+    public void executeWorkflowInstances(WorkflowEngineContext ctx, ProcessedEvents processedEvents)
+    {
+        final long eventsBefore = ctx.getProcessedEvents();
+
+        ctx.createWorkflowInstances(WORKFLOW_INSTANCES_PER_INVOCATION);
+        ctx.awaitCompletedWorkflowInstances();
+
+        processedEvents.events += ctx.getProcessedEvents() - eventsBefore;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ProcessedEvents
+    {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            events = 0;
+        }
+    }
+}
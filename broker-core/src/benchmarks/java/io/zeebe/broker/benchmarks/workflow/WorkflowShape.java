@@ -0,0 +1,122 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import java.util.function.Consumer;
+
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.msgpack.spec.MsgPackWriter;
+import io.zeebe.util.buffer.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Typical workflows which are executed by the benchmark. The service tasks
+ * are completed with the payload of the task.
+ */
+public enum WorkflowShape
+{
+    LINEAR_SERVICE_TASKS(Bpmn.createExecutableWorkflow(WorkflowShape.BPMN_PROCESS_ID)
+            .startEvent()
+            .serviceTask("task1", t -> t.taskType(WorkflowShape.TASK_TYPE))
+            .serviceTask("task2", t -> t.taskType(WorkflowShape.TASK_TYPE))
+            .serviceTask("task3", t -> t.taskType(WorkflowShape.TASK_TYPE))
+            .endEvent()
+            .done(),
+        w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(BufferUtil.wrapString("orderId"));
+            w.writeString(BufferUtil.wrapString("order-123"));
+            w.writeString(BufferUtil.wrapString("orderValue"));
+            w.writeInteger(150);
+        }),
+
+    EXCLUSIVE_GATEWAY(Bpmn.createExecutableWorkflow(WorkflowShape.BPMN_PROCESS_ID)
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.orderValue >= 100"))
+                .serviceTask("task1", t -> t.taskType(WorkflowShape.TASK_TYPE))
+                .endEvent()
+            .sequenceFlow("s2", s -> s.condition("$.orderValue < 100"))
+                .endEvent()
+                .done(),
+        w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(BufferUtil.wrapString("orderId"));
+            w.writeString(BufferUtil.wrapString("order-123"));
+            w.writeString(BufferUtil.wrapString("orderValue"));
+            w.writeInteger(150);
+        }),
+
+    PAYLOAD_MAPPINGS(Bpmn.createExecutableWorkflow(WorkflowShape.BPMN_PROCESS_ID)
+            .startEvent()
+            .serviceTask("task1", t -> t.taskType(WorkflowShape.TASK_TYPE)
+                         .input("$.order", "$")
+                         .output("$.items", "$.itemCount"))
+            .endEvent()
+            .done(),
+        w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(BufferUtil.wrapString("customer"));
+            w.writeString(BufferUtil.wrapString("customer-456"));
+            w.writeString(BufferUtil.wrapString("order"));
+            w.writeMapHeader(3);
+            w.writeString(BufferUtil.wrapString("orderId"));
+            w.writeString(BufferUtil.wrapString("order-123"));
+            w.writeString(BufferUtil.wrapString("orderValue"));
+            w.writeInteger(150);
+            w.writeString(BufferUtil.wrapString("items"));
+            w.writeInteger(3);
+        });
+
+    public static final String BPMN_PROCESS_ID = "benchmark";
+    public static final String TASK_TYPE = "benchmark-task";
+
+    private final DirectBuffer bpmnXml;
+    private final DirectBuffer payload;
+
+    WorkflowShape(WorkflowDefinition workflowDefinition, Consumer<MsgPackWriter> payloadWriter)
+    {
+        this.bpmnXml = BufferUtil.wrapString(Bpmn.convertToString(workflowDefinition));
+        this.payload = write(payloadWriter);
+    }
+
+    public DirectBuffer getBpmnXml()
+    {
+        return bpmnXml;
+    }
+
+    public DirectBuffer getPayload()
+    {
+        return payload;
+    }
+
+    private static DirectBuffer write(Consumer<MsgPackWriter> arg)
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+        final MsgPackWriter writer = new MsgPackWriter();
+        writer.wrap(buffer, 0);
+        arg.accept(writer);
+        buffer.wrap(buffer, 0, writer.getOffset());
+        return buffer;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Prepares a {@link WorkflowCache} for a benchmark, so that the workflow is not
+ * fetched from the leader of the system partition.
+ */
+public class WorkflowCaches
+{
+    /**
+     * Adds the workflow to the cache. Must be called from the actor of the
+     * stream processor, e.g. when the cache is registered on open.
+     */
+    public static DeployedWorkflow addWorkflow(WorkflowCache workflowCache, long key, int version, DirectBuffer bpmnProcessId, DirectBuffer bpmnXml)
+    {
+        return workflowCache.addWorkflow(key, version, bpmnProcessId, bpmnXml);
+    }
+}
@@ -28,11 +28,16 @@ public class IdEvent extends UnpackedObject
 
     private final EnumProperty<IdEventState> stateProp = new EnumProperty<>(PROP_STATE, IdEventState.class);
 
+    /**
+     * the last id of the generated range
+     */
     private final IntegerProperty id = new IntegerProperty("id");
 
+    private final IntegerProperty count = new IntegerProperty("count", 1);
+
     public IdEvent()
     {
-        this.declareProperty(stateProp).declareProperty(id);
+        this.declareProperty(stateProp).declareProperty(id).declareProperty(count);
     }
 
     public Integer getId()
@@ -45,6 +50,16 @@ public class IdEvent extends UnpackedObject
         this.id.setValue(id);
     }
 
+    public int getCount()
+    {
+        return count.getValue();
+    }
+
+    public void setCount(final int count)
+    {
+        this.count.setValue(count);
+    }
+
 
     public IdEventState getState()
     {
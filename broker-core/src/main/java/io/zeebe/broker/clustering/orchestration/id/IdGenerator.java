@@ -33,6 +33,7 @@ import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.ServerTransport;
+import io.zeebe.util.EnsureUtil;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
@@ -71,8 +72,8 @@ public class IdGenerator implements TypedEventProcessor<IdEvent>, Service<IdGene
         final ActorFuture<Integer> pendingIdFuture = pendingFutures.poll();
         if (pendingIdFuture != null)
         {
-            LOG.debug("Id generated {}", value);
-            pendingIdFuture.complete(value.getId());
+            LOG.debug("Id range generated {}", value);
+            pendingIdFuture.complete(value.getId() - value.getCount() + 1);
         }
         else
         {
@@ -122,6 +123,20 @@ public class IdGenerator implements TypedEventProcessor<IdEvent>, Service<IdGene
 
     public ActorFuture<Integer> nextId()
     {
+        return nextIds(1);
+    }
+
+    /**
+     * Generates a range of consecutive ids with a single event, e.g. the ids
+     * of all partitions of a topic.
+     *
+     * @return the first id of the range, the range contains the ids
+     *         <code>[firstId, firstId + count)</code>
+     */
+    public ActorFuture<Integer> nextIds(final int count)
+    {
+        EnsureUtil.ensureGreaterThan("id count", count, 0);
+
         final CompletableActorFuture<Integer> nextId = new CompletableActorFuture<>();
         actor.run(() ->
         {
@@ -135,7 +150,8 @@ public class IdGenerator implements TypedEventProcessor<IdEvent>, Service<IdGene
 
             idEvent.reset();
             idEvent.setState(IdEventState.GENERATED);
-            idEvent.setId(nextIdToWrite);
+            idEvent.setId(nextIdToWrite + count - 1);
+            idEvent.setCount(count);
 
             final long position = logStreamWriter
                 .valueWriter(idEvent)
@@ -150,7 +166,7 @@ public class IdGenerator implements TypedEventProcessor<IdEvent>, Service<IdGene
             else
             {
                 pendingFutures.add(nextId);
-                nextIdToWrite++;
+                nextIdToWrite += count;
             }
         });
 
@@ -181,6 +181,7 @@ public class KnownTopics implements Service<KnownTopics>, StreamProcessorLifecyc
             .newStreamProcessor()
             .onEvent(EventType.TOPIC_EVENT, CREATE, topicCreateProcessor)
             .onEvent(EventType.TOPIC_EVENT, CREATE_COMPLETE, topicCreatedProcessor)
+            .ownsCommands(EventType.TOPIC_EVENT)
             .withListener(this)
             .withStateResource(knownTopics)
             .build();
@@ -17,31 +17,44 @@
  */
 package io.zeebe.broker.clustering.orchestration.topic;
 
-import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
+import io.zeebe.broker.clustering.orchestration.state.TopicInfo;
 import io.zeebe.util.buffer.BufferUtil;
 import org.agrona.DirectBuffer;
 
+/**
+ * A known topic whose partitions are not all created yet. Tracks the
+ * partitions of the topic which are already part of the topology.
+ */
 public class PendingTopic
 {
     private final String topicName;
     private final DirectBuffer topicNameBuffer;
     private final int partitionCount;
     private final int replicationFactor;
-    private final List<Integer> partitionIds;
-    private final int missingPartitions;
     private final long key;
 
-    PendingTopic(final DirectBuffer topicNameBuffer, final int partitionCount, final int replicationFactor, final List<Integer> partitionIds,
-        final int missingPartitions, final long key)
+    private final Set<Integer> partitionIds = new TreeSet<>();
+
+    private boolean isTopologyLoaded;
+    private boolean isCreationRequested;
+    private boolean isCompletionWritten;
+
+    /**
+     * incremented when the topic is checked again after a timeout, so that
+     * older timeouts are ignored
+     */
+    private int retryRound;
+
+    PendingTopic(final TopicInfo topicInfo)
     {
+        this.topicNameBuffer = BufferUtil.cloneBuffer(topicInfo.getTopicNameBuffer());
         this.topicName = BufferUtil.bufferAsString(topicNameBuffer);
-        this.topicNameBuffer = BufferUtil.cloneBuffer(topicNameBuffer);
-        this.partitionCount = partitionCount;
-        this.replicationFactor = replicationFactor;
-        this.partitionIds = partitionIds;
-        this.missingPartitions = missingPartitions;
-        this.key = key;
+        this.partitionCount = topicInfo.getPartitionCount();
+        this.replicationFactor = topicInfo.getReplicationFactor();
+        this.key = topicInfo.getKey();
     }
 
     public String getTopicName()
@@ -64,14 +77,22 @@ public class PendingTopic
         return replicationFactor;
     }
 
-    public List<Integer> getPartitionIds()
+    public Set<Integer> getPartitionIds()
     {
         return partitionIds;
     }
 
+    /**
+     * @return <code>true</code> if the partition was not known before
+     */
+    public boolean addPartitionId(final int partitionId)
+    {
+        return partitionIds.add(partitionId);
+    }
+
     public int getMissingPartitions()
     {
-        return missingPartitions;
+        return Math.max(partitionCount - partitionIds.size(), 0);
     }
 
     public long getKey()
@@ -79,9 +100,53 @@ public class PendingTopic
         return key;
     }
 
+    /**
+     * @return <code>true</code> if the partitions of the topic which were
+     *         part of the topology when the topic became pending are added
+     */
+    public boolean isTopologyLoaded()
+    {
+        return isTopologyLoaded;
+    }
+
+    public void setTopologyLoaded(final boolean isTopologyLoaded)
+    {
+        this.isTopologyLoaded = isTopologyLoaded;
+    }
+
+    public boolean isCreationRequested()
+    {
+        return isCreationRequested;
+    }
+
+    public void setCreationRequested(final boolean isCreationRequested)
+    {
+        this.isCreationRequested = isCreationRequested;
+    }
+
+    public boolean isCompletionWritten()
+    {
+        return isCompletionWritten;
+    }
+
+    public void setCompletionWritten(final boolean isCompletionWritten)
+    {
+        this.isCompletionWritten = isCompletionWritten;
+    }
+
+    public int nextRetryRound()
+    {
+        return ++retryRound;
+    }
+
+    public int getRetryRound()
+    {
+        return retryRound;
+    }
+
     @Override
     public String toString()
     {
-        return "PendingTopic{" + "topicName='" + topicName + '\'' + ", topicNameBuffer=" + topicNameBuffer + ", partitionCount=" + partitionCount + ", replicationFactor=" + replicationFactor + ", partitionIds=" + partitionIds + ", missingPartitions=" + missingPartitions + ", key=" + key + '}';
+        return "PendingTopic{" + "topicName='" + topicName + '\'' + ", partitionCount=" + partitionCount + ", replicationFactor=" + replicationFactor + ", partitionIds=" + partitionIds + ", key=" + key + '}';
     }
 }
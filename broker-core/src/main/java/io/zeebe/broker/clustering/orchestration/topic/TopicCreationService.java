@@ -19,16 +19,16 @@ package io.zeebe.broker.clustering.orchestration.topic;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.api.CreatePartitionRequest;
 import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.clustering.base.topology.NodeInfo;
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
+import io.zeebe.broker.clustering.base.topology.ReadableTopology;
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.clustering.base.topology.TopologyPartitionListener;
 import io.zeebe.broker.clustering.orchestration.NodeSelector;
@@ -55,7 +55,6 @@ public class TopicCreationService extends Actor implements Service<TopicCreation
 {
     private static final Logger LOG = Loggers.CLUSTERING_LOGGER;
 
-    public static final Duration TIMER_RATE = Duration.ofSeconds(1);
     public static final Duration PENDING_TIMEOUT = Duration.ofMinutes(1);
 
     private final Injector<KnownTopics> stateInjector = new Injector<>();
@@ -72,8 +71,10 @@ public class TopicCreationService extends Actor implements Service<TopicCreation
     private NodeSelector nodeSelector;
     private ClientTransport clientTransport;
 
-    private Set<String> pendingTopicCreationRequests = new HashSet<>();
-    private Set<String> pendingTopicCompletions = new HashSet<>();
+    /**
+     * topics which are not created yet, by topic name
+     */
+    private final Map<String, PendingTopic> pendingTopics = new HashMap<>();
 
     @Override
     public void start(final ServiceStartContext startContext)
@@ -109,100 +110,158 @@ public class TopicCreationService extends Actor implements Service<TopicCreation
     @Override
     protected void onActorStarted()
     {
-        actor.runAtFixedRate(TIMER_RATE, this::checkCurrentState);
+        final ActorFuture<List<PendingTopic>> pendingTopicsFuture = knownTopics.queryTopics(topics -> collectPendingTopics(topics, null));
+
+        actor.runOnCompletion(pendingTopicsFuture, (topics, error) ->
+        {
+            if (error == null)
+            {
+                topics.forEach(this::addPendingTopic);
+            }
+            else
+            {
+                LOG.error("Failed to collect the topics to create", error);
+            }
+        });
     }
 
     @Override
     public void topicAdded(final String topicName)
     {
-        // TODO(menski): limit to topic
-        actor.run(this::checkCurrentState);
+        actor.run(() ->
+        {
+            final ActorFuture<List<PendingTopic>> pendingTopicsFuture = knownTopics.queryTopics(topics -> collectPendingTopics(topics, topicName));
+
+            actor.runOnCompletion(pendingTopicsFuture, (topics, error) ->
+            {
+                if (error == null)
+                {
+                    topics.forEach(this::addPendingTopic);
+                }
+                else
+                {
+                    LOG.error("Failed to get the added topic {}", topicName, error);
+                }
+            });
+        });
     }
 
     @Override
-    public void onPartitionUpdated(final PartitionInfo partitionInfo, final NodeInfo member)
+    public void topicCreated(final String topicName)
     {
-        // TODO(menski): limit to topic
-        actor.run(this::checkCurrentState);
+        actor.run(() -> pendingTopics.remove(topicName));
     }
 
-    private void checkCurrentState()
+    @Override
+    public void onPartitionUpdated(final PartitionInfo partitionInfo, final NodeInfo member)
     {
-        final ActorFuture<ClusterPartitionState> queryFuture = topologyManager.query(ClusterPartitionState::computeCurrentState);
-
-        actor.runOnCompletion(queryFuture, (currentState, error) ->
+        actor.run(() ->
         {
-            if (error == null)
-            {
-                computeStateDifferences(currentState);
-            }
-            else
+            final PendingTopic pendingTopic = pendingTopics.get(partitionInfo.getTopicName());
+
+            if (pendingTopic != null && pendingTopic.addPartitionId(partitionInfo.getPartitionId()))
             {
-                LOG.error("Unable to compute current cluster topic state from topology", error);
+                checkPendingTopic(pendingTopic);
             }
         });
     }
 
-    private void computeStateDifferences(final ClusterPartitionState currentState)
+    private void addPendingTopic(final PendingTopic pendingTopic)
     {
-        final ActorFuture<List<PendingTopic>> pendingTopicsFuture = knownTopics.queryTopics(topics -> computePendingTopics(topics, currentState));
+        final String topicName = pendingTopic.getTopicName();
 
-        actor.runOnCompletion(pendingTopicsFuture, (pendingTopics, error) ->
+        if (pendingTopics.putIfAbsent(topicName, pendingTopic) == null)
         {
-            if (error == null)
+            // the partitions which are already in the topology, updates are tracked by the partition listener
+            final ActorFuture<List<Integer>> partitionIdsFuture = topologyManager.query(topology -> getPartitionIds(topology, topicName));
+
+            actor.runOnCompletion(partitionIdsFuture, (partitionIds, error) ->
             {
-                for (final PendingTopic pendingTopic : pendingTopics)
+                if (error == null)
                 {
-                    final String topicName = pendingTopic.getTopicName();
-
-                    if (pendingTopic.getMissingPartitions() > 0)
-                    {
-                        if (!pendingTopicCreationRequests.contains(topicName))
-                        {
-                            LOG.debug("Creating {} partitions for topic {}", pendingTopic.getMissingPartitions(), topicName);
-                            for (int i = 0; i < pendingTopic.getMissingPartitions(); i++)
-                            {
-                                createPartition(pendingTopic);
-                            }
-                            pendingTopicCreationRequests.add(topicName);
-                            actor.runDelayed(PENDING_TIMEOUT, () -> pendingTopicCreationRequests.remove(topicName));
-                        }
-                    }
-                    else
-                    {
-                        if (!pendingTopicCompletions.contains(topicName))
-                        {
-                            final int partitionCount = pendingTopic.getPartitionCount();
-                            final int replicationFactor = pendingTopic.getReplicationFactor();
-
-                            final TopicEvent topicEvent = new TopicEvent();
-                            topicEvent.setState(TopicState.CREATE_COMPLETE);
-                            topicEvent.setName(pendingTopic.getTopicNameBuffer());
-                            topicEvent.setPartitions(partitionCount);
-                            topicEvent.setReplicationFactor(replicationFactor);
-
-                            final ValueArray<IntegerValue> eventPartitionIds = topicEvent.getPartitionIds();
-                            pendingTopic.getPartitionIds().forEach(id -> eventPartitionIds.add().setValue(id));
-
-                            actor.runUntilDone(() -> writeEvent(pendingTopic.getKey(), topicEvent));
-
-                            pendingTopicCreationRequests.remove(topicName);
-                            pendingTopicCompletions.add(topicName);
-                            actor.runDelayed(PENDING_TIMEOUT, () -> pendingTopicCompletions.remove(topicName));
-                            LOG.debug("Topic {} with {} partition(s) and replication factor {} created", topicName, partitionCount, replicationFactor);
-
-                        }
-                    }
+                    partitionIds.forEach(pendingTopic::addPartitionId);
+                    pendingTopic.setTopologyLoaded(true);
+
+                    checkPendingTopic(pendingTopic);
                 }
+                else
+                {
+                    LOG.error("Failed to get the partitions of topic {}", topicName, error);
+                }
+            });
+        }
+    }
+
+    private void checkPendingTopic(final PendingTopic pendingTopic)
+    {
+        final String topicName = pendingTopic.getTopicName();
+
+        if (pendingTopics.get(topicName) != pendingTopic || !pendingTopic.isTopologyLoaded())
+        {
+            // topic is created meanwhile or the existing partitions are not known yet
+            return;
+        }
+
+        if (pendingTopic.getMissingPartitions() > 0)
+        {
+            if (!pendingTopic.isCreationRequested())
+            {
+                LOG.debug("Creating {} partitions for topic {}", pendingTopic.getMissingPartitions(), topicName);
+                createPartitions(pendingTopic, pendingTopic.getMissingPartitions());
+
+                pendingTopic.setCreationRequested(true);
+                checkAgainAfterTimeout(pendingTopic);
             }
-            else
+        }
+        else if (!pendingTopic.isCompletionWritten())
+        {
+            final int partitionCount = pendingTopic.getPartitionCount();
+            final int replicationFactor = pendingTopic.getReplicationFactor();
+
+            final TopicEvent topicEvent = new TopicEvent();
+            topicEvent.setState(TopicState.CREATE_COMPLETE);
+            topicEvent.setName(pendingTopic.getTopicNameBuffer());
+            topicEvent.setPartitions(partitionCount);
+            topicEvent.setReplicationFactor(replicationFactor);
+
+            final ValueArray<IntegerValue> eventPartitionIds = topicEvent.getPartitionIds();
+            pendingTopic.getPartitionIds().forEach(id -> eventPartitionIds.add().setValue(id));
+
+            actor.runUntilDone(() -> writeEvent(pendingTopic.getKey(), topicEvent));
+
+            pendingTopic.setCompletionWritten(true);
+            checkAgainAfterTimeout(pendingTopic);
+            LOG.debug("Topic {} with {} partition(s) and replication factor {} created", topicName, partitionCount, replicationFactor);
+        }
+    }
+
+    /**
+     * Requests the missing partitions or writes the completion again if the
+     * topic is still pending after {@link #PENDING_TIMEOUT}, e.g. because a
+     * create partition request failed.
+     */
+    private void checkAgainAfterTimeout(final PendingTopic pendingTopic)
+    {
+        final int retryRound = pendingTopic.nextRetryRound();
+
+        actor.runDelayed(PENDING_TIMEOUT, () ->
+        {
+            if (pendingTopic.getRetryRound() == retryRound)
             {
-                LOG.error("Failed to compute the topic partitions to create");
+                pendingTopic.setCreationRequested(false);
+                pendingTopic.setCompletionWritten(false);
+
+                checkPendingTopic(pendingTopic);
             }
         });
     }
 
-    private List<PendingTopic> computePendingTopics(final Iterable<TopicInfo> topics, final ClusterPartitionState currentState)
+    /**
+     * @param topicName
+     *            the name of the topic to collect, or <code>null</code> to
+     *            collect all topics which are not created yet
+     */
+    private static List<PendingTopic> collectPendingTopics(final Iterable<TopicInfo> topics, final String topicName)
     {
         final List<PendingTopic> pendingTopics = new ArrayList<>();
 
@@ -214,32 +273,49 @@ public class TopicCreationService extends Actor implements Service<TopicCreation
                 continue;
             }
 
-            final List<Integer> partitionIds = currentState.getPartitions(topic.getTopicNameBuffer())
-                                                           .stream()
-                                                           .map(PartitionNodes::getPartitionId)
-                                                           .collect(Collectors.toList());
-
-            final int missingPartitions = topic.getPartitionCount() - partitionIds.size();
-            final PendingTopic pendingTopic = new PendingTopic(topic.getTopicNameBuffer(), topic.getPartitionCount(), topic.getReplicationFactor(), partitionIds, missingPartitions, topic.getKey());
-            pendingTopics.add(pendingTopic);
+            if (topicName == null || topicName.equals(topic.getTopicName()))
+            {
+                pendingTopics.add(new PendingTopic(topic));
+            }
         }
 
         return pendingTopics;
     }
 
-    private void createPartition(final PendingTopic pendingTopic)
+    private static List<Integer> getPartitionIds(final ReadableTopology topology, final String topicName)
     {
-        final ActorFuture<Integer> idFuture = idGenerator.nextId();
-        actor.runOnCompletion(idFuture, (id, error) ->
+        final List<Integer> partitionIds = new ArrayList<>();
+
+        for (final PartitionInfo partition : topology.getPartitions())
+        {
+            if (topicName.equals(partition.getTopicName()))
+            {
+                partitionIds.add(partition.getPartitionId());
+            }
+        }
+
+        return partitionIds;
+    }
+
+    private void createPartitions(final PendingTopic pendingTopic, final int count)
+    {
+        // the ids of all partitions are generated at once
+        final ActorFuture<Integer> idsFuture = idGenerator.nextIds(count);
+        actor.runOnCompletion(idsFuture, (firstId, error) ->
         {
             if (error == null)
             {
-                LOG.debug("Creating partition with id {} for topic {}", id, pendingTopic.getTopicName());
-                sendCreatePartitionRequest(pendingTopic, id);
+                for (int i = 0; i < count; i++)
+                {
+                    final int id = firstId + i;
+
+                    LOG.debug("Creating partition with id {} for topic {}", id, pendingTopic.getTopicName());
+                    sendCreatePartitionRequest(pendingTopic, id);
+                }
             }
             else
             {
-                LOG.error("Failed to get new partition id for topic {}", pendingTopic.getTopicName(), error);
+                LOG.error("Failed to get new partition ids for topic {}", pendingTopic.getTopicName(), error);
             }
         });
     }
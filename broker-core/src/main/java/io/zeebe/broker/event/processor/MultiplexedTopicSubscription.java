@@ -0,0 +1,133 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
+import io.zeebe.broker.transport.clientapi.SubscribedEventWriter;
+import io.zeebe.util.collection.LongRingBuffer;
+import org.agrona.DirectBuffer;
+
+/**
+ * A topic subscription which is served by the {@link TopicSubscriptionPushMultiplexer}
+ * of its partition.
+ *
+ * <p>
+ * The push state is owned by the multiplexer's actor.
+ */
+public class MultiplexedTopicSubscription implements TopicSubscriptionPush
+{
+    protected static final long NO_POSITION = -1L;
+
+    protected final int clientStreamId;
+    protected final long subscriberKey;
+    protected final DirectBuffer name;
+    protected final String nameString;
+    protected final SubscribedEventWriter channelWriter;
+    protected final TopicSubscriptionPushMultiplexer multiplexer;
+
+    protected LongRingBuffer pendingEvents;
+
+    // set by the multiplexer when the subscription is attached
+    protected long startPosition = NO_POSITION;
+    protected long skipUntilPosition = NO_POSITION;
+
+    // owned by the multiplexer
+    protected boolean enabled;
+    // true if events were skipped since the subscription was not ready
+    protected boolean isLagging;
+
+    public MultiplexedTopicSubscription(
+            int clientStreamId,
+            long subscriberKey,
+            DirectBuffer name,
+            int prefetchCapacity,
+            SubscribedEventWriter channelWriter,
+            TopicSubscriptionPushMultiplexer multiplexer)
+    {
+        this.clientStreamId = clientStreamId;
+        this.subscriberKey = subscriberKey;
+        this.name = cloneBuffer(name);
+        this.nameString = name.getStringWithoutLengthUtf8(0, name.capacity());
+        this.channelWriter = channelWriter;
+        this.multiplexer = multiplexer;
+
+        if (prefetchCapacity > 0)
+        {
+            this.pendingEvents = new LongRingBuffer(prefetchCapacity);
+        }
+    }
+
+    @Override
+    public long getSubscriptionId()
+    {
+        return subscriberKey;
+    }
+
+    @Override
+    public DirectBuffer getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String getNameAsString()
+    {
+        return nameString;
+    }
+
+    @Override
+    public int getChannelId()
+    {
+        return clientStreamId;
+    }
+
+    @Override
+    public long getStartPosition()
+    {
+        return startPosition;
+    }
+
+    @Override
+    public void onAck(long eventPosition)
+    {
+        multiplexer.onAck(this, eventPosition);
+    }
+
+    @Override
+    public void enable()
+    {
+        multiplexer.enable(this);
+    }
+
+    /**
+     * @return true if the event at the given position belongs to this subscription
+     */
+    protected boolean isInterestedIn(long position)
+    {
+        return position > skipUntilPosition;
+    }
+
+    /**
+     * @return true if an event can be pushed now
+     */
+    protected boolean isReady()
+    {
+        return enabled && (pendingEvents == null || !pendingEvents.isSaturated());
+    }
+}
@@ -17,7 +17,6 @@
  */
 package io.zeebe.broker.event.processor;
 
-import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.LogStreamWriter;
 import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.logstreams.processor.EventProcessor;
@@ -133,18 +132,14 @@ public class SubscribeProcessor implements EventProcessor
                     subscriberEvent.getStartPosition(),
                     subscriberEvent.getForceStart());
 
-            final TopicSubscriptionPushProcessor processor = new TopicSubscriptionPushProcessor(
+            final ActorFuture<TopicSubscriptionPush> future = manager.openSubscriptionAsync(
                 metadata.getRequestStreamId(),
                 event.getKey(),
                 resumePosition,
                 subscriptionName,
-                subscriberEvent.getPrefetchCapacity(),
-                manager.getEventWriterFactory().get());
-
-            final ActorFuture<StreamProcessorService> future = manager.openPushProcessorAsync(processor);
+                subscriberEvent.getPrefetchCapacity());
 
             awaitProcessorState.wrap(future);
-            successState.wrap(processor);
             state = awaitProcessorState;
 
             return false;
@@ -153,11 +148,11 @@ public class SubscribeProcessor implements EventProcessor
 
     protected class AwaitSubscriptionServiceProcessor implements EventProcessor
     {
-        protected ActorFuture<StreamProcessorService> streamProcessorServiceFuture;
+        protected ActorFuture<TopicSubscriptionPush> subscriptionFuture;
 
-        public void wrap(ActorFuture<StreamProcessorService> future)
+        public void wrap(ActorFuture<TopicSubscriptionPush> future)
         {
-            this.streamProcessorServiceFuture = future;
+            this.subscriptionFuture = future;
         }
 
         @Override
@@ -168,19 +163,20 @@ public class SubscribeProcessor implements EventProcessor
         @Override
         public boolean executeSideEffects()
         {
-            if (!streamProcessorServiceFuture.isDone())
+            if (!subscriptionFuture.isDone())
             {
                 // waiting
             }
-            else if (streamProcessorServiceFuture.isCompletedExceptionally())
+            else if (subscriptionFuture.isCompletedExceptionally())
             {
-                final String errorMessage = streamProcessorServiceFuture.getException().getMessage();
+                final String errorMessage = subscriptionFuture.getException().getMessage();
 
                 failedRequestState.wrapError(errorMessage);
                 state = failedRequestState;
             }
             else
             {
+                successState.wrap(subscriptionFuture.join());
                 state = successState;
             }
             return false;
@@ -190,9 +186,9 @@ public class SubscribeProcessor implements EventProcessor
     protected class SubscriptionServiceSuccessProcessor implements EventProcessor
     {
 
-        protected TopicSubscriptionPushProcessor processor;
+        protected TopicSubscriptionPush processor;
 
-        public void wrap(TopicSubscriptionPushProcessor processor)
+        public void wrap(TopicSubscriptionPush processor)
         {
             this.processor = processor;
         }
@@ -29,23 +29,23 @@ public class SubscriptionRegistry
 
     protected SubscriptionIterator iterator = new SubscriptionIterator();
 
-    protected final Long2ObjectHashMap<TopicSubscriptionPushProcessor> subscriptionProcessorsByKey = new Long2ObjectHashMap<>();
-    protected final Map<DirectBuffer, TopicSubscriptionPushProcessor> subscriptionProcessorsByName = new HashMap<>();
+    protected final Long2ObjectHashMap<TopicSubscriptionPush> subscriptionProcessorsByKey = new Long2ObjectHashMap<>();
+    protected final Map<DirectBuffer, TopicSubscriptionPush> subscriptionProcessorsByName = new HashMap<>();
 
-    public void addSubscription(TopicSubscriptionPushProcessor processor)
+    public void addSubscription(TopicSubscriptionPush processor)
     {
         subscriptionProcessorsByKey.put(processor.getSubscriptionId(), processor);
         subscriptionProcessorsByName.put(processor.getName(), processor);
     }
 
-    public TopicSubscriptionPushProcessor getProcessorByName(DirectBuffer name)
+    public TopicSubscriptionPush getProcessorByName(DirectBuffer name)
     {
         return subscriptionProcessorsByName.get(name);
     }
 
-    public TopicSubscriptionPushProcessor removeProcessorByKey(long key)
+    public TopicSubscriptionPush removeProcessorByKey(long key)
     {
-        final TopicSubscriptionPushProcessor processor = subscriptionProcessorsByKey.remove(key);
+        final TopicSubscriptionPush processor = subscriptionProcessorsByKey.remove(key);
         if (processor != null)
         {
             subscriptionProcessorsByName.remove(processor.getName());
@@ -57,16 +57,16 @@ public class SubscriptionRegistry
     /**
      * This is not supposed to be used concurrently
      */
-    public Iterator<TopicSubscriptionPushProcessor> iterateSubscriptions()
+    public Iterator<TopicSubscriptionPush> iterateSubscriptions()
     {
         iterator.reset();
         return iterator;
     }
 
-    protected class SubscriptionIterator implements Iterator<TopicSubscriptionPushProcessor>
+    protected class SubscriptionIterator implements Iterator<TopicSubscriptionPush>
     {
-        protected Iterator<TopicSubscriptionPushProcessor> innerIterator;
-        protected TopicSubscriptionPushProcessor currentValue = null;
+        protected Iterator<TopicSubscriptionPush> innerIterator;
+        protected TopicSubscriptionPush currentValue = null;
 
         protected void reset()
         {
@@ -80,7 +80,7 @@ public class SubscriptionRegistry
         }
 
         @Override
-        public TopicSubscriptionPushProcessor next()
+        public TopicSubscriptionPush next()
         {
             currentValue = innerIterator.next();
             return currentValue;
@@ -62,6 +62,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     protected final Supplier<SubscribedEventWriter> eventWriterFactory;
     protected final StreamProcessorServiceFactory streamProcessorServiceFactory;
     protected final ServiceContainer serviceContext;
+    protected final TopicSubscriptionPushMultiplexer pushMultiplexer;
     protected final Bytes2LongZbMap ackMap;
 
     private ActorControl actor;
@@ -82,7 +83,8 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             ErrorResponseWriter errorWriter,
             Supplier<SubscribedEventWriter> eventWriterFactory,
             StreamProcessorServiceFactory streamProcessorServiceFactory,
-            ServiceContainer serviceContainer)
+            ServiceContainer serviceContainer,
+            TopicSubscriptionPushMultiplexer pushMultiplexer)
     {
         this.partition = partition;
         this.partitionServiceName = partitionServiceName;
@@ -93,6 +95,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         this.snapshotResource = new ZbMapSnapshotSupport<>(ackMap);
         this.serviceContext = serviceContainer;
         this.streamProcessorServiceFactory = streamProcessorServiceFactory;
+        this.pushMultiplexer = pushMultiplexer;
     }
 
     public Supplier<SubscribedEventWriter> getEventWriterFactory()
@@ -195,7 +198,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
         actor.call(() ->
         {
-            final TopicSubscriptionPushProcessor processor = subscriptionRegistry.removeProcessorByKey(subscriberKey);
+            final TopicSubscriptionPush processor = subscriptionRegistry.removeProcessorByKey(subscriberKey);
 
             if (processor != null)
             {
@@ -220,10 +223,17 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         return future;
     }
 
-    protected ActorFuture<Void> closePushProcessor(TopicSubscriptionPushProcessor processor)
+    protected ActorFuture<Void> closePushProcessor(TopicSubscriptionPush processor)
     {
-        final ServiceName<StreamProcessorService> pushProcessorServiceName = LogStreamServiceNames.streamProcessorService(logStream.getLogName(), pushProcessorName(processor));
-        return serviceContext.removeService(pushProcessorServiceName);
+        if (processor instanceof MultiplexedTopicSubscription)
+        {
+            return pushMultiplexer.removeAsync((MultiplexedTopicSubscription) processor);
+        }
+        else
+        {
+            final ServiceName<StreamProcessorService> pushProcessorServiceName = LogStreamServiceNames.streamProcessorService(logStream.getLogName(), pushProcessorName(processor));
+            return serviceContext.removeService(pushProcessorServiceName);
+        }
     }
 
     public long determineResumePosition(DirectBuffer subscriptionName, long startPosition, boolean forceStart)
@@ -247,6 +257,60 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         }
     }
 
+    /**
+     * Opens the push of the events to a new subscriber. The subscription is served by the push multiplexer
+     * if it starts at the head of the log, otherwise a dedicated push processor is opened.
+     */
+    public ActorFuture<TopicSubscriptionPush> openSubscriptionAsync(
+            int clientStreamId,
+            long subscriberKey,
+            long resumePosition,
+            DirectBuffer subscriptionName,
+            int prefetchCapacity)
+    {
+        final CompletableActorFuture<TopicSubscriptionPush> future = new CompletableActorFuture<>();
+
+        final MultiplexedTopicSubscription subscription = new MultiplexedTopicSubscription(
+            clientStreamId,
+            subscriberKey,
+            subscriptionName,
+            prefetchCapacity,
+            eventWriterFactory.get(),
+            pushMultiplexer);
+
+        actor.runOnCompletion(pushMultiplexer.attachAsync(subscription, resumePosition), (attached, attachFailure) ->
+        {
+            if (attachFailure == null && attached)
+            {
+                future.complete(subscription);
+            }
+            else
+            {
+                final TopicSubscriptionPushProcessor processor = new TopicSubscriptionPushProcessor(
+                    clientStreamId,
+                    subscriberKey,
+                    resumePosition,
+                    subscription.getName(),
+                    prefetchCapacity,
+                    eventWriterFactory.get());
+
+                actor.runOnCompletion(openPushProcessorAsync(processor), (service, openFailure) ->
+                {
+                    if (openFailure == null)
+                    {
+                        future.complete(processor);
+                    }
+                    else
+                    {
+                        future.completeExceptionally(openFailure);
+                    }
+                });
+            }
+        });
+
+        return future;
+    }
+
     public ActorFuture<StreamProcessorService> openPushProcessorAsync(final TopicSubscriptionPushProcessor processor)
     {
         return streamProcessorServiceFactory.createService(partition, partitionServiceName)
@@ -268,7 +332,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             .tryWriteResponse(metadata.getRequestStreamId(), metadata.getRequestId());
     }
 
-    public void registerPushProcessor(TopicSubscriptionPushProcessor processor)
+    public void registerPushProcessor(TopicSubscriptionPush processor)
     {
         subscriptionRegistry.addSubscription(processor);
     }
@@ -277,11 +341,11 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
     {
         actor.call(() ->
         {
-            final Iterator<TopicSubscriptionPushProcessor> subscriptionsIt = subscriptionRegistry.iterateSubscriptions();
+            final Iterator<TopicSubscriptionPush> subscriptionsIt = subscriptionRegistry.iterateSubscriptions();
 
             while (subscriptionsIt.hasNext())
             {
-                final TopicSubscriptionPushProcessor processor = subscriptionsIt.next();
+                final TopicSubscriptionPush processor = subscriptionsIt.next();
                 if (processor.getChannelId() == channelId)
                 {
                     subscriptionsIt.remove();
@@ -319,7 +383,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         @Override
         public boolean executeSideEffects()
         {
-            final TopicSubscriptionPushProcessor subscriptionProcessor = subscriptionRegistry.getProcessorByName(subscriptionEvent.getName());
+            final TopicSubscriptionPush subscriptionProcessor = subscriptionRegistry.getProcessorByName(subscriptionEvent.getName());
 
             if (subscriptionProcessor != null)
             {
@@ -369,7 +433,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
             if (responseWritten)
             {
                 Loggers.SERVICES_LOGGER.debug("Topic push processor for partition {} successfully opened. Send response for request {}", logStreamPartitionId, metadata.getRequestId());
-                final TopicSubscriptionPushProcessor pushProcessor = subscriptionRegistry.getProcessorByName(subscriberEvent.getName());
+                final TopicSubscriptionPush pushProcessor = subscriptionRegistry.getProcessorByName(subscriberEvent.getName());
                 pushProcessor.enable();
             }
 
@@ -398,7 +462,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
         }
     }
 
-    private static String pushProcessorName(final TopicSubscriptionPushProcessor processor)
+    private static String pushProcessorName(final TopicSubscriptionPush processor)
     {
         return String.format("topic-push.%s", processor.getNameAsString());
     }
@@ -0,0 +1,45 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * A subscriber to which the events of a topic are pushed; either by a dedicated
+ * {@link TopicSubscriptionPushProcessor} or by the partition's {@link TopicSubscriptionPushMultiplexer}.
+ * All methods are called by the management processor.
+ */
+public interface TopicSubscriptionPush
+{
+    long getSubscriptionId();
+
+    DirectBuffer getName();
+
+    String getNameAsString();
+
+    int getChannelId();
+
+    /**
+     * @return the position at which the push started. This may be different than the requested position
+     */
+    long getStartPosition();
+
+    void onAck(long eventPosition);
+
+    void enable();
+}
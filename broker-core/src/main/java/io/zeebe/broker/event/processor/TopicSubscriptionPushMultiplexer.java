@@ -0,0 +1,342 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.broker.logstreams.processor.NoopSnapshotSupport;
+import io.zeebe.logstreams.log.BufferedLogStreamReader;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.protocol.clientapi.SubscriptionType;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.future.ActorFuture;
+
+/**
+ * Pushes the events of a partition to all topic subscriptions which follow the
+ * head of the log, so that each event is read and decoded once instead of once
+ * per subscription.
+ *
+ * <p>
+ * The multiplexer can only serve subscriptions which start after its current
+ * position. A subscription which is not ready for the next event (i.e. it is not
+ * enabled yet or its prefetch capacity is exhausted) does not hold back the
+ * others: it is skipped and lags behind. When it is ready again, the skipped
+ * events are read by a separate reader and pushed until the subscription has
+ * caught up with the multiplexer.
+ */
+public class TopicSubscriptionPushMultiplexer implements StreamProcessor, EventProcessor
+{
+    protected static final int MAX_CATCH_UP_EVENTS_PER_STEP = 100;
+
+    protected final BrokerEventMetadata metadata = new BrokerEventMetadata();
+    protected final BrokerEventMetadata catchUpMetadata = new BrokerEventMetadata();
+    protected final MetadataFilter eventFilter = TopicSubscriptionPushProcessor.eventFilter();
+    protected final SnapshotSupport snapshotSupport = new NoopSnapshotSupport();
+
+    protected final List<MultiplexedTopicSubscription> subscriptions = new ArrayList<>();
+
+    protected ActorControl actor;
+    protected int logStreamPartitionId;
+    protected LogStreamReader catchUpReader;
+    protected boolean isCatchUpScheduled;
+
+    protected LoggedEvent event;
+    protected long lastPosition = -1L;
+
+    @Override
+    public void onOpen(StreamProcessorContext context)
+    {
+        this.actor = context.getActorControl();
+        this.logStreamPartitionId = context.getLogStream().getPartitionId();
+        this.catchUpReader = new BufferedLogStreamReader(context.getLogStream());
+
+        final LogStreamReader logReader = context.getLogStreamReader();
+        logReader.seekToLastEvent();
+
+        if (logReader.hasNext())
+        {
+            logReader.next();
+        }
+
+        lastPosition = logReader.getPosition();
+    }
+
+    @Override
+    public void onClose()
+    {
+        subscriptions.clear();
+        catchUpReader.close();
+    }
+
+    @Override
+    public SnapshotSupport getStateResource()
+    {
+        return snapshotSupport;
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event)
+    {
+        this.event = event;
+        this.lastPosition = event.getPosition();
+
+        if (subscriptions.isEmpty())
+        {
+            return null;
+        }
+        else
+        {
+            metadata.reset();
+            event.readMetadata(metadata);
+
+            return this;
+        }
+    }
+
+    @Override
+    public void processEvent()
+    {
+    }
+
+    @Override
+    public boolean executeSideEffects()
+    {
+        final long position = event.getPosition();
+
+        boolean pushedToAll = true;
+
+        for (int i = 0; i < subscriptions.size(); i++)
+        {
+            final MultiplexedTopicSubscription subscription = subscriptions.get(i);
+
+            if (!subscription.isInterestedIn(position))
+            {
+                continue;
+            }
+
+            if (subscription.isLagging)
+            {
+                // includes the current event if the subscription catches up
+                catchUp(subscription, position);
+            }
+            else if (!subscription.isReady())
+            {
+                // skip the subscription instead of holding the others back
+                subscription.isLagging = true;
+            }
+            else if (push(subscription, event, metadata))
+            {
+                subscription.skipUntilPosition = position;
+            }
+            else
+            {
+                pushedToAll = false;
+            }
+        }
+
+        return pushedToAll;
+    }
+
+    protected boolean push(MultiplexedTopicSubscription subscription, LoggedEvent event, BrokerEventMetadata metadata)
+    {
+        final boolean success = subscription.channelWriter
+            .partitionId(logStreamPartitionId)
+            .eventType(metadata.getEventType())
+            .key(event.getKey())
+            .position(event.getPosition())
+            .subscriberKey(subscription.subscriberKey)
+            .subscriptionType(SubscriptionType.TOPIC_SUBSCRIPTION)
+            .event(event.getValueBuffer(), event.getValueOffset(), event.getValueLength())
+            .tryWriteMessage(subscription.clientStreamId);
+
+        if (success && subscription.pendingEvents != null)
+        {
+            final boolean elementAdded = subscription.pendingEvents.addElementToHead(event.getPosition());
+            if (!elementAdded)
+            {
+                throw new RuntimeException("Cannot record pending event " + elementAdded);
+            }
+        }
+
+        return success;
+    }
+
+    /**
+     * Pushes the events which the subscription skipped, up to the given
+     * position, as long as the subscription is ready.
+     */
+    protected void catchUp(MultiplexedTopicSubscription subscription, long untilPosition)
+    {
+        if (!subscription.isReady())
+        {
+            return;
+        }
+
+        if (subscription.skipUntilPosition < 0)
+        {
+            catchUpReader.seekToFirstEvent();
+        }
+        else
+        {
+            catchUpReader.seek(subscription.skipUntilPosition);
+        }
+
+        int pushedEvents = 0;
+
+        while (catchUpReader.hasNext() && subscription.isReady())
+        {
+            if (pushedEvents >= MAX_CATCH_UP_EVENTS_PER_STEP)
+            {
+                scheduleCatchUp();
+                return;
+            }
+
+            final LoggedEvent skippedEvent = catchUpReader.next();
+            final long position = skippedEvent.getPosition();
+
+            if (position > untilPosition)
+            {
+                break;
+            }
+            else if (position <= subscription.skipUntilPosition)
+            {
+                continue;
+            }
+
+            catchUpMetadata.reset();
+            skippedEvent.readMetadata(catchUpMetadata);
+
+            if (eventFilter.applies(catchUpMetadata))
+            {
+                if (!push(subscription, skippedEvent, catchUpMetadata))
+                {
+                    scheduleCatchUp();
+                    return;
+                }
+
+                pushedEvents += 1;
+            }
+
+            subscription.skipUntilPosition = position;
+        }
+
+        if (subscription.skipUntilPosition >= untilPosition)
+        {
+            subscription.isLagging = false;
+        }
+    }
+
+    protected void scheduleCatchUp()
+    {
+        if (!isCatchUpScheduled)
+        {
+            isCatchUpScheduled = true;
+            actor.submit(this::catchUpLaggingSubscriptions);
+        }
+    }
+
+    protected void catchUpLaggingSubscriptions()
+    {
+        isCatchUpScheduled = false;
+
+        for (int i = 0; i < subscriptions.size(); i++)
+        {
+            final MultiplexedTopicSubscription subscription = subscriptions.get(i);
+
+            if (subscription.isLagging)
+            {
+                catchUp(subscription, lastPosition);
+            }
+        }
+    }
+
+    /**
+     * Attaches the subscription if it starts after the current position of the
+     * multiplexer. A negative resume position starts the subscription at the current position.
+     *
+     * @return a future which is completed with true if the subscription is attached
+     */
+    public ActorFuture<Boolean> attachAsync(MultiplexedTopicSubscription subscription, long resumePosition)
+    {
+        return actor.call(() ->
+        {
+            if (resumePosition < 0)
+            {
+                subscription.startPosition = lastPosition;
+                subscription.skipUntilPosition = lastPosition;
+            }
+            else if (resumePosition > lastPosition)
+            {
+                subscription.startPosition = resumePosition;
+                subscription.skipUntilPosition = resumePosition - 1;
+            }
+            else
+            {
+                return false;
+            }
+
+            subscriptions.add(subscription);
+            return true;
+        });
+    }
+
+    public ActorFuture<Void> removeAsync(MultiplexedTopicSubscription subscription)
+    {
+        return actor.call(() ->
+        {
+            subscriptions.remove(subscription);
+        });
+    }
+
+    public void enable(MultiplexedTopicSubscription subscription)
+    {
+        actor.call(() ->
+        {
+            subscription.enabled = true;
+
+            if (subscription.isLagging)
+            {
+                scheduleCatchUp();
+            }
+        });
+    }
+
+    public void onAck(MultiplexedTopicSubscription subscription, long eventPosition)
+    {
+        actor.call(() ->
+        {
+            if (subscription.pendingEvents != null)
+            {
+                subscription.pendingEvents.consumeAscendingUntilInclusive(eventPosition);
+            }
+
+            if (subscription.isLagging)
+            {
+                scheduleCatchUp();
+            }
+        });
+    }
+}
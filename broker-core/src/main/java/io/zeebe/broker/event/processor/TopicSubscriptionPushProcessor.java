@@ -35,7 +35,7 @@ import org.agrona.DirectBuffer;
 
 import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
 
-public class TopicSubscriptionPushProcessor implements StreamProcessor, EventProcessor
+public class TopicSubscriptionPushProcessor implements StreamProcessor, EventProcessor, TopicSubscriptionPush
 {
 
     protected final BrokerEventMetadata metadata = new BrokerEventMetadata();
@@ -92,6 +92,7 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     /**
      * @return the position at which this processor actually started. This may be different than the constructor argument
      */
+    @Override
     public long getStartPosition()
     {
         return startPosition;
@@ -166,16 +167,19 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         return success;
     }
 
+    @Override
     public int getChannelId()
     {
         return clientStreamId;
     }
 
+    @Override
     public String getNameAsString()
     {
         return nameString;
     }
 
+    @Override
     public void onAck(long eventPosition)
     {
         context.getActorControl().call(() ->
@@ -214,16 +218,19 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         };
     }
 
+    @Override
     public DirectBuffer getName()
     {
         return name;
     }
 
+    @Override
     public long getSubscriptionId()
     {
         return subscriberKey;
     }
 
+    @Override
     public void enable()
     {
         context.getActorControl().call(() ->
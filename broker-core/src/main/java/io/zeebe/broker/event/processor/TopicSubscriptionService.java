@@ -100,31 +100,51 @@ public class TopicSubscriptionService extends Actor implements Service<TopicSubs
     {
         actor.call(() ->
         {
+            final TopicSubscriptionPushMultiplexer pushMultiplexer = new TopicSubscriptionPushMultiplexer();
+
             final TopicSubscriptionManagementProcessor ackProcessor = new TopicSubscriptionManagementProcessor(partition,
                 partitionServiceName,
                 new CommandResponseWriter(serverOutput),
                 new ErrorResponseWriter(serverOutput),
                 () -> new SubscribedEventWriter(serverOutput),
                 streamProcessorServiceFactory,
-                serviceContainer);
-
-            final ActorFuture<StreamProcessorService> openFuture = streamProcessorServiceFactory.createService(partition, partitionServiceName)
-                .processor(ackProcessor)
-                .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_MANAGEMENT_PROCESSOR_ID)
-                .processorName("topic-management")
-                .eventFilter(TopicSubscriptionManagementProcessor.filter())
+                serviceContainer,
+                pushMultiplexer);
+
+            final ActorFuture<StreamProcessorService> multiplexerOpenFuture = streamProcessorServiceFactory.createService(partition, partitionServiceName)
+                .processor(pushMultiplexer)
+                .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_PUSH_PROCESSOR_ID)
+                .processorName("topic-push")
+                .eventFilter(TopicSubscriptionPushProcessor.eventFilter())
+                .readOnly(true)
                 .build();
 
-            actor.runOnCompletion(openFuture, (aVoid, throwable) ->
+            actor.runOnCompletion(multiplexerOpenFuture, (multiplexerService, multiplexerThrowable) ->
             {
-                if (throwable == null)
+                if (multiplexerThrowable != null)
                 {
-                    managersByPartition.put(partition.getInfo().getPartitionId(), ackProcessor);
+                    LOG.error("Failed to create topic subscription push multiplexer service for log stream service '{}'", partitionServiceName);
+                    return;
                 }
-                else
+
+                final ActorFuture<StreamProcessorService> openFuture = streamProcessorServiceFactory.createService(partition, partitionServiceName)
+                    .processor(ackProcessor)
+                    .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_MANAGEMENT_PROCESSOR_ID)
+                    .processorName("topic-management")
+                    .eventFilter(TopicSubscriptionManagementProcessor.filter())
+                    .build();
+
+                actor.runOnCompletion(openFuture, (aVoid, throwable) ->
                 {
-                    LOG.error("Failed to create topic subscription stream processor service for log stream service '{}'", partitionServiceName);
-                }
+                    if (throwable == null)
+                    {
+                        managersByPartition.put(partition.getInfo().getPartitionId(), ackProcessor);
+                    }
+                    else
+                    {
+                        LOG.error("Failed to create topic subscription stream processor service for log stream service '{}'", partitionServiceName);
+                    }
+                });
             });
         });
     }
@@ -0,0 +1,100 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import org.slf4j.Logger;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.logstreams.log.LogStreamWriter;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.processor.EventProcessor;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.transport.ServerOutput;
+
+/**
+ * Handles a command whose value can not be read. If the client api only
+ * validates the structure of a command, then invalid values are detected first
+ * by the stream processor. Such a command is skipped and the client gets an
+ * error response, instead of failing the stream processor. Only the stream
+ * processor which owns the command type responds, see
+ * {@link TypedEventStreamProcessorBuilder#ownsCommands(io.zeebe.protocol.clientapi.EventType)}.
+ */
+public class InvalidCommandProcessor implements EventProcessor
+{
+    private static final Logger LOG = Loggers.STREAM_PROCESSING;
+
+    private final ErrorResponseWriter errorResponseWriter;
+
+    private long position;
+    private boolean hasRequest;
+    private int requestStreamId;
+    private long requestId;
+    private String errorMessage;
+
+    public InvalidCommandProcessor(ServerOutput output)
+    {
+        this.errorResponseWriter = new ErrorResponseWriter(output);
+    }
+
+    public InvalidCommandProcessor wrap(LoggedEvent event, BrokerEventMetadata metadata, Throwable failure)
+    {
+        this.position = event.getPosition();
+        this.hasRequest = metadata.hasRequestMetadata();
+        this.requestStreamId = metadata.getRequestStreamId();
+        this.requestId = metadata.getRequestId();
+        this.errorMessage = failure.getMessage();
+
+        return this;
+    }
+
+    @Override
+    public void processEvent()
+    {
+        LOG.warn("Skip event at position {}. Cannot read value: {}", position, errorMessage);
+    }
+
+    @Override
+    public boolean executeSideEffects()
+    {
+        if (hasRequest)
+        {
+            return errorResponseWriter
+                .errorCode(ErrorCode.INVALID_MESSAGE)
+                .errorMessage("Cannot deserialize command: '%s'.", errorMessage)
+                .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+        }
+        else
+        {
+            return true;
+        }
+    }
+
+    @Override
+    public long writeEvent(LogStreamWriter writer)
+    {
+        return 0;
+    }
+
+    @Override
+    public void updateState()
+    {
+        // no state change
+    }
+}
@@ -19,6 +19,7 @@ package io.zeebe.broker.logstreams.processor;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 
 import io.zeebe.logstreams.snapshot.BaseValueSnapshotSupport;
@@ -38,6 +39,7 @@ public class TypedEventStreamProcessorBuilder
     protected List<ComposableSnapshotSupport> stateResources = new ArrayList<>();
 
     protected EnumMap<EventType, EnumMap> eventProcessors = new EnumMap<>(EventType.class);
+    protected EnumSet<EventType> ownedCommandTypes = EnumSet.noneOf(EventType.class);
     protected List<StreamProcessorLifecycleAware> lifecycleListeners = new ArrayList<>();
 
     public TypedEventStreamProcessorBuilder(TypedStreamEnvironment environment)
@@ -59,6 +61,17 @@ public class TypedEventStreamProcessorBuilder
         return this;
     }
 
+    /**
+     * The stream processor responds to commands of the given type whose value
+     * can not be read. Other stream processors skip such commands silently, so
+     * that the client gets only one response.
+     */
+    public TypedEventStreamProcessorBuilder ownsCommands(EventType eventType)
+    {
+        ownedCommandTypes.add(eventType);
+        return this;
+    }
+
     public TypedEventStreamProcessorBuilder withListener(StreamProcessorLifecycleAware listener)
     {
         this.lifecycleListeners.add(listener);
@@ -103,6 +116,7 @@ public class TypedEventStreamProcessorBuilder
                 snapshotSupport,
                 environment.getOutput(),
                 eventProcessors,
+                ownedCommandTypes,
                 lifecycleListeners,
                 environment.getEventRegistry());
     }
@@ -43,6 +43,7 @@ public class TypedStreamProcessor implements StreamProcessor
     protected final SnapshotSupport snapshotSupport;
     protected final ServerOutput output;
     protected final EnumMap<EventType, EnumMap> eventProcessors;
+    protected final EnumSet<EventType> ownedCommandTypes;
     protected final List<StreamProcessorLifecycleAware> lifecycleListeners = new ArrayList<>();
 
     protected final BrokerEventMetadata metadata = new BrokerEventMetadata();
@@ -51,6 +52,7 @@ public class TypedStreamProcessor implements StreamProcessor
 
     protected final TypedEventImpl typedEvent = new TypedEventImpl();
     protected DelegatingEventProcessor eventProcessorWrapper;
+    protected InvalidCommandProcessor invalidCommandProcessor;
     protected ActorControl actor;
     private StreamProcessorContext streamProcessorContext;
 
@@ -58,12 +60,14 @@ public class TypedStreamProcessor implements StreamProcessor
             SnapshotSupport snapshotSupport,
             ServerOutput output,
             EnumMap<EventType, EnumMap> eventProcessors,
+            EnumSet<EventType> ownedCommandTypes,
             List<StreamProcessorLifecycleAware> lifecycleListeners,
             EnumMap<EventType, Class<? extends UnpackedObject>> eventRegistry)
     {
         this.snapshotSupport = snapshotSupport;
         this.output = output;
         this.eventProcessors = eventProcessors;
+        this.ownedCommandTypes = ownedCommandTypes;
         eventProcessors.values().forEach(p -> this.lifecycleListeners.addAll(p.values()));
         this.lifecycleListeners.addAll(lifecycleListeners);
 
@@ -81,6 +85,7 @@ public class TypedStreamProcessor implements StreamProcessor
                 output,
                 context.getLogStream(),
                 eventRegistry);
+        this.invalidCommandProcessor = new InvalidCommandProcessor(output);
 
         this.actor = context.getActorControl();
         this.streamProcessorContext = context;
@@ -113,7 +118,23 @@ public class TypedStreamProcessor implements StreamProcessor
 
         final UnpackedObject value = eventCache.get(metadata.getEventType());
         value.reset();
-        event.readValue(value);
+
+        try
+        {
+            event.readValue(value);
+        }
+        catch (Exception e)
+        {
+            if (ownedCommandTypes.contains(metadata.getEventType()))
+            {
+                return invalidCommandProcessor.wrap(event, metadata, e);
+            }
+            else
+            {
+                // the stream processor which owns the command responds to it
+                return null;
+            }
+        }
 
         final Enum state = getEventState(value);
         final TypedEventProcessor currentProcessor = (TypedEventProcessor) processorsForType.get(state);
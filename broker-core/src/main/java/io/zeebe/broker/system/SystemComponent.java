@@ -19,6 +19,7 @@ package io.zeebe.broker.system;
 
 import static io.zeebe.broker.transport.TransportServiceNames.*;
 import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.LEADER_PARTITION_SYSTEM_GROUP_NAME;
+import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.TOPOLOGY_MANAGER_SERVICE;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.STREAM_PROCESSOR_SERVICE_FACTORY;
 import static io.zeebe.broker.system.SystemServiceNames.*;
 
@@ -50,6 +51,8 @@ public class SystemComponent implements Component
             .dependency(STREAM_PROCESSOR_SERVICE_FACTORY, deploymentManagerService.getStreamProcessorServiceFactoryInjector())
             .dependency(serverTransport(CLIENT_API_SERVER_NAME), deploymentManagerService.getClientApiTransportInjector())
             .dependency(TransportServiceNames.CONTROL_MESSAGE_HANDLER_MANAGER, deploymentManagerService.getControlMessageHandlerManagerServiceInjector())
+            .dependency(clientTransport(MANAGEMENT_API_CLIENT_NAME), deploymentManagerService.getManagementApiClientInjector())
+            .dependency(TOPOLOGY_MANAGER_SERVICE, deploymentManagerService.getTopologyManagerInjector())
             .groupReference(LEADER_PARTITION_SYSTEM_GROUP_NAME, deploymentManagerService.getPartitionsGroupReference())
             .install();
     }
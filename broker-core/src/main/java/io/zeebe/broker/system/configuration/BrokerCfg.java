@@ -29,6 +29,7 @@ public class BrokerCfg
     private ThreadsCfg threads = new ThreadsCfg();
     private MetricsCfg metrics = new MetricsCfg();
     private DataCfg data = new DataCfg();
+    private WorkflowCfg workflow = new WorkflowCfg();
     private GossipConfiguration gossip = new GossipConfiguration();
     private RaftConfiguration raft = new RaftConfiguration();
 
@@ -39,6 +40,7 @@ public class BrokerCfg
         threads.init(this, brokerBase);
         metrics.init(this, brokerBase);
         data.init(this, brokerBase);
+        workflow.init(this, brokerBase);
     }
 
     public int getBootstrap()
@@ -91,6 +93,14 @@ public class BrokerCfg
     {
         this.data = logs;
     }
+    public WorkflowCfg getWorkflow()
+    {
+        return workflow;
+    }
+    public void setWorkflow(WorkflowCfg workflow)
+    {
+        this.workflow = workflow;
+    }
     public GossipConfiguration getGossip()
     {
         return gossip;
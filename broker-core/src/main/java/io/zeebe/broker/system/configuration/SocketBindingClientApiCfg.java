@@ -20,6 +20,9 @@ package io.zeebe.broker.system.configuration;
 public class SocketBindingClientApiCfg extends SocketBindingCfg
 {
     private String controlMessageBufferSize = "8M";
+    private boolean fullCommandValidation = true;
+    private int commandShardCount = 0;
+    private String commandBufferSize = "4M";
 
     public SocketBindingClientApiCfg()
     {
@@ -35,4 +38,34 @@ public class SocketBindingClientApiCfg extends SocketBindingCfg
     {
         this.controlMessageBufferSize = controlMessageBufferSize;
     }
+
+    public int getCommandShardCount()
+    {
+        return commandShardCount;
+    }
+
+    public void setCommandShardCount(int commandShardCount)
+    {
+        this.commandShardCount = commandShardCount;
+    }
+
+    public String getCommandBufferSize()
+    {
+        return commandBufferSize;
+    }
+
+    public void setCommandBufferSize(String commandBufferSize)
+    {
+        this.commandBufferSize = commandBufferSize;
+    }
+
+    public boolean isFullCommandValidation()
+    {
+        return fullCommandValidation;
+    }
+
+    public void setFullCommandValidation(boolean fullCommandValidation)
+    {
+        this.fullCommandValidation = fullCommandValidation;
+    }
 }
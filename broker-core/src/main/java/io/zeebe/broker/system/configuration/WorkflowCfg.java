@@ -0,0 +1,80 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.configuration;
+
+import io.zeebe.broker.workflow.map.PayloadCache;
+import io.zeebe.util.ByteValue;
+
+public class WorkflowCfg implements ConfigurationEntry
+{
+    private String payloadCacheSize = "16M";
+    private int workflowCacheCapacity = 1024;
+    private boolean stepFusion = false;
+
+    @Override
+    public void init(BrokerCfg globalConfig, String brokerBase)
+    {
+        final long minPayloadCacheSize = PayloadCache.getMinCapacity(PayloadCache.MAX_PAYLOAD_LENGTH);
+        if (getPayloadCacheSizeInBytes() < minPayloadCacheSize)
+        {
+            throw new IllegalArgumentException(String.format("Expected payload cache size to be at least %d bytes but was %s",
+                minPayloadCacheSize, payloadCacheSize));
+        }
+
+        if (workflowCacheCapacity <= 0)
+        {
+            throw new IllegalArgumentException(String.format("Expected workflow cache capacity to be greater than 0 but was %d",
+                workflowCacheCapacity));
+        }
+    }
+
+    public long getPayloadCacheSizeInBytes()
+    {
+        return new ByteValue(payloadCacheSize).toBytes();
+    }
+
+    public String getPayloadCacheSize()
+    {
+        return payloadCacheSize;
+    }
+
+    public void setPayloadCacheSize(String payloadCacheSize)
+    {
+        this.payloadCacheSize = payloadCacheSize;
+    }
+
+    public int getWorkflowCacheCapacity()
+    {
+        return workflowCacheCapacity;
+    }
+
+    public void setWorkflowCacheCapacity(int workflowCacheCapacity)
+    {
+        this.workflowCacheCapacity = workflowCacheCapacity;
+    }
+
+    public boolean isStepFusion()
+    {
+        return stepFusion;
+    }
+
+    public void setStepFusion(boolean stepFusion)
+    {
+        this.stepFusion = stepFusion;
+    }
+}
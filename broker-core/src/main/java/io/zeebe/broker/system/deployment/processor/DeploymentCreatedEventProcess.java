@@ -22,6 +22,7 @@ import java.util.Iterator;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.broker.system.deployment.data.DeploymentPositionByWorkflowKey;
 import io.zeebe.broker.system.deployment.data.WorkflowKeyByProcessIdAndVersion;
+import io.zeebe.broker.system.deployment.service.WorkflowDeployedNotifier;
 import io.zeebe.broker.workflow.data.DeployedWorkflow;
 import io.zeebe.broker.workflow.data.DeploymentEvent;
 import io.zeebe.msgpack.value.ValueArray;
@@ -30,18 +31,22 @@ public class DeploymentCreatedEventProcess implements TypedEventProcessor<Deploy
 {
     private final DeploymentPositionByWorkflowKey deploymentPositionByWorkflowKey;
     private final WorkflowKeyByProcessIdAndVersion workflowKeyByProcessIdAndVersion;
+    private final WorkflowDeployedNotifier workflowDeployedNotifier;
 
     public DeploymentCreatedEventProcess(DeploymentPositionByWorkflowKey deploymentPositionByWorkflowKey,
-        WorkflowKeyByProcessIdAndVersion workflowKeyByProcessIdAndVersion)
+        WorkflowKeyByProcessIdAndVersion workflowKeyByProcessIdAndVersion,
+        WorkflowDeployedNotifier workflowDeployedNotifier)
     {
         this.deploymentPositionByWorkflowKey = deploymentPositionByWorkflowKey;
         this.workflowKeyByProcessIdAndVersion = workflowKeyByProcessIdAndVersion;
+        this.workflowDeployedNotifier = workflowDeployedNotifier;
     }
 
     @Override
     public boolean executeSideEffects(TypedEvent<DeploymentEvent> event, TypedResponseWriter responseWriter)
     {
-        return responseWriter.write(event);
+        // respond when the partitions know the new versions, so that new instances are created with them
+        return workflowDeployedNotifier.notifyPartitions(event) && responseWriter.write(event);
     }
 
     @Override
@@ -0,0 +1,193 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.request;
+
+import io.zeebe.clustering.management.*;
+import io.zeebe.util.buffer.BufferReader;
+import io.zeebe.util.buffer.BufferWriter;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Sent by the leader of the system partition to the leaders of a topic's
+ * partitions when a new workflow version is deployed on the topic. It is
+ * answered with a {@link WorkflowDeployedResponse} when the partitions took
+ * the new version.
+ */
+public class WorkflowDeployedMessage implements BufferReader, BufferWriter
+{
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final WorkflowDeployedMessageEncoder bodyEncoder = new WorkflowDeployedMessageEncoder();
+
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final WorkflowDeployedMessageDecoder bodyDecoder = new WorkflowDeployedMessageDecoder();
+
+    private long workflowKey = WorkflowDeployedMessageEncoder.workflowKeyNullValue();
+    private int version = WorkflowDeployedMessageEncoder.versionNullValue();
+    private long deploymentKey = WorkflowDeployedMessageEncoder.deploymentKeyNullValue();
+    private final DirectBuffer topicName = new UnsafeBuffer(0, 0);
+    private final DirectBuffer bpmnProcessId = new UnsafeBuffer(0, 0);
+    private final DirectBuffer bpmnXml = new UnsafeBuffer(0, 0);
+
+    @Override
+    public int getLength()
+    {
+        return headerEncoder.encodedLength() +
+            bodyEncoder.sbeBlockLength() +
+            WorkflowDeployedMessageDecoder.topicNameHeaderLength() +
+            topicName.capacity() +
+            WorkflowDeployedMessageDecoder.bpmnProcessIdHeaderLength() +
+            bpmnProcessId.capacity() +
+            WorkflowDeployedMessageDecoder.bpmnXmlHeaderLength() +
+            bpmnXml.capacity();
+    }
+
+    public WorkflowDeployedMessage workflowKey(long workflowKey)
+    {
+        this.workflowKey = workflowKey;
+        return this;
+    }
+
+    public WorkflowDeployedMessage version(int version)
+    {
+        this.version = version;
+        return this;
+    }
+
+    public WorkflowDeployedMessage deploymentKey(long deploymentKey)
+    {
+        this.deploymentKey = deploymentKey;
+        return this;
+    }
+
+    public WorkflowDeployedMessage topicName(DirectBuffer topicName)
+    {
+        this.topicName.wrap(topicName);
+        return this;
+    }
+
+    public WorkflowDeployedMessage bpmnProcessId(DirectBuffer bpmnProcessId)
+    {
+        this.bpmnProcessId.wrap(bpmnProcessId);
+        return this;
+    }
+
+    public WorkflowDeployedMessage bpmnXml(DirectBuffer bpmnXml)
+    {
+        this.bpmnXml.wrap(bpmnXml);
+        return this;
+    }
+
+    @Override
+    public void write(MutableDirectBuffer buffer, int offset)
+    {
+        headerEncoder.wrap(buffer, offset)
+            .blockLength(bodyEncoder.sbeBlockLength())
+            .templateId(bodyEncoder.sbeTemplateId())
+            .schemaId(bodyEncoder.sbeSchemaId())
+            .version(bodyEncoder.sbeSchemaVersion());
+
+        bodyEncoder.wrap(buffer, offset + headerEncoder.encodedLength())
+            .workflowKey(workflowKey)
+            .version(version)
+            .deploymentKey(deploymentKey)
+            .putTopicName(topicName, 0, topicName.capacity())
+            .putBpmnProcessId(bpmnProcessId, 0, bpmnProcessId.capacity())
+            .putBpmnXml(bpmnXml, 0, bpmnXml.capacity());
+    }
+
+    @Override
+    public void wrap(DirectBuffer buffer, int offset, int length)
+    {
+        headerDecoder.wrap(buffer, offset);
+
+        offset += headerDecoder.encodedLength();
+
+        bodyDecoder.wrap(buffer,
+            offset,
+            headerDecoder.blockLength(),
+            headerDecoder.version());
+
+        workflowKey = bodyDecoder.workflowKey();
+        version = bodyDecoder.version();
+        deploymentKey = bodyDecoder.deploymentKey();
+
+        offset += headerDecoder.blockLength();
+
+        // topic name
+
+        final int topicNameLength = bodyDecoder.topicNameLength();
+        offset += WorkflowDeployedMessageDecoder.topicNameHeaderLength();
+
+        topicName.wrap(buffer, offset, topicNameLength);
+
+        offset += topicNameLength;
+        bodyDecoder.limit(offset);
+
+        // bpmn processId
+
+        final int bpmnProcessIdLength = bodyDecoder.bpmnProcessIdLength();
+        offset += WorkflowDeployedMessageDecoder.bpmnProcessIdHeaderLength();
+
+        bpmnProcessId.wrap(buffer, offset, bpmnProcessIdLength);
+
+        offset += bpmnProcessIdLength;
+        bodyDecoder.limit(offset);
+
+        // bpmn xml
+
+        final int bpmnXmlLength = bodyDecoder.bpmnXmlLength();
+        offset += WorkflowDeployedMessageDecoder.bpmnXmlHeaderLength();
+
+        bpmnXml.wrap(buffer, offset, bpmnXmlLength);
+
+        offset += bpmnXmlLength;
+        bodyDecoder.limit(offset);
+    }
+
+    public long getWorkflowKey()
+    {
+        return workflowKey;
+    }
+
+    public int getVersion()
+    {
+        return version;
+    }
+
+    public long getDeploymentKey()
+    {
+        return deploymentKey;
+    }
+
+    public DirectBuffer getTopicName()
+    {
+        return topicName;
+    }
+
+    public DirectBuffer getBpmnProcessId()
+    {
+        return bpmnProcessId;
+    }
+
+    public DirectBuffer getBpmnXml()
+    {
+        return bpmnXml;
+    }
+}
@@ -18,6 +18,7 @@
 package io.zeebe.broker.system.deployment.service;
 
 import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.clustering.orchestration.topic.TopicState;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.broker.system.SystemServiceNames;
@@ -29,6 +30,7 @@ import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.processor.StreamProcessorContext;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.servicecontainer.*;
+import io.zeebe.transport.ClientTransport;
 import io.zeebe.transport.ServerTransport;
 
 public class DeploymentManager implements Service<DeploymentManager>
@@ -41,8 +43,12 @@ public class DeploymentManager implements Service<DeploymentManager>
     private final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
     private final Injector<DeploymentManagerRequestHandler> requestHandlerServiceInjector = new Injector<>();
     private final Injector<ControlMessageHandlerManager> controlMessageHandlerManagerServiceInjector = new Injector<>();
+    private final Injector<ClientTransport> managementApiClientInjector = new Injector<>();
+    private final Injector<TopologyManager> topologyManagerInjector = new Injector<>();
 
     private ServerTransport clientApiTransport;
+    private ClientTransport managementApiClient;
+    private TopologyManager topologyManager;
     private StreamProcessorServiceFactory streamProcessorServiceFactory;
 
     private DeploymentManagerRequestHandler requestHandlerService;
@@ -58,6 +64,8 @@ public class DeploymentManager implements Service<DeploymentManager>
         this.clientApiTransport = clientApiTransportInjector.getValue();
         this.streamProcessorServiceFactory = streamProcessorServiceFactoryInjector.getValue();
         this.requestHandlerService = requestHandlerServiceInjector.getValue();
+        this.managementApiClient = managementApiClientInjector.getValue();
+        this.topologyManager = topologyManagerInjector.getValue();
 
         controlMessageHandler = new RequestWorkflowControlMessageHandler(clientApiTransport.getOutput());
 
@@ -73,17 +81,20 @@ public class DeploymentManager implements Service<DeploymentManager>
         final LatestVersionByProcessIdAndTopicName latestVersionByProcessIdAndTopicName = new LatestVersionByProcessIdAndTopicName();
         final TopicNames topicNames = new TopicNames();
         final WorkflowKeyByProcessIdAndVersion workflowKeyByProcessIdAndVersion = new WorkflowKeyByProcessIdAndVersion();
+        final WorkflowDeployedNotifier workflowDeployedNotifier = new WorkflowDeployedNotifier(managementApiClient, topologyManager);
 
         final TypedStreamProcessor streamProcessor = streamEnvironment.newStreamProcessor()
             .onEvent(EventType.DEPLOYMENT_EVENT, DeploymentState.CREATE, new DeploymentCreateEventProcessor(latestVersionByProcessIdAndTopicName, lastWorkflowKey, topicNames))
-            .onEvent(EventType.DEPLOYMENT_EVENT, DeploymentState.CREATED, new DeploymentCreatedEventProcess(deploymentPositionByWorkflowKey, workflowKeyByProcessIdAndVersion))
+            .onEvent(EventType.DEPLOYMENT_EVENT, DeploymentState.CREATED, new DeploymentCreatedEventProcess(deploymentPositionByWorkflowKey, workflowKeyByProcessIdAndVersion, workflowDeployedNotifier))
             .onEvent(EventType.DEPLOYMENT_EVENT, DeploymentState.REJECTED, new DeploymentRejectedEventProcessor())
             .onEvent(EventType.TOPIC_EVENT, TopicState.CREATING, new DeploymentTopicCreatingEventProcessor(topicNames))
+            .ownsCommands(EventType.DEPLOYMENT_EVENT)
             .withStateResource(lastWorkflowKey.getRawValue())
             .withStateResource(latestVersionByProcessIdAndTopicName.getRawMap())
             .withStateResource(topicNames.getRawMap())
             .withStateResource(workflowKeyByProcessIdAndVersion.getRawMap())
             .withStateResource(deploymentPositionByWorkflowKey.getRawMap())
+            .withListener(workflowDeployedNotifier)
             .withListener(new StreamProcessorLifecycleAware()
             {
                 private BufferedLogStreamReader reader;
@@ -161,4 +172,14 @@ public class DeploymentManager implements Service<DeploymentManager>
     {
         return controlMessageHandlerManagerServiceInjector;
     }
+
+    public Injector<ClientTransport> getManagementApiClientInjector()
+    {
+        return managementApiClientInjector;
+    }
+
+    public Injector<TopologyManager> getTopologyManagerInjector()
+    {
+        return topologyManagerInjector;
+    }
 }
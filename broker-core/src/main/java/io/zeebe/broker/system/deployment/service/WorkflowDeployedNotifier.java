@@ -0,0 +1,198 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.deployment.service;
+
+import java.time.Duration;
+import java.util.*;
+
+import io.zeebe.broker.clustering.base.topology.*;
+import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
+import io.zeebe.broker.logstreams.processor.TypedEvent;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.system.deployment.request.WorkflowDeployedMessage;
+import io.zeebe.broker.workflow.data.DeployedWorkflow;
+import io.zeebe.broker.workflow.data.DeploymentEvent;
+import io.zeebe.transport.*;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.buffer.DirectBufferWriter;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.future.ActorFuture;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Notifies the leaders of the partitions of a topic about new workflow versions,
+ * so that they don't have to poll the system partition for the latest version.
+ *
+ * <p>
+ * The deployment is responded when all leaders acknowledged the notification,
+ * so that an instance which is created afterwards is created with the new
+ * version. If a leader does not respond within {@link #NOTIFICATION_TIMEOUT}
+ * then the deployment is responded anyway and the partition fetches the latest
+ * version again after a while.
+ */
+public class WorkflowDeployedNotifier implements StreamProcessorLifecycleAware
+{
+    public static final Duration NOTIFICATION_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WorkflowDeployedMessage message = new WorkflowDeployedMessage();
+    private final DirectBufferWriter messageWriter = new DirectBufferWriter();
+
+    private final ClientTransport managementClient;
+    private final TopologyManager topologyManager;
+
+    private ActorControl actor;
+
+    /**
+     * position of the deployment which is notified
+     */
+    private long pendingPosition = -1L;
+    private int pendingResponses;
+    private boolean isNotified;
+
+    public WorkflowDeployedNotifier(ClientTransport managementClient, TopologyManager topologyManager)
+    {
+        this.managementClient = managementClient;
+        this.topologyManager = topologyManager;
+    }
+
+    @Override
+    public void onOpen(TypedStreamProcessor streamProcessor)
+    {
+        this.actor = streamProcessor.getActor();
+    }
+
+    /**
+     * Sends the notifications for the given deployment when it is called the
+     * first time for it.
+     *
+     * @return <code>true</code> if all leaders acknowledged the notification or did not respond in time
+     */
+    public boolean notifyPartitions(TypedEvent<DeploymentEvent> event)
+    {
+        if (event.getPosition() != pendingPosition)
+        {
+            pendingPosition = event.getPosition();
+            pendingResponses = 0;
+            isNotified = false;
+
+            sendNotifications(event);
+        }
+
+        return isNotified;
+    }
+
+    private void sendNotifications(TypedEvent<DeploymentEvent> event)
+    {
+        final long position = event.getPosition();
+        final DeploymentEvent deploymentEvent = event.getValue();
+
+        // the event is reused, copy the messages before querying the topology
+        final List<DirectBuffer> messages = new ArrayList<>();
+
+        final DirectBuffer topicName = BufferUtil.cloneBuffer(deploymentEvent.getTopicName());
+        final DirectBuffer bpmnXml = deploymentEvent.resources().iterator().next().getResource();
+
+        final Iterator<DeployedWorkflow> iterator = deploymentEvent.deployedWorkflows().iterator();
+        while (iterator.hasNext())
+        {
+            final DeployedWorkflow deployedWorkflow = iterator.next();
+
+            message
+                .workflowKey(deployedWorkflow.getKey())
+                .version(deployedWorkflow.getVersion())
+                .deploymentKey(event.getKey())
+                .topicName(topicName)
+                .bpmnProcessId(deployedWorkflow.getBpmnProcessId())
+                .bpmnXml(bpmnXml);
+
+            final UnsafeBuffer buffer = new UnsafeBuffer(new byte[message.getLength()]);
+            message.write(buffer, 0);
+
+            messages.add(buffer);
+        }
+
+        final ActorFuture<Set<SocketAddress>> leadersFuture = topologyManager.query(topology -> partitionLeaders(topology, topicName));
+
+        actor.runOnCompletion(leadersFuture, (leaders, err) ->
+        {
+            if (err == null)
+            {
+                for (SocketAddress leader : leaders)
+                {
+                    final RemoteAddress remoteAddress = managementClient.registerRemoteAddress(leader);
+
+                    for (int i = 0; i < messages.size(); i++)
+                    {
+                        final DirectBuffer messageBuffer = messages.get(i);
+                        messageWriter.wrap(messageBuffer, 0, messageBuffer.capacity());
+
+                        final ActorFuture<ClientResponse> responseFuture = managementClient.getOutput().sendRequest(remoteAddress, messageWriter, NOTIFICATION_TIMEOUT);
+                        pendingResponses += 1;
+
+                        actor.runOnCompletion(responseFuture, (response, responseErr) ->
+                        {
+                            if (responseErr == null)
+                            {
+                                response.close();
+                            }
+                            onResponse(position);
+                        });
+                    }
+                }
+            }
+
+            if (pendingResponses == 0 && position == pendingPosition)
+            {
+                isNotified = true;
+            }
+        });
+    }
+
+    private void onResponse(long position)
+    {
+        if (position == pendingPosition)
+        {
+            pendingResponses -= 1;
+            if (pendingResponses == 0)
+            {
+                isNotified = true;
+            }
+        }
+    }
+
+    private static Set<SocketAddress> partitionLeaders(ReadableTopology topology, DirectBuffer topicName)
+    {
+        final Set<SocketAddress> leaders = new HashSet<>();
+
+        for (PartitionInfo partition : topology.getPartitions())
+        {
+            if (BufferUtil.equals(topicName, partition.getTopicNameBuffer()))
+            {
+                final NodeInfo leader = topology.getLeader(partition.getPartitionId());
+
+                if (leader != null)
+                {
+                    leaders.add(leader.getManagementApiAddress());
+                }
+            }
+        }
+
+        return leaders;
+    }
+}
@@ -25,6 +25,7 @@ import java.time.Duration;
 import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.task.map.TaskInstanceMap;
 import io.zeebe.broker.task.processor.TaskExpireLockStreamProcessor;
 import io.zeebe.broker.task.processor.TaskInstanceStreamProcessor;
 import io.zeebe.servicecontainer.*;
@@ -35,6 +36,7 @@ import io.zeebe.util.sched.ActorScheduler;
 public class TaskQueueManagerService implements Service<TaskQueueManagerService>
 {
     protected static final String NAME = "task.queue.manager";
+    protected static final String TASK_INSTANCE_STREAM_PROCESSOR_NAME = "task-instance-v" + TaskInstanceMap.VERSION;
     public static final Duration LOCK_EXPIRATION_INTERVAL = Duration.ofSeconds(30);
 
     private final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
@@ -60,7 +62,7 @@ public class TaskQueueManagerService implements Service<TaskQueueManagerService>
         streamProcessorServiceFactory.createService(partition, name)
             .processor(taskInstanceStreamProcessor.createStreamProcessor(env))
             .processorId(TASK_QUEUE_STREAM_PROCESSOR_ID)
-            .processorName("task-instance")
+            .processorName(TASK_INSTANCE_STREAM_PROCESSOR_NAME)
             .build();
 
         startExpireLockService(name, partition, env);
@@ -18,7 +18,6 @@
 package io.zeebe.broker.task;
 
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.TASK_LOCK_STREAM_PROCESSOR_ID;
-import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -29,25 +28,23 @@ import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.task.processor.LockTaskStreamProcessor;
 import io.zeebe.broker.task.processor.TaskSubscription;
-import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.transport.*;
 import io.zeebe.util.allocation.HeapBufferAllocator;
-import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.collection.CompactList;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
-import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 
 public class TaskSubscriptionManager extends Actor implements TransportListener
 {
     protected static final String NAME = "taskqueue.subscription.manager";
+    protected static final String STREAM_PROCESSOR_NAME = "task-lock";
     public static final int NUM_CONCURRENT_REQUESTS = 1_024;
 
     protected final StreamProcessorServiceFactory streamProcessorServiceFactory;
@@ -104,7 +101,6 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
         final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
         actor.call(() ->
         {
-            final DirectBuffer taskType = subscription.getLockTaskType();
             final int partitionId = subscription.getPartitionId();
 
             final PartitionBucket partitionBucket = logStreamBuckets.get(partitionId);
@@ -117,77 +113,70 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
             final long subscriptionId = nextSubscriptionId++;
             subscription.setSubscriberKey(subscriptionId);
 
-            final LockTaskStreamProcessor streamProcessor = partitionBucket.getStreamProcessorByTaskType(taskType);
-            if (streamProcessor != null)
+            if (partitionBucket.getStreamProcessorFuture() == null)
             {
-                streamProcessorBySubscriptionId.put(subscriptionId, streamProcessor);
-
-                final ActorFuture<Void> addFuture = streamProcessor.addSubscription(subscription);
-                actor.runOnCompletion(addFuture, (aVoid, throwable) ->
-                {
-                    if (throwable == null)
-                    {
-                        actor.submit(this::handleCreditRequests);
-
-                        future.complete(null);
-                    }
-                    else
-                    {
-                        future.completeExceptionally(throwable);
-                    }
-                });
+                openStreamProcessor(partitionBucket);
             }
-            else
-            {
-                final LockTaskStreamProcessor processor = new LockTaskStreamProcessor(taskType);
 
-                final ActorFuture<StreamProcessorService> processorFuture = createStreamProcessorService(processor, partitionBucket, taskType);
+            final LockTaskStreamProcessor streamProcessor = partitionBucket.getStreamProcessor();
 
-                actor.runOnCompletion(processorFuture, (service, t) ->
+            actor.runOnCompletion(partitionBucket.getStreamProcessorFuture(), (service, t) ->
+            {
+                if (t == null)
                 {
-                    if (t == null)
+                    streamProcessorBySubscriptionId.put(subscriptionId, streamProcessor);
+
+                    final ActorFuture<Void> addFuture = streamProcessor.addSubscription(subscription);
+                    actor.runOnCompletion(addFuture, (aVoid, throwable) ->
                     {
-                        streamProcessorBySubscriptionId.put(subscriptionId, processor);
+                        if (throwable == null)
+                        {
+                            actor.submit(this::handleCreditRequests);
 
-                        partitionBucket.addStreamProcessor(processor);
-                        final ActorFuture<Void> addFuture = processor.addSubscription(subscription);
-                        actor.runOnCompletion(addFuture, ((aVoid, throwable) ->
+                            future.complete(null);
+                        }
+                        else
                         {
-                            if (throwable == null)
-                            {
-                                actor.submit(this::handleCreditRequests);
-
-                                future.complete(null);
-                            }
-                            else
-                            {
-                                future.completeExceptionally(throwable);
-                            }
-                        }));
-                    }
-                    else
-                    {
-                        future.completeExceptionally(t);
-                    }
-                });
-            }
+                            future.completeExceptionally(throwable);
+                        }
+                    });
+                }
+                else
+                {
+                    future.completeExceptionally(t);
+                }
+            });
         });
 
         return future;
     }
 
-    protected ActorFuture<StreamProcessorService> createStreamProcessorService(
-            final LockTaskStreamProcessor factory,
-            final PartitionBucket partitionBucket,
-            final DirectBuffer taskType)
+    /**
+     * Opens the lock task stream processor of the partition. It is opened with the first
+     * subscription and then kept until the partition is removed, as it keeps track of the lockable tasks.
+     */
+    protected void openStreamProcessor(final PartitionBucket partitionBucket)
     {
         final TypedStreamEnvironment env = new TypedStreamEnvironment(partitionBucket.getLogStream(), transport.getOutput());
+        final LockTaskStreamProcessor processor = new LockTaskStreamProcessor(env.buildStreamReader(), env.buildStreamWriter());
 
-        return streamProcessorServiceFactory.createService(partitionBucket.getPartition(), partitionBucket.getPartitionServiceName())
-            .processor(factory.createStreamProcessor(env))
+        final ActorFuture<StreamProcessorService> processorFuture = streamProcessorServiceFactory
+            .createService(partitionBucket.getPartition(), partitionBucket.getPartitionServiceName())
+            .processor(processor.createStreamProcessor(env))
             .processorId(TASK_LOCK_STREAM_PROCESSOR_ID)
-            .processorName(streamProcessorName(taskType))
+            .processorName(STREAM_PROCESSOR_NAME)
             .build();
+
+        partitionBucket.setStreamProcessor(processor, processorFuture);
+
+        actor.runOnCompletion(processorFuture, (service, t) ->
+        {
+            if (t != null && partitionBucket.getStreamProcessorFuture() == processorFuture)
+            {
+                // retry with the next subscription
+                partitionBucket.setStreamProcessor(null, null);
+            }
+        });
     }
 
     public ActorFuture<Void> removeSubscription(long subscriptionId)
@@ -198,30 +187,12 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
             final LockTaskStreamProcessor streamProcessor = streamProcessorBySubscriptionId.remove(subscriptionId);
             if (streamProcessor != null)
             {
-                final ActorFuture<Boolean> removeFuture = streamProcessor.removeSubscription(subscriptionId);
-                actor.runOnCompletion(removeFuture, (hasSubscriptions, throwable) ->
+                final ActorFuture<Void> removeFuture = streamProcessor.removeSubscription(subscriptionId);
+                actor.runOnCompletion(removeFuture, (aVoid, throwable) ->
                 {
                     if (throwable == null)
                     {
-                        if (!hasSubscriptions)
-                        {
-                            final ActorFuture<Void> removeProcessorFuture = removeStreamProcessorService(streamProcessor);
-                            actor.runOnCompletion(removeProcessorFuture, (b, t) ->
-                            {
-                                if (t == null)
-                                {
-                                    future.complete(null);
-                                }
-                                else
-                                {
-                                    future.completeExceptionally(t);
-                                }
-                            });
-                        }
-                        else
-                        {
-                            future.complete(null);
-                        }
+                        future.complete(null);
                     }
                     else
                     {
@@ -237,18 +208,6 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
         return future;
     }
 
-    protected ActorFuture<Void> removeStreamProcessorService(final LockTaskStreamProcessor streamProcessor)
-    {
-        final PartitionBucket partitionBucket = logStreamBuckets.get(streamProcessor.getLogStreamPartitionId());
-
-        partitionBucket.removeStreamProcessor(streamProcessor);
-
-        final String logName = partitionBucket.getLogStreamName();
-        final DirectBuffer taskType = streamProcessor.getSubscriptedTaskType();
-
-        return serviceContext.removeService(LogStreamServiceNames.streamProcessorService(logName, streamProcessorName(taskType)));
-    }
-
     public boolean increaseSubscriptionCreditsAsync(CreditsRequest request)
     {
         final boolean success = creditRequestBuffer.offerRequest(request);
@@ -352,43 +311,32 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
     {
         actor.call(() ->
         {
-            final Iterator<LockTaskStreamProcessor> processorIt = streamProcessorBySubscriptionId.values().iterator();
-            while (processorIt.hasNext())
+            for (PartitionBucket partitionBucket : logStreamBuckets.values())
             {
-                final LockTaskStreamProcessor processor = processorIt.next();
-                final ActorFuture<Boolean> closeFuture = processor.onClientChannelCloseAsync(channelId);
-
-                actor.runOnCompletion(closeFuture, (hasSubscriptions, throwable) ->
+                final LockTaskStreamProcessor processor = partitionBucket.getStreamProcessor();
+                if (processor != null)
                 {
-                    if (throwable == null)
-                    {
+                    final ActorFuture<Void> closeFuture = processor.onClientChannelCloseAsync(channelId);
 
-                        if (!hasSubscriptions)
+                    actor.runOnCompletion(closeFuture, (aVoid, throwable) ->
+                    {
+                        if (throwable != null)
                         {
-                            removeStreamProcessorService(processor);
+                            Loggers.SYSTEM_LOGGER.debug("Problem on closing LockTaskStreamProcessor.", throwable);
                         }
-                    }
-                    else
-                    {
-                        Loggers.SYSTEM_LOGGER.debug("Problem on closing LockTaskStreamProcessor.", throwable);
-                    }
-                });
+                    });
+                }
             }
         });
     }
 
-    private static String streamProcessorName(final DirectBuffer taskType)
-    {
-        return String.format("task-lock.%s", bufferAsString(taskType));
-    }
-
-
     static class PartitionBucket
     {
         protected final Partition partition;
         protected final ServiceName<Partition> partitionServiceName;
 
-        protected List<LockTaskStreamProcessor> streamProcessors = new ArrayList<>();
+        protected LockTaskStreamProcessor streamProcessor;
+        protected ActorFuture<StreamProcessorService> streamProcessorFuture;
 
         PartitionBucket(Partition partition, ServiceName<Partition> partitionServiceName)
         {
@@ -416,36 +364,20 @@ public class TaskSubscriptionManager extends Actor implements TransportListener
             return partitionServiceName;
         }
 
-        public LockTaskStreamProcessor getStreamProcessorByTaskType(DirectBuffer taskType)
+        public LockTaskStreamProcessor getStreamProcessor()
         {
-            LockTaskStreamProcessor streamProcessorForType = null;
-
-            final int size = streamProcessors.size();
-            int current = 0;
-
-            while (current < size && streamProcessorForType == null)
-            {
-                final LockTaskStreamProcessor streamProcessor = streamProcessors.get(current);
-
-                if (BufferUtil.equals(taskType, streamProcessor.getSubscriptedTaskType()))
-                {
-                    streamProcessorForType = streamProcessor;
-                }
-
-                current += 1;
-            }
-
-            return streamProcessorForType;
+            return streamProcessor;
         }
 
-        public void addStreamProcessor(LockTaskStreamProcessor streamProcessor)
+        public ActorFuture<StreamProcessorService> getStreamProcessorFuture()
         {
-            streamProcessors.add(streamProcessor);
+            return streamProcessorFuture;
         }
 
-        public void removeStreamProcessor(LockTaskStreamProcessor streamProcessor)
+        public void setStreamProcessor(LockTaskStreamProcessor streamProcessor, ActorFuture<StreamProcessorService> streamProcessorFuture)
         {
-            streamProcessors.remove(streamProcessor);
+            this.streamProcessor = streamProcessor;
+            this.streamProcessorFuture = streamProcessorFuture;
         }
     }
 
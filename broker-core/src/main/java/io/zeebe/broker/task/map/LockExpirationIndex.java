@@ -0,0 +1,311 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.map;
+
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.nio.ByteOrder;
+import java.util.Iterator;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.map.Long2BytesZbMap;
+import io.zeebe.map.Long2LongZbMap;
+import io.zeebe.map.iterator.Long2LongZbMapEntry;
+
+/**
+ * Deadline ordered index of locked tasks. The tasks are grouped into buckets
+ * of {@link #BUCKET_WIDTH_MILLIS} by their lock expiration time. Each bucket is
+ * a doubly linked list, so that adding and removing a task is O(1) and
+ * expiring locks only visits the buckets which are due.
+ *
+ * <p>
+ * Maps <b>task key</b> to
+ *
+ * <li> lock event position
+ * <li> lock expiration time
+ * <li> previous task key in bucket
+ * <li> next task key in bucket
+ *
+ * <p>
+ * and <b>bucket</b> to the first task key in the bucket.
+ *
+ * <p>
+ * Both maps are part of the snapshot. The expiration cursor is not, it is
+ * recomputed from the buckets on first use, e.g. after the processor became leader.
+ *
+ * <p>
+ * An expired task stays in its bucket until it is removed, and a bucket is
+ * scanned again when the cursor returns to it (e.g. the current bucket on
+ * the next tick). The visited tasks are remembered until they are removed, so
+ * that a task is not visited twice for the same lock. They are not part of the
+ * snapshot either, a new leader visits the expired tasks again.
+ */
+public class LockExpirationIndex
+{
+    public static final long BUCKET_WIDTH_MILLIS = 1000L;
+
+    /**
+     * Number of empty buckets which are visited one by one before the next
+     * non-empty bucket is looked up in the bucket map.
+     */
+    private static final int MAX_EMPTY_BUCKET_STEPS = 1024;
+
+    private static final long NO_TASK = -1L;
+    private static final long UNKNOWN_BUCKET = Long.MIN_VALUE;
+
+    private static final int POSITION_OFFSET = 0;
+    private static final int LOCK_TIME_OFFSET = POSITION_OFFSET + SIZE_OF_LONG;
+    private static final int PREVIOUS_OFFSET = LOCK_TIME_OFFSET + SIZE_OF_LONG;
+    private static final int NEXT_OFFSET = PREVIOUS_OFFSET + SIZE_OF_LONG;
+
+    private static final int MAP_VALUE_SIZE = 4 * SIZE_OF_LONG;
+
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[MAP_VALUE_SIZE]);
+    private final UnsafeBuffer linkBuffer = new UnsafeBuffer(new byte[MAP_VALUE_SIZE]);
+
+    private final Long2BytesZbMap taskMap;
+    private final Long2LongZbMap bucketMap;
+
+    /**
+     * task key to the lock event position of the visited lock
+     */
+    private final Long2LongHashMap visitedTasks = new Long2LongHashMap(NO_TASK);
+
+    private long nextBucket = UNKNOWN_BUCKET;
+    private long resumeTaskKey = NO_TASK;
+
+    public LockExpirationIndex()
+    {
+        this.taskMap = new Long2BytesZbMap(MAP_VALUE_SIZE);
+        this.bucketMap = new Long2LongZbMap();
+    }
+
+    public Long2BytesZbMap getTaskMap()
+    {
+        return taskMap;
+    }
+
+    public Long2LongZbMap getBucketMap()
+    {
+        return bucketMap;
+    }
+
+    public void add(long taskKey, long lockEventPosition, long lockTime)
+    {
+        remove(taskKey);
+
+        final long bucket = bucketOf(lockTime);
+        final long head = bucketMap.get(bucket, NO_TASK);
+
+        buffer.putLong(POSITION_OFFSET, lockEventPosition, BYTE_ORDER);
+        buffer.putLong(LOCK_TIME_OFFSET, lockTime, BYTE_ORDER);
+        buffer.putLong(PREVIOUS_OFFSET, NO_TASK, BYTE_ORDER);
+        buffer.putLong(NEXT_OFFSET, head, BYTE_ORDER);
+        taskMap.put(taskKey, buffer);
+
+        if (head != NO_TASK)
+        {
+            updateLink(head, PREVIOUS_OFFSET, taskKey);
+        }
+        bucketMap.put(bucket, taskKey);
+
+        if (nextBucket != UNKNOWN_BUCKET && bucket <= nextBucket)
+        {
+            // the task is inserted before the cursor - restart from its bucket
+            nextBucket = bucket;
+            resumeTaskKey = NO_TASK;
+        }
+    }
+
+    public void remove(long taskKey)
+    {
+        if (!wrap(taskKey))
+        {
+            return;
+        }
+
+        final long lockTime = buffer.getLong(LOCK_TIME_OFFSET, BYTE_ORDER);
+        final long previous = buffer.getLong(PREVIOUS_OFFSET, BYTE_ORDER);
+        final long next = buffer.getLong(NEXT_OFFSET, BYTE_ORDER);
+
+        if (previous != NO_TASK)
+        {
+            updateLink(previous, NEXT_OFFSET, next);
+        }
+        else
+        {
+            final long bucket = bucketOf(lockTime);
+            if (next != NO_TASK)
+            {
+                bucketMap.put(bucket, next);
+            }
+            else
+            {
+                bucketMap.remove(bucket, NO_TASK);
+            }
+        }
+
+        if (next != NO_TASK)
+        {
+            updateLink(next, PREVIOUS_OFFSET, previous);
+        }
+
+        if (resumeTaskKey == taskKey)
+        {
+            resumeTaskKey = next;
+        }
+
+        visitedTasks.remove(taskKey);
+        taskMap.remove(taskKey);
+    }
+
+    /**
+     * Visits all tasks whose lock is expired at the given time. A task is
+     * visited once per lock; it stays in the index until it is removed explicitly.
+     * If the consumer rejects a task (e.g. on backpressure) then the next
+     * invocation continues with this task.
+     *
+     * @return <code>true</code> if all expired tasks are visited
+     */
+    public boolean forEachExpired(long currentTime, LockExpirationConsumer consumer)
+    {
+        final long currentBucket = bucketOf(currentTime);
+
+        if (nextBucket == UNKNOWN_BUCKET)
+        {
+            nextBucket = findFirstBucket(Long.MIN_VALUE, currentBucket);
+            resumeTaskKey = NO_TASK;
+        }
+
+        int emptyBucketSteps = 0;
+
+        while (nextBucket <= currentBucket)
+        {
+            long taskKey = resumeTaskKey != NO_TASK ? resumeTaskKey : bucketMap.get(nextBucket, NO_TASK);
+
+            if (taskKey == NO_TASK)
+            {
+                emptyBucketSteps += 1;
+            }
+
+            while (taskKey != NO_TASK)
+            {
+                wrap(taskKey);
+
+                final long position = buffer.getLong(POSITION_OFFSET, BYTE_ORDER);
+                final long lockTime = buffer.getLong(LOCK_TIME_OFFSET, BYTE_ORDER);
+                final long next = buffer.getLong(NEXT_OFFSET, BYTE_ORDER);
+
+                if (lockTime <= currentTime && visitedTasks.get(taskKey) != position)
+                {
+                    if (!consumer.onLockExpired(taskKey, position))
+                    {
+                        resumeTaskKey = taskKey;
+                        return false;
+                    }
+
+                    visitedTasks.put(taskKey, position);
+                }
+
+                taskKey = next;
+            }
+
+            resumeTaskKey = NO_TASK;
+
+            if (nextBucket == currentBucket)
+            {
+                // the current bucket can contain tasks which expire later
+                break;
+            }
+            else if (emptyBucketSteps >= MAX_EMPTY_BUCKET_STEPS)
+            {
+                nextBucket = findFirstBucket(nextBucket + 1, currentBucket);
+                emptyBucketSteps = 0;
+            }
+            else
+            {
+                nextBucket += 1;
+            }
+        }
+
+        return true;
+    }
+
+    private long findFirstBucket(long fromBucket, long currentBucket)
+    {
+        long firstBucket = currentBucket;
+
+        final Iterator<Long2LongZbMapEntry> iterator = bucketMap.iterator();
+        while (iterator.hasNext())
+        {
+            final long bucket = iterator.next().getKey();
+            if (bucket >= fromBucket && bucket < firstBucket)
+            {
+                firstBucket = bucket;
+            }
+        }
+
+        return firstBucket;
+    }
+
+    private boolean wrap(long taskKey)
+    {
+        final DirectBuffer value = taskMap.get(taskKey);
+        if (value != null)
+        {
+            buffer.putBytes(0, value, 0, MAP_VALUE_SIZE);
+        }
+        return value != null;
+    }
+
+    private void updateLink(long taskKey, int linkOffset, long linkedTaskKey)
+    {
+        final DirectBuffer value = taskMap.get(taskKey);
+
+        linkBuffer.putBytes(0, value, 0, MAP_VALUE_SIZE);
+        linkBuffer.putLong(linkOffset, linkedTaskKey, BYTE_ORDER);
+
+        taskMap.put(taskKey, linkBuffer);
+    }
+
+    private static long bucketOf(long lockTime)
+    {
+        return Math.floorDiv(lockTime, BUCKET_WIDTH_MILLIS);
+    }
+
+    public void close()
+    {
+        visitedTasks.clear();
+        taskMap.close();
+        bucketMap.close();
+    }
+
+    @FunctionalInterface
+    public interface LockExpirationConsumer
+    {
+        /**
+         * @return <code>false</code> if the task could not be handled and should be visited again
+         */
+        boolean onLockExpired(long taskKey, long lockEventPosition);
+    }
+}
@@ -19,6 +19,7 @@ package io.zeebe.broker.task.map;
 
 import static org.agrona.BitUtil.SIZE_OF_CHAR;
 import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static org.agrona.BitUtil.SIZE_OF_SHORT;
 
 import java.nio.ByteOrder;
@@ -33,15 +34,24 @@ import io.zeebe.map.Long2BytesZbMap;
  * Maps <b>task instance key</b> to
  *
  * <li> state
+ * <li> position of the lock command
  * <li> lock owner length
  * <li> lock owner (max 64 chars)
+ *
+ * <p>The map is part of the snapshot of the task instance stream processor.
+ * Version 2 of the value added the lock position, so snapshots of version 1
+ * can't be restored. The stream processor name contains the {@link #VERSION}
+ * to ignore these snapshots and rebuild the map from the log instead.
  */
 public class TaskInstanceMap
 {
-    private static final int MAP_VALUE_SIZE = SIZE_OF_SHORT + SIZE_OF_INT + SIZE_OF_CHAR * TaskSubscription.LOCK_OWNER_MAX_LENGTH;
+    public static final int VERSION = 2;
+
+    private static final int MAP_VALUE_SIZE = SIZE_OF_SHORT + SIZE_OF_LONG + SIZE_OF_INT + SIZE_OF_CHAR * TaskSubscription.LOCK_OWNER_MAX_LENGTH;
 
     private static final int STATE_OFFSET = 0;
-    private static final int LOCK_OWNER_LENGTH_OFFSET = STATE_OFFSET + SIZE_OF_SHORT;
+    private static final int LOCK_POSITION_OFFSET = STATE_OFFSET + SIZE_OF_SHORT;
+    private static final int LOCK_OWNER_LENGTH_OFFSET = LOCK_POSITION_OFFSET + SIZE_OF_LONG;
     private static final int LOCK_OWNER_OFFSET = LOCK_OWNER_LENGTH_OFFSET + SIZE_OF_INT;
 
     private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
@@ -93,6 +103,11 @@ public class TaskInstanceMap
         return isRead ? buffer.getShort(STATE_OFFSET, BYTE_ORDER) : -1;
     }
 
+    public long getLockPosition()
+    {
+        return isRead ? buffer.getLong(LOCK_POSITION_OFFSET, BYTE_ORDER) : -1L;
+    }
+
     public DirectBuffer getLockOwner()
     {
         if (isRead)
@@ -127,6 +142,13 @@ public class TaskInstanceMap
         return this;
     }
 
+    public TaskInstanceMap setLockPosition(long position)
+    {
+        ensureRead();
+        buffer.putLong(LOCK_POSITION_OFFSET, position, BYTE_ORDER);
+        return this;
+    }
+
     public TaskInstanceMap setLockOwner(DirectBuffer lockOwner)
     {
         ensureRead();
@@ -0,0 +1,72 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import io.zeebe.broker.task.processor.TaskSubscriptions.SubscriptionIterator;
+
+/**
+ * Smooth weighted round robin with the credits of the subscriptions as
+ * weights. A subscription with twice as many credits gets twice as many tasks,
+ * but the tasks are interleaved instead of being locked in bursts.
+ */
+public class CreditWeightedDistribution implements TaskDistributionStrategy
+{
+    protected final TaskSubscriptions subscriptions;
+    protected final SubscriptionIterator iterator;
+
+    public CreditWeightedDistribution(TaskSubscriptions subscriptions)
+    {
+        this.subscriptions = subscriptions;
+        this.iterator = subscriptions.iterator();
+    }
+
+    @Override
+    public TaskSubscription nextSubscription()
+    {
+        TaskSubscription nextSubscription = null;
+
+        if (subscriptions.getTotalCredits() > 0)
+        {
+            long totalWeight = 0;
+
+            iterator.reset();
+            while (iterator.hasNext())
+            {
+                final TaskSubscription subscription = iterator.next();
+                final int credits = subscription.getCredits();
+
+                if (credits > 0)
+                {
+                    subscription.setDistributionWeight(subscription.getDistributionWeight() + credits);
+                    totalWeight += credits;
+
+                    if (nextSubscription == null || subscription.getDistributionWeight() > nextSubscription.getDistributionWeight())
+                    {
+                        nextSubscription = subscription;
+                    }
+                }
+            }
+
+            if (nextSubscription != null)
+            {
+                nextSubscription.setDistributionWeight(nextSubscription.getDistributionWeight() - totalWeight);
+            }
+        }
+        return nextSubscription;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+/**
+ * Selects the subscription which is expected to complete the task first. The
+ * expected completion time of a subscription is its average completion time
+ * multiplied by its outstanding locks (including the new one). A subscription
+ * which has not completed a task yet is assumed to be as fast as the fastest
+ * one, so new workers get tasks right away.
+ */
+public class LatencyAwareDistribution extends RoundRobinDistribution
+{
+    public LatencyAwareDistribution(TaskSubscriptions subscriptions)
+    {
+        super(subscriptions);
+    }
+
+    @Override
+    public TaskSubscription nextSubscription()
+    {
+        TaskSubscription nextSubscription = null;
+
+        if (subscriptions.getTotalCredits() > 0)
+        {
+            final int subscriptionSize = subscriptions.size();
+
+            long fastestCompletionTime = Long.MAX_VALUE;
+            for (int i = 0; i < subscriptionSize; i++)
+            {
+                final long completionTime = nextInTurn().getAverageCompletionTime();
+                if (completionTime >= 0)
+                {
+                    fastestCompletionTime = Math.min(fastestCompletionTime, completionTime);
+                }
+            }
+
+            if (fastestCompletionTime == Long.MAX_VALUE)
+            {
+                fastestCompletionTime = 1;
+            }
+
+            long nextExpectedCompletionTime = Long.MAX_VALUE;
+            for (int i = 0; i < subscriptionSize; i++)
+            {
+                final TaskSubscription subscription = nextInTurn();
+
+                if (subscription.getCredits() > 0)
+                {
+                    final long completionTime = subscription.getAverageCompletionTime() >= 0 ? subscription.getAverageCompletionTime() : fastestCompletionTime;
+                    final long expectedCompletionTime = Math.max(completionTime, 1) * (subscription.getOutstandingLocks() + 1);
+
+                    if (expectedCompletionTime < nextExpectedCompletionTime)
+                    {
+                        nextSubscription = subscription;
+                        nextExpectedCompletionTime = expectedCompletionTime;
+                    }
+                }
+            }
+
+            if (nextSubscription != null)
+            {
+                continueAfter(nextSubscription);
+            }
+        }
+        return nextSubscription;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+/**
+ * Selects the subscription with the fewest outstanding locks. Subscriptions
+ * with the same number of outstanding locks get the tasks in turn.
+ */
+public class LeastOutstandingLocksDistribution extends RoundRobinDistribution
+{
+    public LeastOutstandingLocksDistribution(TaskSubscriptions subscriptions)
+    {
+        super(subscriptions);
+    }
+
+    @Override
+    public TaskSubscription nextSubscription()
+    {
+        TaskSubscription nextSubscription = null;
+
+        if (subscriptions.getTotalCredits() > 0)
+        {
+            final int subscriptionSize = subscriptions.size();
+
+            for (int i = 0; i < subscriptionSize; i++)
+            {
+                final TaskSubscription subscription = nextInTurn();
+
+                if (subscription.getCredits() > 0
+                        && (nextSubscription == null || subscription.getOutstandingLocks() < nextSubscription.getOutstandingLocks()))
+                {
+                    nextSubscription = subscription;
+                }
+            }
+
+            if (nextSubscription != null)
+            {
+                continueAfter(nextSubscription);
+            }
+        }
+        return nextSubscription;
+    }
+}
@@ -21,14 +21,28 @@ import static io.zeebe.util.EnsureUtil.ensureGreaterThan;
 import static io.zeebe.util.EnsureUtil.ensureLessThanOrEqual;
 import static io.zeebe.util.EnsureUtil.ensureNotNull;
 import static io.zeebe.util.EnsureUtil.ensureNotNullOrEmpty;
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
 
 import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
+import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.logstreams.processor.TypedStreamReader;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.task.CreditsRequest;
 import io.zeebe.broker.task.CreditsRequestBuffer;
@@ -36,40 +50,96 @@ import io.zeebe.broker.task.TaskSubscriptionManager;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.broker.task.processor.TaskSubscriptions.SubscriptionIterator;
-import io.zeebe.logstreams.processor.StreamProcessorContext;
+import io.zeebe.logstreams.log.BufferedLogStreamReader;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 
-public class LockTaskStreamProcessor implements TypedEventProcessor<TaskEvent>, StreamProcessorLifecycleAware
+/**
+ * Locks the tasks of a partition for the task subscriptions. The subscriptions
+ * and the lockable tasks are indexed by task type, so that an event is routed to
+ * the subscriptions of its type in O(1).
+ *
+ * <p>
+ * A task is locked directly when its event is processed and a subscription of its
+ * type has credits. Otherwise it is kept as lockable task of its type and locked
+ * as soon as a subscription of this type gets credits. So the processor never
+ * waits for the credits of a single task type.
+ *
+ * <p>
+ * Only the lockable tasks of the task types which have a subscription are kept.
+ * When a type gets its first subscription, its lockable tasks are read from the
+ * log in steps of {@link #MAX_BACKLOG_EVENTS_PER_STEP} events, so that the other
+ * task types are not blocked meanwhile.
+ *
+ * <p>
+ * If a subscription has a lock batch size greater than one then its tasks are not
+ * locked directly. They are collected until the batch is full or the linger time
+ * is over and are then locked with a single log append.
+ *
+ * <p>
+ * The subscription which gets a task is selected by the {@link TaskDistribution}
+ * of the task type. For this, the processor tracks the outstanding locks of each
+ * subscription and the time from locking until the completion of a task.
+ */
+public class LockTaskStreamProcessor implements StreamProcessorLifecycleAware
 {
+    public static final int MAX_LOCK_BATCH_SIZE = 128;
+
+    private static final Duration BACKPRESSURE_RETRY_DELAY = Duration.ofMillis(10);
+    private static final Duration MAX_LOCK_BATCH_LINGER = Duration.ofMillis(10);
+    private static final int MAX_LOCK_BATCH_BYTES = 32 * 1024;
+    private static final int MAX_BACKLOG_EVENTS_PER_STEP = 1000;
+
     protected final CreditsRequestBuffer creditsBuffer = new CreditsRequestBuffer(TaskSubscriptionManager.NUM_CONCURRENT_REQUESTS, this::increaseSubscriptionCredits);
 
-    private final TaskSubscriptions subscriptions = new TaskSubscriptions(8);
-    private final SubscriptionIterator taskDistributionIterator;
-    private final SubscriptionIterator managementIterator;
+    private final Map<DirectBuffer, TaskTypeBucket> taskTypes = new HashMap<>();
+    private final Long2ObjectHashMap<TaskTypeBucket> taskTypesBySubscriberKey = new Long2ObjectHashMap<>();
+
+    private final Long2LongHashMap lockedTaskSubscribers = new Long2LongHashMap(-1L);
+    private final Long2LongHashMap lockedTaskTimes = new Long2LongHashMap(-1L);
+    private final Long2ObjectHashMap<Metric> outstandingLocksMetrics = new Long2ObjectHashMap<>();
+
+    private final List<TaskTypeBucket> pendingDispatches = new ArrayList<>();
+    private boolean isDispatchScheduled;
+
+    private final List<TaskTypeBucket> pendingBacklogs = new ArrayList<>();
+    private boolean isBacklogReadScheduled;
+    private final BrokerEventMetadata backlogMetadata = new BrokerEventMetadata();
+    private final TaskEvent backlogEvent = new TaskEvent();
+    private LogStreamReader backlogReader;
+
+    private long lastEventPosition = -1L;
+
+    private final TypedStreamReader streamReader;
+    private final TypedStreamWriter streamWriter;
 
-    private final DirectBuffer subscribedTaskType;
     private int partitionId;
+    private String topicName;
     private ActorControl actor;
-    private StreamProcessorContext context;
+    private MetricsManager metricsManager;
 
-    private TaskSubscription selectedSubscriber;
+    private final long[] batchKeys = new long[MAX_LOCK_BATCH_SIZE];
+    private final long[] batchPositions = new long[MAX_LOCK_BATCH_SIZE];
+    private final TaskEvent[] batchEvents = new TaskEvent[MAX_LOCK_BATCH_SIZE];
+    private final ExpandableArrayBuffer[] batchBuffers = new ExpandableArrayBuffer[MAX_LOCK_BATCH_SIZE];
 
-    public LockTaskStreamProcessor(DirectBuffer taskType)
-    {
-        this.subscribedTaskType = taskType;
-        this.taskDistributionIterator = subscriptions.iterator();
-        this.managementIterator = subscriptions.iterator();
-    }
+    private TaskSubscription selectedSubscriber;
+    private TaskSubscription selectedBatchSubscriber;
+    private int selectedBatchSize;
 
-    public DirectBuffer getSubscriptedTaskType()
+    public LockTaskStreamProcessor(TypedStreamReader streamReader, TypedStreamWriter streamWriter)
     {
-        return subscribedTaskType;
+        this.streamReader = streamReader;
+        this.streamWriter = streamWriter;
     }
 
     public int getLogStreamPartitionId()
@@ -80,22 +150,67 @@ public class LockTaskStreamProcessor implements TypedEventProcessor<TaskEvent>,
     @Override
     public void onOpen(TypedStreamProcessor streamProcessor)
     {
-        this.context = streamProcessor.getStreamProcessorContext();
-        this.actor = context.getActorControl();
+        this.actor = streamProcessor.getActor();
+        this.metricsManager = streamProcessor.getStreamProcessorContext().getActorScheduler().getMetricsManager();
+    }
+
+    @Override
+    public void onClose()
+    {
+        streamReader.close();
+        backlogReader.close();
 
-        // activate the processor while adding the first subscription
-        context.suspendController();
+        outstandingLocksMetrics.values().forEach(Metric::close);
+        outstandingLocksMetrics.clear();
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment env)
     {
         this.partitionId = env.getStream().getPartitionId();
+        this.topicName = BufferUtil.bufferAsString(env.getStream().getTopicName());
+        this.backlogReader = new BufferedLogStreamReader(env.getStream());
+
+        final LockableTaskProcessor lockableTaskProcessor = new LockableTaskProcessor();
+        final TypedEventProcessor<TaskEvent> unlockableTaskProcessor = new TypedEventProcessor<TaskEvent>()
+        {
+            @Override
+            public void updateState(TypedEvent<TaskEvent> event)
+            {
+                lastEventPosition = event.getPosition();
+                removeLockableTask(event);
+            }
+        };
+        final TypedEventProcessor<TaskEvent> releasedTaskProcessor = new TypedEventProcessor<TaskEvent>()
+        {
+            @Override
+            public void updateState(TypedEvent<TaskEvent> event)
+            {
+                lastEventPosition = event.getPosition();
+                removeLockableTask(event);
+                releaseLock(event);
+            }
+        };
+        final TypedEventProcessor<TaskEvent> rejectedLockProcessor = new TypedEventProcessor<TaskEvent>()
+        {
+            @Override
+            public void updateState(TypedEvent<TaskEvent> event)
+            {
+                lastEventPosition = event.getPosition();
+                releaseLock(event);
+            }
+        };
 
         return env.newStreamProcessor()
-                .onEvent(EventType.TASK_EVENT, TaskState.CREATED, this)
-                .onEvent(EventType.TASK_EVENT, TaskState.LOCK_EXPIRED, this)
-                .onEvent(EventType.TASK_EVENT, TaskState.FAILED, this)
-                .onEvent(EventType.TASK_EVENT, TaskState.RETRIES_UPDATED, this)
+                .onEvent(EventType.TASK_EVENT, TaskState.CREATED, lockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.LOCK_EXPIRED, lockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.FAILED, lockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.RETRIES_UPDATED, lockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.LOCK, unlockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.LOCKED, unlockableTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.LOCK_REJECTED, rejectedLockProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.COMPLETED, releasedTaskProcessor)
+                .onEvent(EventType.TASK_EVENT, TaskState.CANCELED, releasedTaskProcessor)
+                .withListener(this)
                 .build();
     }
 
@@ -110,62 +225,103 @@ public class LockTaskStreamProcessor implements TypedEventProcessor<TaskEvent>,
             ensureLessThanOrEqual("length of lock owner", subscription.getLockOwner().capacity(), TaskSubscription.LOCK_OWNER_MAX_LENGTH);
             ensureGreaterThan("lock duration", subscription.getLockDuration(), 0);
             ensureGreaterThan("subscription credits", subscription.getCredits(), 0);
+            ensureGreaterThan("lock batch size", subscription.getLockBatchSize(), 0);
+            ensureLessThanOrEqual("lock batch size", subscription.getLockBatchSize(), MAX_LOCK_BATCH_SIZE);
         }
         catch (Exception e)
         {
             return CompletableActorFuture.completedExceptionally(e);
         }
 
-        if (!BufferUtil.equals(subscription.getLockTaskType(), subscribedTaskType))
-        {
-            final String errorMessage = String.format("Subscription task type is not equal to '%s'.", BufferUtil.bufferAsString(subscribedTaskType));
-            throw new RuntimeException(errorMessage);
-        }
+        final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
 
-        return actor.call(() ->
+        actor.call(() ->
         {
-            subscriptions.addSubscription(subscription);
+            final TaskTypeBucket bucket = getOrCreateBucket(subscription.getLockTaskType());
+            final boolean isFirstSubscription = bucket.subscriptions.isEmpty();
+
+            if (isFirstSubscription)
+            {
+                bucket.setDistribution(subscription.getDistribution());
+            }
+            else if (bucket.distribution != subscription.getDistribution())
+            {
+                final String message = String.format("distribution must be %s as for the other subscriptions of the task type, but was %s",
+                        bucket.distribution, subscription.getDistribution());
+
+                future.completeExceptionally(new IllegalArgumentException(message));
+                return;
+            }
+
+            bucket.subscriptions.addSubscription(subscription);
+            taskTypesBySubscriberKey.put(subscription.getSubscriberKey(), bucket);
+
+            openOutstandingLocksMetric(subscription);
+
+            if (isFirstSubscription)
+            {
+                startBacklogRead(bucket);
+            }
+
+            scheduleDispatch(bucket);
 
-            context.resumeController();
+            future.complete(null);
         });
+
+        return future;
     }
 
-    public ActorFuture<Boolean> removeSubscription(long subscriberKey)
+    public ActorFuture<Void> removeSubscription(long subscriberKey)
     {
         return actor.call(() ->
         {
-            subscriptions.removeSubscription(subscriberKey);
-            final boolean isSuspended = subscriptions.isEmpty();
-            if (isSuspended)
+            final TaskTypeBucket bucket = taskTypesBySubscriberKey.remove(subscriberKey);
+            if (bucket != null)
             {
-                context.suspendController();
-            }
+                bucket.subscriptions.removeSubscription(subscriberKey);
+                closeOutstandingLocksMetric(subscriberKey);
 
-            return !isSuspended;
+                if (bucket.subscriptions.isEmpty())
+                {
+                    dropLockableTasks(bucket);
+                }
+                removeIfUnused(bucket);
+            }
         });
     }
 
-    public ActorFuture<Boolean> onClientChannelCloseAsync(int channelId)
+    public ActorFuture<Void> onClientChannelCloseAsync(int channelId)
     {
         return actor.call(() ->
         {
-            managementIterator.reset();
-
-            while (managementIterator.hasNext())
+            final Iterator<TaskTypeBucket> bucketIterator = taskTypes.values().iterator();
+            while (bucketIterator.hasNext())
             {
-                final TaskSubscription subscription = managementIterator.next();
-                if (subscription.getStreamId() == channelId)
+                final TaskTypeBucket bucket = bucketIterator.next();
+                final SubscriptionIterator subscriptionIterator = bucket.managementIterator;
+
+                subscriptionIterator.reset();
+                while (subscriptionIterator.hasNext())
                 {
-                    managementIterator.remove();
+                    final TaskSubscription subscription = subscriptionIterator.next();
+                    if (subscription.getStreamId() == channelId)
+                    {
+                        subscriptionIterator.remove();
+                        taskTypesBySubscriberKey.remove(subscription.getSubscriberKey());
+                        closeOutstandingLocksMetric(subscription.getSubscriberKey());
+                    }
                 }
-            }
 
-            final boolean isSuspended = subscriptions.isEmpty();
-            if (isSuspended)
-            {
-                context.suspendController();
+                if (bucket.subscriptions.isEmpty())
+                {
+                    dropLockableTasks(bucket);
+                }
+
+                if (bucket.isUnused())
+                {
+                    bucketIterator.remove();
+                }
             }
-            return !isSuspended;
         });
     }
 
@@ -182,96 +338,683 @@ public class LockTaskStreamProcessor implements TypedEventProcessor<TaskEvent>,
     protected void increaseSubscriptionCredits(CreditsRequest request)
     {
         final long subscriberKey = request.getSubscriberKey();
-        final int credits = request.getCredits();
+        final TaskTypeBucket bucket = taskTypesBySubscriberKey.get(subscriberKey);
+
+        if (bucket != null)
+        {
+            bucket.subscriptions.addCredits(subscriberKey, request.getCredits());
+
+            scheduleDispatch(bucket);
+        }
+    }
+
+    private TaskTypeBucket getOrCreateBucket(DirectBuffer taskType)
+    {
+        TaskTypeBucket bucket = taskTypes.get(taskType);
+        if (bucket == null)
+        {
+            bucket = new TaskTypeBucket(taskType);
+            taskTypes.put(bucket.taskType, bucket);
+        }
+        return bucket;
+    }
+
+    private void removeIfUnused(TaskTypeBucket bucket)
+    {
+        if (bucket.isUnused())
+        {
+            taskTypes.remove(bucket.taskType);
+        }
+    }
+
+    /**
+     * @return the bucket of the task type if it has a subscription, otherwise <code>null</code>
+     */
+    private TaskTypeBucket getSubscribedBucket(DirectBuffer taskType)
+    {
+        final TaskTypeBucket bucket = taskTypes.get(taskType);
+        return bucket != null && !bucket.subscriptions.isEmpty() ? bucket : null;
+    }
+
+    private void removeLockableTask(TypedEvent<TaskEvent> event)
+    {
+        final TaskTypeBucket bucket = taskTypes.get(event.getValue().getType());
+        if (bucket != null)
+        {
+            bucket.removeLockableTask(event.getKey());
+            removeIfUnused(bucket);
+        }
+    }
+
+    /**
+     * Called when the task type has no subscription anymore. The lockable tasks
+     * are read from the log again when the type gets a new subscription.
+     */
+    private void dropLockableTasks(TaskTypeBucket bucket)
+    {
+        bucket.lockableTasks = new LockableTasks();
+        bucket.batchSubscriber = null;
+
+        if (bucket.isReadingBacklog())
+        {
+            pendingBacklogs.remove(bucket);
+            bucket.endBacklog();
+        }
+    }
 
-        subscriptions.addCredits(subscriberKey, credits);
+    /**
+     * Reads the lockable tasks of the task type from the events which are
+     * already processed. The newer events are handled by the processor meanwhile.
+     */
+    private void startBacklogRead(TaskTypeBucket bucket)
+    {
+        if (lastEventPosition < 0)
+        {
+            return;
+        }
 
-        context.resumeController();
+        bucket.startBacklog(lastEventPosition);
+        pendingBacklogs.add(bucket);
+
+        if (!isBacklogReadScheduled)
+        {
+            isBacklogReadScheduled = true;
+            actor.submit(this::readBacklogs);
+        }
     }
 
-    protected TaskSubscription getNextAvailableSubscription()
+    private void readBacklogs()
     {
-        TaskSubscription nextSubscription = null;
+        isBacklogReadScheduled = false;
+
+        if (pendingBacklogs.isEmpty())
+        {
+            return;
+        }
+
+        final TaskTypeBucket bucket = pendingBacklogs.get(0);
 
-        if (subscriptions.getTotalCredits() > 0)
+        if (bucket.backlogPosition < 0)
         {
+            backlogReader.seekToFirstEvent();
+        }
+        else if (backlogReader.seek(bucket.backlogPosition) && backlogReader.hasNext())
+        {
+            // skip the last event of the previous step
+            backlogReader.next();
+        }
 
-            final int subscriptionSize = subscriptions.size();
-            int seenSubscriptions = 0;
+        boolean isComplete = true;
+        int readEvents = 0;
+
+        while (backlogReader.hasNext())
+        {
+            if (readEvents >= MAX_BACKLOG_EVENTS_PER_STEP)
+            {
+                isComplete = false;
+                break;
+            }
 
-            while (seenSubscriptions < subscriptionSize && nextSubscription == null)
+            final LoggedEvent event = backlogReader.next();
+            if (event.getPosition() > bucket.backlogEndPosition)
             {
-                if (!taskDistributionIterator.hasNext())
+                break;
+            }
+
+            readBacklogEvent(bucket, event);
+
+            bucket.backlogPosition = event.getPosition();
+            readEvents += 1;
+        }
+
+        if (isComplete)
+        {
+            pendingBacklogs.remove(0);
+            bucket.endBacklog();
+
+            scheduleDispatch(bucket);
+        }
+
+        if (!pendingBacklogs.isEmpty())
+        {
+            isBacklogReadScheduled = true;
+            actor.submit(this::readBacklogs);
+        }
+    }
+
+    private void readBacklogEvent(TaskTypeBucket bucket, LoggedEvent event)
+    {
+        backlogMetadata.reset();
+        event.readMetadata(backlogMetadata);
+
+        if (backlogMetadata.getEventType() != EventType.TASK_EVENT)
+        {
+            return;
+        }
+
+        backlogEvent.reset();
+
+        try
+        {
+            event.readValue(backlogEvent);
+        }
+        catch (Exception e)
+        {
+            // an invalid command which is rejected by the task instance processor
+            return;
+        }
+
+        if (!BufferUtil.equals(backlogEvent.getType(), bucket.taskType))
+        {
+            return;
+        }
+
+        // the same transitions as handled by the processor
+        switch (backlogEvent.getState())
+        {
+            case CREATED:
+            case LOCK_EXPIRED:
+            case FAILED:
+            case RETRIES_UPDATED:
+                if (backlogEvent.getRetries() > 0)
                 {
-                    taskDistributionIterator.reset();
+                    bucket.backlog.add(event.getKey(), event.getPosition());
                 }
-
-                final TaskSubscription subscription = taskDistributionIterator.next();
-                if (subscription.getCredits() > 0)
+                else
                 {
-                    nextSubscription = subscription;
+                    bucket.backlog.remove(event.getKey());
                 }
+                break;
+
+            case LOCK:
+            case LOCKED:
+            case COMPLETED:
+            case CANCELED:
+                bucket.backlog.remove(event.getKey());
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void onLocked(long taskKey, TaskSubscription subscription)
+    {
+        lockedTaskSubscribers.put(taskKey, subscription.getSubscriberKey());
+        lockedTaskTimes.put(taskKey, ActorClock.currentTimeMillis());
+
+        updateOutstandingLocks(subscription, 1);
+    }
+
+    /**
+     * Called when a locked task is completed, failed, expired or canceled, or
+     * when the lock is rejected.
+     */
+    private void releaseLock(TypedEvent<TaskEvent> event)
+    {
+        final long taskKey = event.getKey();
+        final long subscriberKey = lockedTaskSubscribers.remove(taskKey);
+        final long lockedTime = lockedTaskTimes.remove(taskKey);
+
+        final TaskTypeBucket bucket = subscriberKey >= 0 ? taskTypesBySubscriberKey.get(subscriberKey) : null;
+        if (bucket != null)
+        {
+            final TaskSubscription subscription = bucket.subscriptions.getSubscription(subscriberKey);
 
-                seenSubscriptions += 1;
+            updateOutstandingLocks(subscription, -1);
+
+            if (event.getValue().getState() == TaskState.COMPLETED)
+            {
+                subscription.addCompletionTime(ActorClock.currentTimeMillis() - lockedTime);
             }
         }
-        return nextSubscription;
     }
 
-    @Override
-    public void processEvent(TypedEvent<TaskEvent> event)
+    private void updateOutstandingLocks(TaskSubscription subscription, int delta)
     {
-        selectedSubscriber = null;
+        final int outstandingLocks = subscription.getOutstandingLocks() + delta;
+        subscription.setOutstandingLocks(outstandingLocks);
+
+        final Metric metric = outstandingLocksMetrics.get(subscription.getSubscriberKey());
+        if (metric != null)
+        {
+            metric.setOrdered(outstandingLocks);
+        }
+    }
 
-        final TaskEvent taskEvent = event.getValue();
-        final boolean handlesTaskType = BufferUtil.equals(taskEvent.getType(), subscribedTaskType);
+    private void openOutstandingLocksMetric(TaskSubscription subscription)
+    {
+        final Metric metric = metricsManager.newMetric("task_subscription_outstanding_locks")
+            .type("gauge")
+            .label("topic", topicName)
+            .label("partition", Integer.toString(partitionId))
+            .label("taskType", BufferUtil.bufferAsString(subscription.getLockTaskType()))
+            .label("subscriber", Long.toString(subscription.getSubscriberKey()))
+            .create();
+
+        outstandingLocksMetrics.put(subscription.getSubscriberKey(), metric);
+    }
 
-        if (handlesTaskType && taskEvent.getRetries() > 0)
+    private void closeOutstandingLocksMetric(long subscriberKey)
+    {
+        final Metric metric = outstandingLocksMetrics.remove(subscriberKey);
+        if (metric != null)
         {
-            selectedSubscriber = getNextAvailableSubscription();
-            if (selectedSubscriber != null)
+            metric.close();
+        }
+    }
+
+    private void startLinger(TaskTypeBucket bucket, int batchSize)
+    {
+        if (!bucket.isLingering)
+        {
+            bucket.isLingering = true;
+            bucket.lingerBatchSize = batchSize;
+            bucket.lingerGeneration += 1;
+
+            final long generation = bucket.lingerGeneration;
+            actor.runDelayed(MAX_LOCK_BATCH_LINGER, () -> stopLinger(bucket, generation));
+        }
+    }
+
+    private void stopLinger(TaskTypeBucket bucket, long generation)
+    {
+        // ignore the timer of an earlier linger which is already dispatched
+        if (bucket.isLingering && bucket.lingerGeneration == generation)
+        {
+            bucket.isLingering = false;
+
+            scheduleDispatch(bucket);
+            removeIfUnused(bucket);
+        }
+    }
+
+    private void scheduleDispatch(TaskTypeBucket bucket)
+    {
+        if (bucket.canDispatch() && !bucket.isDispatchPending)
+        {
+            bucket.isDispatchPending = true;
+            pendingDispatches.add(bucket);
+        }
+
+        if (!pendingDispatches.isEmpty() && !isDispatchScheduled)
+        {
+            isDispatchScheduled = true;
+            actor.submit(this::dispatchLockableTasks);
+        }
+    }
+
+    /**
+     * Locks the lockable tasks of the task types which got new subscriptions or credits.
+     */
+    private void dispatchLockableTasks()
+    {
+        isDispatchScheduled = false;
+
+        while (!pendingDispatches.isEmpty())
+        {
+            final TaskTypeBucket bucket = pendingDispatches.get(pendingDispatches.size() - 1);
+
+            while (bucket.canDispatch())
             {
-                final long lockTimeout = ActorClock.currentTimeMillis() + selectedSubscriber.getLockDuration();
+                final TaskSubscription subscription = bucket.getNextAvailableSubscription();
+                if (subscription == null)
+                {
+                    break;
+                }
 
-                taskEvent
-                    .setState(TaskState.LOCK)
-                    .setLockTime(lockTimeout)
-                    .setLockOwner(selectedSubscriber.getLockOwner());
+                final int batchSize = Math.min(subscription.getCredits(), subscription.getLockBatchSize());
+
+                final int lockedTasks;
+                if (batchSize > 1)
+                {
+                    lockedTasks = tryWriteLockEvents(bucket.lockableTasks, batchSize, subscription);
+                }
+                else
+                {
+                    lockedTasks = tryWriteLockEvent(bucket.lockableTasks.peekPosition(), subscription) ? 1 : 0;
+                }
+
+                if (lockedTasks == 0)
+                {
+                    // backpressure - continue with the same tasks later
+                    isDispatchScheduled = true;
+                    actor.runDelayed(BACKPRESSURE_RETRY_DELAY, this::dispatchLockableTasks);
+                    return;
+                }
+
+                for (int i = 0; i < lockedTasks; i++)
+                {
+                    onLocked(bucket.lockableTasks.peekKey(), subscription);
+                    bucket.lockableTasks.poll();
+                }
+                bucket.subscriptions.addCredits(subscription.getSubscriberKey(), -lockedTasks);
             }
+
+            bucket.isLingering = false;
+
+            bucket.isDispatchPending = false;
+            pendingDispatches.remove(pendingDispatches.size() - 1);
+
+            removeIfUnused(bucket);
         }
     }
 
-    @Override
-    public long writeEvent(TypedEvent<TaskEvent> event, TypedStreamWriter writer)
+    private boolean tryWriteLockEvent(long eventPosition, TaskSubscription subscription)
+    {
+        final TypedEvent<TaskEvent> event = streamReader.readValue(eventPosition, TaskEvent.class);
+
+        lockTask(event.getValue(), subscription);
+
+        return streamWriter.writeFollowupEvent(event.getKey(), event.getValue(), m -> assignTo(m, subscription)) >= 0;
+    }
+
+    /**
+     * Writes the lock events of the oldest lockable tasks as one batch.
+     *
+     * @return the number of locked tasks, or zero if the batch could not be written
+     */
+    private int tryWriteLockEvents(LockableTasks lockableTasks, int limit, TaskSubscription subscription)
     {
-        long position = 0;
+        final int peekedTasks = lockableTasks.peek(batchKeys, batchPositions, limit);
+
+        final TypedBatchWriter batchWriter = streamWriter.newBatch();
+        final Consumer<BrokerEventMetadata> metadata = m -> assignTo(m, subscription);
+
+        int batchTasks = 0;
+        int batchBytes = 0;
+
+        while (batchTasks < peekedTasks && batchBytes < MAX_LOCK_BATCH_BYTES)
+        {
+            final TypedEvent<TaskEvent> event = streamReader.readValue(batchPositions[batchTasks], TaskEvent.class);
+            final TaskEvent taskEvent = event.getValue();
+
+            lockTask(taskEvent, subscription);
+
+            // the reader reuses its value - so copy the event for the batch
+            final TaskEvent batchEvent = copyToBatch(batchTasks, taskEvent);
+            batchWriter.addFollowUpEvent(batchKeys[batchTasks], batchEvent, metadata);
+
+            batchBytes += batchEvent.getLength();
+            batchTasks += 1;
+        }
+
+        return batchWriter.write() >= 0 ? batchTasks : 0;
+    }
 
-        if (selectedSubscriber != null)
+    private TaskEvent copyToBatch(int index, TaskEvent taskEvent)
+    {
+        if (batchEvents[index] == null)
         {
-            position = writer.writeFollowupEvent(
-                event.getKey(),
-                event.getValue(),
-                this::assignToSelectedSubscriber);
+            batchEvents[index] = new TaskEvent();
+            batchBuffers[index] = new ExpandableArrayBuffer();
         }
-        return position;
+
+        final ExpandableArrayBuffer buffer = batchBuffers[index];
+        final int length = taskEvent.getLength();
+
+        buffer.checkLimit(length);
+        taskEvent.write(buffer, 0);
+
+        final TaskEvent batchEvent = batchEvents[index];
+        batchEvent.wrap(buffer, 0, length);
+
+        return batchEvent;
     }
 
-    private void assignToSelectedSubscriber(BrokerEventMetadata metadata)
+    private static void lockTask(TaskEvent taskEvent, TaskSubscription subscription)
     {
-        metadata.subscriberKey(selectedSubscriber.getSubscriberKey());
-        metadata.requestStreamId(selectedSubscriber.getStreamId());
+        final long lockTimeout = ActorClock.currentTimeMillis() + subscription.getLockDuration();
+
+        taskEvent
+            .setState(TaskState.LOCK)
+            .setLockTime(lockTimeout)
+            .setLockOwner(subscription.getLockOwner());
     }
 
-    @Override
-    public void updateState(TypedEvent<TaskEvent> event)
+    private static void assignTo(BrokerEventMetadata metadata, TaskSubscription subscription)
+    {
+        metadata.subscriberKey(subscription.getSubscriberKey());
+        metadata.requestStreamId(subscription.getStreamId());
+    }
+
+    private class LockableTaskProcessor implements TypedEventProcessor<TaskEvent>
     {
-        if (selectedSubscriber != null)
+        @Override
+        public void processEvent(TypedEvent<TaskEvent> event)
         {
-            subscriptions.addCredits(selectedSubscriber.getSubscriberKey(), -1);
+            lastEventPosition = event.getPosition();
 
-            if (subscriptions.getTotalCredits() <= 0)
+            selectedSubscriber = null;
+            selectedBatchSubscriber = null;
+            selectedBatchSize = 1;
+
+            final TaskEvent taskEvent = event.getValue();
+
+            if (taskEvent.getRetries() > 0)
+            {
+                final TaskTypeBucket bucket = taskTypes.get(taskEvent.getType());
+
+                // older lockable tasks of this type are locked first
+                if (bucket != null && bucket.lockableTasks.isEmpty() && !bucket.isReadingBacklog())
+                {
+                    if (bucket.batchSubscriber != null)
+                    {
+                        // the subscription of the pending batch is already selected
+                        selectedBatchSize = bucket.batchSubscriber.getLockBatchSize();
+                    }
+                    else
+                    {
+                        selectedSubscriber = bucket.getNextAvailableSubscription();
+
+                        if (selectedSubscriber != null && selectedSubscriber.getLockBatchSize() > 1)
+                        {
+                            // collect the task for a batch of this subscription instead of locking it directly
+                            selectedBatchSubscriber = selectedSubscriber;
+                            selectedBatchSize = selectedSubscriber.getLockBatchSize();
+                            selectedSubscriber = null;
+                        }
+                        else if (selectedSubscriber != null)
+                        {
+                            lockTask(taskEvent, selectedSubscriber);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public long writeEvent(TypedEvent<TaskEvent> event, TypedStreamWriter writer)
+        {
+            long position = 0;
+
+            if (selectedSubscriber != null)
+            {
+                position = writer.writeFollowupEvent(
+                    event.getKey(),
+                    event.getValue(),
+                    m -> assignTo(m, selectedSubscriber));
+            }
+            return position;
+        }
+
+        @Override
+        public void updateState(TypedEvent<TaskEvent> event)
+        {
+            final TaskEvent taskEvent = event.getValue();
+
+            releaseLock(event);
+
+            if (selectedSubscriber != null)
+            {
+                final TaskTypeBucket bucket = taskTypesBySubscriberKey.get(selectedSubscriber.getSubscriberKey());
+                if (bucket != null)
+                {
+                    bucket.subscriptions.addCredits(selectedSubscriber.getSubscriberKey(), -1);
+                    onLocked(event.getKey(), selectedSubscriber);
+                }
+            }
+            else if (taskEvent.getRetries() > 0)
+            {
+                // the tasks of types without subscription are not kept
+                final TaskTypeBucket bucket = getSubscribedBucket(taskEvent.getType());
+                if (bucket != null)
+                {
+                    bucket.addLockableTask(event.getKey(), event.getPosition());
+
+                    if (selectedBatchSubscriber != null)
+                    {
+                        bucket.batchSubscriber = selectedBatchSubscriber;
+                    }
+
+                    if (selectedBatchSize > 1)
+                    {
+                        startLinger(bucket, selectedBatchSize);
+                    }
+
+                    if (bucket.isLingering && bucket.lockableTasks.size() >= bucket.lingerBatchSize)
+                    {
+                        scheduleDispatch(bucket);
+                    }
+                }
+            }
+            else
+            {
+                removeLockableTask(event);
+            }
+        }
+    }
+
+    private static class TaskTypeBucket
+    {
+        private final DirectBuffer taskType;
+
+        private final TaskSubscriptions subscriptions = new TaskSubscriptions(8);
+        private final SubscriptionIterator managementIterator = subscriptions.iterator();
+
+        private TaskDistribution distribution;
+        private TaskDistributionStrategy distributionStrategy;
+
+        private LockableTasks lockableTasks = new LockableTasks();
+
+        // set while the lockable tasks are read from the log
+        private LockableTasks backlog;
+        private long backlogPosition;
+        private long backlogEndPosition;
+        // the keys of the tasks which are added or removed by the processor meanwhile
+        private final Long2LongHashMap changedTasks = new Long2LongHashMap(-1L);
+
+        private boolean isDispatchPending;
+
+        private boolean isLingering;
+        private int lingerBatchSize;
+        private long lingerGeneration;
+
+        // selected by the distribution strategy for the next batch
+        private TaskSubscription batchSubscriber;
+
+        TaskTypeBucket(DirectBuffer taskType)
+        {
+            this.taskType = cloneBuffer(taskType);
+
+            setDistribution(TaskDistribution.ROUND_ROBIN);
+        }
+
+        void setDistribution(TaskDistribution distribution)
+        {
+            if (this.distribution != distribution)
+            {
+                this.distribution = distribution;
+                this.distributionStrategy = distribution.newStrategy(subscriptions);
+            }
+        }
+
+        boolean canDispatch()
+        {
+            return subscriptions.getTotalCredits() > 0 && !lockableTasks.isEmpty() && !isReadingBacklog();
+        }
+
+        boolean isUnused()
+        {
+            return subscriptions.isEmpty() && lockableTasks.isEmpty() && !isDispatchPending && !isLingering && !isReadingBacklog();
+        }
+
+        boolean isReadingBacklog()
+        {
+            return backlog != null;
+        }
+
+        void addLockableTask(long key, long position)
+        {
+            lockableTasks.add(key, position);
+
+            if (isReadingBacklog())
+            {
+                changedTasks.put(key, position);
+            }
+        }
+
+        void removeLockableTask(long key)
+        {
+            lockableTasks.remove(key);
+
+            if (isReadingBacklog())
+            {
+                changedTasks.put(key, 0L);
+            }
+        }
+
+        void startBacklog(long endPosition)
+        {
+            backlog = new LockableTasks();
+            backlogPosition = -1L;
+            backlogEndPosition = endPosition;
+        }
+
+        /**
+         * Puts the tasks of the backlog in front of the tasks which got lockable meanwhile.
+         */
+        void endBacklog()
+        {
+            if (backlog == null)
+            {
+                return;
+            }
+
+            // the processed events are newer than the backlog
+            changedTasks.keySet().forEach(backlog::remove);
+
+            final int size = lockableTasks.size();
+            final long[] keys = new long[size];
+            final long[] positions = new long[size];
+            lockableTasks.peek(keys, positions, size);
+
+            for (int i = 0; i < size; i++)
+            {
+                backlog.add(keys[i], positions[i]);
+            }
+
+            lockableTasks = backlog;
+            backlog = null;
+            changedTasks.clear();
+        }
+
+        TaskSubscription getNextAvailableSubscription()
+        {
+            final TaskSubscription selectedSubscriber = batchSubscriber;
+            batchSubscriber = null;
+
+            // a subscription which is selected for a batch gets it, if it is still available;
+            // so the state of the strategy is only advanced once per locked batch
+            if (selectedSubscriber != null
+                    && selectedSubscriber.getCredits() > 0
+                    && subscriptions.getSubscription(selectedSubscriber.getSubscriberKey()) == selectedSubscriber)
+            {
+                return selectedSubscriber;
+            }
+            else
             {
-                context.suspendController();
+                return distributionStrategy.nextSubscription();
             }
         }
     }
@@ -0,0 +1,180 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import org.agrona.collections.Long2LongHashMap;
+
+/**
+ * FIFO of the tasks of one type which can be locked, i.e. which are created,
+ * failed or whose lock is expired and which have retries left. Each task is
+ * stored with the position of its last event which made it lockable.
+ *
+ * <p>
+ * Removing a task is O(1), the queue entry is skipped when it reaches the head.
+ */
+public class LockableTasks
+{
+    private static final long MISSING = -1L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Long2LongHashMap sequenceByKey = new Long2LongHashMap(MISSING);
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+
+    private long headSequence = 0;
+    private long tailSequence = 0;
+
+    public void add(long key, long position)
+    {
+        final long sequence = sequenceByKey.get(key);
+
+        if (sequence != MISSING)
+        {
+            positions[index(sequence)] = position;
+        }
+        else
+        {
+            if (tailSequence - headSequence == keys.length)
+            {
+                resize();
+            }
+
+            keys[index(tailSequence)] = key;
+            positions[index(tailSequence)] = position;
+            sequenceByKey.put(key, tailSequence);
+
+            tailSequence += 1;
+        }
+    }
+
+    public void remove(long key)
+    {
+        if (sequenceByKey.remove(key) != MISSING)
+        {
+            skipRemoved();
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return sequenceByKey.isEmpty();
+    }
+
+    public int size()
+    {
+        return sequenceByKey.size();
+    }
+
+    /**
+     * @return the key of the oldest task; must not be called if empty
+     */
+    public long peekKey()
+    {
+        return keys[index(headSequence)];
+    }
+
+    /**
+     * @return the event position of the oldest task; must not be called if empty
+     */
+    public long peekPosition()
+    {
+        return positions[index(headSequence)];
+    }
+
+    /**
+     * Copies the oldest tasks without removing them.
+     *
+     * @return the number of copied tasks
+     */
+    public int peek(long[] keyBuffer, long[] positionBuffer, int limit)
+    {
+        int count = 0;
+
+        for (long sequence = headSequence; sequence < tailSequence && count < limit; sequence++)
+        {
+            final long key = keys[index(sequence)];
+
+            if (sequenceByKey.get(key) == sequence)
+            {
+                keyBuffer[count] = key;
+                positionBuffer[count] = positions[index(sequence)];
+
+                count += 1;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Removes the oldest task.
+     */
+    public void poll()
+    {
+        if (!isEmpty())
+        {
+            sequenceByKey.remove(peekKey());
+            headSequence += 1;
+
+            skipRemoved();
+        }
+    }
+
+    private void skipRemoved()
+    {
+        while (headSequence < tailSequence && sequenceByKey.get(keys[index(headSequence)]) != headSequence)
+        {
+            headSequence += 1;
+        }
+    }
+
+    private void resize()
+    {
+        // compact the removed entries and grow only if the queue is more than half full
+        final int capacity = sequenceByKey.size() * 2 > keys.length ? keys.length * 2 : keys.length;
+
+        final long[] newKeys = new long[capacity];
+        final long[] newPositions = new long[capacity];
+
+        int size = 0;
+        for (long sequence = headSequence; sequence < tailSequence; sequence++)
+        {
+            final long key = keys[index(sequence)];
+
+            if (sequenceByKey.get(key) == sequence)
+            {
+                newKeys[size] = key;
+                newPositions[size] = positions[index(sequence)];
+                sequenceByKey.put(key, size);
+
+                size += 1;
+            }
+        }
+
+        keys = newKeys;
+        positions = newPositions;
+        headSequence = 0;
+        tailSequence = size;
+    }
+
+    private int index(long sequence)
+    {
+        return (int) (sequence & (keys.length - 1));
+    }
+}
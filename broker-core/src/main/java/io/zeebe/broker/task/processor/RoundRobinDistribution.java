@@ -0,0 +1,78 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import io.zeebe.broker.task.processor.TaskSubscriptions.SubscriptionIterator;
+
+public class RoundRobinDistribution implements TaskDistributionStrategy
+{
+    protected final TaskSubscriptions subscriptions;
+    protected final SubscriptionIterator iterator;
+
+    public RoundRobinDistribution(TaskSubscriptions subscriptions)
+    {
+        this.subscriptions = subscriptions;
+        this.iterator = subscriptions.iterator();
+    }
+
+    @Override
+    public TaskSubscription nextSubscription()
+    {
+        TaskSubscription nextSubscription = null;
+
+        if (subscriptions.getTotalCredits() > 0)
+        {
+            final int subscriptionSize = subscriptions.size();
+            int seenSubscriptions = 0;
+
+            while (seenSubscriptions < subscriptionSize && nextSubscription == null)
+            {
+                final TaskSubscription subscription = nextInTurn();
+                if (subscription.getCredits() > 0)
+                {
+                    nextSubscription = subscription;
+                }
+
+                seenSubscriptions += 1;
+            }
+        }
+        return nextSubscription;
+    }
+
+    protected TaskSubscription nextInTurn()
+    {
+        if (!iterator.hasNext())
+        {
+            iterator.reset();
+        }
+        return iterator.next();
+    }
+
+    /**
+     * Moves the turn to the subscription after the given one.
+     */
+    protected void continueAfter(TaskSubscription subscription)
+    {
+        TaskSubscription current;
+        do
+        {
+            current = nextInTurn();
+        }
+        while (current != subscription);
+    }
+}
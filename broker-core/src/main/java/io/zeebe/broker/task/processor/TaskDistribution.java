@@ -0,0 +1,60 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import java.util.function.Function;
+
+/**
+ * The strategies to distribute the tasks of a type among its subscriptions.
+ * All subscriptions of a task type must use the same strategy.
+ */
+public enum TaskDistribution
+{
+    /**
+     * Each subscription with credits gets a task in turn.
+     */
+    ROUND_ROBIN(RoundRobinDistribution::new),
+
+    /**
+     * The subscription with the fewest locked but not yet completed tasks gets the task.
+     */
+    LEAST_OUTSTANDING_LOCKS(LeastOutstandingLocksDistribution::new),
+
+    /**
+     * The subscriptions get the tasks in proportion to their credits.
+     */
+    CREDIT_WEIGHTED(CreditWeightedDistribution::new),
+
+    /**
+     * The subscription with the lowest expected completion time gets the task,
+     * i.e. the average time to complete a task multiplied by the outstanding locks.
+     */
+    LATENCY_AWARE(LatencyAwareDistribution::new);
+
+    private final Function<TaskSubscriptions, TaskDistributionStrategy> factory;
+
+    TaskDistribution(Function<TaskSubscriptions, TaskDistributionStrategy> factory)
+    {
+        this.factory = factory;
+    }
+
+    public TaskDistributionStrategy newStrategy(TaskSubscriptions subscriptions)
+    {
+        return factory.apply(subscriptions);
+    }
+}
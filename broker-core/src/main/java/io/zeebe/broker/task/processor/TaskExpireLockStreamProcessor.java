@@ -17,13 +17,6 @@
  */
 package io.zeebe.broker.task.processor;
 
-import static org.agrona.BitUtil.SIZE_OF_LONG;
-
-import java.util.Iterator;
-
-import org.agrona.DirectBuffer;
-import org.agrona.concurrent.UnsafeBuffer;
-
 import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
@@ -34,19 +27,14 @@ import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.task.TaskQueueManagerService;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskState;
-import io.zeebe.map.Long2BytesZbMap;
-import io.zeebe.map.iterator.Long2BytesZbMapEntry;
+import io.zeebe.broker.task.map.LockExpirationIndex;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.util.sched.ScheduledTimer;
 import io.zeebe.util.sched.clock.ActorClock;
 
 public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAware
 {
-    protected static final int MAP_VALUE_MAX_LENGTH = SIZE_OF_LONG + SIZE_OF_LONG;
-
-    protected Long2BytesZbMap expirationMap = new Long2BytesZbMap(MAP_VALUE_MAX_LENGTH);
-
-    private UnsafeBuffer mapAccessBuffer = new UnsafeBuffer(new byte[MAP_VALUE_MAX_LENGTH]);
+    protected final LockExpirationIndex expirationIndex = new LockExpirationIndex();
 
     private final TaskEventWriter streamWriter;
 
@@ -77,34 +65,13 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
 
     private void timeOutTasks()
     {
-        final Iterator<Long2BytesZbMapEntry> iterator = expirationMap.iterator();
-
-        while (iterator.hasNext())
-        {
-            final Long2BytesZbMapEntry entry = iterator.next();
-
-            final DirectBuffer value = entry.getValue();
-
-            final long eventPosition = value.getLong(0);
-            final long lockExpirationTime = value.getLong(SIZE_OF_LONG);
-
-            if (lockExpired(lockExpirationTime))
-            {
-                // TODO: would be nicer to have a consumable channel for timed-out timers
-                //   that we can stop consuming/yield on backpressure
-
-                final boolean success = streamWriter.tryWriteTaskEvent(eventPosition, TaskState.EXPIRE_LOCK);
-                if (!success)
-                {
-                    return;
-                }
-            }
-        }
+        // stops on backpressure and continues with the same task on the next run
+        expirationIndex.forEachExpired(ActorClock.currentTimeMillis(), this::expireLock);
     }
 
-    private boolean lockExpired(long lockExpirationTime)
+    private boolean expireLock(long taskKey, long lockEventPosition)
     {
-        return lockExpirationTime <= ActorClock.currentTimeMillis();
+        return streamWriter.tryWriteTaskEvent(lockEventPosition, TaskState.EXPIRE_LOCK);
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment environment)
@@ -116,10 +83,7 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
             {
                 final long lockTime = event.getValue().getLockTime();
 
-                mapAccessBuffer.putLong(0, event.getPosition());
-                mapAccessBuffer.putLong(SIZE_OF_LONG, lockTime);
-
-                expirationMap.put(event.getKey(), mapAccessBuffer);
+                expirationIndex.add(event.getKey(), event.getPosition(), lockTime);
             }
         };
 
@@ -128,7 +92,7 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
             @Override
             public void updateState(TypedEvent<TaskEvent> event)
             {
-                expirationMap.remove(event.getKey());
+                expirationIndex.remove(event.getKey());
             }
         };
 
@@ -138,7 +102,8 @@ public class TaskExpireLockStreamProcessor implements StreamProcessorLifecycleAw
             .onEvent(EventType.TASK_EVENT, TaskState.COMPLETED, unregisterTask)
             .onEvent(EventType.TASK_EVENT, TaskState.FAILED, unregisterTask)
             .withListener(this)
-            .withStateResource(expirationMap)
+            .withStateResource(expirationIndex.getTaskMap())
+            .withStateResource(expirationIndex.getBucketMap())
             .build();
     }
 }
@@ -22,12 +22,15 @@ import static io.zeebe.broker.util.PayloadUtil.isValidPayload;
 import static io.zeebe.protocol.clientapi.EventType.TASK_EVENT;
 
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 
+import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedEvent;
 import io.zeebe.broker.logstreams.processor.TypedEventProcessor;
 import io.zeebe.broker.logstreams.processor.TypedResponseWriter;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.logstreams.processor.TypedStreamReader;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.task.CreditsRequest;
 import io.zeebe.broker.task.TaskSubscriptionManager;
@@ -54,6 +57,9 @@ public class TaskInstanceStreamProcessor
     protected final TaskInstanceMap taskIndex;
     protected int logStreamPartitionId;
 
+    protected TypedStreamReader lockedTaskReader;
+    protected final ExpandableArrayBuffer restoredTaskBuffer = new ExpandableArrayBuffer();
+
     public TaskInstanceStreamProcessor(TaskSubscriptionManager taskSubscriptionManager)
     {
         this.taskSubscriptionManager = taskSubscriptionManager;
@@ -65,6 +71,7 @@ public class TaskInstanceStreamProcessor
     {
         this.logStreamPartitionId = environment.getStream().getPartitionId();
         this.subscribedEventWriter = new SubscribedEventWriter(environment.getOutput());
+        this.lockedTaskReader = environment.buildStreamReader();
 
         return environment.newStreamProcessor()
             .onEvent(EventType.TASK_EVENT, TaskState.CREATE, new CreateTaskProcessor())
@@ -74,10 +81,45 @@ public class TaskInstanceStreamProcessor
             .onEvent(EventType.TASK_EVENT, TaskState.EXPIRE_LOCK, new ExpireLockTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.UPDATE_RETRIES, new UpdateRetriesTaskProcessor())
             .onEvent(EventType.TASK_EVENT, TaskState.CANCEL, new CancelTaskProcessor())
+            .ownsCommands(EventType.TASK_EVENT)
             .withStateResource(taskIndex.getMap())
+            .withListener(new StreamProcessorLifecycleAware()
+            {
+                @Override
+                public void onClose()
+                {
+                    lockedTaskReader.close();
+                }
+            })
             .build();
     }
 
+    /**
+     * Reads the command which locked the current task of the task index. It
+     * contains all properties of the task, e.g. the headers and custom headers.
+     * The headers are not kept in the task index since its values have a fixed
+     * size.
+     */
+    private TaskEvent readLockedTask()
+    {
+        return lockedTaskReader.readValue(taskIndex.getLockPosition(), TaskEvent.class).getValue();
+    }
+
+    /**
+     * Complete and fail commands only need to carry the lock owner and the
+     * payload or retries of the task. The command is replaced by the locked
+     * task, so that the follow-up event and the response contain the whole task.
+     */
+    private void restoreTask(TaskEvent command, TaskEvent lockedTask)
+    {
+        final int length = lockedTask.getLength();
+
+        restoredTaskBuffer.checkLimit(length);
+        lockedTask.write(restoredTaskBuffer, 0);
+
+        command.wrap(restoredTaskBuffer, 0, length);
+    }
+
     private class CreateTaskProcessor implements TypedEventProcessor<TaskEvent>
     {
 
@@ -183,6 +225,7 @@ public class TaskInstanceStreamProcessor
             {
                 taskIndex
                     .setState(STATE_LOCKED)
+                    .setLockPosition(event.getPosition())
                     .setLockOwner(event.getValue().getLockOwner())
                     .write();
             }
@@ -213,6 +256,11 @@ public class TaskInstanceStreamProcessor
                 {
                     if (BufferUtil.contentsEqual(taskIndex.getLockOwner(), value.getLockOwner()))
                     {
+                        final TaskEvent lockedTask = readLockedTask();
+                        lockedTask.setPayload(payload);
+
+                        restoreTask(value, lockedTask);
+
                         taskEventType = TaskState.COMPLETED;
                         isCompleted = true;
                     }
@@ -258,6 +306,11 @@ public class TaskInstanceStreamProcessor
             taskIndex.wrapTaskInstanceKey(event.getKey());
             if (taskIndex.getState() == STATE_LOCKED && BufferUtil.contentsEqual(taskIndex.getLockOwner(), value.getLockOwner()))
             {
+                final TaskEvent lockedTask = readLockedTask();
+                lockedTask.setRetries(value.getRetries());
+
+                restoreTask(value, lockedTask);
+
                 value.setState(TaskState.FAILED);
                 isFailed = true;
             }
@@ -38,6 +38,14 @@ public class TaskSubscription
 
     private int credits;
 
+    private int lockBatchSize = 1;
+
+    private TaskDistribution distribution = TaskDistribution.ROUND_ROBIN;
+
+    private int outstandingLocks;
+    private long averageCompletionTime = -1L;
+    private long distributionWeight;
+
     public TaskSubscription(int partitionId, DirectBuffer lockTaskType, long lockDuration, DirectBuffer lockOwner, int streamId)
     {
         this.partitionId = partitionId;
@@ -57,6 +65,73 @@ public class TaskSubscription
         this.credits = credits;
     }
 
+    /**
+     * @return the maximum number of tasks which are locked for this subscription at once
+     */
+    public int getLockBatchSize()
+    {
+        return lockBatchSize;
+    }
+
+    public void setLockBatchSize(int lockBatchSize)
+    {
+        this.lockBatchSize = lockBatchSize;
+    }
+
+    public TaskDistribution getDistribution()
+    {
+        return distribution;
+    }
+
+    public void setDistribution(TaskDistribution distribution)
+    {
+        this.distribution = distribution;
+    }
+
+    /**
+     * @return the number of tasks which are locked for this subscription but not completed, failed or expired yet
+     */
+    public int getOutstandingLocks()
+    {
+        return outstandingLocks;
+    }
+
+    public void setOutstandingLocks(int outstandingLocks)
+    {
+        this.outstandingLocks = outstandingLocks;
+    }
+
+    /**
+     * @return the moving average of the time in milliseconds from locking to completing a task,
+     *         or a negative value if no task was completed yet
+     */
+    public long getAverageCompletionTime()
+    {
+        return averageCompletionTime;
+    }
+
+    public void addCompletionTime(long completionTime)
+    {
+        if (averageCompletionTime < 0)
+        {
+            averageCompletionTime = completionTime;
+        }
+        else
+        {
+            averageCompletionTime += (completionTime - averageCompletionTime) / 8;
+        }
+    }
+
+    public long getDistributionWeight()
+    {
+        return distributionWeight;
+    }
+
+    public void setDistributionWeight(long distributionWeight)
+    {
+        this.distributionWeight = distributionWeight;
+    }
+
     public long getSubscriberKey()
     {
         return subscriberKey;
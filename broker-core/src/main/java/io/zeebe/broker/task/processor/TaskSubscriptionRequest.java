@@ -32,13 +32,19 @@ public class TaskSubscriptionRequest extends UnpackedObject
 
     protected IntegerProperty creditsProp = new IntegerProperty("credits", -1);
 
+    protected IntegerProperty lockBatchSizeProp = new IntegerProperty("lockBatchSize", 1);
+
+    protected EnumProperty<TaskDistribution> distributionProp = new EnumProperty<>("distribution", TaskDistribution.class, TaskDistribution.ROUND_ROBIN);
+
     public TaskSubscriptionRequest()
     {
         this.declareProperty(subscriberKeyProp)
             .declareProperty(taskTypeProp)
             .declareProperty(lockDurationProp)
             .declareProperty(lockOwnerProp)
-            .declareProperty(creditsProp);
+            .declareProperty(creditsProp)
+            .declareProperty(lockBatchSizeProp)
+            .declareProperty(distributionProp);
     }
 
     public TaskSubscriptionRequest setSubscriberKey(long subscriberKey)
@@ -71,6 +77,18 @@ public class TaskSubscriptionRequest extends UnpackedObject
         return this;
     }
 
+    public TaskSubscriptionRequest setLockBatchSize(int lockBatchSize)
+    {
+        this.lockBatchSizeProp.setValue(lockBatchSize);
+        return this;
+    }
+
+    public TaskSubscriptionRequest setDistribution(TaskDistribution distribution)
+    {
+        this.distributionProp.setValue(distribution);
+        return this;
+    }
+
     public long getSubscriberKey()
     {
         return subscriberKeyProp.getValue();
@@ -96,4 +114,14 @@ public class TaskSubscriptionRequest extends UnpackedObject
         return lockOwnerProp.getValue();
     }
 
+    public int getLockBatchSize()
+    {
+        return lockBatchSizeProp.getValue();
+    }
+
+    public TaskDistribution getDistribution()
+    {
+        return distributionProp.getValue();
+    }
+
 }
@@ -78,6 +78,12 @@ public class TaskSubscriptions implements Iterable<TaskSubscription>
         }
     }
 
+    public TaskSubscription getSubscription(long subscriberKey)
+    {
+        final long idx = lookupTable.get(subscriberKey);
+        return idx >= 0 ? subscriptions[(int) idx] : null;
+    }
+
     public boolean isEmpty()
     {
         return lookupTable.isEmpty();
@@ -32,10 +32,15 @@ import io.zeebe.broker.services.DispatcherService;
 import io.zeebe.broker.system.*;
 import io.zeebe.broker.system.configuration.NetworkCfg;
 import io.zeebe.broker.system.configuration.SocketBindingCfg;
+import io.zeebe.broker.system.configuration.SocketBindingClientApiCfg;
 import io.zeebe.broker.task.TaskQueueServiceNames;
+import io.zeebe.broker.transport.clientapi.ClientApiCommandShardService;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
 import io.zeebe.broker.transport.clientapi.ClientApiMessageHandlerService;
+import io.zeebe.broker.transport.clientapi.PartitionLeaderHints;
 import io.zeebe.broker.transport.controlmessage.ControlMessageHandlerManagerService;
 import io.zeebe.dispatcher.*;
+import io.zeebe.servicecontainer.ServiceBuilder;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.transport.*;
@@ -113,12 +118,35 @@ public class TransportComponent implements Component
             CLIENT_API_SERVER_NAME,
             new ByteValue(networkCfg.getClient().getControlMessageBufferSize()));
 
-        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService();
-        serviceContainer.createService(CLIENT_API_MESSAGE_HANDLER, messageHandlerService)
+        final SocketBindingClientApiCfg clientApiCfg = networkCfg.getClient();
+        final boolean isFullCommandValidation = clientApiCfg.isFullCommandValidation();
+        final int commandShardCount = clientApiCfg.getCommandShardCount();
+
+        // shared by the handlers, to answer commands for partitions which are led by another broker
+        final PartitionLeaderHints leaderHints = new PartitionLeaderHints();
+
+        final ClientApiMessageHandlerService messageHandlerService = new ClientApiMessageHandlerService(isFullCommandValidation, commandShardCount, leaderHints);
+        final ServiceBuilder<ClientApiMessageHandler> messageHandlerServiceBuilder = serviceContainer.createService(CLIENT_API_MESSAGE_HANDLER, messageHandlerService)
             .dependency(controlMessageBufferService, messageHandlerService.getControlMessageBufferInjector())
+            .dependency(ClusterBaseLayerServiceNames.TOPOLOGY_MANAGER_SERVICE, messageHandlerService.getTopologyManagerInjector())
             .groupReference(LEADER_PARTITION_GROUP_NAME, messageHandlerService.getLeaderParitionsGroupReference())
-            .groupReference(LEADER_PARTITION_SYSTEM_GROUP_NAME, messageHandlerService.getLeaderParitionsGroupReference())
-            .install();
+            .groupReference(LEADER_PARTITION_SYSTEM_GROUP_NAME, messageHandlerService.getLeaderParitionsGroupReference());
+
+        for (int i = 0; i < commandShardCount; i++)
+        {
+            final ServiceName<Dispatcher> commandBufferService = createReceiveBuffer(serviceContainer,
+                clientApiCommandShardName(i),
+                new ByteValue(clientApiCfg.getCommandBufferSize()));
+
+            final ClientApiCommandShardService commandShardService = new ClientApiCommandShardService(i, isFullCommandValidation, leaderHints);
+            serviceContainer.createService(clientApiCommandShard(i), commandShardService)
+                .dependency(commandBufferService, commandShardService.getCommandBufferInjector())
+                .install();
+
+            messageHandlerServiceBuilder.dependency(clientApiCommandShard(i), messageHandlerService.getCommandShardInjector(i));
+        }
+
+        messageHandlerServiceBuilder.install();
 
         final RaftApiMessageHandlerService raftApiMessageHandlerService = new RaftApiMessageHandlerService();
         serviceContainer.createService(REPLICATION_API_MESSAGE_HANDLER, raftApiMessageHandlerService)
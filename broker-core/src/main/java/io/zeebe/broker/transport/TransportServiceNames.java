@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.transport;
 
+import io.zeebe.broker.transport.clientapi.ClientApiCommandShard;
 import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
 import io.zeebe.broker.transport.controlmessage.ControlMessageHandlerManager;
 import io.zeebe.dispatcher.Dispatcher;
@@ -38,6 +39,16 @@ public class TransportServiceNames
     public static final String MANAGEMENT_API_CLIENT_NAME = "managementApi.client";
     public static final String REPLICATION_API_CLIENT_NAME = "replicationApi.client";
 
+    public static ServiceName<ClientApiCommandShard> clientApiCommandShard(int shardId)
+    {
+        return ServiceName.newServiceName(String.format("transport.clientApi.commandShard.%d", shardId), ClientApiCommandShard.class);
+    }
+
+    public static String clientApiCommandShardName(int shardId)
+    {
+        return String.format("%s.commands-%d", CLIENT_API_SERVER_NAME, shardId);
+    }
+
     public static ServiceName<Dispatcher> receiveBufferName(String identifier)
     {
         return ServiceName.newServiceName(String.format("transport.%s.receive-buffer", identifier), Dispatcher.class);
@@ -0,0 +1,171 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.transport.controlmessage.ControlMessageRequestHeaderDescriptor;
+import io.zeebe.dispatcher.ClaimedFragment;
+import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.dispatcher.FragmentHandler;
+import io.zeebe.dispatcher.Subscription;
+import io.zeebe.transport.RemoteAddress;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Handles the execute command requests of a subset of the leader partitions
+ * on its own actor. The receiving thread of the client api only copies a
+ * request into the command buffer of the shard, so that the requests of
+ * partitions in different shards are validated and appended concurrently.
+ */
+public class ClientApiCommandShard extends Actor implements FragmentHandler
+{
+    protected static final int MAX_FRAGMENTS_PER_POLL = 64;
+
+    // used by the receiving thread
+    protected final ControlMessageRequestHeaderDescriptor offerHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
+    protected final ClaimedFragment claimedFragment = new ClaimedFragment();
+
+    // used by the actor
+    protected final ControlMessageRequestHeaderDescriptor requestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
+
+    protected final String name;
+    protected final Dispatcher commandBuffer;
+    protected final ExecuteCommandRequestHandler commandRequestHandler;
+
+    // set by the receiving thread before the first request is committed to the command buffer
+    protected volatile ServerOutput output;
+
+    public ClientApiCommandShard(int shardId, Dispatcher commandBuffer, boolean isFullCommandValidation)
+    {
+        this(shardId, commandBuffer, isFullCommandValidation, new PartitionLeaderHints());
+    }
+
+    public ClientApiCommandShard(int shardId, Dispatcher commandBuffer, boolean isFullCommandValidation, PartitionLeaderHints leaderHints)
+    {
+        this.name = "client-api-commands-" + shardId;
+        this.commandBuffer = commandBuffer;
+        this.commandRequestHandler = new ExecuteCommandRequestHandler(isFullCommandValidation, leaderHints);
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        final ActorFuture<Subscription> subscriptionAsync = commandBuffer.openSubscriptionAsync(name);
+
+        actor.runOnCompletion(subscriptionAsync, (subscription, throwable) ->
+        {
+            if (throwable == null)
+            {
+                actor.consume(subscription, () ->
+                {
+                    if (subscription.poll(this, MAX_FRAGMENTS_PER_POLL) == 0)
+                    {
+                        actor.yield();
+                    }
+                });
+            }
+            else
+            {
+                Loggers.TRANSPORT_LOGGER.error("Can't get subscription for {}", name, throwable);
+            }
+        });
+    }
+
+    public ActorFuture<Void> closeAsync()
+    {
+        return actor.close();
+    }
+
+    public void addPartition(final Partition partition)
+    {
+        actor.call(() -> commandRequestHandler.addPartition(partition));
+    }
+
+    public void removePartition(final Partition partition)
+    {
+        actor.call(() -> commandRequestHandler.removePartition(partition));
+    }
+
+    /**
+     * Called by the receiving thread of the client api.
+     *
+     * @return <code>false</code> if the command buffer is full
+     */
+    public boolean offer(ServerOutput output, RemoteAddress remoteAddress, long requestId, DirectBuffer buffer, int offset, int length)
+    {
+        if (this.output == null)
+        {
+            this.output = output;
+        }
+
+        long publishPosition;
+
+        do
+        {
+            publishPosition = commandBuffer.claim(claimedFragment, ControlMessageRequestHeaderDescriptor.framedLength(length));
+        }
+        while (publishPosition == -2);
+
+        if (publishPosition >= 0)
+        {
+            final MutableDirectBuffer writeBuffer = claimedFragment.getBuffer();
+            final int writeOffset = claimedFragment.getOffset();
+
+            offerHeaderDescriptor
+                .wrap(writeBuffer, writeOffset)
+                .streamId(remoteAddress.getStreamId())
+                .requestId(requestId);
+
+            writeBuffer.putBytes(writeOffset + ControlMessageRequestHeaderDescriptor.headerLength(), buffer, offset, length);
+
+            claimedFragment.commit();
+        }
+
+        return publishPosition >= 0;
+    }
+
+    @Override
+    public int onFragment(DirectBuffer buffer, int offset, int length, int streamId, boolean isMarkedFailed)
+    {
+        requestHeaderDescriptor.wrap(buffer, offset);
+
+        final int headerLength = ControlMessageRequestHeaderDescriptor.headerLength();
+
+        final boolean isHandled = commandRequestHandler.onRequest(
+                output,
+                requestHeaderDescriptor.streamId(),
+                requestHeaderDescriptor.requestId(),
+                buffer,
+                offset + headerLength,
+                length - headerLength);
+
+        // retry on backpressure of the log stream
+        return isHandled ? CONSUME_FRAGMENT_RESULT : POSTPONE_FRAGMENT_RESULT;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.servicecontainer.*;
+
+public class ClientApiCommandShardService implements Service<ClientApiCommandShard>
+{
+    private final Injector<Dispatcher> commandBufferInjector = new Injector<>();
+
+    private final int shardId;
+    private final boolean isFullCommandValidation;
+    private final PartitionLeaderHints leaderHints;
+
+    private ClientApiCommandShard shard;
+
+    public ClientApiCommandShardService(int shardId, boolean isFullCommandValidation, PartitionLeaderHints leaderHints)
+    {
+        this.shardId = shardId;
+        this.isFullCommandValidation = isFullCommandValidation;
+        this.leaderHints = leaderHints;
+    }
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        final Dispatcher commandBuffer = commandBufferInjector.getValue();
+        shard = new ClientApiCommandShard(shardId, commandBuffer, isFullCommandValidation, leaderHints);
+
+        startContext.async(startContext.getScheduler().submitActor(shard));
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        stopContext.async(shard.closeAsync());
+    }
+
+    @Override
+    public ClientApiCommandShard get()
+    {
+        return shard;
+    }
+
+    public Injector<Dispatcher> getCommandBufferInjector()
+    {
+        return commandBufferInjector;
+    }
+}
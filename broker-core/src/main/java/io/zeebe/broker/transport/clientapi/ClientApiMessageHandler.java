@@ -17,22 +17,12 @@
  */
 package io.zeebe.broker.transport.clientapi;
 
-import java.util.EnumMap;
 import java.util.function.Consumer;
 
 import io.zeebe.broker.clustering.base.partitions.Partition;
-import io.zeebe.broker.event.processor.TopicSubscriberEvent;
-import io.zeebe.broker.event.processor.TopicSubscriptionEvent;
-import io.zeebe.broker.clustering.orchestration.topic.TopicEvent;
-import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.transport.controlmessage.ControlMessageRequestHeaderDescriptor;
-import io.zeebe.broker.workflow.data.DeploymentEvent;
-import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
 import io.zeebe.dispatcher.ClaimedFragment;
 import io.zeebe.dispatcher.Dispatcher;
-import io.zeebe.logstreams.log.LogStreamWriter;
-import io.zeebe.logstreams.log.LogStreamWriterImpl;
-import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.*;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
@@ -42,7 +32,6 @@ import io.zeebe.transport.ServerOutput;
 import io.zeebe.transport.ServerRequestHandler;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
-import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.concurrent.ManyToOneConcurrentLinkedQueue;
 
 public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequestHandler
@@ -54,122 +43,71 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
     protected final ManyToOneConcurrentLinkedQueue<Runnable> cmdQueue = new ManyToOneConcurrentLinkedQueue<>();
     protected final Consumer<Runnable> cmdConsumer = (c) -> c.run();
 
-    protected final Int2ObjectHashMap<Partition> leaderPartitions = new Int2ObjectHashMap<>();
     protected final BrokerEventMetadata eventMetadata = new BrokerEventMetadata();
-    protected final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
 
     protected final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter();
     protected final Dispatcher controlMessageDispatcher;
     protected final ClaimedFragment claimedControlMessageFragment = new ClaimedFragment();
 
-    protected final EnumMap<EventType, UnpackedObject> eventsByType = new EnumMap<>(EventType.class);
+    /**
+     * Handles the commands on the receiving thread, if there are no command shards.
+     */
+    protected final ExecuteCommandRequestHandler executeCommandRequestHandler;
+    protected final ClientApiCommandShard[] commandShards;
 
     public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher)
     {
-        this.controlMessageDispatcher = controlMessageDispatcher;
+        this(controlMessageDispatcher, true);
+    }
 
-        initEventTypeMap();
+    public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher, final boolean isFullCommandValidation)
+    {
+        this(controlMessageDispatcher, isFullCommandValidation, new ClientApiCommandShard[0]);
     }
 
-    private void initEventTypeMap()
+    public ClientApiMessageHandler(
+            final Dispatcher controlMessageDispatcher,
+            final boolean isFullCommandValidation,
+            final ClientApiCommandShard[] commandShards)
     {
-        eventsByType.put(EventType.DEPLOYMENT_EVENT, new DeploymentEvent());
-        eventsByType.put(EventType.TASK_EVENT, new TaskEvent());
-        eventsByType.put(EventType.WORKFLOW_INSTANCE_EVENT, new WorkflowInstanceEvent());
-        eventsByType.put(EventType.SUBSCRIBER_EVENT, new TopicSubscriberEvent());
-        eventsByType.put(EventType.SUBSCRIPTION_EVENT, new TopicSubscriptionEvent());
-        eventsByType.put(EventType.TOPIC_EVENT, new TopicEvent());
+        this(controlMessageDispatcher, isFullCommandValidation, commandShards, new PartitionLeaderHints());
+    }
+
+    public ClientApiMessageHandler(
+            final Dispatcher controlMessageDispatcher,
+            final boolean isFullCommandValidation,
+            final ClientApiCommandShard[] commandShards,
+            final PartitionLeaderHints leaderHints)
+    {
+        this.controlMessageDispatcher = controlMessageDispatcher;
+        this.executeCommandRequestHandler = new ExecuteCommandRequestHandler(isFullCommandValidation, leaderHints);
+        this.commandShards = commandShards;
     }
 
     private boolean handleExecuteCommandRequest(
             final ServerOutput output,
             final RemoteAddress requestAddress,
             final long requestId,
-            final BrokerEventMetadata eventMetadata,
             final DirectBuffer buffer,
             final int messageOffset,
             final int messageLength)
     {
-        executeCommandRequestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
-
-        final int partitionId = executeCommandRequestDecoder.partitionId();
-        final long key = executeCommandRequestDecoder.key();
-
-        final Partition partition = leaderPartitions.get(partitionId);
-
-        if (partition == null)
+        if (commandShards.length == 0)
         {
-            return errorResponseWriter
-                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
-                .errorMessage("Cannot execute command. Partition with id '%d' not found", partitionId)
-                .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
-        }
-
-        final EventType eventType = executeCommandRequestDecoder.eventType();
-        final UnpackedObject event = eventsByType.get(eventType);
-
-        if (event == null)
-        {
-            return errorResponseWriter
-                    .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
-                    .errorMessage("Cannot execute command. Invalid event type '%s'.", eventType.name())
-                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
-        }
-
-        final int eventOffset = executeCommandRequestDecoder.limit() + ExecuteCommandRequestDecoder.commandHeaderLength();
-        final int eventLength = executeCommandRequestDecoder.commandLength();
-
-        event.reset();
-
-        try
-        {
-            // verify that the event / command is valid
-            event.wrap(buffer, eventOffset, eventLength);
-        }
-        catch (Throwable t)
-        {
-            return errorResponseWriter
-                    .errorCode(ErrorCode.INVALID_MESSAGE)
-                    .errorMessage("Cannot deserialize command: '%s'.", concatErrorMessages(t))
-                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
-        }
-
-        eventMetadata.eventType(eventType);
-
-        logStreamWriter.wrap(partition.getLogStream());
-
-        if (key != ExecuteCommandRequestDecoder.keyNullValue())
-        {
-            logStreamWriter.key(key);
+            return executeCommandRequestHandler.onRequest(output, requestAddress.getStreamId(), requestId, buffer, messageOffset, messageLength);
         }
         else
         {
-            logStreamWriter.positionAsKey();
-        }
+            executeCommandRequestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
 
-        final long eventPosition = logStreamWriter
-                .metadataWriter(eventMetadata)
-                .value(buffer, eventOffset, eventLength)
-                .tryWrite();
-
-        return eventPosition >= 0;
+            final ClientApiCommandShard shard = getCommandShard(executeCommandRequestDecoder.partitionId());
+            return shard.offer(output, requestAddress, requestId, buffer, messageOffset, messageLength);
+        }
     }
 
-    private String concatErrorMessages(Throwable t)
+    private ClientApiCommandShard getCommandShard(int partitionId)
     {
-        final StringBuilder sb = new StringBuilder();
-
-        sb.append(t.getMessage());
-
-        while (t.getCause() != null)
-        {
-            t = t.getCause();
-
-            sb.append("; ");
-            sb.append(t.getMessage());
-        }
-
-        return sb.toString();
+        return commandShards[partitionId % commandShards.length];
     }
 
     private boolean handleControlMessageRequest(
@@ -211,12 +149,26 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
     public void addPartition(final Partition partition)
     {
-        cmdQueue.add(() -> leaderPartitions.put(partition.getInfo().getPartitionId(), partition));
+        if (commandShards.length == 0)
+        {
+            cmdQueue.add(() -> executeCommandRequestHandler.addPartition(partition));
+        }
+        else
+        {
+            getCommandShard(partition.getInfo().getPartitionId()).addPartition(partition);
+        }
     }
 
     public void removePartition(final Partition partition)
     {
-        cmdQueue.add(() -> leaderPartitions.remove(partition.getInfo().getPartitionId()));
+        if (commandShards.length == 0)
+        {
+            cmdQueue.add(() -> executeCommandRequestHandler.removePartition(partition));
+        }
+        else
+        {
+            getCommandShard(partition.getInfo().getPartitionId()).removePartition(partition);
+        }
     }
 
     @Override
@@ -253,7 +205,6 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                         output,
                         remoteAddress,
                         requestId,
-                        eventMetadata,
                         buffer,
                         offset,
                         length);
@@ -18,12 +18,18 @@
 package io.zeebe.broker.transport.clientapi;
 
 import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.servicecontainer.*;
 
 public class ClientApiMessageHandlerService implements Service<ClientApiMessageHandler>
 {
     private final Injector<Dispatcher> controlMessageBufferInjector = new Injector<>();
+    private final Injector<TopologyManager> topologyManagerInjector = new Injector<>();
+    private final Injector<ClientApiCommandShard>[] commandShardInjectors;
+    protected final boolean isFullCommandValidation;
+    protected final PartitionLeaderHints leaderHints;
+    protected TopologyManager topologyManager;
     protected ClientApiMessageHandler service;
 
     protected final ServiceGroupReference<Partition> leaderPartitionsGroupReference = ServiceGroupReference.<Partition>create()
@@ -31,17 +37,40 @@ public class ClientApiMessageHandlerService implements Service<ClientApiMessageH
         .onRemove((name, partition) -> service.removePartition(partition))
         .build();
 
+    @SuppressWarnings("unchecked")
+    public ClientApiMessageHandlerService(boolean isFullCommandValidation, int commandShardCount, PartitionLeaderHints leaderHints)
+    {
+        this.isFullCommandValidation = isFullCommandValidation;
+        this.leaderHints = leaderHints;
+
+        this.commandShardInjectors = new Injector[commandShardCount];
+        for (int i = 0; i < commandShardCount; i++)
+        {
+            commandShardInjectors[i] = new Injector<>();
+        }
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
         final Dispatcher controlMessageBuffer = controlMessageBufferInjector.getValue();
-        service = new ClientApiMessageHandler(controlMessageBuffer);
+
+        final ClientApiCommandShard[] commandShards = new ClientApiCommandShard[commandShardInjectors.length];
+        for (int i = 0; i < commandShards.length; i++)
+        {
+            commandShards[i] = commandShardInjectors[i].getValue();
+        }
+
+        service = new ClientApiMessageHandler(controlMessageBuffer, isFullCommandValidation, commandShards, leaderHints);
+
+        topologyManager = topologyManagerInjector.getValue();
+        topologyManager.addTopologyPartitionListener(leaderHints);
     }
 
     @Override
     public void stop(ServiceStopContext arg0)
     {
-        // nothing to do
+        topologyManager.removeTopologyPartitionListener(leaderHints);
     }
 
     @Override
@@ -55,6 +84,16 @@ public class ClientApiMessageHandlerService implements Service<ClientApiMessageH
         return controlMessageBufferInjector;
     }
 
+    public Injector<TopologyManager> getTopologyManagerInjector()
+    {
+        return topologyManagerInjector;
+    }
+
+    public Injector<ClientApiCommandShard> getCommandShardInjector(int shardId)
+    {
+        return commandShardInjectors[shardId];
+    }
+
     public ServiceGroupReference<Partition> getLeaderParitionsGroupReference()
     {
         return leaderPartitionsGroupReference;
@@ -75,6 +75,11 @@ public class CommandResponseWriter implements BufferWriter
         return this;
     }
 
+    public ServerOutput getOutput()
+    {
+        return output;
+    }
+
     public boolean tryWriteResponse(int remoteStreamId, long requestId)
     {
         Objects.requireNonNull(eventWriter);
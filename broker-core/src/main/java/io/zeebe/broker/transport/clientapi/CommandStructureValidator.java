@@ -0,0 +1,312 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.nio.ByteOrder;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Checks that a command is well-formed msgpack without deserializing it: the
+ * command must be a single map with string keys whose encoded length matches
+ * the length of the command. Values are only skipped, i.e. their types and
+ * contents are validated later by the stream processor which reads the
+ * command.
+ */
+public class CommandStructureValidator
+{
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    private DirectBuffer buffer;
+    private int offset;
+    private int limit;
+
+    private String errorMessage;
+
+    /**
+     * @return <code>true</code> if the command is well-formed. Otherwise, the
+     *         reason is available by {@link #getErrorMessage()}.
+     */
+    public boolean validate(DirectBuffer buffer, int offset, int length)
+    {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.limit = offset + length;
+        this.errorMessage = null;
+
+        if (!hasRemaining(1))
+        {
+            return fail("Command is empty");
+        }
+
+        final long entries = readMapHeader();
+        if (entries < 0)
+        {
+            return fail("Command is not a map");
+        }
+
+        for (long i = 0; i < entries; i++)
+        {
+            if (!skipKey() || !skipValues(1))
+            {
+                return false;
+            }
+        }
+
+        if (offset != limit)
+        {
+            return fail("Command has %d bytes after the end of the document", limit - offset);
+        }
+
+        return true;
+    }
+
+    public String getErrorMessage()
+    {
+        return errorMessage;
+    }
+
+    private long readMapHeader()
+    {
+        final int b = buffer.getByte(offset) & 0xff;
+
+        if (b >= 0x80 && b <= 0x8f)
+        {
+            offset += 1;
+            return b & 0x0f;
+        }
+        else if (b == 0xde && hasRemaining(3))
+        {
+            final long entries = buffer.getShort(offset + 1, BYTE_ORDER) & 0xffff;
+            offset += 3;
+            return entries;
+        }
+        else if (b == 0xdf && hasRemaining(5))
+        {
+            final long entries = buffer.getInt(offset + 1, BYTE_ORDER) & 0xffffffffL;
+            offset += 5;
+            return entries;
+        }
+        else
+        {
+            return -1;
+        }
+    }
+
+    private boolean skipKey()
+    {
+        if (!hasRemaining(1))
+        {
+            return fail("Command ends within a key");
+        }
+
+        final int b = buffer.getByte(offset) & 0xff;
+
+        if ((b >= 0xa0 && b <= 0xbf) || (b >= 0xd9 && b <= 0xdb))
+        {
+            return skipValues(1);
+        }
+        else
+        {
+            return fail("Command has a non-string key at offset %d", offset);
+        }
+    }
+
+    /**
+     * Skips the given number of values iteratively, so that deeply nested
+     * documents can not overflow the stack.
+     */
+    private boolean skipValues(long count)
+    {
+        long pending = count;
+
+        while (pending > 0)
+        {
+            // every value occupies at least one byte
+            if (!hasRemaining(pending))
+            {
+                return fail("Command ends within a value");
+            }
+
+            final int b = buffer.getByte(offset) & 0xff;
+            offset += 1;
+            pending -= 1;
+
+            if (b <= 0x7f || b >= 0xe0 || (b >= 0xc0 && b <= 0xc3 && b != 0xc1))
+            {
+                // fixint, nil, boolean
+                continue;
+            }
+            else if (b <= 0x8f)
+            {
+                pending += 2L * (b & 0x0f);
+                continue;
+            }
+            else if (b <= 0x9f)
+            {
+                pending += b & 0x0f;
+                continue;
+            }
+            else if (b <= 0xbf)
+            {
+                if (!skipBytes(b & 0x1f))
+                {
+                    return false;
+                }
+                continue;
+            }
+
+            final boolean skipped;
+            switch (b)
+            {
+                case 0xc4: // bin 8
+                case 0xd9: // str 8
+                    skipped = skipSized(1, 0);
+                    break;
+                case 0xc5: // bin 16
+                case 0xda: // str 16
+                    skipped = skipSized(2, 0);
+                    break;
+                case 0xc6: // bin 32
+                case 0xdb: // str 32
+                    skipped = skipSized(4, 0);
+                    break;
+                case 0xc7: // ext 8
+                    skipped = skipSized(1, 1);
+                    break;
+                case 0xc8: // ext 16
+                    skipped = skipSized(2, 1);
+                    break;
+                case 0xc9: // ext 32
+                    skipped = skipSized(4, 1);
+                    break;
+                case 0xcc: // uint 8
+                case 0xd0: // int 8
+                    skipped = skipBytes(1);
+                    break;
+                case 0xcd: // uint 16
+                case 0xd1: // int 16
+                    skipped = skipBytes(2);
+                    break;
+                case 0xca: // float 32
+                case 0xce: // uint 32
+                case 0xd2: // int 32
+                    skipped = skipBytes(4);
+                    break;
+                case 0xcb: // float 64
+                case 0xcf: // uint 64
+                case 0xd3: // int 64
+                    skipped = skipBytes(8);
+                    break;
+                case 0xd4: // fixext 1
+                    skipped = skipBytes(2);
+                    break;
+                case 0xd5: // fixext 2
+                    skipped = skipBytes(3);
+                    break;
+                case 0xd6: // fixext 4
+                    skipped = skipBytes(5);
+                    break;
+                case 0xd7: // fixext 8
+                    skipped = skipBytes(9);
+                    break;
+                case 0xd8: // fixext 16
+                    skipped = skipBytes(17);
+                    break;
+                case 0xdc: // array 16
+                case 0xde: // map 16
+                    skipped = hasRemaining(2) || fail("Command ends within a value");
+                    if (skipped)
+                    {
+                        final long size = buffer.getShort(offset, BYTE_ORDER) & 0xffff;
+                        pending += b == 0xde ? 2 * size : size;
+                        offset += 2;
+                    }
+                    break;
+                case 0xdd: // array 32
+                case 0xdf: // map 32
+                    skipped = hasRemaining(4) || fail("Command ends within a value");
+                    if (skipped)
+                    {
+                        final long size = buffer.getInt(offset, BYTE_ORDER) & 0xffffffffL;
+                        pending += b == 0xdf ? 2 * size : size;
+                        offset += 4;
+                    }
+                    break;
+                default:
+                    skipped = fail("Command has an invalid format byte 0x%x at offset %d", b, offset - 1);
+                    break;
+            }
+
+            if (!skipped)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean skipSized(int sizeLength, int extraLength)
+    {
+        if (!hasRemaining(sizeLength))
+        {
+            return fail("Command ends within a value");
+        }
+
+        final long size;
+        switch (sizeLength)
+        {
+            case 1:
+                size = buffer.getByte(offset) & 0xff;
+                break;
+            case 2:
+                size = buffer.getShort(offset, BYTE_ORDER) & 0xffff;
+                break;
+            default:
+                size = buffer.getInt(offset, BYTE_ORDER) & 0xffffffffL;
+                break;
+        }
+
+        offset += sizeLength;
+
+        return skipBytes(size + extraLength);
+    }
+
+    private boolean skipBytes(long length)
+    {
+        if (!hasRemaining(length))
+        {
+            return fail("Command ends within a value");
+        }
+
+        offset += length;
+        return true;
+    }
+
+    private boolean hasRemaining(long length)
+    {
+        return limit - offset >= length;
+    }
+
+    private boolean fail(String message, Object... args)
+    {
+        errorMessage = String.format(message, args);
+        return false;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.orchestration.topic.TopicEvent;
+import io.zeebe.broker.event.processor.TopicSubscriberEvent;
+import io.zeebe.broker.event.processor.TopicSubscriptionEvent;
+import io.zeebe.broker.task.data.TaskEvent;
+import io.zeebe.broker.workflow.data.DeploymentEvent;
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.logstreams.log.LogStreamWriter;
+import io.zeebe.logstreams.log.LogStreamWriterImpl;
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.protocol.clientapi.*;
+import io.zeebe.protocol.impl.BrokerEventMetadata;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.SocketAddress;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+
+/**
+ * Validates execute command requests and appends them to the log stream of
+ * the addressed partition. An instance is not thread-safe, it must only be
+ * used by the thread which handles the requests.
+ */
+public class ExecuteCommandRequestHandler
+{
+    /**
+     * Appended to the error message if a command addresses a partition which
+     * is led by another broker. The client parses the address of the leader
+     * from the message. The format is shared with the client tests through the
+     * stub broker of the protocol test util.
+     */
+    public static final String LEADER_HINT_FORMAT = "Leader of the partition is '%s:%d'";
+
+    protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    protected final ExecuteCommandRequestDecoder executeCommandRequestDecoder = new ExecuteCommandRequestDecoder();
+
+    protected final Int2ObjectHashMap<Partition> leaderPartitions = new Int2ObjectHashMap<>();
+    protected final BrokerEventMetadata eventMetadata = new BrokerEventMetadata();
+    protected final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
+
+    protected final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter();
+    protected final PartitionLeaderHints leaderHints;
+
+    protected final EnumMap<EventType, UnpackedObject> eventsByType = new EnumMap<>(EventType.class);
+
+    /**
+     * Commands of these types are read by stream processors which reject
+     * invalid values, so that they can be validated lazily.
+     */
+    protected final EnumSet<EventType> lazilyValidatedEventTypes = EnumSet.of(
+            EventType.DEPLOYMENT_EVENT,
+            EventType.TASK_EVENT,
+            EventType.WORKFLOW_INSTANCE_EVENT,
+            EventType.TOPIC_EVENT);
+
+    protected final CommandStructureValidator commandStructureValidator = new CommandStructureValidator();
+    protected final boolean isFullCommandValidation;
+
+    public ExecuteCommandRequestHandler(final boolean isFullCommandValidation)
+    {
+        this(isFullCommandValidation, new PartitionLeaderHints());
+    }
+
+    public ExecuteCommandRequestHandler(final boolean isFullCommandValidation, final PartitionLeaderHints leaderHints)
+    {
+        this.isFullCommandValidation = isFullCommandValidation;
+        this.leaderHints = leaderHints;
+
+        initEventTypeMap();
+    }
+
+    private void initEventTypeMap()
+    {
+        eventsByType.put(EventType.DEPLOYMENT_EVENT, new DeploymentEvent());
+        eventsByType.put(EventType.TASK_EVENT, new TaskEvent());
+        eventsByType.put(EventType.WORKFLOW_INSTANCE_EVENT, new WorkflowInstanceEvent());
+        eventsByType.put(EventType.SUBSCRIBER_EVENT, new TopicSubscriberEvent());
+        eventsByType.put(EventType.SUBSCRIPTION_EVENT, new TopicSubscriptionEvent());
+        eventsByType.put(EventType.TOPIC_EVENT, new TopicEvent());
+    }
+
+    public void addPartition(final Partition partition)
+    {
+        leaderPartitions.put(partition.getInfo().getPartitionId(), partition);
+    }
+
+    public void removePartition(final Partition partition)
+    {
+        leaderPartitions.remove(partition.getInfo().getPartitionId());
+    }
+
+    /**
+     * @param buffer contains the request, starting with the message header
+     * @return <code>false</code> if the request could not be handled and should be retried
+     */
+    public boolean onRequest(
+            final ServerOutput output,
+            final int requestStreamId,
+            final long requestId,
+            final DirectBuffer buffer,
+            final int messageOffset,
+            final int messageLength)
+    {
+        messageHeaderDecoder.wrap(buffer, messageOffset);
+
+        eventMetadata.reset();
+        eventMetadata.protocolVersion(messageHeaderDecoder.version());
+        eventMetadata.requestId(requestId);
+        eventMetadata.requestStreamId(requestStreamId);
+
+        executeCommandRequestDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
+
+        final int partitionId = executeCommandRequestDecoder.partitionId();
+        final long key = executeCommandRequestDecoder.key();
+
+        final Partition partition = leaderPartitions.get(partitionId);
+
+        if (partition == null)
+        {
+            final SocketAddress leader = leaderHints.getLeader(partitionId);
+
+            if (leader != null)
+            {
+                errorResponseWriter.errorMessage("Cannot execute command. Partition with id '%d' not found. " + LEADER_HINT_FORMAT,
+                    partitionId,
+                    leader.host(),
+                    leader.port());
+            }
+            else
+            {
+                errorResponseWriter.errorMessage("Cannot execute command. Partition with id '%d' not found", partitionId);
+            }
+
+            return errorResponseWriter
+                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                .tryWriteResponseOrLogFailure(output, requestStreamId, requestId);
+        }
+
+        final EventType eventType = executeCommandRequestDecoder.eventType();
+        final UnpackedObject event = eventsByType.get(eventType);
+
+        if (event == null)
+        {
+            return errorResponseWriter
+                    .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
+                    .errorMessage("Cannot execute command. Invalid event type '%s'.", eventType.name())
+                    .tryWriteResponseOrLogFailure(output, requestStreamId, requestId);
+        }
+
+        final int eventOffset = executeCommandRequestDecoder.limit() + ExecuteCommandRequestDecoder.commandHeaderLength();
+        final int eventLength = executeCommandRequestDecoder.commandLength();
+
+        if (isFullCommandValidation || !lazilyValidatedEventTypes.contains(eventType))
+        {
+            event.reset();
+
+            try
+            {
+                // verify that the event / command is valid
+                event.wrap(buffer, eventOffset, eventLength);
+            }
+            catch (Throwable t)
+            {
+                return errorResponseWriter
+                        .errorCode(ErrorCode.INVALID_MESSAGE)
+                        .errorMessage("Cannot deserialize command: '%s'.", concatErrorMessages(t))
+                        .tryWriteResponseOrLogFailure(output, requestStreamId, requestId);
+            }
+        }
+        else if (!commandStructureValidator.validate(buffer, eventOffset, eventLength))
+        {
+            // the values are validated by the stream processor
+            return errorResponseWriter
+                    .errorCode(ErrorCode.INVALID_MESSAGE)
+                    .errorMessage("Cannot deserialize command: '%s'.", commandStructureValidator.getErrorMessage())
+                    .tryWriteResponseOrLogFailure(output, requestStreamId, requestId);
+        }
+
+        eventMetadata.eventType(eventType);
+
+        logStreamWriter.wrap(partition.getLogStream());
+
+        if (key != ExecuteCommandRequestDecoder.keyNullValue())
+        {
+            logStreamWriter.key(key);
+        }
+        else
+        {
+            logStreamWriter.positionAsKey();
+        }
+
+        final long eventPosition = logStreamWriter
+                .metadataWriter(eventMetadata)
+                .value(buffer, eventOffset, eventLength)
+                .tryWrite();
+
+        return eventPosition >= 0;
+    }
+
+    private String concatErrorMessages(Throwable t)
+    {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append(t.getMessage());
+
+        while (t.getCause() != null)
+        {
+            t = t.getCause();
+
+            sb.append("; ");
+            sb.append(t.getMessage());
+        }
+
+        return sb.toString();
+    }
+}
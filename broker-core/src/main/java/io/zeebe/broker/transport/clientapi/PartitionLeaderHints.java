@@ -0,0 +1,66 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.zeebe.broker.clustering.base.topology.NodeInfo;
+import io.zeebe.broker.clustering.base.topology.PartitionInfo;
+import io.zeebe.broker.clustering.base.topology.TopologyPartitionListener;
+import io.zeebe.transport.SocketAddress;
+
+/**
+ * Tracks the client api address of the leader of each partition in the
+ * cluster. When a command addresses a partition which is not led by this
+ * broker, the address is returned with the error, so that the client can send
+ * the command to the new leader without refreshing its topology first.
+ *
+ * <p>
+ * Updated by the topology manager, read by the client api handlers.
+ */
+public class PartitionLeaderHints implements TopologyPartitionListener
+{
+    private final Map<Integer, SocketAddress> leaders = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPartitionUpdated(PartitionInfo partitionInfo, NodeInfo member)
+    {
+        final int partitionId = partitionInfo.getPartitionId();
+        final SocketAddress clientApiAddress = member.getClientApiAddress();
+
+        if (member.getLeaders().contains(partitionInfo))
+        {
+            leaders.put(partitionId, clientApiAddress);
+        }
+        else
+        {
+            // the member is not the leader anymore
+            leaders.remove(partitionId, clientApiAddress);
+        }
+    }
+
+    /**
+     * @return the client api address of the leader of the partition, or
+     *         <code>null</code> if the leader is not known
+     */
+    public SocketAddress getLeader(int partitionId)
+    {
+        return leaders.get(partitionId);
+    }
+}
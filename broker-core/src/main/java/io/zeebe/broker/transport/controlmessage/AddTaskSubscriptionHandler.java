@@ -57,6 +57,8 @@ public class AddTaskSubscriptionHandler extends AbstractControlMessageHandler
         final TaskSubscription taskSubscription = new TaskSubscription(partitionId, request.getLockTaskType(),
                 request.getLockDuration(), request.getLockOwner(), requestStreamId);
         taskSubscription.setCredits(request.getCredits());
+        taskSubscription.setLockBatchSize(request.getLockBatchSize());
+        taskSubscription.setDistribution(request.getDistribution());
 
         final ActorFuture<Void> future = manager.addSubscription(taskSubscription);
 
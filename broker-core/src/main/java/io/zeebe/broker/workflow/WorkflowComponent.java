@@ -21,6 +21,7 @@ import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.*;
 
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.STREAM_PROCESSOR_SERVICE_FACTORY;
 import static io.zeebe.broker.transport.TransportServiceNames.*;
+import static io.zeebe.broker.workflow.WorkflowServiceNames.WORKFLOW_DEPLOYED_MESSAGE_HANDLER;
 import static io.zeebe.broker.workflow.WorkflowServiceNames.WORKFLOW_QUEUE_MANAGER;
 
 import io.zeebe.broker.system.Component;
@@ -34,11 +35,17 @@ public class WorkflowComponent implements Component
     {
         final ServiceContainer serviceContainer = context.getServiceContainer();
 
-        final WorkflowStreamProcessingManagerService workflowQueueManagerService = new WorkflowStreamProcessingManagerService();
+        final WorkflowDeployedMessageHandler workflowDeployedMessageHandler = new WorkflowDeployedMessageHandler();
+        serviceContainer.createService(WORKFLOW_DEPLOYED_MESSAGE_HANDLER, workflowDeployedMessageHandler)
+            .dependency(bufferingServerTransport(MANAGEMENT_API_SERVER_NAME), workflowDeployedMessageHandler.getManagementApiServerTransportInjector())
+            .install();
+
+        final WorkflowStreamProcessingManagerService workflowQueueManagerService = new WorkflowStreamProcessingManagerService(context.getBrokerConfiguration().getWorkflow());
         serviceContainer.createService(WORKFLOW_QUEUE_MANAGER, workflowQueueManagerService)
             .dependency(serverTransport(CLIENT_API_SERVER_NAME), workflowQueueManagerService.getClientApiTransportInjector())
             .dependency(clientTransport(MANAGEMENT_API_CLIENT_NAME), workflowQueueManagerService.getManagementApiClientInjector())
             .dependency(TOPOLOGY_MANAGER_SERVICE, workflowQueueManagerService.getTopologyManagerInjector())
+            .dependency(WORKFLOW_DEPLOYED_MESSAGE_HANDLER, workflowQueueManagerService.getWorkflowDeployedMessageHandlerInjector())
             .dependency(STREAM_PROCESSOR_SERVICE_FACTORY, workflowQueueManagerService.getStreamProcessorServiceFactoryInjector())
             .groupReference(LEADER_PARTITION_GROUP_NAME, workflowQueueManagerService.getPartitionsGroupReference())
             .install();
@@ -0,0 +1,189 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.broker.system.deployment.request.WorkflowDeployedMessage;
+import io.zeebe.broker.system.deployment.request.WorkflowDeployedResponse;
+import io.zeebe.broker.workflow.map.WorkflowCache;
+import io.zeebe.clustering.management.MessageHeaderDecoder;
+import io.zeebe.clustering.management.WorkflowDeployedMessageDecoder;
+import io.zeebe.servicecontainer.*;
+import io.zeebe.transport.*;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import org.agrona.DirectBuffer;
+
+/**
+ * Receives the notifications about new workflow versions from the leader of
+ * the system partition and passes them to the workflow caches of the topic's
+ * partitions on this broker. It responds when all caches took the new version,
+ * since the leader of the system partition waits for it before it responds
+ * to the deployment.
+ */
+public class WorkflowDeployedMessageHandler extends Actor implements Service<WorkflowDeployedMessageHandler>, ServerRequestHandler, ServerMessageHandler
+{
+    private final Injector<BufferingServerTransport> managementApiServerTransportInjector = new Injector<>();
+
+    private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    private final WorkflowDeployedMessage message = new WorkflowDeployedMessage();
+    private final WorkflowDeployedResponse workflowDeployedResponse = new WorkflowDeployedResponse();
+
+    private final List<WorkflowCache> workflowCaches = new ArrayList<>();
+
+    private BufferingServerTransport serverTransport;
+
+    @Override
+    public void start(ServiceStartContext startContext)
+    {
+        serverTransport = managementApiServerTransportInjector.getValue();
+        startContext.async(startContext.getScheduler().submitActor(this));
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        stopContext.async(actor.close());
+    }
+
+    @Override
+    protected void onActorStarting()
+    {
+        final ActorFuture<ServerInputSubscription> subscriptionFuture = serverTransport.openSubscription("workflow-deployed", this, this);
+
+        actor.runOnCompletion(subscriptionFuture, (subscription, err) ->
+        {
+            if (err != null)
+            {
+                throw new RuntimeException(err);
+            }
+            else
+            {
+                actor.consume(subscription, () ->
+                {
+                    if (subscription.poll() == 0)
+                    {
+                        actor.yield();
+                    }
+                });
+            }
+        });
+    }
+
+    public void addWorkflowCache(WorkflowCache workflowCache)
+    {
+        actor.call(() -> workflowCaches.add(workflowCache));
+    }
+
+    public void removeWorkflowCache(WorkflowCache workflowCache)
+    {
+        actor.call(() -> workflowCaches.remove(workflowCache));
+    }
+
+    @Override
+    public boolean onMessage(ServerOutput output, RemoteAddress remoteAddress, DirectBuffer buffer, int offset, int length)
+    {
+        // no messages supported
+        return true;
+    }
+
+    @Override
+    public boolean onRequest(ServerOutput output, RemoteAddress remoteAddress, DirectBuffer buffer, int offset, int length, long requestId)
+    {
+        messageHeaderDecoder.wrap(buffer, offset);
+
+        if (messageHeaderDecoder.schemaId() == WorkflowDeployedMessageDecoder.SCHEMA_ID &&
+            messageHeaderDecoder.templateId() == WorkflowDeployedMessageDecoder.TEMPLATE_ID)
+        {
+            message.wrap(buffer, offset, length);
+
+            final List<ActorFuture<Void>> cacheFutures = new ArrayList<>();
+
+            DirectBuffer bpmnProcessId = null;
+            DirectBuffer bpmnXml = null;
+
+            for (int i = 0; i < workflowCaches.size(); i++)
+            {
+                final WorkflowCache workflowCache = workflowCaches.get(i);
+
+                if (BufferUtil.equals(message.getTopicName(), workflowCache.getTopicName()))
+                {
+                    if (bpmnProcessId == null)
+                    {
+                        // the message buffer is reused after this method returns
+                        bpmnProcessId = BufferUtil.cloneBuffer(message.getBpmnProcessId());
+                        bpmnXml = BufferUtil.cloneBuffer(message.getBpmnXml());
+                    }
+
+                    cacheFutures.add(workflowCache.onWorkflowDeployed(message.getWorkflowKey(), message.getVersion(), bpmnProcessId, bpmnXml));
+                }
+            }
+
+            final ServerResponse response = new ServerResponse()
+                .writer(workflowDeployedResponse)
+                .requestId(requestId)
+                .remoteAddress(remoteAddress);
+
+            awaitCaches(cacheFutures, 0, () -> sendResponse(output, response));
+        }
+
+        return true;
+    }
+
+    private void awaitCaches(List<ActorFuture<Void>> cacheFutures, int index, Runnable onCompletion)
+    {
+        if (index < cacheFutures.size())
+        {
+            // a failure is ignored, the cache fetches the workflow on the next lookup
+            actor.runOnCompletion(cacheFutures.get(index), (v, err) -> awaitCaches(cacheFutures, index + 1, onCompletion));
+        }
+        else
+        {
+            onCompletion.run();
+        }
+    }
+
+    private void sendResponse(ServerOutput output, ServerResponse response)
+    {
+        actor.runUntilDone(() ->
+        {
+            if (output.sendResponse(response))
+            {
+                actor.done();
+            }
+            else
+            {
+                actor.yield();
+            }
+        });
+    }
+
+    @Override
+    public WorkflowDeployedMessageHandler get()
+    {
+        return this;
+    }
+
+    public Injector<BufferingServerTransport> getManagementApiServerTransportInjector()
+    {
+        return managementApiServerTransportInjector;
+    }
+}
@@ -22,4 +22,5 @@ import io.zeebe.servicecontainer.ServiceName;
 public class WorkflowServiceNames
 {
     public static final ServiceName<WorkflowStreamProcessingManagerService> WORKFLOW_QUEUE_MANAGER = ServiceName.newServiceName("workflow.manager", WorkflowStreamProcessingManagerService.class);
+    public static final ServiceName<WorkflowDeployedMessageHandler> WORKFLOW_DEPLOYED_MESSAGE_HANDLER = ServiceName.newServiceName("workflow.deployedMessageHandler", WorkflowDeployedMessageHandler.class);
 }
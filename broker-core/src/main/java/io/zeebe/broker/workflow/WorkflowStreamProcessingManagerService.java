@@ -25,6 +25,7 @@ import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.incident.processor.IncidentStreamProcessor;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.system.configuration.WorkflowCfg;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
 import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
 import io.zeebe.servicecontainer.*;
@@ -36,13 +37,12 @@ import io.zeebe.transport.ServerTransport;
  */
 public class WorkflowStreamProcessingManagerService implements Service<WorkflowStreamProcessingManagerService>
 {
-    public static final int PAYLOAD_CACHE_SIZE = 64;
-
     protected static final String NAME = "workflow.queue.manager";
 
     private final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
     private final Injector<ClientTransport> managementApiClientInjector = new Injector<>();
     private final Injector<TopologyManager> topologyManagerInjector = new Injector<>();
+    private final Injector<WorkflowDeployedMessageHandler> workflowDeployedMessageHandlerInjector = new Injector<>();
 
     private final Injector<StreamProcessorServiceFactory> streamProcessorServiceFactoryInjector = new Injector<>();
 
@@ -50,11 +50,19 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
         .onAdd((partitionName, partition) -> startStreamProcessors(partitionName, partition))
         .build();
 
+    private final WorkflowCfg workflowCfg;
+
     private StreamProcessorServiceFactory streamProcessorServiceFactory;
 
     private ServerTransport transport;
     private TopologyManager topologyManager;
     private ClientTransport managementApiClient;
+    private WorkflowDeployedMessageHandler workflowDeployedMessageHandler;
+
+    public WorkflowStreamProcessingManagerService(WorkflowCfg workflowCfg)
+    {
+        this.workflowCfg = workflowCfg;
+    }
 
     public void startStreamProcessors(ServiceName<Partition> partitionServiceName, Partition partition)
     {
@@ -70,7 +78,10 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
         final WorkflowInstanceStreamProcessor workflowInstanceStreamProcessor = new WorkflowInstanceStreamProcessor(responseWriter,
             managementApiClient,
             topologyManager,
-            PAYLOAD_CACHE_SIZE);
+            workflowDeployedMessageHandler,
+            workflowCfg.getPayloadCacheSizeInBytes(),
+            workflowCfg.getWorkflowCacheCapacity(),
+            workflowCfg.isStepFusion());
 
         streamProcessorServiceFactory.createService(partition, partitionServiceName)
             .processor(workflowInstanceStreamProcessor)
@@ -99,6 +110,7 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
         this.streamProcessorServiceFactory =  streamProcessorServiceFactoryInjector.getValue();
         this.topologyManager = topologyManagerInjector.getValue();
         this.managementApiClient = managementApiClientInjector.getValue();
+        this.workflowDeployedMessageHandler = workflowDeployedMessageHandlerInjector.getValue();
     }
 
     @Override
@@ -131,4 +143,9 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
     {
         return topologyManagerInjector;
     }
+
+    public Injector<WorkflowDeployedMessageHandler> getWorkflowDeployedMessageHandlerInjector()
+    {
+        return workflowDeployedMessageHandlerInjector;
+    }
 }
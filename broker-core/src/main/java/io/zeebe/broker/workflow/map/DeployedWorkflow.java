@@ -29,6 +29,10 @@ public class DeployedWorkflow
 
     private long fetched;
 
+    // links in the LRU list of the workflow cache
+    DeployedWorkflow lruPrevious;
+    DeployedWorkflow lruNext;
+
     public DeployedWorkflow(Workflow workflow, long key, int version, long fetched)
     {
         this.workflow = workflow;
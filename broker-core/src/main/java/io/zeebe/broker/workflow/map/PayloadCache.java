@@ -17,39 +17,186 @@
  */
 package io.zeebe.broker.workflow.map;
 
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.BitUtil.align;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
 import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
 import io.zeebe.map.Long2LongZbMap;
-import io.zeebe.util.cache.ExpandableBufferCache;
-import org.agrona.DirectBuffer;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
 
 /**
- * Cache of workflow instance payload. It contains an LRU cache of the payload
- * and an map which holds the position of the payload events.
+ * Cache of workflow instance payload. It contains an off-heap store of the
+ * payload and a map which holds the position of the payload events.
+ *
+ * <p>
+ * The store is a ring buffer with a fixed capacity in bytes. New payloads are
+ * appended at the tail and the oldest payloads are evicted from the head to make
+ * room for them. A payload which is larger than a quarter of the capacity is not
+ * stored and not prefetched.
+ *
+ * <p>
+ * The store is allocated off-heap with the full capacity for each partition and
+ * is freed when the cache is closed.
+ *
+ * <p>
+ * Payloads are interned by their content: if a payload is equal to a payload
+ * which is already in the store then both payload events refer to the same
+ * entry. Entries are not reference counted, an entry stays in the store until
+ * the head passes it, even if no payload event refers to it anymore.
  *
  * <p>
- * When a payload is requested then the it is returned from the cache. If it is
- * not present in the cache then the payload event is seek in the log stream.
+ * When a payload is requested then the it is returned from the store. If it is
+ * not present in the store then the payload event is seek in the log stream.
+ * Payloads which are needed soon can be prefetched, so that the lookup does not
+ * read the log stream.
  */
 public class PayloadCache implements AutoCloseable
 {
+    private static final int HASH_OFFSET = 0;
+    private static final int LENGTH_OFFSET = HASH_OFFSET + SIZE_OF_LONG;
+    private static final int HEADER_LENGTH = LENGTH_OFFSET + SIZE_OF_INT;
+
+    private static final int ALIGNMENT = SIZE_OF_LONG;
+
+    /**
+     * Length of an entry which fills the rest of the buffer before it wraps around.
+     */
+    private static final int PADDING_LENGTH = -1;
+
+    /**
+     * Address of a payload which is too large to be stored.
+     */
+    private static final long NOT_STORED = -2L;
+
+    /**
+     * The largest payload which can be part of a command. It is bounded by the
+     * maximum message length of the client.
+     */
+    public static final int MAX_PAYLOAD_LENGTH = 1024 * 1024;
+
+    private static final long HASH_SEED = 0xcbf29ce484222325L;
+    private static final long HASH_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
     private final WorkflowInstanceEvent workflowInstanceEvent = new WorkflowInstanceEvent();
 
     private final Long2LongZbMap map;
     private final ZbMapSnapshotSupport<Long2LongZbMap> snapshotSupport;
 
-    private final ExpandableBufferCache cache;
     private final LogStreamReader logStreamReader;
 
-    public PayloadCache(int cacheSize, LogStreamReader logStreamReader)
+    private final ByteBuffer storeBuffer;
+    private final UnsafeBuffer store;
+    private final int capacity;
+    private final int maxPayloadLength;
+
+    /**
+     * Maps the payload event position to the store address of the payload.
+     * An address is an ever increasing offset, the offset in the store is
+     * <code>address % capacity</code>. An address which is lower than the
+     * head refers to an evicted entry.
+     */
+    private final Long2LongHashMap addresses = new Long2LongHashMap(-1L);
+
+    /**
+     * Maps the hash of a payload to the store address of the entry which is
+     * shared by the payload events with this payload.
+     */
+    private final Long2LongHashMap internedPayloads = new Long2LongHashMap(-1L);
+
+    private long head;
+    private long tail;
+
+    private final UnsafeBuffer payloadView = new UnsafeBuffer(0, 0);
+
+    private final ExpandableArrayBuffer prefetchBuffer = new ExpandableArrayBuffer();
+    private final UnsafeBuffer prefetchView = new UnsafeBuffer(0, 0);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long deduplications;
+
+    private Metric hitsMetric;
+    private Metric missesMetric;
+    private Metric evictionsMetric;
+    private Metric deduplicationsMetric;
+    private Metric sizeMetric;
+
+    /**
+     * @param capacity the size of the off-heap store in bytes
+     */
+    public PayloadCache(long capacity, LogStreamReader logStreamReader)
     {
         this.map = new Long2LongZbMap();
         this.snapshotSupport = new ZbMapSnapshotSupport<>(map);
 
         this.logStreamReader = logStreamReader;
-        this.cache = new ExpandableBufferCache(cacheSize, 1024, this::lookupPayload);
+
+        // round down to the alignment, so that the entries are aligned when the buffer wraps around
+        this.capacity = (int) Math.min(capacity, Integer.MAX_VALUE) & ~(ALIGNMENT - 1);
+        this.maxPayloadLength = this.capacity / 4 - HEADER_LENGTH;
+        this.storeBuffer = ByteBuffer.allocateDirect(this.capacity);
+        this.store = new UnsafeBuffer(storeBuffer);
+    }
+
+    /**
+     * @return the smallest capacity of a store which can hold a payload of the
+     *         given length, i.e. the payload plus the header of the entry must not
+     *         be larger than a quarter of the capacity
+     */
+    public static long getMinCapacity(int payloadLength)
+    {
+        return 4L * align(payloadLength + HEADER_LENGTH, ALIGNMENT);
+    }
+
+    public void openMetrics(MetricsManager metricsManager, String topicName, int partitionId)
+    {
+        final String partition = Integer.toString(partitionId);
+
+        hitsMetric = metricsManager.newMetric("payload_cache_lookups_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partition)
+            .label("type", "hit")
+            .create();
+
+        missesMetric = metricsManager.newMetric("payload_cache_lookups_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partition)
+            .label("type", "miss")
+            .create();
+
+        evictionsMetric = metricsManager.newMetric("payload_cache_evictions_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partition)
+            .create();
+
+        deduplicationsMetric = metricsManager.newMetric("payload_cache_deduplications_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partition)
+            .create();
+
+        sizeMetric = metricsManager.newMetric("payload_cache_size_bytes")
+            .type("gauge")
+            .label("topic", topicName)
+            .label("partition", partition)
+            .create();
     }
 
     private DirectBuffer lookupPayload(long position)
@@ -78,22 +225,301 @@ public class PayloadCache implements AutoCloseable
 
         if (position > 0)
         {
-            payload = cache.get(position);
+            payload = getCachedPayload(position);
+
+            if (payload != null)
+            {
+                hits += 1;
+                report(hitsMetric, hits);
+            }
+            else
+            {
+                misses += 1;
+                report(missesMetric, misses);
+
+                payload = lookupPayload(position);
+
+                if (payload != null)
+                {
+                    store(position, payload);
+                }
+            }
         }
         return payload == null ? WorkflowInstanceEvent.NO_PAYLOAD : payload;
     }
 
+    /**
+     * Loads the payload of the workflow instance into the store if it is not
+     * present, or moves it to the tail if it is close to be evicted.
+     */
+    public void prefetch(long workflowInstanceKey)
+    {
+        final long position = map.get(workflowInstanceKey, -1L);
+
+        if (position > 0)
+        {
+            final long address = addresses.get(position);
+
+            if (address == NOT_STORED)
+            {
+                // would be read from the log on each prefetch without being stored
+                return;
+            }
+            else if (address < head)
+            {
+                addresses.remove(position);
+
+                final DirectBuffer payload = lookupPayload(position);
+                if (payload != null)
+                {
+                    store(position, payload);
+                }
+            }
+            else if (address - head < (tail - head) / 2)
+            {
+                // copy the payload since its bytes can be overridden when it is stored again
+                final DirectBuffer payload = getCachedPayload(position);
+                final int length = payload.capacity();
+
+                prefetchBuffer.putBytes(0, payload, 0, length);
+                prefetchView.wrap(prefetchBuffer, 0, length);
+
+                // the new entry replaces the old one for all payload events which are stored afterwards
+                final long hash = store.getLong(offset(address) + HASH_OFFSET);
+                if (internedPayloads.get(hash) == address)
+                {
+                    internedPayloads.remove(hash);
+                }
+
+                addresses.remove(position);
+                store(position, prefetchView);
+            }
+        }
+    }
+
     public void addPayload(long workflowInstanceKey, long payloadEventPosition, DirectBuffer payload)
     {
+        final long previousPosition = map.get(workflowInstanceKey, -1L);
+        if (previousPosition > 0)
+        {
+            addresses.remove(previousPosition);
+        }
+
         map.put(workflowInstanceKey, payloadEventPosition);
-        cache.put(payloadEventPosition, payload);
+        store(payloadEventPosition, payload);
     }
 
     public void remove(long workflowInstanceKey)
     {
+        final long position = map.get(workflowInstanceKey, -1L);
+        if (position > 0)
+        {
+            // the bytes are released when the head passes the entry
+            addresses.remove(position);
+        }
+
         map.remove(workflowInstanceKey, -1L);
     }
 
+    private DirectBuffer getCachedPayload(long position)
+    {
+        final long address = addresses.get(position);
+
+        if (address >= head)
+        {
+            final int offset = offset(address);
+            final int length = store.getInt(offset + LENGTH_OFFSET);
+
+            payloadView.wrap(store, offset + HEADER_LENGTH, length);
+            return payloadView;
+        }
+        else
+        {
+            if (address >= 0)
+            {
+                // the entry is evicted
+                addresses.remove(position);
+            }
+            return null;
+        }
+    }
+
+    private void store(long position, DirectBuffer payload)
+    {
+        final int length = payload.capacity();
+
+        if (length > maxPayloadLength)
+        {
+            addresses.put(position, NOT_STORED);
+            return;
+        }
+
+        final long hash = hash(payload, length);
+        final long internedAddress = internedPayloads.get(hash);
+
+        if (internedAddress >= head && isEqual(internedAddress, payload, length))
+        {
+            addresses.put(position, internedAddress);
+
+            deduplications += 1;
+            report(deduplicationsMetric, deduplications);
+            return;
+        }
+
+        final int entryLength = align(HEADER_LENGTH + length, ALIGNMENT);
+        final int offset = offset(tail);
+        final int remaining = capacity - offset;
+
+        final int padding = remaining < entryLength ? remaining : 0;
+
+        while (tail + padding + entryLength - head > capacity)
+        {
+            evictHead();
+        }
+
+        if (padding > 0)
+        {
+            if (padding >= HEADER_LENGTH)
+            {
+                store.putInt(offset + LENGTH_OFFSET, PADDING_LENGTH);
+            }
+            tail += padding;
+        }
+
+        final int entryOffset = offset(tail);
+        store.putLong(entryOffset + HASH_OFFSET, hash);
+        store.putInt(entryOffset + LENGTH_OFFSET, length);
+        store.putBytes(entryOffset + HEADER_LENGTH, payload, 0, length);
+
+        addresses.put(position, tail);
+        internedPayloads.put(hash, tail);
+        tail += entryLength;
+
+        report(sizeMetric, tail - head);
+    }
+
+    private void evictHead()
+    {
+        final int offset = offset(head);
+        final int remaining = capacity - offset;
+
+        if (remaining < HEADER_LENGTH || store.getInt(offset + LENGTH_OFFSET) == PADDING_LENGTH)
+        {
+            head += remaining;
+        }
+        else
+        {
+            final long hash = store.getLong(offset + HASH_OFFSET);
+            final int length = store.getInt(offset + LENGTH_OFFSET);
+
+            evictions += 1;
+            report(evictionsMetric, evictions);
+
+            if (internedPayloads.get(hash) == head)
+            {
+                internedPayloads.remove(hash);
+            }
+
+            // the addresses of the payload events are dropped when they are requested the next time
+            head += align(HEADER_LENGTH + length, ALIGNMENT);
+        }
+    }
+
+    private boolean isEqual(long address, DirectBuffer payload, int length)
+    {
+        final int entryOffset = offset(address);
+
+        if (store.getInt(entryOffset + LENGTH_OFFSET) != length)
+        {
+            return false;
+        }
+
+        final int offset = entryOffset + HEADER_LENGTH;
+
+        int i = 0;
+        for (; i + SIZE_OF_LONG <= length; i += SIZE_OF_LONG)
+        {
+            if (store.getLong(offset + i) != payload.getLong(i))
+            {
+                return false;
+            }
+        }
+
+        for (; i < length; i++)
+        {
+            if (store.getByte(offset + i) != payload.getByte(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long hash(DirectBuffer payload, int length)
+    {
+        long hash = HASH_SEED ^ length;
+
+        int i = 0;
+        for (; i + SIZE_OF_LONG <= length; i += SIZE_OF_LONG)
+        {
+            hash = (hash ^ payload.getLong(i)) * HASH_MULTIPLIER;
+            hash ^= hash >>> 32;
+        }
+
+        for (; i < length; i++)
+        {
+            hash = (hash ^ payload.getByte(i)) * HASH_MULTIPLIER;
+            hash ^= hash >>> 32;
+        }
+
+        return hash;
+    }
+
+    private int offset(long address)
+    {
+        return (int) (address % capacity);
+    }
+
+    private static void report(Metric metric, long value)
+    {
+        if (metric != null)
+        {
+            metric.setOrdered(value);
+        }
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * @return the number of payloads which are stored as a reference to an equal payload
+     */
+    public long getDeduplications()
+    {
+        return deduplications;
+    }
+
+    /**
+     * @return the bytes of the store which are in use, including stale entries
+     */
+    public long getSize()
+    {
+        return tail - head;
+    }
+
     public ZbMapSnapshotSupport<Long2LongZbMap> getSnapshotSupport()
     {
         return snapshotSupport;
@@ -103,6 +529,23 @@ public class PayloadCache implements AutoCloseable
     public void close()
     {
         map.close();
+
+        // free the off-heap store without waiting for the garbage collection
+        IoUtil.unmap(storeBuffer);
+
+        closeMetric(hitsMetric);
+        closeMetric(missesMetric);
+        closeMetric(evictionsMetric);
+        closeMetric(deduplicationsMetric);
+        closeMetric(sizeMetric);
+    }
+
+    private static void closeMetric(Metric metric)
+    {
+        if (metric != null)
+        {
+            metric.close();
+        }
     }
 
 }
@@ -20,6 +20,7 @@ package io.zeebe.broker.workflow.map;
 import java.time.Duration;
 import java.util.*;
 
+import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.base.topology.NodeInfo;
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.system.deployment.request.FetchWorkflowRequest;
@@ -31,14 +32,37 @@ import io.zeebe.model.bpmn.instance.WorkflowDefinition;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.transport.*;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.slf4j.Logger;
 
-public class WorkflowCache
+/**
+ * Caches the deployed workflows of a partition. The number of cached workflows
+ * is bounded, the least recently used workflow is evicted when the capacity is
+ * exceeded.
+ *
+ * <p>
+ * Missing workflows are fetched from the leader of the system partition. Concurrent
+ * fetches of the same workflow share one request.
+ *
+ * <p>
+ * The leader of the system partition pushes new workflow versions to the cache
+ * (see {@link #onWorkflowDeployed(long, int, DirectBuffer, DirectBuffer)}) before
+ * it responds to the deployment. Additionally, the latest version of a workflow is
+ * fetched again after {@link #LATEST_VERSION_REFRESH_INTERVAL}, in case a notification
+ * failed.
+ */
+public class WorkflowCache implements AutoCloseable
 {
+    private static final Logger LOG = Loggers.STREAM_PROCESSING;
+
     public static final long LATEST_VERSION_REFRESH_INTERVAL = Duration.ofSeconds(10).toMillis();
 
     private static final Duration FETCH_WORKFLOW_TIMEOUT = Duration.ofSeconds(30);
@@ -50,58 +74,231 @@ public class WorkflowCache
     private final Map<DirectBuffer, Int2ObjectHashMap<DeployedWorkflow>> workflowsByProcessIdAndVersion = new HashMap<>();
     private final Map<DirectBuffer, DeployedWorkflow> latestWorkflowsByProcessId = new HashMap<>();
 
+    private final Long2ObjectHashMap<ActorFuture<DeployedWorkflow>> pendingFetchesByKey = new Long2ObjectHashMap<>();
+    private final Map<DirectBuffer, Int2ObjectHashMap<ActorFuture<DeployedWorkflow>>> pendingFetchesByProcessIdAndVersion = new HashMap<>();
+    private final Map<DirectBuffer, ActorFuture<DeployedWorkflow>> pendingLatestFetchesByProcessId = new HashMap<>();
+
     private final BpmnModelApi bpmn = new BpmnModelApi();
 
+    private final ActorControl actor;
     private final ClientTransport clientTransport;
     private final TopologyManager topologyManager;
 
     private final DirectBuffer topicName;
 
-    public WorkflowCache(ClientTransport clientTransport,
+    private final int capacity;
+
+    /**
+     * most recently used workflow
+     */
+    private DeployedWorkflow lruHead;
+
+    /**
+     * least recently used workflow, evicted first
+     */
+    private DeployedWorkflow lruTail;
+
+    private final Metric cacheHits;
+    private final Metric cacheMisses;
+    private final Metric cacheEvictions;
+    private final Metric fetchesRequested;
+    private final Metric fetchesCoalesced;
+    private final Metric fetchDurationSum;
+    private final Metric fetchDurationCount;
+
+    private long totalFetchDuration;
+    private long completedFetches;
+
+    public WorkflowCache(ActorControl actor,
+        ClientTransport clientTransport,
         TopologyManager topologyManager,
-        DirectBuffer topicName)
+        MetricsManager metricsManager,
+        DirectBuffer topicName,
+        int partitionId,
+        int capacity)
     {
+        this.actor = actor;
         this.clientTransport = clientTransport;
         this.topologyManager = topologyManager;
         this.topicName = topicName;
+        this.capacity = capacity;
+
+        final String topic = BufferUtil.bufferAsString(topicName);
+        final String partition = Integer.toString(partitionId);
+
+        cacheHits = metricsManager.newMetric("workflow_cache_lookups_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .label("type", "hit")
+            .create();
+
+        cacheMisses = metricsManager.newMetric("workflow_cache_lookups_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .label("type", "miss")
+            .create();
+
+        cacheEvictions = metricsManager.newMetric("workflow_cache_evictions_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .create();
+
+        fetchesRequested = metricsManager.newMetric("workflow_cache_fetches_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .label("type", "requested")
+            .create();
+
+        fetchesCoalesced = metricsManager.newMetric("workflow_cache_fetches_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .label("type", "coalesced")
+            .create();
+
+        fetchDurationSum = metricsManager.newMetric("workflow_cache_fetch_duration_millis_sum")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .create();
+
+        fetchDurationCount = metricsManager.newMetric("workflow_cache_fetch_duration_millis_count")
+            .type("counter")
+            .label("topic", topic)
+            .label("partition", partition)
+            .create();
     }
 
-    public ActorFuture<ClientResponse> fetchWorkflowByKey(long key)
+    public ActorFuture<DeployedWorkflow> fetchWorkflowByKey(long key)
     {
-        fetchRequest.reset()
-            .topicName(topicName)
-            .workflowKey(key);
+        ActorFuture<DeployedWorkflow> future = pendingFetchesByKey.get(key);
 
-        return clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
-            this::checkResponse,
-            fetchRequest,
-            FETCH_WORKFLOW_TIMEOUT);
+        if (future != null)
+        {
+            fetchesCoalesced.incrementOrdered();
+        }
+        else
+        {
+            fetchRequest.reset()
+                .topicName(topicName)
+                .workflowKey(key);
+
+            future = sendFetchRequest(() -> pendingFetchesByKey.remove(key));
+            pendingFetchesByKey.put(key, future);
+        }
+
+        return future;
     }
 
-    public ActorFuture<ClientResponse> fetchLatestWorkflowByBpmnProcessId(DirectBuffer bpmnProcessId)
+    public ActorFuture<DeployedWorkflow> fetchLatestWorkflowByBpmnProcessId(DirectBuffer bpmnProcessId)
     {
-        fetchRequest.reset()
-            .topicName(topicName)
-            .latestVersion()
-            .bpmnProcessId(bpmnProcessId);
+        ActorFuture<DeployedWorkflow> future = pendingLatestFetchesByProcessId.get(bpmnProcessId);
 
-        return clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
-            this::checkResponse,
-            fetchRequest,
-            FETCH_WORKFLOW_TIMEOUT);
+        if (future != null)
+        {
+            fetchesCoalesced.incrementOrdered();
+        }
+        else
+        {
+            fetchRequest.reset()
+                .topicName(topicName)
+                .latestVersion()
+                .bpmnProcessId(bpmnProcessId);
+
+            final DirectBuffer processId = BufferUtil.cloneBuffer(bpmnProcessId);
+
+            future = sendFetchRequest(() -> pendingLatestFetchesByProcessId.remove(processId));
+            pendingLatestFetchesByProcessId.put(processId, future);
+        }
+
+        return future;
     }
 
-    public ActorFuture<ClientResponse> fetchWorkflowByBpmnProcessIdAndVersion(DirectBuffer bpmnProcessId, int version)
+    public ActorFuture<DeployedWorkflow> fetchWorkflowByBpmnProcessIdAndVersion(DirectBuffer bpmnProcessId, int version)
     {
-        fetchRequest.reset()
-            .topicName(topicName)
-            .version(version)
-            .bpmnProcessId(bpmnProcessId);
+        Int2ObjectHashMap<ActorFuture<DeployedWorkflow>> pendingFetches = pendingFetchesByProcessIdAndVersion.get(bpmnProcessId);
+        ActorFuture<DeployedWorkflow> future = pendingFetches != null ? pendingFetches.get(version) : null;
 
-        return clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
+        if (future != null)
+        {
+            fetchesCoalesced.incrementOrdered();
+        }
+        else
+        {
+            fetchRequest.reset()
+                .topicName(topicName)
+                .version(version)
+                .bpmnProcessId(bpmnProcessId);
+
+            if (pendingFetches == null)
+            {
+                pendingFetches = new Int2ObjectHashMap<>();
+                pendingFetchesByProcessIdAndVersion.put(BufferUtil.cloneBuffer(bpmnProcessId), pendingFetches);
+            }
+
+            final Int2ObjectHashMap<ActorFuture<DeployedWorkflow>> pendingVersionFetches = pendingFetches;
+
+            future = sendFetchRequest(() ->
+            {
+                pendingVersionFetches.remove(version);
+                if (pendingVersionFetches.isEmpty())
+                {
+                    pendingFetchesByProcessIdAndVersion.values().remove(pendingVersionFetches);
+                }
+            });
+            pendingFetches.put(version, future);
+        }
+
+        return future;
+    }
+
+    private ActorFuture<DeployedWorkflow> sendFetchRequest(Runnable onResponse)
+    {
+        final CompletableActorFuture<DeployedWorkflow> future = new CompletableActorFuture<>();
+        final long fetchStart = ActorClock.currentTimeMillis();
+
+        final ActorFuture<ClientResponse> responseFuture = clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
             this::checkResponse,
             fetchRequest,
             FETCH_WORKFLOW_TIMEOUT);
+
+        fetchesRequested.incrementOrdered();
+
+        actor.runOnCompletion(responseFuture, (response, err) ->
+        {
+            onResponse.run();
+
+            totalFetchDuration += ActorClock.currentTimeMillis() - fetchStart;
+            completedFetches += 1;
+            fetchDurationSum.setOrdered(totalFetchDuration);
+            fetchDurationCount.setOrdered(completedFetches);
+
+            if (err != null)
+            {
+                future.completeExceptionally(err);
+            }
+            else
+            {
+                try
+                {
+                    future.complete(addWorkflow(response.getResponseBuffer()));
+                }
+                catch (Exception e)
+                {
+                    future.completeExceptionally(e);
+                }
+                finally
+                {
+                    response.close();
+                }
+            }
+        });
+
+        return future;
     }
 
     private boolean checkResponse(DirectBuffer responseBuffer)
@@ -109,61 +306,197 @@ public class WorkflowCache
         return !fetchRespose.tryWrap(responseBuffer, 0, responseBuffer.capacity());
     }
 
-    public DeployedWorkflow addWorkflow(DirectBuffer response)
+    private DeployedWorkflow addWorkflow(DirectBuffer response)
     {
-        final long now = ActorClock.currentTimeMillis();
-
         fetchRespose.wrap(response, 0, response.capacity());
 
         final long key = fetchRespose.getWorkflowKey();
 
-        final DeployedWorkflow existing = workflowsByKey.get(key);
-        DeployedWorkflow deployedWorkflow = null;
+        if (key != FetchWorkflowResponseDecoder.workflowKeyNullValue())
+        {
+            return addWorkflow(key,
+                fetchRespose.getVersion(),
+                fetchRespose.bpmnProcessId(),
+                fetchRespose.getBpmnXml());
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Adds the workflow without fetching it. Must be called from the actor of
+     * the stream processor.
+     */
+    DeployedWorkflow addWorkflow(long key, int version, DirectBuffer bpmnProcessId, DirectBuffer bpmnXml)
+    {
+        final long now = ActorClock.currentTimeMillis();
+
+        DeployedWorkflow deployedWorkflow = workflowsByKey.get(key);
 
-        if (existing != null)
+        if (deployedWorkflow != null)
         {
-            existing.setFetched(now);
-            deployedWorkflow = existing;
+            deployedWorkflow.setFetched(now);
+            touch(deployedWorkflow);
         }
         else
         {
-            if (key != FetchWorkflowResponseDecoder.workflowKeyNullValue())
+            final WorkflowDefinition workflowDefinition = bpmn.readFromXmlBuffer(bpmnXml);
+            final Collection<Workflow> workflows = workflowDefinition.getWorkflows();
+
+            final Workflow workflow = workflows.stream()
+                .filter((w) -> BufferUtil.equals(bpmnProcessId, w.getBpmnProcessId()))
+                .findFirst()
+                .get();
+
+            deployedWorkflow = new DeployedWorkflow(workflow, key, version, now);
+
+            workflowsByKey.put(key, deployedWorkflow);
+
+            // the given process id can be a view on a reused buffer
+            final DirectBuffer processId = workflow.getBpmnProcessId();
+
+            Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(processId);
+
+            if (versionMap == null)
             {
-                final DirectBuffer bpmnProcessId = fetchRespose.bpmnProcessId();
-                final DirectBuffer bpmnXml = fetchRespose.getBpmnXml();
-                final int version = fetchRespose.getVersion();
+                versionMap = new Int2ObjectHashMap<>();
+                workflowsByProcessIdAndVersion.put(processId, versionMap);
+            }
 
-                final WorkflowDefinition workflowDefinition = bpmn.readFromXmlBuffer(bpmnXml);
-                final Collection<Workflow> workflows = workflowDefinition.getWorkflows();
+            versionMap.put(version, deployedWorkflow);
 
-                final Workflow workflow = workflows.stream()
-                    .filter((w) -> BufferUtil.equals(bpmnProcessId, w.getBpmnProcessId()))
-                    .findFirst()
-                    .get();
+            final DeployedWorkflow latestVersion = latestWorkflowsByProcessId.get(processId);
+            if (latestVersion == null || latestVersion.getVersion() < version)
+            {
+                latestWorkflowsByProcessId.put(processId, deployedWorkflow);
+            }
 
-                deployedWorkflow = new DeployedWorkflow(workflow, key, version, now);
+            linkFirst(deployedWorkflow);
 
-                workflowsByKey.put(key, deployedWorkflow);
+            if (workflowsByKey.size() > capacity)
+            {
+                evict(lruTail);
+            }
+        }
 
-                Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(bpmnProcessId);
+        return deployedWorkflow;
+    }
 
-                if (versionMap == null)
+    /**
+     * Called by the leader of the system partition when a new version of a
+     * workflow is deployed on the topic. The workflow is added if an older
+     * version is in use on this partition, so that instances are created
+     * with the new version without fetching it first. May be called from any thread.
+     *
+     * @return a future which is completed when the cache took the workflow
+     */
+    public ActorFuture<Void> onWorkflowDeployed(long key, int version, DirectBuffer bpmnProcessId, DirectBuffer bpmnXml)
+    {
+        return actor.call(() ->
+        {
+            final DeployedWorkflow latestVersion = latestWorkflowsByProcessId.get(bpmnProcessId);
+
+            if (latestVersion != null && latestVersion.getVersion() <= version)
+            {
+                try
                 {
-                    versionMap = new Int2ObjectHashMap<>();
-                    workflowsByProcessIdAndVersion.put(bpmnProcessId, versionMap);
+                    addWorkflow(key, version, bpmnProcessId, bpmnXml);
                 }
-
-                versionMap.put(version, deployedWorkflow);
-
-                final DeployedWorkflow latestVersion = latestWorkflowsByProcessId.get(bpmnProcessId);
-                if (latestVersion == null || latestVersion.getVersion() < version)
+                catch (Exception e)
                 {
-                    latestWorkflowsByProcessId.put(bpmnProcessId, deployedWorkflow);
+                    // the workflow is fetched on the next lookup
+                    LOG.warn("Failed to add deployed workflow with key {}", key, e);
                 }
             }
+        });
+    }
+
+    public DirectBuffer getTopicName()
+    {
+        return topicName;
+    }
+
+    private void evict(DeployedWorkflow deployedWorkflow)
+    {
+        unlink(deployedWorkflow);
+
+        workflowsByKey.remove(deployedWorkflow.getKey());
+
+        final DirectBuffer processId = deployedWorkflow.getWorkflow().getBpmnProcessId();
+
+        final Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(processId);
+        if (versionMap != null)
+        {
+            versionMap.remove(deployedWorkflow.getVersion());
+
+            if (versionMap.isEmpty())
+            {
+                workflowsByProcessIdAndVersion.remove(processId);
+            }
         }
 
-        return deployedWorkflow;
+        if (latestWorkflowsByProcessId.get(processId) == deployedWorkflow)
+        {
+            // the next lookup fetches the latest version again
+            latestWorkflowsByProcessId.remove(processId);
+        }
+
+        cacheEvictions.incrementOrdered();
+    }
+
+    private void touch(DeployedWorkflow deployedWorkflow)
+    {
+        if (lruHead != deployedWorkflow)
+        {
+            unlink(deployedWorkflow);
+            linkFirst(deployedWorkflow);
+        }
+    }
+
+    private void linkFirst(DeployedWorkflow deployedWorkflow)
+    {
+        deployedWorkflow.lruPrevious = null;
+        deployedWorkflow.lruNext = lruHead;
+
+        if (lruHead != null)
+        {
+            lruHead.lruPrevious = deployedWorkflow;
+        }
+        else
+        {
+            lruTail = deployedWorkflow;
+        }
+
+        lruHead = deployedWorkflow;
+    }
+
+    private void unlink(DeployedWorkflow deployedWorkflow)
+    {
+        final DeployedWorkflow previous = deployedWorkflow.lruPrevious;
+        final DeployedWorkflow next = deployedWorkflow.lruNext;
+
+        if (previous != null)
+        {
+            previous.lruNext = next;
+        }
+        else
+        {
+            lruHead = next;
+        }
+
+        if (next != null)
+        {
+            next.lruPrevious = previous;
+        }
+        else
+        {
+            lruTail = previous;
+        }
+
+        deployedWorkflow.lruPrevious = null;
+        deployedWorkflow.lruNext = null;
     }
 
     private ActorFuture<RemoteAddress> systemTopicLeader()
@@ -194,11 +527,11 @@ public class WorkflowCache
             if (now - latest.getFetched() > LATEST_VERSION_REFRESH_INTERVAL)
             {
                 // refresh latest version
-                return null;
+                return lookedUp(null);
             }
         }
 
-        return latest;
+        return lookedUp(latest);
     }
 
     public DeployedWorkflow getWorkflowByProcessIdAndVersion(DirectBuffer processId, int version)
@@ -207,16 +540,43 @@ public class WorkflowCache
 
         if (versionMap != null)
         {
-            return versionMap.get(version);
+            return lookedUp(versionMap.get(version));
         }
         else
         {
-            return null;
+            return lookedUp(null);
         }
     }
 
     public DeployedWorkflow getWorkflowByKey(long key)
     {
-        return workflowsByKey.get(key);
+        return lookedUp(workflowsByKey.get(key));
+    }
+
+    private DeployedWorkflow lookedUp(DeployedWorkflow deployedWorkflow)
+    {
+        if (deployedWorkflow != null)
+        {
+            cacheHits.incrementOrdered();
+            touch(deployedWorkflow);
+        }
+        else
+        {
+            cacheMisses.incrementOrdered();
+        }
+
+        return deployedWorkflow;
+    }
+
+    @Override
+    public void close()
+    {
+        cacheHits.close();
+        cacheMisses.close();
+        cacheEvictions.close();
+        fetchesRequested.close();
+        fetchesCoalesced.close();
+        fetchDurationSum.close();
+        fetchDurationCount.close();
     }
 }
@@ -28,11 +28,13 @@ import java.util.function.Consumer;
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.incident.IncidentEventWriter;
 import io.zeebe.broker.incident.data.ErrorType;
+import io.zeebe.broker.logstreams.processor.InvalidCommandProcessor;
 import io.zeebe.broker.logstreams.processor.MetadataFilter;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskHeaders;
 import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.broker.transport.clientapi.CommandResponseWriter;
+import io.zeebe.broker.workflow.WorkflowDeployedMessageHandler;
 import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
 import io.zeebe.broker.workflow.data.WorkflowInstanceState;
 import io.zeebe.broker.workflow.map.*;
@@ -41,7 +43,9 @@ import io.zeebe.logstreams.log.*;
 import io.zeebe.logstreams.log.LogStreamBatchWriter.LogEntryBuilder;
 import io.zeebe.logstreams.processor.*;
 import io.zeebe.logstreams.snapshot.ComposedSnapshot;
+import io.zeebe.logstreams.snapshot.ZbMapSnapshotSupport;
 import io.zeebe.logstreams.spi.SnapshotSupport;
+import io.zeebe.map.Long2LongZbMap;
 import io.zeebe.model.bpmn.BpmnAspect;
 import io.zeebe.model.bpmn.instance.*;
 import io.zeebe.msgpack.el.*;
@@ -49,7 +53,6 @@ import io.zeebe.msgpack.mapping.*;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
-import io.zeebe.transport.ClientResponse;
 import io.zeebe.transport.ClientTransport;
 import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.metrics.MetricsManager;
@@ -57,6 +60,7 @@ import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
@@ -64,6 +68,12 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 {
     private static final UnsafeBuffer EMPTY_TASK_TYPE = new UnsafeBuffer("".getBytes());
 
+    /**
+     * Maximum number of events which are written in one batch by step fusion.
+     * Limits the chain if the workflow contains a loop without wait state.
+     */
+    private static final int MAX_FUSED_EVENTS = 32;
+
     // processors ////////////////////////////////////
 
     protected final CreateWorkflowInstanceEventProcessor createWorkflowInstanceEventProcessor = new CreateWorkflowInstanceEventProcessor();
@@ -78,9 +88,11 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected final EventProcessor activityActivatedEventProcessor = new ActiveWorkflowInstanceProcessor(new ActivityActivatedEventProcessor());
     protected final EventProcessor activityCompletingEventProcessor = new ActiveWorkflowInstanceProcessor(new ActivityCompletingEventProcessor());
     protected final EventProcessor bpmnAspectEventProcessor = new BpmnAspectEventProcessor();
+    private final FusedTransitionsProcessor fusedTransitionsProcessor = new FusedTransitionsProcessor();
 
     protected final EventProcessor taskCompletedEventProcessor = new TaskCompletedEventProcessor();
     protected final EventProcessor taskCreatedEventProcessor = new TaskCreatedProcessor();
+    protected final EventProcessor taskLockedEventProcessor = new TaskLockedEventProcessor();
 
     protected Metric workflowInstanceEventCreate;
     protected Metric workflowInstanceEventCanceled;
@@ -97,11 +109,18 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     // internal //////////////////////////////////////
 
     protected final CommandResponseWriter responseWriter;
+    protected final InvalidCommandProcessor invalidCommandProcessor;
 
     protected final WorkflowInstanceIndex workflowInstanceIndex;
     protected final ActivityInstanceMap activityInstanceMap;
     protected final PayloadCache payloadCache;
 
+    /**
+     * Maps the position of an event which is processed with step fusion to the
+     * number of its follow-up events which are processed already.
+     */
+    protected final Long2LongZbMap fusedEvents = new Long2LongZbMap();
+
     protected WorkflowCache workflowDeploymentCache;
 
     protected final ComposedSnapshot composedSnapshot;
@@ -122,6 +141,9 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
     private ClientTransport managementApiClient;
     private TopologyManager topologyManager;
+    private WorkflowDeployedMessageHandler workflowDeployedMessageHandler;
+    private final int workflowCacheSize;
+    private final boolean isStepFusionEnabled;
 
     private ActorControl actor;
 
@@ -129,11 +151,18 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             CommandResponseWriter responseWriter,
             ClientTransport managementApiClient,
             TopologyManager topologyManager,
-            int payloadCacheSize)
+            WorkflowDeployedMessageHandler workflowDeployedMessageHandler,
+            long payloadCacheSize,
+            int workflowCacheSize,
+            boolean isStepFusionEnabled)
     {
         this.responseWriter = responseWriter;
+        this.invalidCommandProcessor = new InvalidCommandProcessor(responseWriter.getOutput());
         this.managementApiClient = managementApiClient;
         this.topologyManager = topologyManager;
+        this.workflowDeployedMessageHandler = workflowDeployedMessageHandler;
+        this.workflowCacheSize = workflowCacheSize;
+        this.isStepFusionEnabled = isStepFusionEnabled;
         this.logStreamReader = new BufferedLogStreamReader();
 
         this.payloadCache = new PayloadCache(payloadCacheSize, logStreamReader);
@@ -146,7 +175,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         this.composedSnapshot = new ComposedSnapshot(
             workflowInstanceIndex.getSnapshotSupport(),
             activityInstanceMap.getSnapshotSupport(),
-            payloadCache.getSnapshotSupport());
+            payloadCache.getSnapshotSupport(),
+            new ZbMapSnapshotSupport<>(fusedEvents));
     }
 
     @Override
@@ -170,14 +200,23 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
 
         this.logStream = logstream;
 
-        this.workflowDeploymentCache = new WorkflowCache(managementApiClient,
+        final MetricsManager metricsManager = context.getActorScheduler().getMetricsManager();
+
+        this.workflowDeploymentCache = new WorkflowCache(actor,
+            managementApiClient,
             topologyManager,
-            logstream.getTopicName());
+            metricsManager,
+            logstream.getTopicName(),
+            logstream.getPartitionId(),
+            workflowCacheSize);
+
+        workflowDeployedMessageHandler.addWorkflowCache(workflowDeploymentCache);
 
-        final MetricsManager metricsManager = context.getActorScheduler().getMetricsManager();
         final String topicName = logstream.getTopicName().getStringWithoutLengthUtf8(0, logstream.getTopicName().capacity());
         final String partitionId = Integer.toString(logstream.getPartitionId());
 
+        payloadCache.openMetrics(metricsManager, topicName, logstream.getPartitionId());
+
         workflowInstanceEventCreate = metricsManager.newMetric("workflow_instance_events_count")
             .type("counter")
             .label("topic", topicName)
@@ -206,6 +245,9 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         workflowInstanceIndex.close();
         activityInstanceMap.close();
         payloadCache.close();
+        fusedEvents.close();
+        workflowDeployedMessageHandler.removeWorkflowCache(workflowDeploymentCache);
+        workflowDeploymentCache.close();
         logStreamReader.close();
 
         workflowInstanceEventCreate.close();
@@ -256,7 +298,20 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
     protected EventProcessor onWorkflowInstanceEvent(LoggedEvent event)
     {
         workflowInstanceEvent.reset();
-        event.readValue(workflowInstanceEvent);
+
+        try
+        {
+            event.readValue(workflowInstanceEvent);
+        }
+        catch (Exception e)
+        {
+            return invalidCommandProcessor.wrap(event, sourceEventMetadata, e);
+        }
+
+        if (isFusedEvent(event))
+        {
+            return null;
+        }
 
         EventProcessor eventProcessor = null;
         switch (workflowInstanceEvent.getState())
@@ -319,19 +374,77 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 break;
         }
 
+        if (isStepFusionEnabled && eventProcessor != null && isFusionTrigger(workflowInstanceEvent.getState()))
+        {
+            eventProcessor = fusedTransitionsProcessor.wrap(eventProcessor);
+        }
+
         return eventProcessor;
     }
 
+    /**
+     * @return <code>true</code> if the event is a follow-up event which is
+     *         already processed together with its source event
+     */
+    protected boolean isFusedEvent(LoggedEvent event)
+    {
+        if (event.getProducerId() != streamProcessorId)
+        {
+            return false;
+        }
+
+        final long sourceEventPosition = event.getSourceEventPosition();
+        final long processedEvents = fusedEvents.get(sourceEventPosition, 0L);
+
+        if (processedEvents > 1)
+        {
+            fusedEvents.put(sourceEventPosition, processedEvents - 1);
+        }
+        else if (processedEvents == 1)
+        {
+            fusedEvents.remove(sourceEventPosition, 0L);
+        }
+
+        return processedEvents > 0;
+    }
+
+    private static boolean isFusionTrigger(WorkflowInstanceState state)
+    {
+        switch (state)
+        {
+            case START_EVENT_OCCURRED:
+            case ACTIVITY_COMPLETED:
+            case SEQUENCE_FLOW_TAKEN:
+            case GATEWAY_ACTIVATED:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
     protected EventProcessor onTaskEvent(LoggedEvent event)
     {
         taskEvent.reset();
-        event.readValue(taskEvent);
+
+        try
+        {
+            event.readValue(taskEvent);
+        }
+        catch (Exception e)
+        {
+            // the task stream processor responds to an invalid task command
+            return null;
+        }
 
         switch (taskEvent.getState())
         {
             case CREATED:
                 return taskCreatedEventProcessor;
 
+            case LOCKED:
+                return taskLockedEventProcessor;
+
             case COMPLETED:
                 return taskCompletedEventProcessor;
 
@@ -419,7 +532,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             final DirectBuffer bpmnProcessId = workflowInstanceEvent.getBpmnProcessId();
             final int version = workflowInstanceEvent.getVersion();
 
-            ActorFuture<ClientResponse> fetchWorkflowFuture = null;
+            ActorFuture<DeployedWorkflow> fetchWorkflowFuture = null;
 
             if (workflowKey <= 0)
             {
@@ -482,38 +595,21 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 final ActorFuture<Void> workflowFetchedFuture = new CompletableActorFuture<>();
                 ctx.async(workflowFetchedFuture);
 
-                actor.runOnCompletion(fetchWorkflowFuture, (response, err) ->
+                actor.runOnCompletion(fetchWorkflowFuture, (workflowDefinition, err) ->
                 {
-                    if (err != null)
+                    if (err == null && workflowDefinition != null)
                     {
                         workflowInstanceEvent
-                            .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_REJECTED);
+                            .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_CREATED)
+                            .setBpmnProcessId(workflowDefinition.getWorkflow().getBpmnProcessId())
+                            .setWorkflowKey(workflowDefinition.getKey())
+                            .setVersion(workflowDefinition.getVersion());
                     }
                     else
                     {
-                        try
-                        {
-                            final DeployedWorkflow workflowDefinition = workflowDeploymentCache.addWorkflow(response.getResponseBuffer());
-
-                            if (workflowDefinition != null)
-                            {
-                                workflowInstanceEvent
-                                    .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_CREATED)
-                                    .setBpmnProcessId(workflowDefinition.getWorkflow().getBpmnProcessId())
-                                    .setWorkflowKey(workflowDefinition.getKey())
-                                    .setVersion(workflowDefinition.getVersion());
-                            }
-                            else
-                            {
-                                // workflow not deployed
-                                workflowInstanceEvent
-                                    .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_REJECTED);
-                            }
-                        }
-                        finally
-                        {
-                            response.close();
-                        }
+                        // workflow not deployed or fetch failed
+                        workflowInstanceEvent
+                            .setState(WorkflowInstanceState.WORKFLOW_INSTANCE_REJECTED);
                     }
 
                     workflowFetchedFuture.complete(null);
@@ -1019,6 +1115,27 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
+    private final class TaskLockedEventProcessor implements EventProcessor
+    {
+        @Override
+        public void processEvent()
+        {
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            // a side effect, so that the payload is not read from the log while reprocessing
+            final long workflowInstanceKey = taskEvent.headers().getWorkflowInstanceKey();
+            if (workflowInstanceKey > 0)
+            {
+                // the payload is needed when the task is completed
+                payloadCache.prefetch(workflowInstanceKey);
+            }
+            return true;
+        }
+    }
+
     private final class TaskCompletedEventProcessor implements EventProcessor
     {
         private boolean isActivityCompleted;
@@ -1387,14 +1504,186 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
         }
     }
 
+    /**
+     * Step fusion: processes an event and the following events of the workflow
+     * instance which don't wait for anything (e.g. a taken sequence flow or an
+     * activated gateway) in one cycle, and writes the follow-up events in one
+     * batch. The events of the batch which are processed already are skipped
+     * when they are read (see {@link #isFusedEvent(LoggedEvent)}).
+     *
+     * <p>
+     * The chain ends with an event which needs its own position or key to be
+     * processed, e.g. an activity which is ready, or with a gateway whose
+     * conditions are not fulfilled, so that the incident refers to the gateway event.
+     */
+    private final class FusedTransitionsProcessor implements EventProcessor
+    {
+        private final ExpandableArrayBuffer eventBuffer = new ExpandableArrayBuffer();
+        private final int[] eventOffsets = new int[MAX_FUSED_EVENTS];
+        private final int[] eventLengths = new int[MAX_FUSED_EVENTS];
+        private final long[] eventKeys = new long[MAX_FUSED_EVENTS];
+
+        private EventProcessor delegate;
+        private EventProcessor lastProcessor;
+
+        private int eventCount;
+        private int processedEventCount;
+
+        public EventProcessor wrap(EventProcessor delegate)
+        {
+            this.delegate = delegate;
+            return this;
+        }
+
+        @Override
+        public void processEvent(EventLifecycleContext ctx)
+        {
+            eventCount = 0;
+            processedEventCount = 0;
+            lastProcessor = delegate;
+
+            final boolean isWorkflowCached = workflowDeploymentCache.getWorkflowByKey(workflowInstanceEvent.getWorkflowKey()) != null;
+
+            WorkflowInstanceState state = workflowInstanceEvent.getState();
+
+            delegate.processEvent(ctx);
+
+            if (!isWorkflowCached || workflowInstanceEvent.getState() == state)
+            {
+                // the workflow is fetched asynchronously or the event has no follow-up event
+                return;
+            }
+
+            addEvent();
+            state = workflowInstanceEvent.getState();
+
+            EventProcessor processor = getFusedProcessor(state);
+            while (processor != null && eventCount < MAX_FUSED_EVENTS)
+            {
+                processor.processEvent(ctx);
+
+                final WorkflowInstanceState nextState = workflowInstanceEvent.getState();
+                if (nextState == state)
+                {
+                    // an end event which doesn't complete the workflow instance is processed,
+                    // a gateway without fulfilled condition is processed on its own to create the incident
+                    if (state == WorkflowInstanceState.END_EVENT_OCCURRED)
+                    {
+                        processedEventCount += 1;
+                        lastProcessor = processor;
+                    }
+                    break;
+                }
+
+                processedEventCount += 1;
+                lastProcessor = processor;
+
+                addEvent();
+                state = nextState;
+                processor = getFusedProcessor(state);
+            }
+        }
+
+        private EventProcessor getFusedProcessor(WorkflowInstanceState state)
+        {
+            switch (state)
+            {
+                case SEQUENCE_FLOW_TAKEN:
+                    return sequenceFlowTakenEventProcessor;
+
+                case GATEWAY_ACTIVATED:
+                case END_EVENT_OCCURRED:
+                    return bpmnAspectEventProcessor;
+
+                default:
+                    return null;
+            }
+        }
+
+        private void addEvent()
+        {
+            final int offset = eventCount > 0 ? eventOffsets[eventCount - 1] + eventLengths[eventCount - 1] : 0;
+            final int length = workflowInstanceEvent.getLength();
+
+            eventBuffer.checkLimit(offset + length);
+            workflowInstanceEvent.write(eventBuffer, offset);
+
+            eventOffsets[eventCount] = offset;
+            eventLengths[eventCount] = length;
+            eventKeys[eventCount] = workflowInstanceEvent.getState() == WorkflowInstanceState.WORKFLOW_INSTANCE_COMPLETED ?
+                    workflowInstanceEvent.getWorkflowInstanceKey() : -1L;
+
+            eventCount += 1;
+        }
+
+        @Override
+        public boolean executeSideEffects()
+        {
+            return delegate.executeSideEffects();
+        }
+
+        @Override
+        public long writeEvent(LogStreamWriter writer)
+        {
+            if (eventCount == 0)
+            {
+                return delegate.writeEvent(writer);
+            }
+
+            logStreamBatchWriter.reset();
+
+            logStreamBatchWriter
+                .producerId(streamProcessorId)
+                .sourceEvent(logStreamPartitionId, eventPosition);
+
+            targetEventMetadata.reset()
+                .protocolVersion(Protocol.PROTOCOL_VERSION)
+                .eventType(WORKFLOW_INSTANCE_EVENT);
+
+            for (int i = 0; i < eventCount; i++)
+            {
+                final LogEntryBuilder eventBuilder = logStreamBatchWriter.event();
+
+                if (eventKeys[i] >= 0)
+                {
+                    eventBuilder.key(eventKeys[i]);
+                }
+                else
+                {
+                    eventBuilder.positionAsKey();
+                }
+
+                eventBuilder
+                    .metadataWriter(targetEventMetadata)
+                    .value(eventBuffer, eventOffsets[i], eventLengths[i])
+                    .done();
+            }
+
+            return logStreamBatchWriter.tryWrite();
+        }
+
+        @Override
+        public void updateState()
+        {
+            // only the last processor of the chain can change the state,
+            // the processors before only take a sequence flow or activate a gateway
+            lastProcessor.updateState();
+
+            if (processedEventCount > 0)
+            {
+                fusedEvents.put(eventPosition, processedEventCount);
+            }
+        }
+    }
+
     public void fetchWorkflow(long workflowKey, Consumer<DeployedWorkflow> onFetched, EventLifecycleContext ctx)
     {
-        final ActorFuture<ClientResponse> responseFuture = workflowDeploymentCache.fetchWorkflowByKey(workflowKey);
+        final ActorFuture<DeployedWorkflow> workflowFuture = workflowDeploymentCache.fetchWorkflowByKey(workflowKey);
         final ActorFuture<Void> onCompleted = new CompletableActorFuture<>();
 
         ctx.async(onCompleted);
 
-        actor.runOnCompletion(responseFuture, (response, err) ->
+        actor.runOnCompletion(workflowFuture, (workflow, err) ->
         {
             if (err != null)
             {
@@ -1404,8 +1693,6 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
             {
                 try
                 {
-                    final DeployedWorkflow workflow = workflowDeploymentCache.addWorkflow(response.getResponseBuffer());
-
                     onFetched.accept(workflow);
 
                     onCompleted.complete(null);
@@ -1414,10 +1701,6 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessor
                 {
                     onCompleted.completeExceptionally(new RuntimeException("Error while processing fetched workflow", e));
                 }
-                finally
-                {
-                    response.close();
-                }
             }
         });
     }
@@ -69,6 +69,37 @@ public class IdGeneratorTest
         assertThat(id3.join()).isEqualTo(3);
     }
 
+    @Test
+    public void shouldGenerateRangeOfIds()
+    {
+        // when
+        final ActorFuture<Integer> range1 = idGenerator.nextIds(3);
+        final ActorFuture<Integer> range2 = idGenerator.nextIds(2);
+        final ActorFuture<Integer> id = idGenerator.nextId();
+
+        // then
+        assertThat(range1.join()).isEqualTo(1);
+        assertThat(range2.join()).isEqualTo(4);
+        assertThat(id.join()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldGenerateRangeOfIdsAfterRestart() throws Exception
+    {
+        // given
+        idGenerator.nextIds(3).join();
+
+        brokerRule.restartBroker();
+
+        idGenerator = getIdGenerator();
+
+        // when
+        final ActorFuture<Integer> range = idGenerator.nextIds(3);
+
+        // then
+        assertThat(range.join()).isEqualTo(4);
+    }
+
     @Test
     public void shouldGenerateNewIdsAfterRestart() throws Exception
     {
@@ -0,0 +1,256 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.orchestration.topic;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.base.topology.NodeInfo;
+import io.zeebe.broker.clustering.base.topology.PartitionInfo;
+import io.zeebe.broker.clustering.base.topology.ReadableTopology;
+import io.zeebe.broker.clustering.base.topology.TopologyManager;
+import io.zeebe.broker.clustering.orchestration.NodeSelector;
+import io.zeebe.broker.clustering.orchestration.id.IdGenerator;
+import io.zeebe.broker.clustering.orchestration.state.KnownTopics;
+import io.zeebe.broker.clustering.orchestration.state.TopicInfo;
+import io.zeebe.broker.topic.Events;
+import io.zeebe.broker.util.TestStreams;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.servicecontainer.testing.ServiceContainerRule;
+import io.zeebe.test.util.AutoCloseableRule;
+import io.zeebe.transport.ClientOutput;
+import io.zeebe.transport.ClientTransport;
+import io.zeebe.transport.SocketAddress;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.clock.ControlledActorClock;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+import io.zeebe.util.sched.testing.ActorSchedulerRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class TopicCreationServiceTest
+{
+    public static final String STREAM_NAME = "system";
+    public static final String TOPIC_NAME = "foo";
+
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    public AutoCloseableRule closeables = new AutoCloseableRule();
+
+    public ControlledActorClock clock = new ControlledActorClock();
+    public ActorSchedulerRule actorSchedulerRule = new ActorSchedulerRule(clock);
+    public ServiceContainerRule serviceContainerRule = new ServiceContainerRule(actorSchedulerRule);
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(tempFolder)
+        .around(actorSchedulerRule)
+        .around(serviceContainerRule)
+        .around(closeables);
+
+    private final NodeInfo node = new NodeInfo(
+            new SocketAddress("localhost", 8000),
+            new SocketAddress("localhost", 8001),
+            new SocketAddress("localhost", 8002));
+
+    private final List<TopicInfo> knownTopicInfos = new ArrayList<>();
+    private final List<PartitionInfo> topologyPartitions = new ArrayList<>();
+
+    /**
+     * the topology queries are answered when this future is completed
+     */
+    private final CompletableFuture<Void> topologyAvailable = new CompletableFuture<>();
+
+    private TestStreams streams;
+
+    private KnownTopics knownTopics;
+    private TopologyManager topologyManager;
+    private IdGenerator idGenerator;
+    private ClientOutput clientOutput;
+
+    private TopicCreationService service;
+
+    @Before
+    public void setUp()
+    {
+        streams = new TestStreams(tempFolder.getRoot(), closeables, serviceContainerRule.get(), actorSchedulerRule.get());
+        streams.createLogStream(STREAM_NAME);
+
+        knownTopics = mock(KnownTopics.class);
+        when(knownTopics.queryTopics(any())).thenAnswer(invocation ->
+        {
+            final Function<Iterable<TopicInfo>, ?> query = invocation.getArgument(0);
+            return CompletableActorFuture.completed(query.apply(knownTopicInfos));
+        });
+
+        final ReadableTopology topology = mock(ReadableTopology.class);
+        when(topology.getPartitions()).thenAnswer(invocation -> new ArrayList<>(topologyPartitions));
+
+        topologyManager = mock(TopologyManager.class);
+        when(topologyManager.query(any())).thenAnswer(invocation ->
+        {
+            final Function<ReadableTopology, Object> query = invocation.getArgument(0);
+            final CompletableActorFuture<Object> future = new CompletableActorFuture<>();
+
+            topologyAvailable.thenRun(() -> future.complete(query.apply(topology)));
+
+            return future;
+        });
+
+        final Partition partition = mock(Partition.class);
+        when(partition.getLogStream()).thenReturn(streams.getLogStream(STREAM_NAME));
+
+        idGenerator = mock(IdGenerator.class);
+        when(idGenerator.nextIds(anyInt())).thenAnswer(invocation -> CompletableActorFuture.completed(10));
+
+        final NodeSelector nodeSelector = mock(NodeSelector.class);
+        when(nodeSelector.getNextSocketAddress(any())).thenAnswer(invocation -> CompletableActorFuture.completed(node));
+
+        clientOutput = mock(ClientOutput.class);
+        when(clientOutput.sendRequest(any(), any())).thenAnswer(invocation -> CompletableActorFuture.completedExceptionally(new RuntimeException("expected")));
+
+        final ClientTransport clientTransport = mock(ClientTransport.class);
+        when(clientTransport.getOutput()).thenReturn(clientOutput);
+
+        service = new TopicCreationService();
+        service.getStateInjector().inject(knownTopics);
+        service.getTopologyManagerInjector().inject(topologyManager);
+        service.getLeaderSystemPartitionInjector().inject(partition);
+        service.getIdGeneratorInjector().inject(idGenerator);
+        service.getNodeOrchestratingServiceInjector().inject(nodeSelector);
+        service.getManagementClientApiInjector().inject(clientTransport);
+    }
+
+    @Test
+    public void shouldAddPartitionUpdatedBeforeTopologyIsLoaded()
+    {
+        // given
+        addKnownTopic(TOPIC_NAME, 2);
+
+        startService();
+        verify(topologyManager, timeout(5000)).query(any());
+
+        // when
+        service.onPartitionUpdated(partition(TOPIC_NAME, 1), node);
+        awaitProcessedJobs(2);
+
+        topologyAvailable.complete(null);
+
+        // then
+        verify(idGenerator, timeout(5000)).nextIds(1);
+        verify(idGenerator, never()).nextIds(2);
+    }
+
+    @Test
+    public void shouldRetryPartitionCreationAfterTimeout()
+    {
+        // given
+        addKnownTopic(TOPIC_NAME, 1);
+        topologyAvailable.complete(null);
+
+        startService();
+        verify(clientOutput, timeout(5000).times(1)).sendRequest(any(), any());
+
+        // when
+        clock.addTime(TopicCreationService.PENDING_TIMEOUT);
+
+        // then
+        verify(idGenerator, timeout(5000).times(2)).nextIds(1);
+        verify(clientOutput, timeout(5000).times(2)).sendRequest(any(), any());
+    }
+
+    @Test
+    public void shouldWriteCreateCompleteOnce()
+    {
+        // given
+        addKnownTopic(TOPIC_NAME, 2);
+        topologyPartitions.add(partition(TOPIC_NAME, 1));
+        topologyAvailable.complete(null);
+
+        startService();
+        verify(idGenerator, timeout(5000)).nextIds(1);
+
+        // when
+        service.onPartitionUpdated(partition(TOPIC_NAME, 2), node);
+        waitUntil(() -> countCreateCompleteEvents() == 1);
+
+        service.onPartitionUpdated(partition(TOPIC_NAME, 1), node);
+        service.onPartitionUpdated(partition(TOPIC_NAME, 2), node);
+        awaitProcessedJobs(2);
+
+        // then
+        assertThat(countCreateCompleteEvents()).isEqualTo(1);
+    }
+
+    private void startService()
+    {
+        final ServiceStartContext startContext = mock(ServiceStartContext.class);
+        when(startContext.getScheduler()).thenReturn(actorSchedulerRule.get());
+
+        service.start(startContext);
+    }
+
+    /**
+     * The service queries the known topics for an added topic. Since the jobs
+     * of the service are executed in order, all jobs which were submitted
+     * before are executed when the query is made.
+     */
+    private void awaitProcessedJobs(int expectedTopicQueries)
+    {
+        service.topicAdded("unknown");
+        verify(knownTopics, timeout(5000).times(expectedTopicQueries)).queryTopics(any());
+    }
+
+    private void addKnownTopic(String name, int partitionCount)
+    {
+        final TopicInfo topicInfo = new TopicInfo()
+            .setTopicName(BufferUtil.wrapString(name))
+            .setPartitionCount(partitionCount)
+            .setReplicationFactor(1)
+            .setKey(knownTopicInfos.size() + 1);
+
+        knownTopicInfos.add(topicInfo);
+    }
+
+    private static PartitionInfo partition(String topicName, int partitionId)
+    {
+        return new PartitionInfo(BufferUtil.wrapString(topicName), partitionId, 1);
+    }
+
+    private long countCreateCompleteEvents()
+    {
+        return streams.events(STREAM_NAME)
+            .filter(Events::isTopicEvent)
+            .filter(e -> Events.asTopicEvent(e).getState() == TopicState.CREATE_COMPLETE)
+            .count();
+    }
+}
@@ -28,6 +28,8 @@ import org.junit.rules.RuleChain;
 
 import io.zeebe.broker.test.EmbeddedBrokerRule;
 import io.zeebe.test.broker.protocol.clientapi.ClientApiRule;
+import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandResponse;
+import io.zeebe.test.broker.protocol.clientapi.SubscribedEvent;
 import io.zeebe.test.util.TestUtil;
 
 public class TopicSubscriptionThrottlingTest
@@ -42,15 +44,27 @@ public class TopicSubscriptionThrottlingTest
 
     public void openSubscription(int prefetchCapacity)
     {
-        apiRule.createCmdRequest()
+        openSubscription(0, prefetchCapacity);
+    }
+
+    public void openSubscription(long startPosition, int prefetchCapacity)
+    {
+        openSubscription(SUBSCRIPTION_NAME, startPosition, prefetchCapacity);
+    }
+
+    public long openSubscription(String name, long startPosition, int prefetchCapacity)
+    {
+        final ExecuteCommandResponse response = apiRule.createCmdRequest()
             .eventTypeSubscriber()
             .command()
-                .put("startPosition", 0)
-                .put("name", "foo")
+                .put("startPosition", startPosition)
+                .put("name", name)
                 .put("state", "SUBSCRIBE")
                 .put("prefetchCapacity", prefetchCapacity)
                 .done()
             .sendAndAwait();
+
+        return response.key();
     }
 
     @Test
@@ -113,6 +127,47 @@ public class TopicSubscriptionThrottlingTest
         assertThat(eventPositionsAfterAck.get(1)).isGreaterThan(eventPositions.get(2));
     }
 
+    @Test
+    public void shouldPushMoreAfterAckWhenStartedAtTail() throws InterruptedException
+    {
+        // given
+        final int nrOfTasks = 5;
+        final int prefetchCapacity = 3;
+
+        openSubscription(-1, prefetchCapacity);
+        createTasks(nrOfTasks);
+        TestUtil.waitUntil(() -> apiRule.numSubscribedEventsAvailable() == 3);
+
+        final List<Long> eventPositions = apiRule.subscribedEvents()
+                .limit(3)
+                .map((e) -> e.position())
+                .collect(Collectors.toList());
+
+        apiRule.moveMessageStreamToTail();
+
+        // when
+        apiRule.createCmdRequest()
+            .eventTypeSubscription()
+            .command()
+                .put("name", SUBSCRIPTION_NAME)
+                .put("state", "ACKNOWLEDGE")
+                .put("ackPosition", eventPositions.get(1))
+                .done()
+            .sendAndAwait();
+
+        // then
+        Thread.sleep(1000L); // there might be more received in case this feature is broken
+        assertThat(apiRule.numSubscribedEventsAvailable()).isEqualTo(2);
+
+        final List<Long> eventPositionsAfterAck = apiRule.subscribedEvents()
+                .limit(2)
+                .map((e) -> e.position())
+                .collect(Collectors.toList());
+
+        assertThat(eventPositionsAfterAck.get(0)).isGreaterThan(eventPositions.get(2));
+        assertThat(eventPositionsAfterAck.get(1)).isGreaterThan(eventPositionsAfterAck.get(0));
+    }
+
     @Test
     public void shouldPushAllEventsWithoutPrefetchCapacity() throws InterruptedException
     {
@@ -131,6 +186,68 @@ public class TopicSubscriptionThrottlingTest
         TestUtil.waitUntil(() -> apiRule.numSubscribedEventsAvailable() == expectedNumberOfEvents);
     }
 
+    @Test
+    public void shouldPushSkippedEventsToThrottledSubscriptionAfterAck()
+    {
+        // given
+        final int nrOfTasks = 5;
+        final int prefetchCapacity = 3;
+        final int expectedNumberOfEvents = nrOfTasks * 2; // CREATE and CREATED
+
+        final long throttledSubscriberKey = openSubscription(SUBSCRIPTION_NAME, -1, prefetchCapacity);
+        final long otherSubscriberKey = openSubscription("bar", -1, -1);
+
+        createTasks(nrOfTasks);
+
+        // the other subscription is not held back by the throttled one
+        final List<SubscribedEvent> events = apiRule.subscribedEvents()
+                .limit(expectedNumberOfEvents + prefetchCapacity)
+                .collect(Collectors.toList());
+
+        final List<Long> otherEventPositions = positionsOf(events, otherSubscriberKey);
+        final List<Long> throttledEventPositions = positionsOf(events, throttledSubscriberKey);
+
+        assertThat(otherEventPositions).hasSize(expectedNumberOfEvents);
+        assertThat(throttledEventPositions).hasSize(prefetchCapacity);
+
+        // when
+        while (throttledEventPositions.size() < expectedNumberOfEvents)
+        {
+            apiRule.moveMessageStreamToTail();
+            acknowledge(throttledEventPositions.get(throttledEventPositions.size() - 1));
+
+            final int nextEvents = Math.min(prefetchCapacity, expectedNumberOfEvents - throttledEventPositions.size());
+            final List<SubscribedEvent> eventsAfterAck = apiRule.subscribedEvents()
+                    .limit(nextEvents)
+                    .collect(Collectors.toList());
+
+            throttledEventPositions.addAll(positionsOf(eventsAfterAck, throttledSubscriberKey));
+        }
+
+        // then the throttled subscription receives the same events without gaps or duplicates
+        assertThat(throttledEventPositions).containsExactlyElementsOf(otherEventPositions);
+    }
+
+    protected void acknowledge(long position)
+    {
+        apiRule.createCmdRequest()
+            .eventTypeSubscription()
+            .command()
+                .put("name", SUBSCRIPTION_NAME)
+                .put("state", "ACKNOWLEDGE")
+                .put("ackPosition", position)
+                .done()
+            .sendAndAwait();
+    }
+
+    protected static List<Long> positionsOf(List<SubscribedEvent> events, long subscriberKey)
+    {
+        return events.stream()
+                .filter(e -> e.subscriberKey() == subscriberKey)
+                .map(e -> e.position())
+                .collect(Collectors.toList());
+    }
+
     protected void createTasks(int nrOfTasks)
     {
         for (int i = 0; i < nrOfTasks; i++)
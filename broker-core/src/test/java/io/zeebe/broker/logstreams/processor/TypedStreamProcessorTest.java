@@ -19,6 +19,11 @@ package io.zeebe.broker.logstreams.processor;
 
 import static io.zeebe.test.util.TestUtil.doRepeatedly;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.zeebe.servicecontainer.testing.ServiceContainerRule;
 import io.zeebe.util.sched.testing.ActorSchedulerRule;
@@ -37,6 +42,7 @@ import io.zeebe.broker.topic.StreamProcessorControl;
 import io.zeebe.broker.util.TestStreams;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.protocol.clientapi.EventType;
 import io.zeebe.test.util.AutoCloseableRule;
 import io.zeebe.transport.ServerOutput;
@@ -106,6 +112,72 @@ public class TypedStreamProcessorTest
         assertThat(writtenEvent.getSourceEventPosition()).isEqualTo(firstEventPosition);
     }
 
+    @Test
+    public void shouldRespondToUnreadableOwnedCommand()
+    {
+        // given
+        when(output.sendResponse(any())).thenReturn(true);
+
+        final TypedStreamEnvironment env = new TypedStreamEnvironment(streams.getLogStream(STREAM_NAME), output);
+
+        final TypedStreamProcessor streamProcessor = env.newStreamProcessor()
+            .onEvent(EventType.TOPIC_EVENT, TopicState.CREATE, new BatchProcessor())
+            .ownsCommands(EventType.TOPIC_EVENT)
+            .build();
+
+        final StreamProcessorControl streamProcessorControl = streams.initStreamProcessor(STREAM_NAME, STREAM_PROCESSOR_ID, () -> streamProcessor);
+        streamProcessorControl.start();
+        writeUnreadableTopicCommand();
+
+        // when
+        streamProcessorControl.unblock();
+
+        // then
+        verify(output, timeout(5000)).sendResponse(any());
+    }
+
+    @Test
+    public void shouldSkipUnreadableCommandOfOtherProcessor()
+    {
+        // given
+        final TypedStreamEnvironment env = new TypedStreamEnvironment(streams.getLogStream(STREAM_NAME), output);
+
+        final TypedStreamProcessor streamProcessor = env.newStreamProcessor()
+            .onEvent(EventType.TOPIC_EVENT, TopicState.CREATE, new BatchProcessor())
+            .build();
+
+        final StreamProcessorControl streamProcessorControl = streams.initStreamProcessor(STREAM_NAME, STREAM_PROCESSOR_ID, () -> streamProcessor);
+        streamProcessorControl.start();
+        writeUnreadableTopicCommand();
+        streams.newEvent(STREAM_NAME).event(createTopic("foo", 1)).write();
+
+        // when
+        streamProcessorControl.unblock();
+
+        // then
+        doRepeatedly(() -> streams.events(STREAM_NAME)
+                .filter(Events::isTopicEvent)
+                .filter(e -> Events.asTopicEvent(e).getState() == TopicState.CREATE_REJECTED)
+                .findFirst())
+            .until(o -> o.isPresent());
+
+        verify(output, never()).sendResponse(any());
+    }
+
+    protected void writeUnreadableTopicCommand()
+    {
+        // an empty document misses the properties of a topic event
+        streams.newEvent(STREAM_NAME)
+            .event(new UnpackedObject())
+            .metadata(m ->
+            {
+                m.eventType(EventType.TOPIC_EVENT);
+                m.requestStreamId(1);
+                m.requestId(2);
+            })
+            .write();
+    }
+
     protected TopicEvent createTopic(String name, int partitions)
     {
         final TopicEvent event = new TopicEvent();
@@ -0,0 +1,77 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task;
+
+import static io.zeebe.test.broker.protocol.clientapi.TestTopicClient.taskEvents;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import io.zeebe.broker.test.EmbeddedBrokerRule;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.test.broker.protocol.clientapi.ClientApiRule;
+import io.zeebe.test.broker.protocol.clientapi.ErrorResponse;
+import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandResponse;
+import io.zeebe.test.broker.protocol.clientapi.SubscribedEvent;
+import io.zeebe.test.broker.protocol.clientapi.TestTopicClient;
+
+public class TaskSubscriptionLazyValidationTest
+{
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule("zeebe.unit-test.lazy-validation.cfg.toml");
+    public ClientApiRule apiRule = new ClientApiRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(brokerRule).around(apiRule);
+
+    private TestTopicClient testClient;
+
+    @Before
+    public void setUp()
+    {
+        testClient = apiRule.topic();
+    }
+
+    @Test
+    public void shouldLockTaskIfInvalidCommandIsInBacklog()
+    {
+        // given
+        final ErrorResponse errorResponse = apiRule.createCmdRequest()
+            .eventTypeTask()
+            .command()
+                .put("state", "CREATE")
+                .put("type", "foo")
+                .put("retries", "three")
+                .done()
+            .send()
+            .awaitError();
+
+        assertThat(errorResponse.getErrorCode()).isEqualTo(ErrorCode.INVALID_MESSAGE);
+
+        final ExecuteCommandResponse createResponse = testClient.createTask("foo");
+
+        // when
+        apiRule.openTaskSubscription("foo").await();
+
+        // then
+        final SubscribedEvent lockedEvent = testClient.receiveSingleEvent(taskEvents("LOCKED"));
+        assertThat(lockedEvent.key()).isEqualTo(createResponse.key());
+    }
+}
@@ -35,12 +35,15 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.RuleChain;
 
+import io.zeebe.broker.task.processor.LockTaskStreamProcessor;
+import io.zeebe.broker.task.processor.TaskDistribution;
 import io.zeebe.broker.task.processor.TaskSubscription;
 import io.zeebe.broker.test.EmbeddedBrokerRule;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.protocol.clientapi.SubscriptionType;
 import io.zeebe.test.broker.protocol.clientapi.ClientApiRule;
+import io.zeebe.test.broker.protocol.clientapi.ControlMessageRequest;
 import io.zeebe.test.broker.protocol.clientapi.ControlMessageRequestBuilder;
 import io.zeebe.test.broker.protocol.clientapi.ControlMessageResponse;
 import io.zeebe.test.broker.protocol.clientapi.ErrorResponse;
@@ -341,6 +344,67 @@ public class TaskSubscriptionTest
                 secondReceivingSubscriber);
     }
 
+    @Test
+    public void shouldDistributeTasksInProportionToCredits()
+    {
+        // given
+        final String taskType = "foo";
+        final int subscriber1 = (int) openTaskSubscription(taskType, 6, TaskDistribution.CREDIT_WEIGHTED)
+                .await()
+                .getData()
+                .get("subscriberKey");
+        final int subscriber2 = (int) openTaskSubscription(taskType, 2, TaskDistribution.CREDIT_WEIGHTED)
+                .await()
+                .getData()
+                .get("subscriberKey");
+
+        // when
+        testClient.createTask(taskType);
+        testClient.createTask(taskType);
+        testClient.createTask(taskType);
+        testClient.createTask(taskType);
+
+        // then
+        waitUntil(() -> apiRule.numSubscribedEventsAvailable() == 4);
+
+        final List<SubscribedEvent> receivedEvents = apiRule.subscribedEvents().limit(4)
+                .collect(Collectors.toList());
+
+        assertThat(receivedEvents).extracting(e -> e.subscriberKey()).containsExactly(
+                (long) subscriber1,
+                (long) subscriber2,
+                (long) subscriber1,
+                (long) subscriber1);
+    }
+
+    @Test
+    public void shouldRejectSubscriptionWithOtherDistributionThanExistingSubscription()
+    {
+        // given
+        openTaskSubscription("foo", 5, TaskDistribution.CREDIT_WEIGHTED).await();
+
+        // when
+        final ErrorResponse errorResponse = openTaskSubscription("foo", 5, TaskDistribution.LATENCY_AWARE).awaitError();
+
+        // then
+        assertThat(errorResponse.getErrorCode()).isEqualTo(ErrorCode.REQUEST_PROCESSING_FAILURE);
+        assertThat(errorResponse.getErrorData()).isEqualTo("Cannot add task subscription. " +
+                "distribution must be CREDIT_WEIGHTED as for the other subscriptions of the task type, but was LATENCY_AWARE");
+    }
+
+    @Test
+    public void shouldAddSubscriptionWithOtherDistributionForOtherTaskType()
+    {
+        // given
+        openTaskSubscription("foo", 5, TaskDistribution.CREDIT_WEIGHTED).await();
+
+        // when
+        final ControlMessageResponse response = openTaskSubscription("bar", 5, TaskDistribution.LATENCY_AWARE).await();
+
+        // then
+        assertThat(response.getData()).containsEntry("distribution", TaskDistribution.LATENCY_AWARE.name());
+    }
+
     @Test
     public void shouldCloseSubscriptionOnTransportChannelClose() throws InterruptedException
     {
@@ -499,6 +563,161 @@ public class TaskSubscriptionTest
             .containsEntry("lockOwner", "owner2");
     }
 
+    @Test
+    public void shouldLockTasksOfOtherTypeWhenCreditsAreExhausted()
+    {
+        // given
+        apiRule.openTaskSubscription(apiRule.getDefaultPartitionId(), "foo", 10000, 1).await();
+        apiRule.openTaskSubscription(apiRule.getDefaultPartitionId(), "bar", 10000, 1).await();
+
+        testClient.createTask("foo");
+        testClient.createTask("foo");
+
+        // when
+        testClient.createTask("bar");
+
+        // then
+        final List<SubscribedEvent> taskEvents = apiRule.topic().receiveEvents(taskEvents("LOCKED"))
+                .limit(2)
+                .collect(Collectors.toList());
+
+        assertThat(taskEvents)
+            .extracting(s -> s.event().get("type"))
+            .containsExactly("foo", "bar");
+    }
+
+    @Test
+    public void shouldLockTasksInBatch()
+    {
+        // given
+        apiRule
+            .createControlMessageRequest()
+            .messageType(ControlMessageType.ADD_TASK_SUBSCRIPTION)
+            .partitionId(apiRule.getDefaultPartitionId())
+            .data()
+                .put("taskType", "foo")
+                .put("lockDuration", 10000L)
+                .put("lockOwner", "bar")
+                .put("credits", 5)
+                .put("lockBatchSize", 3)
+                .done()
+            .send()
+            .await();
+
+        // when
+        final ExecuteCommandResponse firstTask = testClient.createTask("foo");
+        final ExecuteCommandResponse secondTask = testClient.createTask("foo");
+        final ExecuteCommandResponse thirdTask = testClient.createTask("foo");
+
+        // then
+        final List<SubscribedEvent> taskEvents = testClient.receiveEvents(taskEvents("LOCKED"))
+                .limit(3)
+                .collect(Collectors.toList());
+
+        assertThat(taskEvents)
+            .extracting(s -> s.key())
+            .containsExactly(firstTask.key(), secondTask.key(), thirdTask.key());
+
+        assertThat(taskEvents)
+            .extracting(s -> s.event().get("lockOwner"))
+            .containsOnly("bar");
+    }
+
+    @Test
+    public void shouldLockIncompleteBatchAfterLinger()
+    {
+        // given
+        apiRule
+            .createControlMessageRequest()
+            .messageType(ControlMessageType.ADD_TASK_SUBSCRIPTION)
+            .partitionId(apiRule.getDefaultPartitionId())
+            .data()
+                .put("taskType", "foo")
+                .put("lockDuration", 10000L)
+                .put("lockOwner", "bar")
+                .put("credits", 5)
+                .put("lockBatchSize", 10)
+                .done()
+            .send()
+            .await();
+
+        // when
+        final ExecuteCommandResponse response = testClient.createTask("foo");
+
+        // then
+        final SubscribedEvent taskEvent = testClient.receiveSingleEvent(taskEvents("LOCKED"));
+        assertThat(taskEvent.key()).isEqualTo(response.key());
+    }
+
+    @Test
+    public void shouldRejectSubscriptionWithExcessiveLockBatchSize()
+    {
+        // given
+        final ControlMessageRequestBuilder request = apiRule
+            .createControlMessageRequest()
+            .messageType(ControlMessageType.ADD_TASK_SUBSCRIPTION)
+            .partitionId(apiRule.getDefaultPartitionId())
+            .data()
+                .put("taskType", "foo")
+                .put("lockDuration", 10000L)
+                .put("lockOwner", "bar")
+                .put("credits", 5)
+                .put("lockBatchSize", LockTaskStreamProcessor.MAX_LOCK_BATCH_SIZE + 1)
+                .done();
+        // when
+        final ErrorResponse errorResponse = request
+            .send()
+            .awaitError();
+
+        // then
+        assertThat(errorResponse.getErrorCode()).isEqualTo(ErrorCode.REQUEST_PROCESSING_FAILURE);
+        assertThat(errorResponse.getErrorData()).startsWith("Cannot add task subscription. lock batch size must be less than or equal to");
+    }
+
+    @Test
+    public void shouldLockTasksCreatedBeforeSubscription()
+    {
+        // given
+        final ExecuteCommandResponse firstTask = testClient.createTask("foo");
+        final ExecuteCommandResponse secondTask = testClient.createTask("foo");
+
+        // when
+        apiRule.openTaskSubscription("foo").await();
+
+        // then
+        final List<SubscribedEvent> taskEvents = apiRule.topic().receiveEvents(taskEvents("LOCKED"))
+                .limit(2)
+                .collect(Collectors.toList());
+
+        assertThat(taskEvents)
+            .extracting(s -> s.key())
+            .containsExactly(firstTask.key(), secondTask.key());
+    }
+
+    @Test
+    public void shouldLockTasksCreatedWithoutSubscriptionAfterResubscribe()
+    {
+        // given
+        final ControlMessageResponse openResponse = apiRule.openTaskSubscription("foo").await();
+        final int subscriberKey = (int) openResponse.getData().get("subscriberKey");
+        apiRule.closeTaskSubscription(subscriberKey).await();
+
+        final ExecuteCommandResponse firstTask = testClient.createTask("foo");
+        final ExecuteCommandResponse secondTask = testClient.createTask("foo");
+
+        // when
+        apiRule.openTaskSubscription("foo").await();
+
+        // then
+        final List<SubscribedEvent> taskEvents = apiRule.topic().receiveEvents(taskEvents("LOCKED"))
+                .limit(2)
+                .collect(Collectors.toList());
+
+        assertThat(taskEvents)
+            .extracting(s -> s.key())
+            .containsExactly(firstTask.key(), secondTask.key());
+    }
+
     @Test
     public void shouldLockTasksUntilCreditsAreExhausted() throws InterruptedException
     {
@@ -547,7 +766,8 @@ public class TaskSubscriptionTest
                 .put("lockOwner", "bar")
                 .put("credits", 2)
                 .done()
-            .sendAndAwait();
+            .send()
+            .await();
 
         assertThat(response.getData().get("subscriberKey")).isEqualTo(0);
 
@@ -668,4 +888,19 @@ public class TaskSubscriptionTest
         assertThat(subscribedEvent.subscriberKey()).isEqualTo(secondSubscriber);
     }
 
+    private ControlMessageRequest openTaskSubscription(String taskType, int credits, TaskDistribution distribution)
+    {
+        return apiRule
+            .createControlMessageRequest()
+            .messageType(ControlMessageType.ADD_TASK_SUBSCRIPTION)
+            .partitionId(apiRule.getDefaultPartitionId())
+            .data()
+                .put("taskType", taskType)
+                .put("lockDuration", 10000L)
+                .put("lockOwner", "bar")
+                .put("credits", credits)
+                .put("distribution", distribution.name())
+                .done()
+            .send();
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class LockExpirationIndexTest
+{
+    private static final long BUCKET_START = 10 * LockExpirationIndex.BUCKET_WIDTH_MILLIS;
+
+    private final LockExpirationIndex index = new LockExpirationIndex();
+
+    private final List<Long> visitedTasks = new ArrayList<>();
+
+    @After
+    public void tearDown()
+    {
+        index.close();
+    }
+
+    @Test
+    public void shouldNotVisitTaskAgainOnNextTickInSameBucket()
+    {
+        // given
+        index.add(1L, 100L, BUCKET_START + 100);
+        index.add(2L, 200L, BUCKET_START + 500);
+
+        index.forEachExpired(BUCKET_START + 200, this::visit);
+        assertThat(visitedTasks).containsExactly(1L);
+
+        // when
+        final boolean completed = index.forEachExpired(BUCKET_START + 600, this::visit);
+
+        // then
+        assertThat(completed).isTrue();
+        assertThat(visitedTasks).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void shouldNotVisitTasksAgainAfterBackpressure()
+    {
+        // given
+        index.add(1L, 100L, BUCKET_START + 100);
+        index.add(2L, 200L, BUCKET_START + 200);
+        index.add(3L, 300L, BUCKET_START + 300);
+
+        final boolean completed = index.forEachExpired(BUCKET_START + 400, rejectAfter(1));
+        assertThat(completed).isFalse();
+        assertThat(visitedTasks).hasSize(1);
+
+        // when
+        index.forEachExpired(BUCKET_START + 500, this::visit);
+
+        // then
+        assertThat(visitedTasks).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    public void shouldNotVisitTasksAgainIfResumedTaskIsRemoved()
+    {
+        // given
+        index.add(1L, 100L, BUCKET_START + 100);
+        index.add(2L, 200L, BUCKET_START + 200);
+
+        index.forEachExpired(BUCKET_START + 300, rejectAfter(1));
+        final long rejectedTask = visitedTasks.get(0) == 1L ? 2L : 1L;
+
+        // when
+        index.remove(rejectedTask);
+        index.forEachExpired(BUCKET_START + 400, this::visit);
+
+        // then
+        assertThat(visitedTasks).hasSize(1).doesNotContain(rejectedTask);
+    }
+
+    @Test
+    public void shouldNotVisitTasksAgainIfTaskIsAddedToVisitedBucket()
+    {
+        // given
+        index.add(1L, 100L, BUCKET_START + 100);
+        index.forEachExpired(BUCKET_START + LockExpirationIndex.BUCKET_WIDTH_MILLIS + 100, this::visit);
+
+        // when
+        index.add(2L, 200L, BUCKET_START + 200);
+        index.forEachExpired(BUCKET_START + LockExpirationIndex.BUCKET_WIDTH_MILLIS + 200, this::visit);
+
+        // then
+        assertThat(visitedTasks).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void shouldVisitTaskAgainIfLockedAgain()
+    {
+        // given
+        index.add(1L, 100L, BUCKET_START + 100);
+        index.forEachExpired(BUCKET_START + 200, this::visit);
+
+        // when
+        index.add(1L, 300L, BUCKET_START + 300);
+        index.forEachExpired(BUCKET_START + 400, this::visit);
+
+        // then
+        assertThat(visitedTasks).containsExactly(1L, 1L);
+    }
+
+    private boolean visit(long taskKey, long lockEventPosition)
+    {
+        visitedTasks.add(taskKey);
+        return true;
+    }
+
+    private LockExpirationIndex.LockExpirationConsumer rejectAfter(int acceptedTasks)
+    {
+        return (taskKey, lockEventPosition) ->
+        {
+            if (visitedTasks.size() < acceptedTasks)
+            {
+                return visit(taskKey, lockEventPosition);
+            }
+            else
+            {
+                return false;
+            }
+        };
+    }
+}
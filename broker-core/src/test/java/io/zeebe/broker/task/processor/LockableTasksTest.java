@@ -0,0 +1,127 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LockableTasksTest
+{
+    private final LockableTasks lockableTasks = new LockableTasks();
+
+    @Test
+    public void shouldPollTasksInInsertionOrder()
+    {
+        // given
+        lockableTasks.add(3L, 30L);
+        lockableTasks.add(1L, 10L);
+        lockableTasks.add(2L, 20L);
+
+        // then
+        assertPolled(3L, 30L);
+        assertPolled(1L, 10L);
+        assertPolled(2L, 20L);
+        assertThat(lockableTasks.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldUpdatePositionOfContainedTask()
+    {
+        // given
+        lockableTasks.add(1L, 10L);
+        lockableTasks.add(2L, 20L);
+
+        // when
+        lockableTasks.add(1L, 15L);
+
+        // then
+        assertThat(lockableTasks.size()).isEqualTo(2);
+        assertPolled(1L, 15L);
+        assertPolled(2L, 20L);
+    }
+
+    @Test
+    public void shouldSkipRemovedTasks()
+    {
+        // given
+        lockableTasks.add(1L, 10L);
+        lockableTasks.add(2L, 20L);
+        lockableTasks.add(3L, 30L);
+
+        // when
+        lockableTasks.remove(1L);
+        lockableTasks.remove(2L);
+
+        // then
+        assertThat(lockableTasks.size()).isEqualTo(1);
+        assertPolled(3L, 30L);
+        assertThat(lockableTasks.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldAddRemovedTaskAgainAtTheEnd()
+    {
+        // given
+        lockableTasks.add(1L, 10L);
+        lockableTasks.add(2L, 20L);
+        lockableTasks.remove(1L);
+
+        // when
+        lockableTasks.add(1L, 30L);
+
+        // then
+        assertPolled(2L, 20L);
+        assertPolled(1L, 30L);
+        assertThat(lockableTasks.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldGrowAndCompact()
+    {
+        // given
+        final int tasks = 1000;
+
+        for (int i = 0; i < tasks; i++)
+        {
+            lockableTasks.add(i, i * 10L);
+
+            if (i % 2 == 1)
+            {
+                lockableTasks.remove(i);
+            }
+        }
+
+        // then
+        assertThat(lockableTasks.size()).isEqualTo(tasks / 2);
+
+        for (int i = 0; i < tasks; i += 2)
+        {
+            assertPolled(i, i * 10L);
+        }
+        assertThat(lockableTasks.isEmpty()).isTrue();
+    }
+
+    private void assertPolled(long key, long position)
+    {
+        assertThat(lockableTasks.peekKey()).isEqualTo(key);
+        assertThat(lockableTasks.peekPosition()).isEqualTo(position);
+
+        lockableTasks.poll();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.task.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TaskDistributionTest
+{
+    private final TaskSubscriptions subscriptions = new TaskSubscriptions(4);
+
+    @Test
+    public void shouldDistributeInRoundRobinFashion()
+    {
+        // given
+        final TaskSubscription first = addSubscription(1L, 10);
+        final TaskSubscription second = addSubscription(2L, 10);
+
+        // when
+        final List<TaskSubscription> selected = select(TaskDistribution.ROUND_ROBIN, 4);
+
+        // then
+        assertThat(selected).containsExactly(first, second, first, second);
+    }
+
+    @Test
+    public void shouldSkipSubscriptionsWithoutCredits()
+    {
+        // given
+        addSubscription(1L, 0);
+        final TaskSubscription second = addSubscription(2L, 10);
+
+        for (TaskDistribution distribution : TaskDistribution.values())
+        {
+            // when
+            final TaskSubscription selected = distribution.newStrategy(subscriptions).nextSubscription();
+
+            // then
+            assertThat(selected).as(distribution.name()).isSameAs(second);
+        }
+    }
+
+    @Test
+    public void shouldSelectSubscriptionWithLeastOutstandingLocks()
+    {
+        // given
+        final TaskSubscription first = addSubscription(1L, 10);
+        final TaskSubscription second = addSubscription(2L, 10);
+        first.setOutstandingLocks(3);
+
+        // when
+        final List<TaskSubscription> selected = select(TaskDistribution.LEAST_OUTSTANDING_LOCKS, 4);
+
+        // then
+        assertThat(selected).containsExactly(second, second, second, first);
+    }
+
+    @Test
+    public void shouldDistributeInProportionToCredits()
+    {
+        // given
+        final TaskSubscription first = addSubscription(1L, 30);
+        final TaskSubscription second = addSubscription(2L, 10);
+
+        // when
+        final List<TaskSubscription> selected = select(TaskDistribution.CREDIT_WEIGHTED, 8);
+
+        // then
+        assertThat(selected).filteredOn(s -> s == first).hasSize(6);
+        assertThat(selected).filteredOn(s -> s == second).hasSize(2);
+    }
+
+    @Test
+    public void shouldPreferSubscriptionWithLowerCompletionTime()
+    {
+        // given
+        final TaskSubscription first = addSubscription(1L, 10);
+        final TaskSubscription second = addSubscription(2L, 10);
+        first.addCompletionTime(10);
+        second.addCompletionTime(40);
+
+        // when
+        final List<TaskSubscription> selected = select(TaskDistribution.LATENCY_AWARE, 10);
+
+        // then
+        assertThat(selected).filteredOn(s -> s == first).hasSize(8);
+        assertThat(selected).filteredOn(s -> s == second).hasSize(2);
+    }
+
+    @Test
+    public void shouldReturnNullIfNoSubscriptionHasCredits()
+    {
+        // given
+        addSubscription(1L, 0);
+
+        for (TaskDistribution distribution : TaskDistribution.values())
+        {
+            // when
+            final TaskSubscription selected = distribution.newStrategy(subscriptions).nextSubscription();
+
+            // then
+            assertThat(selected).as(distribution.name()).isNull();
+        }
+    }
+
+    private TaskSubscription addSubscription(long subscriberKey, int credits)
+    {
+        final TaskSubscription subscription = new TaskSubscription(0, wrapString("foo"), 1000L, wrapString("bar"), 0);
+        subscription.setSubscriberKey(subscriberKey);
+        subscription.setCredits(credits);
+
+        subscriptions.addSubscription(subscription);
+
+        return subscription;
+    }
+
+    /**
+     * Selects the given number of subscriptions, each one as if it had locked a task.
+     */
+    private List<TaskSubscription> select(TaskDistribution distribution, int count)
+    {
+        final TaskDistributionStrategy strategy = distribution.newStrategy(subscriptions);
+        final List<TaskSubscription> selected = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            final TaskSubscription subscription = strategy.nextSubscription();
+            selected.add(subscription);
+
+            subscription.setOutstandingLocks(subscription.getOutstandingLocks() + 1);
+        }
+        return selected;
+    }
+}
@@ -27,6 +27,8 @@ import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -41,11 +43,14 @@ import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.broker.topic.StreamProcessorControl;
 import io.zeebe.broker.util.StreamProcessorRule;
 import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.msgpack.spec.MsgPackHelper;
 import io.zeebe.util.buffer.BufferUtil;
 
 public class TaskInstanceStreamProcessorTest
 {
 
+    private static final DirectBuffer PAYLOAD = new UnsafeBuffer(MsgPackHelper.EMTPY_OBJECT);
+
     @Rule
     public StreamProcessorRule rule = new StreamProcessorRule();
 
@@ -96,6 +101,74 @@ public class TaskInstanceStreamProcessorTest
                     TaskState.COMPLETED);
     }
 
+    @Test
+    public void shouldRestoreTaskOnComplete()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+
+        final long key = 1;
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final TaskEvent createCommand = create();
+        createCommand.headers().setWorkflowInstanceKey(2L);
+        createCommand.setRetries(3);
+
+        rule.writeEvent(key, createCommand);
+        waitForEventInState(TaskState.CREATED);
+
+        rule.writeEvent(key, lock(nowPlus(Duration.ofSeconds(30))));
+        waitForEventInState(TaskState.LOCKED);
+
+        // when
+        final TaskEvent completeCommand = complete();
+        completeCommand.setPayload(PAYLOAD);
+
+        rule.writeEvent(key, completeCommand);
+
+        // then
+        waitForEventInState(TaskState.COMPLETED);
+
+        final TaskEvent completedTask = rule.events().onlyTaskEvents().inState(TaskState.COMPLETED).findFirst().get().getValue();
+        assertThat(completedTask.headers().getWorkflowInstanceKey()).isEqualTo(2L);
+        assertThat(completedTask.getRetries()).isEqualTo(3);
+        assertThat(completedTask.getLockTime()).isEqualTo(nowPlus(Duration.ofSeconds(30)).toEpochMilli());
+        assertThat(completedTask.getPayload()).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    public void shouldRestoreTaskOnFail()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+
+        final long key = 1;
+        rule.runStreamProcessor(this::buildStreamProcessor);
+
+        final TaskEvent createCommand = create();
+        createCommand.headers().setWorkflowInstanceKey(2L);
+        createCommand.setRetries(3);
+
+        rule.writeEvent(key, createCommand);
+        waitForEventInState(TaskState.CREATED);
+
+        rule.writeEvent(key, lock(nowPlus(Duration.ofSeconds(30))));
+        waitForEventInState(TaskState.LOCKED);
+
+        // when
+        final TaskEvent failCommand = failure();
+        failCommand.setRetries(2);
+
+        rule.writeEvent(key, failCommand);
+
+        // then
+        waitForEventInState(TaskState.FAILED);
+
+        final TaskEvent failedTask = rule.events().onlyTaskEvents().inState(TaskState.FAILED).findFirst().get().getValue();
+        assertThat(failedTask.headers().getWorkflowInstanceKey()).isEqualTo(2L);
+        assertThat(failedTask.getRetries()).isEqualTo(2);
+    }
+
     @Test
     public void shouldLockOnlyOnce()
     {
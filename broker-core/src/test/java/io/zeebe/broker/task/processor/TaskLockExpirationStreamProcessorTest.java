@@ -49,6 +49,14 @@ public class TaskLockExpirationStreamProcessorTest
         return event;
     }
 
+    private TaskEvent taskLocked(Duration lockDuration)
+    {
+        final TaskEvent event = taskLocked();
+        event.setLockTime(rule.getClock().getCurrentTime().plus(lockDuration).toEpochMilli());
+
+        return event;
+    }
+
     @Test
     public void shouldExpireLockIfAfterLockTimeForTwoTasks()
     {
@@ -76,4 +84,42 @@ public class TaskLockExpirationStreamProcessorTest
 
         assertThat(expirationEvents).extracting("key").containsExactlyInAnyOrder(1L, 2L);
     }
+
+    @Test
+    public void shouldExpireLockOnlyAfterLockTime()
+    {
+        // given
+        rule.getClock().pinCurrentTime();
+
+        rule.runStreamProcessor(e -> new TaskExpireLockStreamProcessor(
+                e.buildStreamReader(),
+                e.buildStreamWriter())
+            .createStreamProcessor(e));
+
+        rule.writeEvent(1, taskLocked(Duration.ofSeconds(10)));
+        rule.writeEvent(2, taskLocked(Duration.ofSeconds(50)));
+
+        // when
+        rule.getClock().addTime(TaskQueueManagerService.LOCK_EXPIRATION_INTERVAL.plus(Duration.ofSeconds(1)));
+
+        // then
+        doRepeatedly(() -> rule.events()
+                .onlyTaskEvents()
+                .inState(TaskState.EXPIRE_LOCK)
+                .count())
+            .until(c -> c == 1);
+
+        // when
+        rule.getClock().addTime(TaskQueueManagerService.LOCK_EXPIRATION_INTERVAL);
+
+        // then
+        final List<TypedEvent<TaskEvent>> expirationEvents = doRepeatedly(
+            () -> rule.events()
+                .onlyTaskEvents()
+                .inState(TaskState.EXPIRE_LOCK)
+                .collect(Collectors.toList()))
+            .until(l -> l.size() == 2);
+
+        assertThat(expirationEvents).extracting("key").containsExactly(1L, 2L);
+    }
 }
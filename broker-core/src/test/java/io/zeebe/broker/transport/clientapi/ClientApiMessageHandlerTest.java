@@ -18,12 +18,14 @@
 package io.zeebe.broker.transport.clientapi;
 
 import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.base.topology.NodeInfo;
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
 import io.zeebe.broker.task.data.TaskEvent;
 import io.zeebe.broker.task.data.TaskState;
 import io.zeebe.broker.transport.controlmessage.ControlMessageRequestHeaderDescriptor;
 import io.zeebe.dispatcher.ClaimedFragment;
 import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.dispatcher.Dispatchers;
 import io.zeebe.logstreams.LogStreams;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.LogStream;
@@ -33,10 +35,12 @@ import io.zeebe.protocol.clientapi.*;
 import io.zeebe.protocol.impl.BrokerEventMetadata;
 import io.zeebe.raft.state.RaftState;
 import io.zeebe.servicecontainer.testing.ServiceContainerRule;
+import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
 import io.zeebe.test.util.TestUtil;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.SocketAddress;
 import io.zeebe.transport.impl.RemoteAddressImpl;
+import io.zeebe.util.ByteValue;
 import io.zeebe.util.sched.testing.ActorSchedulerRule;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -50,6 +54,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.stubbing.Answer;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
@@ -97,6 +102,7 @@ public class ClientApiMessageHandlerTest
 
     private LogStream logStream;
     private ClientApiMessageHandler messageHandler;
+    private Partition partition;
 
     @Mock
     private Dispatcher mockControlMessageDispatcher;
@@ -133,7 +139,7 @@ public class ClientApiMessageHandlerTest
 
         messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher);
 
-        final Partition partition = new Partition(new PartitionInfo(LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, 1), RaftState.LEADER)
+        partition = new Partition(new PartitionInfo(LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, 1), RaftState.LEADER)
         {
             @Override
             public LogStream getLogStream()
@@ -284,6 +290,33 @@ public class ClientApiMessageHandlerTest
         assertThat(errorDecoder.errorData()).isEqualTo("Cannot execute command. Partition with id '99' not found");
     }
 
+    @Test
+    public void shouldSendLeaderHintIfPartitionIsLedByOtherBroker()
+    {
+        // given
+        final PartitionLeaderHints leaderHints = new PartitionLeaderHints();
+        messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher, true, new ClientApiCommandShard[0], leaderHints);
+
+        final PartitionInfo otherPartition = new PartitionInfo(LOG_STREAM_TOPIC_NAME, 99, 1);
+        final NodeInfo otherBroker = new NodeInfo(new SocketAddress("bar", 51015), new SocketAddress("bar", 51016), new SocketAddress("bar", 51017));
+        otherBroker.addLeader(otherPartition);
+        leaderHints.onPartitionUpdated(otherPartition, otherBroker);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, 99, null, EventType.TASK_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.PARTITION_NOT_FOUND);
+        assertThat(errorDecoder.errorData())
+            .isEqualTo("Cannot execute command. Partition with id '99' not found. " + StubBrokerRule.leaderHint("bar", 51015));
+    }
+
     @Test
     public void shouldNotHandleUnkownRequest() throws InterruptedException, ExecutionException
     {
@@ -370,7 +403,129 @@ public class ClientApiMessageHandlerTest
         assertThat(errorDecoder.errorData()).isEqualTo("Cannot execute command. Invalid event type 'NULL_VAL'.");
     }
 
+    @Test
+    public void shouldAppendWellFormedCommandWithoutFullValidation() throws InterruptedException, ExecutionException
+    {
+        // given
+        messageHandler = newMessageHandler(false);
+
+        // a task event is not a valid workflow instance event - but well-formed
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, null, EventType.WORKFLOW_INSTANCE_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+        assertThat(serverOutput.getSentResponses()).isEmpty();
+
+        final BufferedLogStreamReader logStreamReader = new BufferedLogStreamReader(logStream, true);
+        waitForAvailableEvent(logStreamReader);
+
+        final LoggedEvent loggedEvent = logStreamReader.next();
+        assertThat(loggedEvent.getValueLength()).isEqualTo(TASK_EVENT.length);
+    }
+
+    @Test
+    public void shouldSendErrorMessageOnMalformedCommandWithoutFullValidation() throws InterruptedException, ExecutionException
+    {
+        // given
+        messageHandler = newMessageHandler(false);
+
+        final byte[] truncatedCommand = Arrays.copyOf(TASK_EVENT, TASK_EVENT.length - 1);
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, null, EventType.TASK_EVENT, truncatedCommand);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.INVALID_MESSAGE);
+        assertThat(errorDecoder.errorData())
+            .contains("Cannot deserialize command:")
+            .contains("Command ends within a value");
+    }
+
+    @Test
+    public void shouldSendErrorMessageOnCommandWhichIsNotAMapWithoutFullValidation() throws InterruptedException, ExecutionException
+    {
+        // given
+        messageHandler = newMessageHandler(false);
+
+        // fixarray with one nil element
+        final byte[] command = new byte[] {(byte) 0x91, (byte) 0xc0};
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, null, EventType.TASK_EVENT, command);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.INVALID_MESSAGE);
+        assertThat(errorDecoder.errorData()).contains("Command is not a map");
+    }
+
+    @Test
+    public void shouldHandleCommandRequestOnCommandShard() throws InterruptedException, ExecutionException
+    {
+        // given
+        final Dispatcher commandBuffer = Dispatchers.create("command-buffer")
+            .bufferSize(ByteValue.ofMegabytes(1))
+            .actorScheduler(agentRunnerService.get())
+            .build();
+
+        final ClientApiCommandShard shard = new ClientApiCommandShard(0, commandBuffer, true);
+        agentRunnerService.submitActor(shard);
+
+        messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher, true, new ClientApiCommandShard[] {shard});
+        messageHandler.addPartition(partition);
+
+        final int writtenLength = writeCommandRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, null, EventType.TASK_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        final BufferedLogStreamReader logStreamReader = new BufferedLogStreamReader(logStream, true);
+        waitForAvailableEvent(logStreamReader);
+
+        final LoggedEvent loggedEvent = logStreamReader.next();
+        assertThat(loggedEvent.getValueLength()).isEqualTo(TASK_EVENT.length);
+
+        final BrokerEventMetadata eventMetadata = new BrokerEventMetadata();
+        loggedEvent.readMetadata(eventMetadata);
+
+        assertThat(eventMetadata.getRequestId()).isEqualTo(REQUEST_ID);
+        assertThat(eventMetadata.getRequestStreamId()).isEqualTo(DEFAULT_ADDRESS.getStreamId());
+        assertThat(eventMetadata.getEventType()).isEqualTo(EventType.TASK_EVENT);
+
+        shard.closeAsync().join();
+        commandBuffer.closeAsync().join();
+    }
+
+    protected ClientApiMessageHandler newMessageHandler(boolean isFullCommandValidation)
+    {
+        final ClientApiMessageHandler handler = new ClientApiMessageHandler(mockControlMessageDispatcher, isFullCommandValidation);
+        handler.addPartition(partition);
+        return handler;
+    }
+
     protected int writeCommandRequestToBuffer(UnsafeBuffer buffer, int partitionId, Short protocolVersion, EventType eventType)
+    {
+        return writeCommandRequestToBuffer(buffer, partitionId, protocolVersion, eventType, TASK_EVENT);
+    }
+
+    protected int writeCommandRequestToBuffer(UnsafeBuffer buffer, int partitionId, Short protocolVersion, EventType eventType, byte[] command)
     {
         int offset = 0;
 
@@ -390,7 +545,7 @@ public class ClientApiMessageHandlerTest
         commandRequestEncoder
             .partitionId(partitionId)
             .eventType(eventTypeToWrite)
-            .putCommand(TASK_EVENT, 0, TASK_EVENT.length);
+            .putCommand(command, 0, command.length);
 
         return headerEncoder.encodedLength() +
                 commandRequestEncoder.encodedLength();
@@ -399,7 +399,7 @@ public class CreateWorkflowInstanceTest
     }
 
     @Test
-    public void shouldCreateMultipleWorkflowInstancesForDifferentVersionsAfterTimeout() throws InterruptedException
+    public void shouldCreateWorkflowInstanceOfNewVersionAfterDeployment()
     {
         // given
         final WorkflowDefinition workflow = Bpmn.createExecutableWorkflow("process")
@@ -413,34 +413,48 @@ public class CreateWorkflowInstanceTest
 
         testClient.deploy(workflow);
 
-        final long workflowInstance1 = testClient.createWorkflowInstance("process");
-
-        testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_ACTIVATED"));
+        final ExecuteCommandResponse resp1 = testClient.createWorkflowInstanceWithResponse("process");
+        assertThat(resp1.getEvent()).containsEntry(PROP_WORKFLOW_VERSION, 1);
 
         // when
         testClient.deploy(workflow);
 
+        final ExecuteCommandResponse resp2 = testClient.createWorkflowInstanceWithResponse("process");
+
+        // then the new version is pushed to the partition before the deployment is responded
+        assertThat(resp2.getEvent())
+            .containsEntry(PROP_STATE, WORKFLOW_INSTANCE_CREATED.name())
+            .containsEntry(PROP_WORKFLOW_VERSION, 2);
+    }
+
+    @Test
+    public void shouldRefreshLatestVersionAfterTimeout()
+    {
+        // given
+        final WorkflowDefinition workflow = Bpmn.createExecutableWorkflow("process")
+             .startEvent("start")
+             .serviceTask("task", task -> task
+                          .taskType("test")
+                          .taskRetries(3)
+                          .taskHeader("foo", "bar"))
+             .endEvent("end")
+             .done();
+
+        testClient.deploy(workflow);
+        testClient.createWorkflowInstance("process");
+
+        testClient.deploy(workflow);
+
         // when wait for refresh timeout
         brokerRule.getClock()
-            .addTime(Duration.ofSeconds(WorkflowCache.LATEST_VERSION_REFRESH_INTERVAL + 1));
+            .addTime(Duration.ofMillis(WorkflowCache.LATEST_VERSION_REFRESH_INTERVAL + 1));
 
         final ExecuteCommandResponse resp = testClient.createWorkflowInstanceWithResponse("process");
 
         // then
-        final List<SubscribedEvent> workflowInstanceEvents = testClient.receiveEvents(workflowInstanceEvents("ACTIVITY_ACTIVATED"))
-                .limit(2)
-                .collect(Collectors.toList());
-
-        assertThat(workflowInstanceEvents.get(0).event())
-            .containsEntry("workflowInstanceKey", workflowInstance1)
-            .containsEntry("version", 1);
-
-        assertThat(workflowInstanceEvents.get(1).event())
-            .containsEntry("workflowInstanceKey", resp.key())
-            .containsEntry("version", 2);
-
-        final long createdTasks = testClient.receiveEvents(taskEvents("CREATED")).limit(2).count();
-        assertThat(createdTasks).isEqualTo(2);
+        assertThat(resp.getEvent())
+            .containsEntry(PROP_STATE, WORKFLOW_INSTANCE_CREATED.name())
+            .containsEntry(PROP_WORKFLOW_VERSION, 2);
     }
 
     @Test
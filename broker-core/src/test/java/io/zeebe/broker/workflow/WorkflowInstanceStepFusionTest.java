@@ -0,0 +1,199 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow;
+
+import static io.zeebe.test.broker.protocol.clientapi.TestTopicClient.incidentEvents;
+import static io.zeebe.test.broker.protocol.clientapi.TestTopicClient.workflowInstanceEvents;
+import static io.zeebe.test.util.MsgPackUtil.asMsgPack;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.zeebe.broker.incident.data.ErrorType;
+import io.zeebe.broker.test.EmbeddedBrokerRule;
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.test.broker.protocol.clientapi.*;
+import org.junit.*;
+import org.junit.rules.RuleChain;
+
+public class WorkflowInstanceStepFusionTest
+{
+    private static final String PROP_STATE = "state";
+
+    public EmbeddedBrokerRule brokerRule = new EmbeddedBrokerRule("zeebe.unit-test.step-fusion.cfg.toml");
+    public ClientApiRule apiRule = new ClientApiRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(brokerRule).around(apiRule);
+
+    private TestTopicClient testClient;
+
+    @Before
+    public void init()
+    {
+        testClient = apiRule.topic();
+    }
+
+    @Test
+    public void shouldWriteSameEventsWithServiceTask()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("process")
+                    .startEvent("a")
+                    .serviceTask("b", t -> t.taskType("foo"))
+                    .endEvent("c")
+                    .done());
+
+        testClient.createWorkflowInstance("process");
+
+        // when
+        testClient.completeTaskOfType("foo");
+
+        // then
+        final List<SubscribedEvent> workflowEvents = testClient
+                .receiveEvents(workflowInstanceEvents())
+                .limit(11)
+                .collect(Collectors.toList());
+
+        assertThat(workflowEvents).extracting(e -> e.event().get(PROP_STATE)).containsExactly(
+                "CREATE_WORKFLOW_INSTANCE",
+                "WORKFLOW_INSTANCE_CREATED",
+                "START_EVENT_OCCURRED",
+                "SEQUENCE_FLOW_TAKEN",
+                "ACTIVITY_READY",
+                "ACTIVITY_ACTIVATED",
+                "ACTIVITY_COMPLETING",
+                "ACTIVITY_COMPLETED",
+                "SEQUENCE_FLOW_TAKEN",
+                "END_EVENT_OCCURRED",
+                "WORKFLOW_INSTANCE_COMPLETED");
+    }
+
+    @Test
+    public void shouldWriteSameEventsWithExclusiveGateway()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("workflow")
+                .startEvent()
+                .exclusiveGateway("xor")
+                .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                    .endEvent("a")
+                .sequenceFlow("s2", s -> s.defaultFlow())
+                    .endEvent("b")
+                .done());
+
+        // when
+        final long workflowInstanceKey = testClient.createWorkflowInstance("workflow", asMsgPack("foo", 4));
+
+        // then
+        final List<SubscribedEvent> workflowEvents = testClient
+                .receiveEvents(workflowInstanceEvents())
+                .limit(8)
+                .collect(Collectors.toList());
+
+        assertThat(workflowEvents).extracting(e -> e.event().get(PROP_STATE)).containsExactly(
+                "CREATE_WORKFLOW_INSTANCE",
+                "WORKFLOW_INSTANCE_CREATED",
+                "START_EVENT_OCCURRED",
+                "SEQUENCE_FLOW_TAKEN",
+                "GATEWAY_ACTIVATED",
+                "SEQUENCE_FLOW_TAKEN",
+                "END_EVENT_OCCURRED",
+                "WORKFLOW_INSTANCE_COMPLETED");
+
+        assertThat(workflowEvents.get(6).event()).containsEntry("activityId", "a");
+        assertThat(workflowEvents.get(7).key()).isEqualTo(workflowInstanceKey);
+    }
+
+    @Test
+    public void shouldUsePositionAsKeyOfFusedEvents()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("process")
+                    .startEvent()
+                    .serviceTask("task", t -> t.taskType("foo"))
+                    .endEvent()
+                    .done());
+
+        // when
+        testClient.createWorkflowInstance("process");
+
+        // then
+        final SubscribedEvent sequenceFlowTaken = testClient.receiveSingleEvent(workflowInstanceEvents("SEQUENCE_FLOW_TAKEN"));
+        final SubscribedEvent activityReady = testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_READY"));
+        final SubscribedEvent activityActivated = testClient.receiveSingleEvent(workflowInstanceEvents("ACTIVITY_ACTIVATED"));
+
+        assertThat(sequenceFlowTaken.key()).isEqualTo(sequenceFlowTaken.position());
+        assertThat(activityReady.key()).isEqualTo(activityReady.position());
+        assertThat(activityActivated.key()).isEqualTo(activityReady.key());
+    }
+
+    @Test
+    public void shouldCompleteWorkflowInstanceAfterJoin()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("workflow")
+                .startEvent()
+                .exclusiveGateway("split")
+                .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                    .exclusiveGateway("joinRequest")
+                    .continueAt("split")
+                .sequenceFlow("s2", s -> s.defaultFlow())
+                    .joinWith("joinRequest")
+                .endEvent("end")
+                .done();
+
+        testClient.deploy(workflowDefinition);
+
+        // when
+        final long workflowInstanceKey = testClient.createWorkflowInstance("workflow", asMsgPack("foo", 4));
+
+        // then
+        final SubscribedEvent completedEvent = testClient.receiveSingleEvent(workflowInstanceEvents("WORKFLOW_INSTANCE_COMPLETED", workflowInstanceKey));
+        assertThat(completedEvent.key()).isEqualTo(workflowInstanceKey);
+    }
+
+    @Test
+    public void shouldCreateIncidentForGatewayEvent()
+    {
+        // given
+        testClient.deploy(Bpmn.createExecutableWorkflow("workflow")
+                .startEvent()
+                .exclusiveGateway("xor")
+                .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                    .endEvent()
+                .sequenceFlow("s2", s -> s.condition("$.foo >= 5 && $.foo < 10"))
+                    .endEvent()
+                .done());
+
+        // when
+        testClient.createWorkflowInstance("workflow", asMsgPack("foo", 12));
+
+        // then
+        final SubscribedEvent gatewayEvent = testClient.receiveSingleEvent(workflowInstanceEvents("GATEWAY_ACTIVATED"));
+        final SubscribedEvent incidentEvent = testClient.receiveSingleEvent(incidentEvents("CREATE"));
+
+        assertThat(incidentEvent.event())
+            .containsEntry("errorType", ErrorType.CONDITION_ERROR.name())
+            .containsEntry("activityId", "xor")
+            .containsEntry("failureEventPosition", gatewayEvent.position())
+            .containsEntry("activityInstanceKey", gatewayEvent.key());
+    }
+}
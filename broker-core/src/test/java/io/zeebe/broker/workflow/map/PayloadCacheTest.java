@@ -0,0 +1,267 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.zeebe.broker.workflow.data.WorkflowInstanceEvent;
+import io.zeebe.logstreams.log.LogStreamReader;
+import io.zeebe.logstreams.log.LoggedEvent;
+
+public class PayloadCacheTest
+{
+    private static final int CAPACITY = 1024;
+    private static final int PAYLOAD_LENGTH = 200;
+
+    private LogStreamReader logStreamReader;
+    private PayloadCache payloadCache;
+
+    @Before
+    public void setUp()
+    {
+        logStreamReader = mock(LogStreamReader.class);
+        payloadCache = new PayloadCache(CAPACITY, logStreamReader);
+    }
+
+    @After
+    public void tearDown()
+    {
+        payloadCache.close();
+    }
+
+    @Test
+    public void shouldReturnStoredPayload()
+    {
+        // given
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+
+        // when
+        final DirectBuffer payload = payloadCache.getPayload(1L);
+
+        // then
+        assertThat(payload).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getHits()).isEqualTo(1);
+        assertThat(payloadCache.getMisses()).isEqualTo(0);
+
+        verify(logStreamReader, never()).seek(anyLong());
+    }
+
+    @Test
+    public void shouldReturnNoPayloadForUnknownWorkflowInstance()
+    {
+        // when
+        final DirectBuffer payload = payloadCache.getPayload(1L);
+
+        // then
+        assertThat(payload).isEqualTo(WorkflowInstanceEvent.NO_PAYLOAD);
+    }
+
+    @Test
+    public void shouldEvictOldestPayloadWhenCapacityIsExceeded()
+    {
+        // given
+        for (int i = 1; i <= 5; i++)
+        {
+            payloadCache.addPayload(i, i * 10L, payload((char) ('a' + i), PAYLOAD_LENGTH));
+        }
+
+        // when
+        payloadCache.getPayload(1L);
+        final DirectBuffer payload = payloadCache.getPayload(5L);
+
+        // then
+        assertThat(payload).isEqualTo(payload('f', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getEvictions()).isEqualTo(1);
+        assertThat(payloadCache.getMisses()).isEqualTo(1);
+        assertThat(payloadCache.getSize()).isLessThanOrEqualTo(CAPACITY);
+
+        verify(logStreamReader).seek(10L);
+    }
+
+    @Test
+    public void shouldReadLargePayloadFromLog()
+    {
+        // given
+        final DirectBuffer largePayload = payload('a', CAPACITY / 2);
+        givenPayloadInLog(10L, largePayload);
+
+        payloadCache.addPayload(1L, 10L, largePayload);
+
+        // when
+        final DirectBuffer payload = payloadCache.getPayload(1L);
+
+        // then
+        assertThat(payload).isEqualTo(largePayload);
+        assertThat(payloadCache.getSize()).isEqualTo(0);
+
+        verify(logStreamReader).seek(10L);
+    }
+
+    @Test
+    public void shouldStorePayloadInCacheOfMinCapacity()
+    {
+        // given
+        payloadCache.close();
+        payloadCache = new PayloadCache(PayloadCache.getMinCapacity(PAYLOAD_LENGTH), logStreamReader);
+
+        // when
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+
+        // then
+        assertThat(payloadCache.getSize()).isGreaterThan(0);
+        assertThat(payloadCache.getPayload(1L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+
+        verify(logStreamReader, never()).seek(anyLong());
+    }
+
+    @Test
+    public void shouldPrefetchPayloadFromLog()
+    {
+        // given
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+        for (int i = 2; i <= 5; i++)
+        {
+            payloadCache.addPayload(i, i * 10L, payload((char) ('a' + i), PAYLOAD_LENGTH));
+        }
+
+        givenPayloadInLog(10L, payload('a', PAYLOAD_LENGTH));
+
+        // when
+        payloadCache.prefetch(1L);
+
+        // then
+        final DirectBuffer payload = payloadCache.getPayload(1L);
+
+        assertThat(payload).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepPrefetchedPayload()
+    {
+        // given
+        for (int i = 1; i <= 4; i++)
+        {
+            payloadCache.addPayload(i, i * 10L, payload((char) ('a' + i), PAYLOAD_LENGTH));
+        }
+
+        // when
+        payloadCache.prefetch(1L);
+        payloadCache.addPayload(5L, 50L, payload('f', PAYLOAD_LENGTH));
+
+        // then
+        final DirectBuffer payload = payloadCache.getPayload(1L);
+
+        assertThat(payload).isEqualTo(payload('b', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getHits()).isEqualTo(1);
+
+        verify(logStreamReader, never()).seek(anyLong());
+    }
+
+    @Test
+    public void shouldShareEqualPayloads()
+    {
+        // given
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+        final long size = payloadCache.getSize();
+
+        // when
+        payloadCache.addPayload(2L, 20L, payload('a', PAYLOAD_LENGTH));
+        payloadCache.addPayload(3L, 30L, payload('a', PAYLOAD_LENGTH));
+
+        // then
+        assertThat(payloadCache.getSize()).isEqualTo(size);
+        assertThat(payloadCache.getDeduplications()).isEqualTo(2);
+
+        assertThat(payloadCache.getPayload(1L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getPayload(2L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getPayload(3L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getHits()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotSharePayloadsWithSameLengthButOtherContent()
+    {
+        // given
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+
+        // when
+        payloadCache.addPayload(2L, 20L, payload('b', PAYLOAD_LENGTH));
+
+        // then
+        assertThat(payloadCache.getDeduplications()).isEqualTo(0);
+
+        assertThat(payloadCache.getPayload(1L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getPayload(2L)).isEqualTo(payload('b', PAYLOAD_LENGTH));
+    }
+
+    @Test
+    public void shouldKeepSharedPayloadIfOneWorkflowInstanceIsRemoved()
+    {
+        // given
+        payloadCache.addPayload(1L, 10L, payload('a', PAYLOAD_LENGTH));
+        payloadCache.addPayload(2L, 20L, payload('a', PAYLOAD_LENGTH));
+
+        // when
+        payloadCache.remove(1L);
+
+        // then
+        assertThat(payloadCache.getPayload(2L)).isEqualTo(payload('a', PAYLOAD_LENGTH));
+        assertThat(payloadCache.getHits()).isEqualTo(1);
+    }
+
+    private void givenPayloadInLog(long position, DirectBuffer payload)
+    {
+        final LoggedEvent event = mock(LoggedEvent.class);
+
+        doAnswer(invocation ->
+        {
+            final WorkflowInstanceEvent workflowInstanceEvent = invocation.getArgument(0);
+            workflowInstanceEvent.setPayload(payload);
+            return null;
+        }).when(event).readValue(any());
+
+        when(logStreamReader.seek(position)).thenReturn(true);
+        when(logStreamReader.hasNext()).thenReturn(true);
+        when(logStreamReader.next()).thenReturn(event);
+    }
+
+    private static DirectBuffer payload(char character, int length)
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++)
+        {
+            builder.append(character);
+        }
+        return new UnsafeBuffer(wrapString(builder.toString()));
+    }
+}
@@ -29,6 +29,7 @@ public class Benchmarks
         final Options opt = new OptionsBuilder()
                 .include(".*" + POJOSerializationBenchmark.class.getSimpleName() + ".*")
                 .include(".*" + POJODeserializationBenchmark.class.getSimpleName() + ".*")
+                .include(".*" + LazyDeserializationBenchmark.class.getSimpleName() + ".*")
                 .forks(1)
                 .build();
 
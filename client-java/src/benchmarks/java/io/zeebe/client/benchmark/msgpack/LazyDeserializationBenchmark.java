@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.benchmark.msgpack;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import io.zeebe.client.impl.data.MsgPackDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading single properties of a task event by mapping the whole
+ * event with Jackson and by accessing the properties on a {@link MsgPackDocument}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+public class LazyDeserializationBenchmark
+{
+
+    @Benchmark
+    @Threads(1)
+    public String readTypeWithJackson(LazyDeserializationContext ctx) throws Exception
+    {
+        final byte[] msgPack = ctx.getMsgPack();
+        final JacksonTaskEvent event = (JacksonTaskEvent) ctx.getJacksonSerializer()
+                .deserialize(JacksonTaskEvent.class, new UnsafeBuffer(msgPack), 0, msgPack.length);
+
+        return event.getType();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String readTypeWithDocument(LazyDeserializationContext ctx)
+    {
+        final MsgPackDocument document = new MsgPackDocument(ctx.getMsgPack());
+
+        return document.getString("type");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<String, Object> readHeadersWithDocument(LazyDeserializationContext ctx)
+    {
+        final MsgPackDocument document = new MsgPackDocument(ctx.getMsgPack());
+
+        return document.getMap("headers");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long readLockTimeWithDocument(LazyDeserializationContext ctx)
+    {
+        final MsgPackDocument document = new MsgPackDocument(ctx.getMsgPack());
+
+        return document.getLong("lockTime");
+    }
+
+}
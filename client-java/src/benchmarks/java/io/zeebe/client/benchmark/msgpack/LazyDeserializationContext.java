@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.benchmark.msgpack;
+
+import org.agrona.DirectBuffer;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class LazyDeserializationContext
+{
+    protected final byte[] msgPack;
+    protected final MsgPackJacksonSerializer jacksonSerializer = new MsgPackJacksonSerializer();
+
+    public LazyDeserializationContext()
+    {
+        // the same task event as in the POJO deserialization benchmark
+        final DirectBuffer msgpackBuf = new POJODeserializationContext().getMsgpackBuffer();
+
+        msgPack = new byte[msgpackBuf.capacity()];
+        msgpackBuf.getBytes(0, msgPack);
+    }
+
+    public byte[] getMsgPack()
+    {
+        return msgPack;
+    }
+
+    public MsgPackJacksonSerializer getJacksonSerializer()
+    {
+        return jacksonSerializer;
+    }
+}
@@ -74,4 +74,15 @@ public class ClientProperties
      * The request timeout in seconds.
      */
     public static final String CLIENT_REQUEST_TIMEOUT_SEC = "zeebe.client.request.timeout";
+
+    /**
+     * The strategy which selects the partition of a request, see {@link DispatchStrategy}.
+     */
+    public static final String CLIENT_DISPATCH_STRATEGY = "zeebe.client.dispatchStrategy";
+
+    /**
+     * The number of threads which invoke the task handlers of managed task subscriptions. If 0,
+     * the task handlers are invoked by the subscription execution threads.
+     */
+    public static final String CLIENT_TASK_HANDLER_THREADS = "zeebe.client.task.handler.threads";
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client;
+
+/**
+ * Determines the partition of a topic which a request is sent to, if the
+ * request doesn't address a specific partition. Requests with an affinity key
+ * are always sent to the partition the key hashes to.
+ */
+public enum DispatchStrategy
+{
+    /**
+     * Selects the partitions of the topic one after another.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Selects the partition whose leader has the least requests of the client
+     * in flight.
+     */
+    LEAST_IN_FLIGHT,
+
+    /**
+     * Selects the partition with the lowest expected response time, i.e. the
+     * moving average of the latency multiplied by the requests in flight.
+     */
+    LATENCY
+}
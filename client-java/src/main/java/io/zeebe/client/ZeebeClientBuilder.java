@@ -82,6 +82,20 @@ public interface ZeebeClientBuilder
      */
     ZeebeClientBuilder tcpChannelKeepAlivePeriod(Duration tcpChannelKeepAlivePeriod);
 
+    /**
+     * @param dispatchStrategy The strategy which selects the partition of a topic that a request
+     * is sent to. Default value is {@link DispatchStrategy#ROUND_ROBIN}.
+     */
+    ZeebeClientBuilder dispatchStrategy(DispatchStrategy dispatchStrategy);
+
+    /**
+     * @param numTaskHandlerThreads The number of threads which invoke the task handlers of managed
+     * task subscriptions, so that blocking task handlers run in parallel. Topic subscriptions are not
+     * affected, their events are still handled in order per partition. If 0, the task handlers are
+     * invoked by the subscription execution threads. Default value is 0.
+     */
+    ZeebeClientBuilder numTaskHandlerThreads(int numTaskHandlerThreads);
+
     /**
      * @return a new {@link ZeebeClient} with the provided configuration options.
      */
@@ -64,4 +64,14 @@ public interface ZeebeClientConfiguration
      */
     Duration getTcpChannelKeepAlivePeriod();
 
+    /**
+     * @see ZeebeClientBuilder#dispatchStrategy(DispatchStrategy)
+     */
+    DispatchStrategy getDispatchStrategy();
+
+    /**
+     * @see ZeebeClientBuilder#numTaskHandlerThreads(int)
+     */
+    int getNumTaskHandlerThreads();
+
 }
@@ -128,6 +128,28 @@ public class ClientTopologyManager extends Actor
         });
     }
 
+    /**
+     * Updates the leader of the partition without refreshing the whole topology,
+     * e.g. when a broker responds with the address of the current leader.
+     *
+     * @return the remote address of the leader
+     */
+    public RemoteAddress provideLeaderHint(int partition, SocketAddress leader)
+    {
+        final RemoteAddress remoteAddress = transport.registerRemoteAddress(leader);
+
+        actor.call(() ->
+        {
+            final TopologyImpl currentTopology = topology.get();
+            if (!remoteAddress.equals(currentTopology.getLeaderForPartition(partition)))
+            {
+                topology.set(new TopologyImpl(currentTopology, partition, remoteAddress));
+            }
+        });
+
+        return remoteAddress;
+    }
+
     private void refreshTopology()
     {
         final RemoteAddress endpoint = topology.get().getRandomBroker();
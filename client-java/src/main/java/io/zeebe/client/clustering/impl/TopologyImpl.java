@@ -47,6 +47,22 @@ public class TopologyImpl implements Topology
         brokers.add(endpoint);
     }
 
+    /**
+     * Copies the given topology with a new leader of the given partition.
+     */
+    public TopologyImpl(TopologyImpl topology, int partition, RemoteAddress leader)
+    {
+        topicLeaders.putAll(topology.topicLeaders);
+        brokers.addAll(topology.brokers);
+        partitionsByTopic.putAll(topology.partitionsByTopic);
+
+        topicLeaders.put(partition, leader);
+        if (!brokers.contains(leader))
+        {
+            brokers.add(leader);
+        }
+    }
+
     public TopologyImpl(TopologyResponse topologyDto, Function<SocketAddress, RemoteAddress> remoteAddressProvider)
     {
         final Map<String, IntHashSet> partitions = new HashMap<>();
@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.cmd;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 public interface Request<E>
@@ -34,4 +35,18 @@ public interface Request<E>
      * @return a future of the command result
      */
     Future<E> executeAsync();
+
+    /**
+     * Submits the command without blocking the client thread, neither to wait
+     * for a free request slot nor to wait for the topology. If the maximum
+     * number of concurrent requests is in flight, the future is completed
+     * exceptionally with a {@link RequestPoolExhaustedException}.
+     *
+     * <p>
+     * Note that non-async callbacks of the future are executed on a thread of
+     * the client and must not block.
+     *
+     * @return a future of the command result
+     */
+    CompletableFuture<E> submit();
 }
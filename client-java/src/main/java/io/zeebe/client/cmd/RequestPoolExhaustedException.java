@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.cmd;
+
+/**
+ * Signals backpressure: a request could not be sent because the maximum number
+ * of concurrent requests is in flight. The request can be retried when
+ * responses of the in-flight requests are received.
+ */
+public class RequestPoolExhaustedException extends ClientException
+{
+    private static final long serialVersionUID = 1L;
+
+    public static final String ERROR_MESSAGE_FORMAT = "Could not send request: all %d concurrent requests of the client are in flight";
+
+    protected final int requestPoolSize;
+
+    public RequestPoolExhaustedException(int requestPoolSize)
+    {
+        this(requestPoolSize, null);
+    }
+
+    public RequestPoolExhaustedException(int requestPoolSize, Throwable cause)
+    {
+        super(String.format(ERROR_MESSAGE_FORMAT, requestPoolSize), cause);
+        this.requestPoolSize = requestPoolSize;
+    }
+
+    public int getRequestPoolSize()
+    {
+        return requestPoolSize;
+    }
+
+    @Override
+    public ClientException newInCurrentContext()
+    {
+        return new RequestPoolExhaustedException(requestPoolSize, this);
+    }
+}
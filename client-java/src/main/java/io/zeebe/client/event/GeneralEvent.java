@@ -22,4 +22,9 @@ public interface GeneralEvent extends Event
      * @return event encoded as JSON
      */
     String getJson();
+
+    /**
+     * @return a copy of this event which can be kept after the event is handled
+     */
+    GeneralEvent copy();
 }
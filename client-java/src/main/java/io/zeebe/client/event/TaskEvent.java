@@ -61,4 +61,9 @@ public interface TaskEvent extends Event
      * @return JSON-formatted payload
      */
     String getPayload();
+
+    /**
+     * @return a copy of this event which can be kept after the event is handled
+     */
+    TaskEvent copy();
 }
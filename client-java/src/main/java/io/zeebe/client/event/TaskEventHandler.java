@@ -23,7 +23,8 @@ public interface TaskEventHandler
 {
 
     /**
-     * @param event the next event of the topic
+     * @param event the next event of the topic. The event is reused after
+     *            it is handled - use {@link TaskEvent#copy()} to keep it.
      */
     void handle(TaskEvent event) throws Exception;
 }
@@ -23,7 +23,8 @@ public interface UniversalEventHandler
 {
 
     /**
-     * @param event the next event of the topic
+     * @param event the next event of the topic. The event is reused after
+     *            it is handled - use {@link GeneralEvent#copy()} to keep it.
      */
     void handle(GeneralEvent event) throws Exception;
 }
@@ -51,4 +51,9 @@ public interface WorkflowInstanceEvent extends Event
      * @return the payload of the workflow instance as JSON-formatted string.
      */
     String getPayload();
+
+    /**
+     * @return a copy of this event which can be kept after the event is handled
+     */
+    WorkflowInstanceEvent copy();
 }
\ No newline at end of file
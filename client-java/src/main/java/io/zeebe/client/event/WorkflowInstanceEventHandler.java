@@ -23,7 +23,8 @@ public interface WorkflowInstanceEventHandler
 {
 
     /**
-     * @param event the next event of the topic
+     * @param event the next event of the topic. The event is reused after
+     *            it is handled - use {@link WorkflowInstanceEvent#copy()} to keep it.
      */
     void handle(WorkflowInstanceEvent event) throws Exception;
 }
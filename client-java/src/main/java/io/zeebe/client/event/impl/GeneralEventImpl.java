@@ -15,15 +15,40 @@
  */
 package io.zeebe.client.event.impl;
 
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
 import io.zeebe.client.event.GeneralEvent;
 import io.zeebe.client.event.TopicEventType;
 import io.zeebe.client.impl.data.MsgPackConverter;
-import io.zeebe.client.task.impl.subscription.MsgPackField;
+import io.zeebe.client.impl.data.MsgPackDocument;
+import io.zeebe.client.impl.data.MsgPackMapper;
+import io.zeebe.client.workflow.impl.WorkflowInstanceEventImpl;
 
+/**
+ * An event as it is received by a subscriber. The event can be reused: a
+ * subscriber wraps the received event without copying it
+ * ({@link #wrap(int, long, long, TopicEventType, DirectBuffer, int, int)})
+ * and copies it into a recycled event ({@link #copyFrom(GeneralEventImpl)})
+ * which is returned after it is handled. The content is converted to JSON or
+ * to a typed event only when it is accessed.
+ *
+ * <p>
+ * The recycled event keeps its content array. The event itself and the typed
+ * views on it ({@link #toTaskEvent()}, {@link #toWorkflowInstanceEvent()})
+ * are only valid until the event is handled. A handler which keeps an event
+ * must copy it ({@link #copy()}).
+ */
 public class GeneralEventImpl extends EventImpl implements GeneralEvent
 {
+    protected final MsgPackConverter msgPackConverter;
 
-    protected final MsgPackField content;
+    protected final UnsafeBuffer content = new UnsafeBuffer(0, 0);
+    protected byte[] contentArray;
+    protected boolean isContentCopied;
+
+    protected String json;
 
     public GeneralEventImpl(
             final int partitionId,
@@ -37,26 +62,163 @@ public class GeneralEventImpl extends EventImpl implements GeneralEvent
         this.setKey(key);
         this.setEventPosition(position);
         this.setPartitionId(partitionId);
-        this.content = new MsgPackField(msgPackConverter);
-        this.content.setMsgPack(rawContent);
+        this.msgPackConverter = msgPackConverter;
+        this.contentArray = rawContent;
+        this.content.wrap(rawContent);
+        this.isContentCopied = true;
+    }
+
+    public GeneralEventImpl(final MsgPackConverter msgPackConverter)
+    {
+        super((TopicEventType) null, null);
+        this.msgPackConverter = msgPackConverter;
+    }
+
+    /**
+     * Wraps the given event content without copying it. The event is only
+     * valid as long as the buffer is not changed.
+     */
+    public GeneralEventImpl wrap(
+            final int partitionId,
+            final long key,
+            final long position,
+            final TopicEventType eventType,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length)
+    {
+        metadata.setPartitionId(partitionId);
+        metadata.setEventKey(key);
+        metadata.setEventPosition(position);
+        metadata.setEventType(eventType);
+        metadata.setTopicName(null);
+
+        content.wrap(buffer, offset, length);
+        isContentCopied = false;
+        json = null;
+
+        return this;
+    }
+
+    /**
+     * Copies the metadata and the content of the given event. The content array
+     * is reused if it is large enough.
+     */
+    public GeneralEventImpl copyFrom(final GeneralEventImpl other)
+    {
+        updateMetadata(other.metadata);
+
+        final int length = other.content.capacity();
+        if (contentArray == null || contentArray.length < length)
+        {
+            contentArray = new byte[BitUtil.findNextPositivePowerOfTwo(Math.max(length, 1))];
+        }
+
+        other.content.getBytes(0, contentArray, 0, length);
+        content.wrap(contentArray, 0, length);
+        isContentCopied = true;
+        json = other.json;
+
+        return this;
     }
 
+    /**
+     * @return a copy of this event which can be kept after the event is handled
+     */
+    @Override
+    public GeneralEventImpl copy()
+    {
+        return new GeneralEventImpl(msgPackConverter).copyFrom(this);
+    }
+
+    /**
+     * Converts the content into an event of the given type.
+     */
+    public <T extends EventImpl> T toTypedEvent(final MsgPackMapper msgPackMapper, final Class<T> eventClass)
+    {
+        final T event = isContentCopied ?
+                msgPackMapper.convert(contentArray, 0, content.capacity(), eventClass) :
+                msgPackMapper.convert(getAsMsgPack(), eventClass);
+
+        event.updateMetadata(metadata);
+        return event;
+    }
+
+    /**
+     * Converts the content into a task event which decodes its properties on
+     * first access. The task event is a view on the content of this event, so
+     * it is only valid until this event is reused.
+     */
+    public TaskEventImpl toTaskEvent()
+    {
+        final TaskEventImpl event = new TaskEventImpl(toDocument(), msgPackConverter);
+        event.updateMetadata(metadata);
+        return event;
+    }
+
+    /**
+     * Converts a copy of the content into a task event which decodes its
+     * properties on first access. The task event can be kept after this event
+     * is reused.
+     */
+    public TaskEventImpl toTaskEventCopy()
+    {
+        final TaskEventImpl event = new TaskEventImpl(new MsgPackDocument(getAsMsgPack()), msgPackConverter);
+        event.updateMetadata(metadata);
+        return event;
+    }
+
+    /**
+     * Converts the content into a workflow instance event which decodes its
+     * properties on first access. The workflow instance event is a view on the
+     * content of this event, so it is only valid until this event is reused.
+     */
+    public WorkflowInstanceEventImpl toWorkflowInstanceEvent()
+    {
+        final WorkflowInstanceEventImpl event = new WorkflowInstanceEventImpl(toDocument(), msgPackConverter);
+        event.updateMetadata(metadata);
+        return event;
+    }
+
+    /**
+     * @return a view on the content. The content is copied only if it is not
+     *         copied yet, e.g. a wrapped transport buffer.
+     */
+    protected MsgPackDocument toDocument()
+    {
+        return isContentCopied ?
+                new MsgPackDocument(contentArray, 0, content.capacity()) :
+                new MsgPackDocument(getAsMsgPack());
+    }
+
+    public MsgPackConverter getMsgPackConverter()
+    {
+        return msgPackConverter;
+    }
 
     @Override
     public String getJson()
     {
-        return content.getAsJson();
+        if (json == null)
+        {
+            json = isContentCopied ?
+                    msgPackConverter.convertToJson(contentArray, 0, content.capacity()) :
+                    msgPackConverter.convertToJson(getAsMsgPack());
+        }
+        return json;
     }
 
     public byte[] getAsMsgPack()
     {
-        return content.getMsgPack();
+        final byte[] msgPack = new byte[content.capacity()];
+        content.getBytes(0, msgPack);
+        return msgPack;
     }
 
     @Override
     public String toString()
     {
-        return "TopicEvent[metadata=" + metadata + ", content=" + content.getAsJson() + "]";
+        return "TopicEvent[metadata=" + metadata + ", content=" + getJson() + "]";
     }
 
 
@@ -24,11 +24,19 @@ import com.fasterxml.jackson.annotation.*;
 import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.event.TopicEventType;
 import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.MsgPackDocument;
 import io.zeebe.client.task.impl.subscription.MsgPackField;
 import io.zeebe.protocol.Protocol;
 
 public class TaskEventImpl extends EventImpl implements TaskEvent
 {
+    protected static final int HEADERS = 1 << 0;
+    protected static final int CUSTOM_HEADERS = 1 << 1;
+    protected static final int LOCK_TIME = 1 << 2;
+    protected static final int LOCK_OWNER = 1 << 3;
+    protected static final int RETRIES = 1 << 4;
+    protected static final int TYPE = 1 << 5;
+    protected static final int PAYLOAD = 1 << 6;
 
     protected Map<String, Object> headers = new HashMap<>();
     protected Map<String, Object> customHeaders = new HashMap<>();
@@ -38,33 +46,83 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     protected String type;
     protected final MsgPackField payload;
 
+    /**
+     * The encoded event if it is received by a subscription, or
+     * <code>null</code>. A property is decoded on its first access.
+     */
+    protected final MsgPackDocument document;
+    protected int decodedProperties = 0;
+
     @JsonCreator
     public TaskEventImpl(@JsonProperty("state") String state, @JacksonInject MsgPackConverter msgPackConverter)
     {
         super(TopicEventType.TASK, state);
         this.payload = new MsgPackField(msgPackConverter);
+        this.document = null;
+    }
+
+    /**
+     * Creates an event which decodes its properties from the given document
+     * when they are accessed.
+     */
+    public TaskEventImpl(MsgPackDocument document, MsgPackConverter msgPackConverter)
+    {
+        super(TopicEventType.TASK, document.getString("state"));
+        this.payload = new MsgPackField(msgPackConverter);
+        this.document = document;
     }
 
     public TaskEventImpl(TaskEventImpl eventToCopy, String state)
+    {
+        this(eventToCopy, state, true);
+    }
+
+    protected TaskEventImpl(TaskEventImpl eventToCopy, String state, boolean copyHeaders)
     {
         super(eventToCopy, state);
-        this.headers = new HashMap<>(eventToCopy.headers);
-        this.customHeaders = new HashMap<>(eventToCopy.customHeaders);
-        this.lockTime = eventToCopy.lockTime;
-        this.lockOwner = eventToCopy.lockOwner;
-        this.retries = eventToCopy.retries;
-        this.type = eventToCopy.type;
-        this.payload = new MsgPackField(eventToCopy.payload);
+        if (copyHeaders)
+        {
+            this.headers = new HashMap<>(eventToCopy.getHeaders());
+            this.customHeaders = new HashMap<>(eventToCopy.getCustomHeaders());
+        }
+        else
+        {
+            // restored by the broker, null properties are not serialized
+            this.headers = null;
+            this.customHeaders = null;
+        }
+        this.lockTime = eventToCopy.getLockTime();
+        this.lockOwner = eventToCopy.getLockOwner();
+        this.retries = eventToCopy.getRetries();
+        this.type = eventToCopy.getType();
+        this.payload = new MsgPackField(eventToCopy.getPayloadField());
+        this.document = null;
+    }
+
+    /**
+     * Creates a command to complete or fail the given task which does not
+     * carry the headers and custom headers of the task. The broker restores
+     * them from the locked task.
+     */
+    public static TaskEventImpl newLeanCommand(TaskEventImpl task, String state)
+    {
+        // the headers are not copied, so that they are not decoded from a received task
+        return new TaskEventImpl(task, state, false);
     }
 
     @Override
     public String getType()
     {
+        if (isEncoded(TYPE))
+        {
+            type = document.getString("type");
+        }
         return type;
     }
 
     public void setType(String type)
     {
+        this.decodedProperties |= TYPE;
         this.type = type;
     }
 
@@ -72,6 +130,7 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     @JsonIgnore
     public Instant getLockExpirationTime()
     {
+        final long lockTime = getLockTime();
         if (lockTime == Protocol.INSTANT_NULL_VALUE)
         {
             return null;
@@ -84,22 +143,33 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
 
     public long getLockTime()
     {
+        if (isEncoded(LOCK_TIME))
+        {
+            final Long lockTime = document.getLong("lockTime");
+            this.lockTime = lockTime != null ? lockTime : Protocol.INSTANT_NULL_VALUE;
+        }
         return lockTime;
     }
 
     public void setLockTime(long lockTime)
     {
+        this.decodedProperties |= LOCK_TIME;
         this.lockTime = lockTime;
     }
 
     @Override
     public Map<String, Object> getHeaders()
     {
+        if (isEncoded(HEADERS))
+        {
+            putAll(headers, document.getMap("headers"));
+        }
         return headers;
     }
 
     public void setHeaders(Map<String, Object> headers)
     {
+        this.decodedProperties |= HEADERS;
         this.headers.clear();
         this.headers.putAll(headers);
     }
@@ -107,11 +177,16 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     @Override
     public Map<String, Object> getCustomHeaders()
     {
+        if (isEncoded(CUSTOM_HEADERS))
+        {
+            putAll(customHeaders, document.getMap("customHeaders"));
+        }
         return customHeaders;
     }
 
     public void setCustomHeaders(Map<String, Object> customHeaders)
     {
+        this.decodedProperties |= CUSTOM_HEADERS;
         this.customHeaders.clear();
         this.customHeaders.putAll(customHeaders);
     }
@@ -119,11 +194,16 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     @Override
     public String getLockOwner()
     {
+        if (isEncoded(LOCK_OWNER))
+        {
+            lockOwner = document.getString("lockOwner");
+        }
         return lockOwner;
     }
 
     public void setLockOwner(String lockOwner)
     {
+        this.decodedProperties |= LOCK_OWNER;
         this.lockOwner = lockOwner;
     }
 
@@ -131,42 +211,111 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
     @JsonIgnore
     public String getPayload()
     {
-        return payload.getAsJson();
+        return getPayloadField().getAsJson();
     }
 
     @JsonProperty("payload")
     public byte[] getPayloadMsgPack()
     {
-        return payload.getMsgPack();
+        return getPayloadField().getMsgPack();
+    }
+
+    /**
+     * @return a view on the payload which decodes only the accessed properties
+     */
+    @JsonIgnore
+    public MsgPackDocument getPayloadDocument()
+    {
+        if (document != null && (decodedProperties & PAYLOAD) == 0)
+        {
+            // a view on the received payload, without copying it
+            return document.getDocument("payload");
+        }
+
+        final byte[] msgPack = getPayloadMsgPack();
+        return msgPack != null ? new MsgPackDocument(msgPack) : null;
     }
 
     @JsonProperty("payload")
     public void setPayload(byte[] msgPack)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setMsgPack(msgPack);
     }
 
     public void setPayload(String json)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setJson(json);
     }
 
     public void setPayload(InputStream jsonStream)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setJson(jsonStream);
     }
 
+    protected MsgPackField getPayloadField()
+    {
+        if (isEncoded(PAYLOAD))
+        {
+            final MsgPackDocument payloadDocument = document.getDocument("payload");
+            payload.setMsgPack(payloadDocument != null ? payloadDocument.toMsgPack() : null);
+        }
+        return payload;
+    }
+
     @Override
     public Integer getRetries()
     {
+        if (isEncoded(RETRIES))
+        {
+            retries = document.getInteger("retries");
+        }
         return retries;
     }
 
     public void setRetries(Integer retries)
     {
+        this.decodedProperties |= RETRIES;
         this.retries = retries;
     }
 
+    /**
+     * @return <code>true</code> if the property is not decoded yet, the
+     *         property is marked as decoded
+     */
+    protected boolean isEncoded(int property)
+    {
+        if (document != null && (decodedProperties & property) == 0)
+        {
+            decodedProperties |= property;
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    protected static void putAll(Map<String, Object> target, Map<String, Object> source)
+    {
+        if (source != null)
+        {
+            target.putAll(source);
+        }
+    }
+
+    /**
+     * Decodes all properties, so that the copy doesn't refer to the content
+     * of a received event.
+     */
+    @Override
+    public TaskEventImpl copy()
+    {
+        return new TaskEventImpl(this, getState());
+    }
+
     @Override
     public String toString()
     {
@@ -174,19 +323,19 @@ public class TaskEventImpl extends EventImpl implements TaskEvent
         builder.append("TaskEvent [state=");
         builder.append(state);
         builder.append(", type=");
-        builder.append(type);
+        builder.append(getType());
         builder.append(", retries=");
-        builder.append(retries);
+        builder.append(getRetries());
         builder.append(", lockOwner=");
-        builder.append(lockOwner);
+        builder.append(getLockOwner());
         builder.append(", lockTime=");
-        builder.append(lockTime);
+        builder.append(getLockTime());
         builder.append(", headers=");
-        builder.append(headers);
+        builder.append(getHeaders());
         builder.append(", customHeaders=");
-        builder.append(customHeaders);
+        builder.append(getCustomHeaders());
         builder.append(", payload=");
-        builder.append(payload.getAsJson());
+        builder.append(getPayload());
         builder.append("]");
         return builder.toString();
     }
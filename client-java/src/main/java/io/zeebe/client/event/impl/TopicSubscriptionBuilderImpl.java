@@ -132,32 +132,27 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilder
 
         if (TopicEventType.TASK == eventType && taskEventHandler != null)
         {
-            final TaskEventImpl taskEvent = msgPackMapper.convert(event.getAsMsgPack(), TaskEventImpl.class);
-            taskEvent.updateMetadata(event.getMetadata());
+            final TaskEventImpl taskEvent = event.toTaskEvent();
             taskEventHandler.handle(taskEvent);
         }
         else if (TopicEventType.WORKFLOW_INSTANCE == eventType && wfInstanceEventHandler != null)
         {
-            final WorkflowInstanceEventImpl wfInstanceEvent = msgPackMapper.convert(event.getAsMsgPack(), WorkflowInstanceEventImpl.class);
-            wfInstanceEvent.updateMetadata(event.getMetadata());
+            final WorkflowInstanceEventImpl wfInstanceEvent = event.toWorkflowInstanceEvent();
             wfInstanceEventHandler.handle(wfInstanceEvent);
         }
         else if (TopicEventType.WORKFLOW == eventType && wfEventHandler != null)
         {
-            final WorkflowEventImpl wfEvent = msgPackMapper.convert(event.getAsMsgPack(), WorkflowEventImpl.class);
-            wfEvent.updateMetadata(event.getMetadata());
+            final WorkflowEventImpl wfEvent = event.toTypedEvent(msgPackMapper, WorkflowEventImpl.class);
             wfEventHandler.handle(wfEvent);
         }
         else if (TopicEventType.INCIDENT == eventType && incidentEventHandler != null)
         {
-            final IncidentEventImpl incidentEvent = msgPackMapper.convert(event.getAsMsgPack(), IncidentEventImpl.class);
-            incidentEvent.updateMetadata(event.getMetadata());
+            final IncidentEventImpl incidentEvent = event.toTypedEvent(msgPackMapper, IncidentEventImpl.class);
             incidentEventHandler.handle(incidentEvent);
         }
         else if (TopicEventType.RAFT == eventType && raftEventHandler != null)
         {
-            final RaftEventImpl raftEvent = msgPackMapper.convert(event.getAsMsgPack(), RaftEventImpl.class);
-            raftEvent.updateMetadata(event.getMetadata());
+            final RaftEventImpl raftEvent = event.toTypedEvent(msgPackMapper, RaftEventImpl.class);
             raftEventHandler.handle(raftEvent);
         }
         else if (defaultEventHandler != null)
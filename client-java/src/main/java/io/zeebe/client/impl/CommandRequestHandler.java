@@ -48,6 +48,7 @@ public class CommandRequestHandler implements RequestResponseHandler
     protected EventImpl event;
     protected String expectedState;
     protected BiFunction<EventImpl, EventImpl, String> errorFunction;
+    protected String affinityKey;
 
     protected final ObjectMapper objectMapper;
 
@@ -61,6 +62,7 @@ public class CommandRequestHandler implements RequestResponseHandler
         this.event = command.getEvent();
         this.expectedState = command.getExpectedStatus();
         this.errorFunction = command::generateError;
+        this.affinityKey = command.getAffinityKey();
         serialize(event);
     }
 
@@ -197,6 +199,12 @@ public class CommandRequestHandler implements RequestResponseHandler
         encoder.partitionId(partitionId);
     }
 
+    @Override
+    public String getAffinityKey()
+    {
+        return affinityKey;
+    }
+
     @Override
     public String describeRequest()
     {
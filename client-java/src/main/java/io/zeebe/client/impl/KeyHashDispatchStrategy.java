@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.Arrays;
+
+import org.agrona.collections.IntArrayList;
+
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
+
+/**
+ * Sends requests with the same affinity key to the same partition of the
+ * topic, as long as the partitions of the topic don't change. Requests
+ * without a key are dispatched by the given strategy.
+ */
+public class KeyHashDispatchStrategy implements RequestDispatchStrategy
+{
+    protected final ClientTopologyManager topologyManager;
+    protected final RequestDispatchStrategy fallbackStrategy;
+
+    public KeyHashDispatchStrategy(ClientTopologyManager topologyManager, RequestDispatchStrategy fallbackStrategy)
+    {
+        this.topologyManager = topologyManager;
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    @Override
+    public int determinePartition(String topic)
+    {
+        return fallbackStrategy.determinePartition(topic);
+    }
+
+    @Override
+    public int determinePartition(String topic, String affinityKey)
+    {
+        if (affinityKey == null)
+        {
+            return fallbackStrategy.determinePartition(topic);
+        }
+
+        final IntArrayList partitions = topologyManager.getTopology().getPartitionsOfTopic(topic);
+
+        if (partitions == null || partitions.isEmpty())
+        {
+            return -1;
+        }
+
+        // the order of the partitions in the topology is not stable
+        final int[] partitionIds = new int[partitions.size()];
+        for (int i = 0; i < partitionIds.length; i++)
+        {
+            partitionIds[i] = partitions.getInt(i);
+        }
+        Arrays.sort(partitionIds);
+
+        return partitionIds[Math.floorMod(affinityKey.hashCode(), partitionIds.length)];
+    }
+}
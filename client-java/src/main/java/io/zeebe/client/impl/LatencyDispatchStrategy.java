@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
+import io.zeebe.client.clustering.impl.TopologyImpl;
+
+/**
+ * Selects the partition with the lowest expected response time, i.e. the
+ * moving average of its latency multiplied by its requests in flight
+ * (including the new one). A partition without completed requests is expected
+ * to have the average latency of the other partitions.
+ */
+public class LatencyDispatchStrategy extends LoadAwareDispatchStrategy
+{
+
+    public LatencyDispatchStrategy(ClientTopologyManager topologyManager, RequestStatistics statistics)
+    {
+        super(topologyManager, statistics);
+    }
+
+    @Override
+    protected double getLoad(TopologyImpl topology, int partition)
+    {
+        double latency = statistics.getLatencyNanos(partition);
+
+        if (latency == 0)
+        {
+            latency = statistics.getAverageLatencyNanos();
+        }
+
+        // if no request is completed yet then the requests in flight decide
+        return Math.max(latency, 1) * (statistics.getInFlightRequests(partition) + 1);
+    }
+}
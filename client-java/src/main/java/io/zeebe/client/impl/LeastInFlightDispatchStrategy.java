@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
+import io.zeebe.client.clustering.impl.TopologyImpl;
+import io.zeebe.transport.RemoteAddress;
+
+/**
+ * Selects the partition whose leader has the least requests in flight, so
+ * that the requests are spread over the brokers even if one broker leads
+ * many partitions.
+ */
+public class LeastInFlightDispatchStrategy extends LoadAwareDispatchStrategy
+{
+
+    public LeastInFlightDispatchStrategy(ClientTopologyManager topologyManager, RequestStatistics statistics)
+    {
+        super(topologyManager, statistics);
+    }
+
+    @Override
+    protected double getLoad(TopologyImpl topology, int partition)
+    {
+        final RemoteAddress leader = topology.getLeaderForPartition(partition);
+
+        if (leader == null)
+        {
+            return Double.MAX_VALUE;
+        }
+
+        return statistics.getInFlightRequests(p -> leader.equals(topology.getLeaderForPartition(p)));
+    }
+}
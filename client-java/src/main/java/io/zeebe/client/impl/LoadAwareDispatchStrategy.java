@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.agrona.collections.IntArrayList;
+
+import io.zeebe.client.clustering.impl.ClientTopologyManager;
+import io.zeebe.client.clustering.impl.TopologyImpl;
+
+/**
+ * Selects the partition of the topic with the lowest load. The partitions are
+ * visited in round robin order, so that partitions with the same load are
+ * selected one after another.
+ */
+public abstract class LoadAwareDispatchStrategy implements RequestDispatchStrategy
+{
+    protected final ClientTopologyManager topologyManager;
+    protected final RequestStatistics statistics;
+    protected final Map<String, AtomicInteger> topicOffsets = new ConcurrentHashMap<>();
+
+    public LoadAwareDispatchStrategy(ClientTopologyManager topologyManager, RequestStatistics statistics)
+    {
+        this.topologyManager = topologyManager;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public int determinePartition(String topic)
+    {
+        final TopologyImpl topology = topologyManager.getTopology();
+        final IntArrayList partitions = topology.getPartitionsOfTopic(topic);
+
+        if (partitions == null || partitions.isEmpty())
+        {
+            return -1;
+        }
+
+        final AtomicInteger offsetCounter = topicOffsets.computeIfAbsent(topic, t -> new AtomicInteger(0));
+        final int offset = offsetCounter.getAndIncrement();
+        final int partitionCount = partitions.size();
+
+        int selectedPartition = -1;
+        double lowestLoad = Double.MAX_VALUE;
+
+        for (int i = 0; i < partitionCount; i++)
+        {
+            final int partition = partitions.getInt(Math.floorMod(offset + i, partitionCount));
+            final double load = getLoad(topology, partition);
+
+            if (load < lowestLoad)
+            {
+                selectedPartition = partition;
+                lowestLoad = load;
+            }
+        }
+
+        return selectedPartition >= 0 ? selectedPartition : partitions.getInt(Math.floorMod(offset, partitionCount));
+    }
+
+    protected abstract double getLoad(TopologyImpl topology, int partition);
+}
@@ -25,4 +25,15 @@ public interface RequestDispatchStrategy
      * @return -1 if no partition can be determined
      */
     int determinePartition(String topic);
+
+    /**
+     * @param affinityKey
+     *            requests with the same key should be sent to the same
+     *            partition; <code>null</code> if the request has no key
+     * @return -1 if no partition can be determined
+     */
+    default int determinePartition(String topic, String affinityKey)
+    {
+        return determinePartition(topic);
+    }
 }
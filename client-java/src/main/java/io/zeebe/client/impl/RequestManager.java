@@ -16,12 +16,14 @@
 package io.zeebe.client.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zeebe.client.DispatchStrategy;
 import io.zeebe.client.clustering.Topology;
 import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.clustering.impl.TopologyImpl;
 import io.zeebe.client.cmd.BrokerErrorException;
 import io.zeebe.client.cmd.ClientCommandRejectedException;
 import io.zeebe.client.cmd.ClientException;
+import io.zeebe.client.cmd.RequestPoolExhaustedException;
 import io.zeebe.client.event.Event;
 import io.zeebe.client.impl.cmd.CommandImpl;
 import io.zeebe.client.impl.cmd.ReceiverAwareResponseResult;
@@ -50,7 +52,9 @@ public class RequestManager extends Actor
     protected final ObjectMapper msgPackMapper;
     protected final Duration requestTimeout;
     protected final RequestDispatchStrategy dispatchStrategy;
+    protected final RequestStatistics requestStatistics = new RequestStatistics();
     protected final Semaphore concurrentRequestsSemaphore;
+    protected final int requestPoolSize;
     protected final long blockTimeMillis;
 
     public RequestManager(
@@ -59,17 +63,32 @@ public class RequestManager extends Actor
             ObjectMapper msgPackMapper,
             Duration requestTimeout,
             int requestPoolSize,
-            long blockTimeMillis)
+            long blockTimeMillis,
+            DispatchStrategy dispatchStrategy)
     {
         this.output = output;
         this.topologyManager = topologyManager;
         this.msgPackMapper = msgPackMapper;
         this.requestTimeout = requestTimeout;
         this.blockTimeMillis = blockTimeMillis;
-        this.dispatchStrategy = new RoundRobinDispatchStrategy(topologyManager);
+        this.dispatchStrategy = new KeyHashDispatchStrategy(topologyManager, createDispatchStrategy(dispatchStrategy));
+        this.requestPoolSize = requestPoolSize;
         this.concurrentRequestsSemaphore = new Semaphore(requestPoolSize);
     }
 
+    private RequestDispatchStrategy createDispatchStrategy(DispatchStrategy dispatchStrategy)
+    {
+        switch (dispatchStrategy)
+        {
+            case LEAST_IN_FLIGHT:
+                return new LeastInFlightDispatchStrategy(topologyManager, requestStatistics);
+            case LATENCY:
+                return new LatencyDispatchStrategy(topologyManager, requestStatistics);
+            default:
+                return new RoundRobinDispatchStrategy(topologyManager);
+        }
+    }
+
     public ActorFuture<Void> close()
     {
         return actor.close();
@@ -103,50 +122,142 @@ public class RequestManager extends Actor
             throw new RuntimeException(e);
         }
 
-        final Supplier<ActorFuture<RemoteAddress>> remoteProvider = determineRemoteProvider(requestHandler);
+        final BrokerProvider remoteProvider = determineRemoteProvider(requestHandler);
         final ActorFuture<ClientResponse> responseFuture =
-                output.sendRequestWithRetry(remoteProvider, RequestManager::shouldRetryRequest, requestHandler, requestTimeout);
+                output.sendRequestWithRetry(remoteProvider, remoteProvider::shouldRetryRequest, requestHandler, requestTimeout);
+
+        trackRequest(requestHandler, remoteProvider, responseFuture);
 
         return new ResponseFuture<>(responseFuture, requestHandler, requestTimeout, concurrentRequestsSemaphore);
     }
 
-    private static boolean shouldRetryRequest(DirectBuffer responseContent)
+    /**
+     * Sends the request without blocking the calling thread. If the request
+     * pool is exhausted, the returned future is completed exceptionally with a
+     * {@link RequestPoolExhaustedException}. If the target partition is not
+     * known yet, the request is sent when the topology is updated.
+     */
+    private <E> CompletableFuture<E> submit(final RequestResponseHandler requestHandler)
     {
-        final ErrorResponseHandler errorHandler = new ErrorResponseHandler();
-        final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
-        headerDecoder.wrap(responseContent, 0);
+        final CompletableFuture<E> future = new CompletableFuture<>();
 
-        if (errorHandler.handlesResponse(headerDecoder))
+        if (!concurrentRequestsSemaphore.tryAcquire())
         {
-            errorHandler.wrap(responseContent, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+            future.completeExceptionally(new RequestPoolExhaustedException(requestPoolSize));
+            return future;
+        }
 
-            final ErrorCode errorCode = errorHandler.getErrorCode();
-            return errorCode == ErrorCode.PARTITION_NOT_FOUND || errorCode == ErrorCode.REQUEST_TIMEOUT;
+        actor.call(() ->
+        {
+            if (requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
+            {
+                submitToTopic(requestHandler, future);
+            }
+            else
+            {
+                send(requestHandler, future);
+            }
+        });
+
+        return future;
+    }
+
+    private <E> void submitToTopic(RequestResponseHandler requestHandler, CompletableFuture<E> future)
+    {
+        final String topic = requestHandler.getTargetTopic();
+        final String affinityKey = requestHandler.getAffinityKey();
+        final int partition = dispatchStrategy.determinePartition(topic, affinityKey);
+
+        if (partition >= 0)
+        {
+            requestHandler.onSelectedPartition(partition);
+            send(requestHandler, future);
         }
         else
         {
-            return false;
+            final CompletableActorFuture<Integer> partitionFuture = new CompletableActorFuture<>();
+            final long timeout = ActorClock.currentTimeMillis() + requestTimeout.toMillis();
+            updateTopologyAndDeterminePartition(topic, affinityKey, partitionFuture, timeout);
+
+            actor.runOnCompletion(partitionFuture, (selectedPartition, failure) ->
+            {
+                if (failure == null)
+                {
+                    requestHandler.onSelectedPartition(selectedPartition);
+                    send(requestHandler, future);
+                }
+                else
+                {
+                    concurrentRequestsSemaphore.release();
+                    future.completeExceptionally(new ClientException("Cannot determine target partition for request. Request was: " +
+                            requestHandler.describeRequest(), failure));
+                }
+            });
+        }
+    }
+
+    private <E> void send(RequestResponseHandler requestHandler, CompletableFuture<E> future)
+    {
+        final BrokerProvider remoteProvider = determineRemoteProvider(requestHandler);
+        final ActorFuture<ClientResponse> transportFuture =
+                output.sendRequestWithRetry(remoteProvider, remoteProvider::shouldRetryRequest, requestHandler, requestTimeout);
+
+        final ResponseFuture<E> responseFuture =
+                new ResponseFuture<>(transportFuture, requestHandler, requestTimeout, concurrentRequestsSemaphore);
+
+        trackRequest(requestHandler, remoteProvider, transportFuture);
+
+        actor.runOnCompletion(transportFuture, (response, failure) -> responseFuture.completeTo(future));
+    }
+
+    /**
+     * Counts the request as in flight until its response arrives, independent of
+     * when (or if) the caller resolves the response future. Only the latency of a
+     * successful response is recorded, a failed request is penalized with the
+     * request timeout.
+     */
+    private void trackRequest(RequestResponseHandler requestHandler, BrokerProvider remoteProvider, ActorFuture<ClientResponse> transportFuture)
+    {
+        final int partition = requestHandler.getTargetPartition();
+
+        if (partition >= 0)
+        {
+            final long sendTimeNanos = System.nanoTime();
+            requestStatistics.onRequestSent(partition);
+
+            actor.call(() ->
+                actor.runOnCompletion(transportFuture, (response, failure) ->
+                {
+                    if (failure == null && !remoteProvider.isErrorResponse())
+                    {
+                        requestStatistics.onRequestCompleted(partition, System.nanoTime() - sendTimeNanos);
+                    }
+                    else
+                    {
+                        requestStatistics.onRequestFailed(partition, requestTimeout.toNanos());
+                    }
+                }));
         }
     }
 
-    private ActorFuture<Integer> updateTopologyAndDeterminePartition(String topic)
+    private ActorFuture<Integer> updateTopologyAndDeterminePartition(String topic, String affinityKey)
     {
         final CompletableActorFuture<Integer> future = new CompletableActorFuture<>();
 
         actor.call(() ->
         {
             final long timeout = ActorClock.currentTimeMillis() + requestTimeout.toMillis();
-            updateTopologyAndDeterminePartition(topic, future, timeout);
+            updateTopologyAndDeterminePartition(topic, affinityKey, future, timeout);
         });
         return future;
     }
 
-    private void updateTopologyAndDeterminePartition(String topic, CompletableActorFuture<Integer> future, long timeout)
+    private void updateTopologyAndDeterminePartition(String topic, String affinityKey, CompletableActorFuture<Integer> future, long timeout)
     {
         final ActorFuture<Topology> topologyFuture = topologyManager.requestTopology();
         actor.runOnCompletion(topologyFuture, (topology, throwable) ->
         {
-            final int partition = dispatchStrategy.determinePartition(topic);
+            final int partition = dispatchStrategy.determinePartition(topic, affinityKey);
             if (partition >= 0)
             {
                 future.complete(partition);
@@ -157,24 +268,24 @@ public class RequestManager extends Actor
             }
             else
             {
-                updateTopologyAndDeterminePartition(topic, future, timeout);
+                updateTopologyAndDeterminePartition(topic, affinityKey, future, timeout);
             }
         });
     }
 
-    private Supplier<ActorFuture<RemoteAddress>> determineRemoteProvider(RequestResponseHandler requestHandler)
+    private BrokerProvider determineRemoteProvider(RequestResponseHandler requestHandler)
     {
 
         if (!requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
         {
-            return new BrokerProvider((topology) -> topology.getRandomBroker());
+            return new BrokerProvider(-1, (topology) -> topology.getRandomBroker());
         }
         else
         {
             final int targetPartition;
             if (!requestHandler.addressesSpecificPartition())
             {
-                int proposedPartition = dispatchStrategy.determinePartition(requestHandler.getTargetTopic());
+                int proposedPartition = dispatchStrategy.determinePartition(requestHandler.getTargetTopic(), requestHandler.getAffinityKey());
 
                 if (proposedPartition >= 0)
                 {
@@ -183,7 +294,7 @@ public class RequestManager extends Actor
                 else
                 {
                     final ActorFuture<Integer> partitionFuture =
-                            updateTopologyAndDeterminePartition(requestHandler.getTargetTopic());
+                            updateTopologyAndDeterminePartition(requestHandler.getTargetTopic(), requestHandler.getAffinityKey());
 
                     try
                     {
@@ -210,7 +321,7 @@ public class RequestManager extends Actor
                 targetPartition = requestHandler.getTargetPartition();
             }
 
-            return new BrokerProvider((topology) -> topology.getLeaderForPartition(targetPartition));
+            return new BrokerProvider(targetPartition, (topology) -> topology.getLeaderForPartition(targetPartition));
         }
     }
 
@@ -226,6 +337,18 @@ public class RequestManager extends Actor
         return executeAsync(requestHandler);
     }
 
+    public <E> CompletableFuture<E> submit(final ControlMessageRequest<E> controlMessage)
+    {
+        final ControlMessageRequestHandler requestHandler = new ControlMessageRequestHandler(msgPackMapper, controlMessage);
+        return submit(requestHandler);
+    }
+
+    public <E extends Event> CompletableFuture<E> submit(final CommandImpl<E> command)
+    {
+        final CommandRequestHandler requestHandler = new CommandRequestHandler(msgPackMapper, command);
+        return submit(requestHandler);
+    }
+
     private <E> E waitAndResolve(Future<E> future)
     {
         try
@@ -254,17 +377,43 @@ public class RequestManager extends Actor
     {
         private int attempt = 0;
 
+        private final int partition;
         private final Function<TopologyImpl, RemoteAddress> addressStrategy;
 
-        BrokerProvider(Function<TopologyImpl, RemoteAddress> addressStrategy)
+        /**
+         * Leader which the broker returned with the last error response, is used
+         * for the next attempt only. Is set and read by the transport's sender.
+         */
+        private volatile RemoteAddress leaderHint;
+        private boolean isLeaderHintUsed = false;
+
+        /**
+         * If the last response is an error response. Is set by the transport's
+         * sender before the request is completed.
+         */
+        private volatile boolean isErrorResponse = false;
+
+        BrokerProvider(int partition, Function<TopologyImpl, RemoteAddress> addressStrategy)
         {
+            this.partition = partition;
             this.addressStrategy = addressStrategy;
         }
 
         @Override
         public ActorFuture<RemoteAddress> get()
         {
-            if (attempt > 0)
+            final RemoteAddress hintedLeader = leaderHint;
+            leaderHint = null;
+
+            if (hintedLeader != null)
+            {
+                // retry immediately instead of waiting for the next topology refresh
+                isLeaderHintUsed = true;
+                attempt++;
+
+                return CompletableActorFuture.completed(hintedLeader);
+            }
+            else if (attempt > 0)
             {
 
                 final CompletableActorFuture<RemoteAddress> remoteFuture = new CompletableActorFuture<>();
@@ -296,6 +445,42 @@ public class RequestManager extends Actor
             return addressStrategy.apply(topology);
 
         }
+
+        boolean shouldRetryRequest(DirectBuffer responseContent)
+        {
+            final ErrorResponseHandler errorHandler = new ErrorResponseHandler();
+            final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+            headerDecoder.wrap(responseContent, 0);
+
+            isErrorResponse = errorHandler.handlesResponse(headerDecoder);
+
+            if (isErrorResponse)
+            {
+                errorHandler.wrap(responseContent, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+
+                final ErrorCode errorCode = errorHandler.getErrorCode();
+
+                if (errorCode == ErrorCode.PARTITION_NOT_FOUND && partition >= 0 && !isLeaderHintUsed)
+                {
+                    final SocketAddress leader = errorHandler.getLeaderHint();
+                    if (leader != null)
+                    {
+                        leaderHint = topologyManager.provideLeaderHint(partition, leader);
+                    }
+                }
+
+                return errorCode == ErrorCode.PARTITION_NOT_FOUND || errorCode == ErrorCode.REQUEST_TIMEOUT;
+            }
+            else
+            {
+                return false;
+            }
+        }
+
+        boolean isErrorResponse()
+        {
+            return isErrorResponse;
+        }
     }
 
     protected static class ResponseFuture<E> implements ActorFuture<E>
@@ -391,6 +576,24 @@ public class RequestManager extends Actor
             }
         }
 
+        /**
+         * Completes the given future with the result of the request. Must only
+         * be called when the transport future is done.
+         */
+        protected void completeTo(CompletableFuture<E> future)
+        {
+            ensureResponseAvailable(0, TimeUnit.MILLISECONDS);
+
+            if (failure == null)
+            {
+                future.complete(result);
+            }
+            else
+            {
+                future.completeExceptionally(failure.getCause());
+            }
+        }
+
         private void handleErrorResponse(final DirectBuffer responseContent)
         {
             errorHandler.wrap(responseContent,
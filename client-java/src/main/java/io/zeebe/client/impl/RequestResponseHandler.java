@@ -50,6 +50,15 @@ public interface RequestResponseHandler extends BufferWriter
 
     void onSelectedPartition(int partitionId);
 
+    /**
+     * @return a key of requests which should be sent to the same partition,
+     *         or null
+     */
+    default String getAffinityKey()
+    {
+        return null;
+    }
+
     String describeRequest();
 
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * Tracks the requests in flight and the request latency per partition, as
+ * observed by the client. Thread-safe.
+ */
+public class RequestStatistics
+{
+    /**
+     * Weight of a new latency sample in the moving average.
+     */
+    public static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+    protected final ConcurrentHashMap<Integer, PartitionStatistics> partitions = new ConcurrentHashMap<>();
+
+    public void onRequestSent(int partition)
+    {
+        getPartition(partition).inFlightRequests.incrementAndGet();
+    }
+
+    public void onRequestCompleted(int partition, long latencyNanos)
+    {
+        final PartitionStatistics statistics = getPartition(partition);
+
+        statistics.inFlightRequests.decrementAndGet();
+        statistics.addLatency(latencyNanos);
+    }
+
+    /**
+     * Called if the request timed out or the broker responded with an error.
+     * Such a response can be faster than a successful one, so the given penalty
+     * is added as latency instead of the measured one.
+     */
+    public void onRequestFailed(int partition, long penaltyNanos)
+    {
+        onRequestCompleted(partition, penaltyNanos);
+    }
+
+    public int getInFlightRequests(int partition)
+    {
+        final PartitionStatistics statistics = partitions.get(partition);
+        return statistics != null ? statistics.inFlightRequests.get() : 0;
+    }
+
+    /**
+     * @return the sum of the requests in flight of all partitions which match the filter
+     */
+    public int getInFlightRequests(IntPredicate partitionFilter)
+    {
+        int inFlightRequests = 0;
+
+        for (PartitionStatistics statistics : partitions.values())
+        {
+            if (partitionFilter.test(statistics.partition))
+            {
+                inFlightRequests += statistics.inFlightRequests.get();
+            }
+        }
+
+        return inFlightRequests;
+    }
+
+    /**
+     * @return the moving average of the latency in nanoseconds, or 0 if no
+     *         request of the partition is completed yet
+     */
+    public double getLatencyNanos(int partition)
+    {
+        final PartitionStatistics statistics = partitions.get(partition);
+        return statistics != null ? statistics.latencyNanos : 0;
+    }
+
+    /**
+     * @return the average of the latencies of the partitions with completed
+     *         requests, or 0 if no request is completed yet
+     */
+    public double getAverageLatencyNanos()
+    {
+        double latencySum = 0;
+        int partitionCount = 0;
+
+        for (PartitionStatistics statistics : partitions.values())
+        {
+            final double latency = statistics.latencyNanos;
+            if (latency > 0)
+            {
+                latencySum += latency;
+                partitionCount += 1;
+            }
+        }
+
+        return partitionCount > 0 ? latencySum / partitionCount : 0;
+    }
+
+    protected PartitionStatistics getPartition(int partition)
+    {
+        return partitions.computeIfAbsent(partition, PartitionStatistics::new);
+    }
+
+    protected static class PartitionStatistics
+    {
+        protected final int partition;
+        protected final AtomicInteger inFlightRequests = new AtomicInteger();
+        protected volatile double latencyNanos = 0;
+
+        PartitionStatistics(int partition)
+        {
+            this.partition = partition;
+        }
+
+        protected synchronized void addLatency(long latency)
+        {
+            if (latencyNanos == 0)
+            {
+                latencyNanos = latency;
+            }
+            else
+            {
+                latencyNanos += LATENCY_SMOOTHING_FACTOR * (latency - latencyNanos);
+            }
+        }
+    }
+}
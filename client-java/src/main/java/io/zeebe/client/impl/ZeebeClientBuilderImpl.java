@@ -21,6 +21,7 @@ import java.time.Duration;
 import java.util.Properties;
 
 import io.zeebe.client.ClientProperties;
+import io.zeebe.client.DispatchStrategy;
 import io.zeebe.client.ZeebeClient;
 import io.zeebe.client.ZeebeClientBuilder;
 import io.zeebe.client.ZeebeClientConfiguration;
@@ -37,6 +38,8 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
     private int numSubscriptionExecutionThreads = 1;
     private int topicSubscriptionPrefetchCapacity = 32;
     private Duration tcpChannelKeepAlivePeriod;
+    private DispatchStrategy dispatchStrategy = DispatchStrategy.ROUND_ROBIN;
+    private int numTaskHandlerThreads = 0;
     private ActorClock actorClock;
 
 
@@ -157,6 +160,32 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         return this;
     }
 
+    @Override
+    public DispatchStrategy getDispatchStrategy()
+    {
+        return dispatchStrategy;
+    }
+
+    @Override
+    public ZeebeClientBuilder dispatchStrategy(DispatchStrategy dispatchStrategy)
+    {
+        this.dispatchStrategy = dispatchStrategy;
+        return this;
+    }
+
+    @Override
+    public int getNumTaskHandlerThreads()
+    {
+        return numTaskHandlerThreads;
+    }
+
+    @Override
+    public ZeebeClientBuilder numTaskHandlerThreads(int numTaskHandlerThreads)
+    {
+        this.numTaskHandlerThreads = numTaskHandlerThreads;
+        return this;
+    }
+
     public ActorClock getActorClock()
     {
         return actorClock;
@@ -214,6 +243,14 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         {
             builder.topicSubscriptionPrefetchCapacity(Integer.parseInt(properties.getProperty(ClientProperties.CLIENT_TOPIC_SUBSCRIPTION_PREFETCH_CAPACITY)));
         }
+        if (properties.containsKey(ClientProperties.CLIENT_DISPATCH_STRATEGY))
+        {
+            builder.dispatchStrategy(DispatchStrategy.valueOf(properties.getProperty(ClientProperties.CLIENT_DISPATCH_STRATEGY)));
+        }
+        if (properties.containsKey(ClientProperties.CLIENT_TASK_HANDLER_THREADS))
+        {
+            builder.numTaskHandlerThreads(Integer.parseInt(properties.getProperty(ClientProperties.CLIENT_TASK_HANDLER_THREADS)));
+        }
 
         return builder;
     }
@@ -232,6 +269,8 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         appendProperty(sb, "numSubscriptionExecutionThreads", numSubscriptionExecutionThreads);
         appendProperty(sb, "topicSubscriptionPrefetchCapacity", topicSubscriptionPrefetchCapacity);
         appendProperty(sb, "tcpChannelKeepAlivePeriod", tcpChannelKeepAlivePeriod);
+        appendProperty(sb, "dispatchStrategy", dispatchStrategy);
+        appendProperty(sb, "numTaskHandlerThreads", numTaskHandlerThreads);
 
         return sb.toString();
     }
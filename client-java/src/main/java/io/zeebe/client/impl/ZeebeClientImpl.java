@@ -139,7 +139,8 @@ public class ZeebeClientImpl implements ZeebeClient
                 objectMapper,
                 configuration.getRequestTimeout(),
                 configuration.getMaxRequests(),
-                configuration.getRequestBlocktime().toMillis());
+                configuration.getRequestBlocktime().toMillis(),
+                configuration.getDispatchStrategy());
         this.scheduler.submitActor(apiCommandManager);
 
         this.subscriptionManager = new SubscriptionManager(this);
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.impl.cmd;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.zeebe.client.cmd.Request;
 import io.zeebe.client.event.Event;
 import io.zeebe.client.event.impl.EventImpl;
@@ -43,6 +45,12 @@ public abstract class CommandImpl<E extends Event> implements Request<E>
         return client.executeAsync(this);
     }
 
+    @Override
+    public CompletableFuture<E> submit()
+    {
+        return client.submit(this);
+    }
+
     public String generateError(E requestEvent, E responseEvent)
     {
         final long requestEventKey = requestEvent.getMetadata().getKey();
@@ -63,6 +71,15 @@ public abstract class CommandImpl<E extends Event> implements Request<E>
         return sb.toString();
     }
 
+    /**
+     * @return a key of commands which should be sent to the same partition, or
+     *         null if the command can be sent to any partition of the topic
+     */
+    public String getAffinityKey()
+    {
+        return null;
+    }
+
     public abstract EventImpl getEvent();
 
     public abstract String getExpectedStatus();
@@ -65,19 +65,24 @@ public class MsgPackConverter
 
     public String convertToJson(byte[] msgPack)
     {
-        final byte[] jsonBytes = convertToJsonBytes(msgPack);
+        return convertToJson(msgPack, 0, msgPack.length);
+    }
+
+    public String convertToJson(byte[] msgPack, int offset, int length)
+    {
+        final byte[] jsonBytes = convertToJsonBytes(msgPack, offset, length);
         return new String(jsonBytes, JSON_CHARSET);
     }
 
     public InputStream convertToJsonInputStream(byte[] msgPack)
     {
-        final byte[] jsonBytes = convertToJsonBytes(msgPack);
+        final byte[] jsonBytes = convertToJsonBytes(msgPack, 0, msgPack.length);
         return new ByteArrayInputStream(jsonBytes);
     }
 
-    protected byte[] convertToJsonBytes(byte[] msgPack)
+    protected byte[] convertToJsonBytes(byte[] msgPack, int offset, int length)
     {
-        final InputStream inputStream = new ByteArrayInputStream(msgPack);
+        final InputStream inputStream = new ByteArrayInputStream(msgPack, offset, length);
 
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream())
         {
@@ -0,0 +1,347 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.msgpack.core.MessageFormat;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.ValueType;
+
+/**
+ * Read-only view on a msgpack encoded map. The keys of the map are indexed on
+ * the first access but a value is only decoded when it is read, so that
+ * reading a single property doesn't convert the whole document.
+ *
+ * <p>
+ * The document doesn't copy the given bytes - they must not be changed as long
+ * as the document is used.
+ */
+public class MsgPackDocument
+{
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final byte[] msgPack;
+    private final int offset;
+    private final int length;
+
+    private boolean isIndexed = false;
+    private int size = 0;
+    private String[] keys;
+    private int[] valueOffsets;
+    private int[] valueLengths;
+
+    public MsgPackDocument(byte[] msgPack)
+    {
+        this(msgPack, 0, msgPack.length);
+    }
+
+    public MsgPackDocument(byte[] msgPack, int offset, int length)
+    {
+        this.msgPack = msgPack;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public int size()
+    {
+        ensureIndexed();
+        return size;
+    }
+
+    public boolean containsKey(String key)
+    {
+        return indexOf(key) >= 0;
+    }
+
+    public List<String> getKeys()
+    {
+        ensureIndexed();
+        return Arrays.asList(Arrays.copyOf(keys, size));
+    }
+
+    /**
+     * @return the value of the given key, or <code>null</code> if the document
+     *         doesn't contain the key or the value is nil
+     */
+    public String getString(String key)
+    {
+        final Object value = getValue(key);
+        return value != null ? value.toString() : null;
+    }
+
+    public Long getLong(String key)
+    {
+        final Number value = (Number) getValue(key);
+        return value != null ? value.longValue() : null;
+    }
+
+    public Integer getInteger(String key)
+    {
+        final Number value = (Number) getValue(key);
+        return value != null ? value.intValue() : null;
+    }
+
+    public Boolean getBoolean(String key)
+    {
+        return (Boolean) getValue(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getMap(String key)
+    {
+        return (Map<String, Object>) getValue(key);
+    }
+
+    /**
+     * @return the decoded value of the given key (i.e. a {@link Map},
+     *         {@link List}, {@link String}, {@link Number}, {@link Boolean} or
+     *         <code>byte[]</code>), or <code>null</code> if the document
+     *         doesn't contain the key or the value is nil
+     */
+    public Object getValue(String key)
+    {
+        final int index = indexOf(key);
+        if (index < 0)
+        {
+            return null;
+        }
+
+        try (MessageUnpacker unpacker = unpackValue(index))
+        {
+            return readValue(unpacker);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed to read property '" + key + "' of msgpack document", e);
+        }
+    }
+
+    /**
+     * Returns the value of the given key as document without decoding it. The
+     * value can be a map or a binary which contains a msgpack encoded map (e.g.
+     * the payload of an event).
+     *
+     * @return the sub-document, or <code>null</code> if the document doesn't
+     *         contain the key or the value is nil
+     */
+    public MsgPackDocument getDocument(String key)
+    {
+        final int index = indexOf(key);
+        if (index < 0)
+        {
+            return null;
+        }
+
+        try (MessageUnpacker unpacker = unpackValue(index))
+        {
+            final ValueType valueType = unpacker.getNextFormat().getValueType();
+            switch (valueType)
+            {
+                case NIL:
+                    return null;
+                case MAP:
+                    return new MsgPackDocument(msgPack, valueOffsets[index], valueLengths[index]);
+                case BINARY:
+                    final int binaryLength = unpacker.unpackBinaryHeader();
+                    final int binaryOffset = valueOffsets[index] + (int) unpacker.getTotalReadBytes();
+                    return new MsgPackDocument(msgPack, binaryOffset, binaryLength);
+                default:
+                    throw new RuntimeException("Property '" + key + "' is not a document but " + valueType);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed to read property '" + key + "' of msgpack document", e);
+        }
+    }
+
+    /**
+     * @return a copy of the encoded document
+     */
+    public byte[] toMsgPack()
+    {
+        return Arrays.copyOfRange(msgPack, offset, offset + length);
+    }
+
+    /**
+     * @return the decoded document
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toMap()
+    {
+        if (length == 0)
+        {
+            return new LinkedHashMap<>();
+        }
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(msgPack, offset, length))
+        {
+            final Object value = readValue(unpacker);
+            return value != null ? (Map<String, Object>) value : new LinkedHashMap<>();
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed to read msgpack document", e);
+        }
+    }
+
+    protected int indexOf(String key)
+    {
+        ensureIndexed();
+
+        for (int i = 0; i < size; i++)
+        {
+            if (key.equals(keys[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    protected MessageUnpacker unpackValue(int index)
+    {
+        return MessagePack.newDefaultUnpacker(msgPack, valueOffsets[index], valueLengths[index]);
+    }
+
+    protected void ensureIndexed()
+    {
+        if (!isIndexed)
+        {
+            index();
+            isIndexed = true;
+        }
+    }
+
+    protected void index()
+    {
+        if (length == 0)
+        {
+            // an empty document, e.g. no payload
+            keys = new String[0];
+            return;
+        }
+
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(msgPack, offset, length))
+        {
+            final ValueType valueType = unpacker.getNextFormat().getValueType();
+            if (valueType == ValueType.NIL)
+            {
+                keys = new String[0];
+                return;
+            }
+            else if (valueType != ValueType.MAP)
+            {
+                throw new RuntimeException("Expected msgpack document to be a map but is " + valueType);
+            }
+
+            final int entries = unpacker.unpackMapHeader();
+            final int capacity = Math.max(entries, INITIAL_CAPACITY);
+
+            keys = new String[capacity];
+            valueOffsets = new int[capacity];
+            valueLengths = new int[capacity];
+
+            for (int i = 0; i < entries; i++)
+            {
+                final Object key = readValue(unpacker);
+                final int valueOffset = offset + (int) unpacker.getTotalReadBytes();
+                unpacker.skipValue();
+                final int valueEnd = offset + (int) unpacker.getTotalReadBytes();
+
+                keys[i] = String.valueOf(key);
+                valueOffsets[i] = valueOffset;
+                valueLengths[i] = valueEnd - valueOffset;
+            }
+
+            size = entries;
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed to index msgpack document", e);
+        }
+    }
+
+    protected static Object readValue(MessageUnpacker unpacker) throws IOException
+    {
+        final MessageFormat format = unpacker.getNextFormat();
+
+        switch (format.getValueType())
+        {
+            case NIL:
+                unpacker.unpackNil();
+                return null;
+            case BOOLEAN:
+                return unpacker.unpackBoolean();
+            case INTEGER:
+                return readInteger(unpacker, format);
+            case FLOAT:
+                return unpacker.unpackDouble();
+            case STRING:
+                return unpacker.unpackString();
+            case BINARY:
+                final int binaryLength = unpacker.unpackBinaryHeader();
+                return unpacker.readPayload(binaryLength);
+            case ARRAY:
+                final int arrayLength = unpacker.unpackArrayHeader();
+                final List<Object> list = new ArrayList<>(arrayLength);
+                for (int i = 0; i < arrayLength; i++)
+                {
+                    list.add(readValue(unpacker));
+                }
+                return list;
+            case MAP:
+                final int mapLength = unpacker.unpackMapHeader();
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapLength; i++)
+                {
+                    final String key = String.valueOf(readValue(unpacker));
+                    map.put(key, readValue(unpacker));
+                }
+                return map;
+            default:
+                // extension types are not used
+                unpacker.skipValue();
+                return null;
+        }
+    }
+
+    protected static Object readInteger(MessageUnpacker unpacker, MessageFormat format) throws IOException
+    {
+        if (format == MessageFormat.UINT64)
+        {
+            return unpacker.unpackBigInteger();
+        }
+
+        // same as Jackson: the smallest type which fits the value
+        final long value = unpacker.unpackLong();
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+        {
+            return (int) value;
+        }
+        else
+        {
+            return value;
+        }
+    }
+}
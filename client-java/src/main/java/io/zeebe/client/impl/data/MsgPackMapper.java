@@ -28,10 +28,15 @@ public class MsgPackMapper
     }
 
     public <T> T convert(byte[] msgPack, Class<T> targetClass)
+    {
+        return convert(msgPack, 0, msgPack.length, targetClass);
+    }
+
+    public <T> T convert(byte[] msgPack, int offset, int length, Class<T> targetClass)
     {
         try
         {
-            return objectMapper.readValue(msgPack, targetClass);
+            return objectMapper.readValue(msgPack, offset, length, targetClass);
         }
         catch (Exception e)
         {
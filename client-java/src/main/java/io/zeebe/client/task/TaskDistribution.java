@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task;
+
+/**
+ * Strategies of the broker to distribute the tasks of a type among its
+ * subscriptions. All subscriptions of a task type must use the same strategy.
+ */
+public enum TaskDistribution
+{
+    /**
+     * Each subscription with credits gets a task in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The subscription with the fewest locked but not yet completed tasks gets the task.
+     */
+    LEAST_OUTSTANDING_LOCKS,
+
+    /**
+     * The subscriptions get the tasks in proportion to their credits.
+     */
+    CREDIT_WEIGHTED,
+
+    /**
+     * The subscription which is expected to complete the task first gets the task,
+     * based on its average completion time and its outstanding locks.
+     */
+    LATENCY_AWARE;
+}
@@ -58,6 +58,23 @@ public interface TaskSubscriptionBuilder
      */
     TaskSubscriptionBuilder taskFetchSize(int numTasks);
 
+    /**
+     * Sets the maximum number of tasks which the broker locks with a single
+     * log append. A batch is locked when it is full or shortly after its first
+     * task was created. Default is one, i.e. every task is locked on its own.
+     *
+     * @param lockBatchSize number of tasks which are locked at once
+     */
+    TaskSubscriptionBuilder lockBatchSize(int lockBatchSize);
+
+    /**
+     * Sets the strategy which the broker uses to distribute the tasks among the
+     * subscriptions of the task type. Default is {@link TaskDistribution#ROUND_ROBIN}.
+     *
+     * @param distribution the distribution strategy
+     */
+    TaskSubscriptionBuilder distribution(TaskDistribution distribution);
+
     /**
      * Sets the {@link TaskHandler} that is going to receive
      * callbacks for tasks that fulfill this subscription.
@@ -33,7 +33,7 @@ public class CompleteTaskCommandImpl extends CommandImpl<TaskEvent> implements C
     {
         super(client);
         EnsureUtil.ensureNotNull("base event", baseEvent);
-        this.taskEvent = new TaskEventImpl(baseEvent, TaskEventType.COMPLETE.name());
+        this.taskEvent = TaskEventImpl.newLeanCommand(baseEvent, TaskEventType.COMPLETE.name());
     }
 
     @Override
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.task.impl;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.zeebe.client.cmd.Request;
@@ -115,4 +117,10 @@ public abstract class ControlMessageRequest<R> implements Request<R>
         return client.executeAsync(this);
     }
 
+    @Override
+    public CompletableFuture<R> submit()
+    {
+        return client.submit(this);
+    }
+
 }
@@ -16,6 +16,7 @@
 package io.zeebe.client.task.impl;
 
 import io.zeebe.client.impl.RequestManager;
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 
 public class CreateTaskSubscriptionCommandImpl extends ControlMessageRequest<TaskSubscription>
@@ -54,6 +55,18 @@ public class CreateTaskSubscriptionCommandImpl extends ControlMessageRequest<Tas
         return this;
     }
 
+    public CreateTaskSubscriptionCommandImpl lockBatchSize(final int lockBatchSize)
+    {
+        this.subscription.setLockBatchSize(lockBatchSize);
+        return this;
+    }
+
+    public CreateTaskSubscriptionCommandImpl distribution(final TaskDistribution distribution)
+    {
+        this.subscription.setDistribution(distribution);
+        return this;
+    }
+
     public CreateTaskSubscriptionCommandImpl taskType(final String taskType)
     {
         this.subscription.setTaskType(taskType);
@@ -15,15 +15,26 @@
  */
 package io.zeebe.client.task.impl;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.agrona.DirectBuffer;
 
 import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.transport.SocketAddress;
 import io.zeebe.util.buffer.BufferUtil;
 
 public class ErrorResponseHandler
 {
+    /**
+     * Matches the leader hint which the broker appends to the message of
+     * a {@link ErrorCode#PARTITION_NOT_FOUND} error. The format is shared with
+     * the broker tests through the stub broker of the protocol test util.
+     */
+    protected static final Pattern LEADER_HINT_PATTERN = Pattern.compile("Leader of the partition is '(.+):(\\d+)'");
+
     protected ErrorResponseDecoder decoder = new ErrorResponseDecoder();
 
     protected DirectBuffer errorMessage;
@@ -53,4 +64,25 @@ public class ErrorResponseHandler
     {
         return errorMessage;
     }
+
+    /**
+     * @return the address of the partition leader, if the broker knows it, or <code>null</code>
+     */
+    public SocketAddress getLeaderHint()
+    {
+        if (getErrorCode() != ErrorCode.PARTITION_NOT_FOUND)
+        {
+            return null;
+        }
+
+        final Matcher matcher = LEADER_HINT_PATTERN.matcher(BufferUtil.bufferAsString(errorMessage));
+        if (matcher.find())
+        {
+            return new SocketAddress(matcher.group(1), Integer.parseInt(matcher.group(2)));
+        }
+        else
+        {
+            return null;
+        }
+    }
 }
@@ -18,6 +18,7 @@ package io.zeebe.client.task.impl;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.zeebe.client.impl.cmd.ReceiverAwareResponseResult;
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.client.task.impl.subscription.EventSubscriptionCreationResult;
 import io.zeebe.transport.RemoteAddress;
 
@@ -30,6 +31,8 @@ public class TaskSubscription implements EventSubscriptionCreationResult, Receiv
     private long lockDuration;
     private String lockOwner;
     private int credits;
+    private int lockBatchSize = 1;
+    private TaskDistribution distribution = TaskDistribution.ROUND_ROBIN;
 
     protected RemoteAddress receiver;
     protected int partitionId;
@@ -74,6 +77,26 @@ public class TaskSubscription implements EventSubscriptionCreationResult, Receiv
         this.credits = credits;
     }
 
+    public int getLockBatchSize()
+    {
+        return lockBatchSize;
+    }
+
+    public void setLockBatchSize(final int lockBatchSize)
+    {
+        this.lockBatchSize = lockBatchSize;
+    }
+
+    public TaskDistribution getDistribution()
+    {
+        return distribution;
+    }
+
+    public void setDistribution(final TaskDistribution distribution)
+    {
+        this.distribution = distribution;
+    }
+
     public String getLockOwner()
     {
         return lockOwner;
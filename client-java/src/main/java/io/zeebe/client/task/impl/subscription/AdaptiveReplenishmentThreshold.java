@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.impl.subscription;
+
+/**
+ * Adapts the point at which a subscriber returns the credits of handled events
+ * to the broker (as a fraction of its capacity which is still available).
+ *
+ * <p>
+ * The credits must arrive at the broker before the subscriber has handled its
+ * remaining events, i.e. the remaining events must cover the handler
+ * throughput times the push latency of the broker. Instead of measuring both,
+ * the threshold is tuned AIMD-style on their effect:
+ *
+ * <li>if the subscriber runs out of events while waiting for the first event
+ * after a replenishment, the credits were returned too late and the threshold
+ * is increased additively
+ * <li>if a received event can not be buffered, the subscriber is overfilled
+ * and the threshold is decreased multiplicatively
+ * <li>otherwise, the threshold slowly decreases so that fewer credit requests
+ * are sent
+ */
+public class AdaptiveReplenishmentThreshold
+{
+    public static final double MIN_THRESHOLD = 0.1d;
+    public static final double MAX_THRESHOLD = 0.9d;
+
+    public static final double ADDITIVE_INCREASE = 0.05d;
+    public static final double MULTIPLICATIVE_DECREASE = 0.5d;
+    public static final double SATISFIED_DECREASE = 0.01d;
+
+    private volatile double threshold;
+
+    private volatile boolean isAwaitingEvents;
+    private volatile boolean hasRunOutOfEvents;
+
+    public AdaptiveReplenishmentThreshold(double initialThreshold)
+    {
+        this.threshold = initialThreshold;
+    }
+
+    public double get()
+    {
+        return threshold;
+    }
+
+    /**
+     * The subscriber returned credits to the broker.
+     */
+    public void onReplenishment()
+    {
+        hasRunOutOfEvents = false;
+        isAwaitingEvents = true;
+    }
+
+    /**
+     * The subscriber has no more events to handle.
+     */
+    public void onEventsDrained()
+    {
+        if (isAwaitingEvents)
+        {
+            hasRunOutOfEvents = true;
+        }
+    }
+
+    /**
+     * The subscriber received an event.
+     */
+    public void onEventReceived()
+    {
+        if (isAwaitingEvents)
+        {
+            isAwaitingEvents = false;
+
+            if (hasRunOutOfEvents)
+            {
+                threshold = Math.min(MAX_THRESHOLD, threshold + ADDITIVE_INCREASE);
+            }
+            else
+            {
+                threshold = Math.max(MIN_THRESHOLD, threshold - SATISFIED_DECREASE);
+            }
+        }
+    }
+
+    /**
+     * The subscriber could not buffer a received event.
+     */
+    public void onEventRejected()
+    {
+        threshold = Math.max(MIN_THRESHOLD, threshold * MULTIPLICATIVE_DECREASE);
+    }
+}
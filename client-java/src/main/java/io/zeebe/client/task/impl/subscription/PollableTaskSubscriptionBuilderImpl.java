@@ -23,6 +23,7 @@ import io.zeebe.client.ZeebeClient;
 import io.zeebe.client.cmd.ClientException;
 import io.zeebe.client.task.PollableTaskSubscription;
 import io.zeebe.client.task.PollableTaskSubscriptionBuilder;
+import io.zeebe.client.task.TaskDistribution;
 
 public class PollableTaskSubscriptionBuilderImpl implements PollableTaskSubscriptionBuilder
 {
@@ -70,6 +71,20 @@ public class PollableTaskSubscriptionBuilderImpl implements PollableTaskSubscrip
         return this;
     }
 
+    @Override
+    public PollableTaskSubscriptionBuilderImpl lockBatchSize(int lockBatchSize)
+    {
+        subscriberBuilder.lockBatchSize(lockBatchSize);
+        return this;
+    }
+
+    @Override
+    public PollableTaskSubscriptionBuilderImpl distribution(TaskDistribution distribution)
+    {
+        subscriberBuilder.distribution(distribution);
+        return this;
+    }
+
     @Override
     public PollableTaskSubscription open()
     {
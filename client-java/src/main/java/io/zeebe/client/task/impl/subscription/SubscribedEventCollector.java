@@ -15,8 +15,6 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
-import static io.zeebe.util.VarDataUtil.readBytes;
-
 import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 
@@ -42,12 +40,19 @@ public class SubscribedEventCollector implements ClientMessageHandler
 
     protected final MsgPackConverter converter;
 
+    /**
+     * Wraps the received event in the transport buffer; the subscriber copies it
+     * into a pooled event.
+     */
+    protected final GeneralEventImpl receivedEvent;
+
     public SubscribedEventCollector(
             SubscribedEventHandler eventHandler,
             MsgPackConverter converter)
     {
         this.eventHandler = eventHandler;
         this.converter = converter;
+        this.receivedEvent = new GeneralEventImpl(converter);
     }
 
     @Override
@@ -73,15 +78,17 @@ public class SubscribedEventCollector implements ClientMessageHandler
             final long subscriberKey = subscribedEventDecoder.subscriberKey();
             final long position = subscribedEventDecoder.position();
             final int partitionId = subscribedEventDecoder.partitionId();
-            final byte[] eventBuffer = readBytes(subscribedEventDecoder::getEvent, subscribedEventDecoder::eventLength);
+            final int eventOffset = subscribedEventDecoder.limit() + SubscribedEventDecoder.eventHeaderLength();
+            final int eventLength = subscribedEventDecoder.eventLength();
 
-            final GeneralEventImpl event = new GeneralEventImpl(
+            final GeneralEventImpl event = receivedEvent.wrap(
                     partitionId,
                     key,
                     position,
                     EventTypeMapping.mapEventType(subscribedEventDecoder.eventType()),
-                    eventBuffer,
-                    converter);
+                    buffer,
+                    eventOffset,
+                    eventLength);
 
             messageHandled = eventHandler.onEvent(subscriptionType, subscriberKey, event);
         }
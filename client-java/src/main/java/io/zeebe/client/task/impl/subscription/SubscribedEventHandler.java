@@ -22,6 +22,7 @@ public interface SubscribedEventHandler
 {
 
     /**
+     * @param event wraps the received message and is only valid during this call
      * @return true if event could be successfully handled; false, if it should be retried later
      */
     boolean onEvent(SubscriptionType type, long subscriberKey, GeneralEventImpl event);
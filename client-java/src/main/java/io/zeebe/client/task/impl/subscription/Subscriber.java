@@ -15,7 +15,10 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
 import org.slf4j.Logger;
@@ -33,11 +36,20 @@ public abstract class Subscriber
     protected static final Logger LOGGER = Loggers.SUBSCRIPTION_LOGGER;
     protected static final String LOG_MESSAGE_PREFIX = "Subscriber {}: ";
 
-    // TODO: could become configurable in the future
+    /**
+     * The fraction of the capacity which is still available when the credits
+     * of handled events are returned to the broker.
+     */
     public static final double REPLENISHMENT_THRESHOLD = 0.3d;
 
     protected final long subscriberKey;
     protected final ManyToManyConcurrentArrayQueue<GeneralEventImpl> pendingEvents;
+
+    /**
+     * Events which are handled already, so that their content buffers can be
+     * reused for the next received events.
+     */
+    protected final ManyToManyConcurrentArrayQueue<GeneralEventImpl> eventPool;
     protected final int capacity;
     protected final SubscriptionManager acquisition;
     protected final SubscriberGroup<?> group;
@@ -67,6 +79,7 @@ public abstract class Subscriber
         this.subscriberKey = subscriberKey;
         this.eventSource = eventSource;
         this.pendingEvents = new ManyToManyConcurrentArrayQueue<>(capacity);
+        this.eventPool = new ManyToManyConcurrentArrayQueue<>(capacity);
         this.capacity = capacity;
         this.group = group;
         this.acquisition = acquisition;
@@ -95,7 +108,35 @@ public abstract class Subscriber
         final int eventsProcessed = eventsProcessedSinceLastReplenishment.get();
         final int remainingCapacity = capacity - eventsProcessed;
 
-        return remainingCapacity <= capacity * REPLENISHMENT_THRESHOLD;
+        return remainingCapacity <= capacity * getReplenishmentThreshold();
+    }
+
+    protected double getReplenishmentThreshold()
+    {
+        return REPLENISHMENT_THRESHOLD;
+    }
+
+    /**
+     * Called after the credits of the handled events are returned.
+     */
+    protected void onReplenishment()
+    {
+    }
+
+    /**
+     * Called when the subscriber is polled but has no pending events.
+     */
+    protected void onEventsDrained()
+    {
+    }
+
+    /**
+     * Called when an event is received.
+     *
+     * @param isAdded <code>false</code> if the event could not be buffered
+     */
+    protected void onEventReceived(boolean isAdded)
+    {
     }
 
     protected ActorFuture<?> replenishEventSource()
@@ -106,6 +147,7 @@ public abstract class Subscriber
         {
             final ActorFuture<?> future = requestEventSourceReplenishment(eventsProcessed);
             eventsProcessedSinceLastReplenishment.addAndGet(-eventsProcessed);
+            onReplenishment();
             return future;
         }
         else
@@ -122,12 +164,26 @@ public abstract class Subscriber
 
     protected abstract ActorFuture<?> requestEventSourceReplenishment(int eventsProcessed);
 
+    /**
+     * Copies the given event into a pooled event and adds it to the pending events.
+     */
     public boolean addEvent(GeneralEventImpl event)
     {
-        final boolean added = this.pendingEvents.offer(event);
+        GeneralEventImpl pooledEvent = eventPool.poll();
+        if (pooledEvent == null)
+        {
+            pooledEvent = new GeneralEventImpl(event.getMsgPackConverter());
+        }
+
+        pooledEvent.copyFrom(event);
+
+        final boolean added = this.pendingEvents.offer(pooledEvent);
+        onEventReceived(added);
 
         if (!added)
         {
+            eventPool.offer(pooledEvent);
+
             LOGGER.warn(LOG_MESSAGE_PREFIX + "Cannot add any more events. Event queue saturated. Postponing event {}.",
                     this, event);
         }
@@ -160,6 +216,11 @@ public abstract class Subscriber
         final int currentlyAvailableEvents = size();
         int handledEvents = 0;
 
+        if (currentlyAvailableEvents == 0)
+        {
+            onEventsDrained();
+        }
+
         GeneralEventImpl event;
 
         // handledTasks < currentlyAvailableTasks avoids very long cycles that we spend in this method
@@ -198,17 +259,109 @@ public abstract class Subscriber
             }
             finally
             {
-                eventsInProcessing.decrementAndGet();
-                eventsProcessedSinceLastReplenishment.incrementAndGet();
+                // the handler must not keep the event
+                eventPool.offer(event);
+
+                onEventHandled();
+            }
+        }
 
-                if (shouldReplenishEventSource())
+        return handledEvents;
+    }
+
+    /**
+     * Hands the pending events over to the given executor. The pooled event is
+     * converted by the poll thread into an event which doesn't refer to its
+     * content, so that it can be reused immediately. The
+     * handled event counts for the replenishment of the event source once the
+     * handler completed, so that the number of events in processing is limited
+     * by the capacity of the subscriber.
+     */
+    protected <T> int dispatchEvents(
+            Executor executor,
+            Function<GeneralEventImpl, T> converter,
+            CheckedConsumer<T> handler)
+    {
+        final int currentlyAvailableEvents = size();
+        int dispatchedEvents = 0;
+
+        if (currentlyAvailableEvents == 0)
+        {
+            onEventsDrained();
+        }
+
+        while (dispatchedEvents < currentlyAvailableEvents && isOpen())
+        {
+            final GeneralEventImpl event = pendingEvents.poll();
+            if (event == null)
+            {
+                break;
+            }
+
+            eventsInProcessing.incrementAndGet();
+
+            final T convertedEvent;
+            try
+            {
+                // see pollEvents() for this check
+                if (!isOpen())
                 {
-                    replenishmentTrigger.signal();
+                    eventPool.offer(event);
+                    onEventHandled();
+                    break;
                 }
+
+                logHandling(event);
+                convertedEvent = converter.apply(event);
+            }
+            catch (RuntimeException e)
+            {
+                eventPool.offer(event);
+                onEventHandled();
+                throw e;
+            }
+
+            eventPool.offer(event);
+            dispatchedEvents++;
+
+            try
+            {
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        handler.accept(convertedEvent);
+                    }
+                    catch (Exception e)
+                    {
+                        LOGGER.error(LOG_MESSAGE_PREFIX + "Exception during handling of event", this, e);
+                    }
+                    finally
+                    {
+                        onEventHandled();
+                    }
+                });
+            }
+            catch (RejectedExecutionException e)
+            {
+                // the client is closing
+                onEventHandled();
+                break;
             }
         }
 
-        return handledEvents;
+        return dispatchedEvents;
+    }
+
+    private void onEventHandled()
+    {
+        eventsInProcessing.decrementAndGet();
+        eventsProcessedSinceLastReplenishment.incrementAndGet();
+
+        if (shouldReplenishEventSource())
+        {
+            replenishmentTrigger.signal();
+        }
     }
 
 
@@ -17,7 +17,11 @@ package io.zeebe.client.task.impl.subscription;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
@@ -55,6 +59,11 @@ public class SubscriptionManager extends Actor implements SubscribedEventHandler
 
     private final List<AgentRunner> agentRunners = new ArrayList<>();
 
+    /**
+     * Invokes the task handlers of managed task subscriptions, if configured
+     */
+    private ExecutorService taskHandlerExecutor;
+
     private boolean isClosing = false;
     private ClientInputMessageSubscription incomingEventSubscription;
 
@@ -85,9 +94,35 @@ public class SubscriptionManager extends Actor implements SubscribedEventHandler
                 actor.yield();
             }
         });
+        startTaskHandlerExecution(client.getConfiguration().getNumTaskHandlerThreads());
         startSubscriptionExecution(client.getConfiguration().getNumSubscriptionExecutionThreads());
     }
 
+    private void startTaskHandlerExecution(int numThreads)
+    {
+        if (numThreads > 0)
+        {
+            final AtomicInteger threadCounter = new AtomicInteger();
+            final ThreadFactory threadFactory = runnable ->
+            {
+                final Thread thread = new Thread(runnable, "zb-task-handler-" + threadCounter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+
+            taskHandlerExecutor = Executors.newFixedThreadPool(numThreads, threadFactory);
+        }
+    }
+
+    /**
+     * @return the executor for task handlers or <code>null</code>, if the
+     *         task handlers are invoked by the subscription executors
+     */
+    public ExecutorService getTaskHandlerExecutor()
+    {
+        return taskHandlerExecutor;
+    }
+
     private void startSubscriptionExecution(int numThreads)
     {
         for (int i = 0; i < numThreads; i++)
@@ -121,6 +156,16 @@ public class SubscriptionManager extends Actor implements SubscribedEventHandler
         stopSubscriptionExecution();
     }
 
+    @Override
+    protected void onActorClosed()
+    {
+        // the subscribers are closed once their handlers completed
+        if (taskHandlerExecutor != null)
+        {
+            taskHandlerExecutor.shutdown();
+        }
+    }
+
     @Override
     protected void onActorCloseRequested()
     {
@@ -15,8 +15,11 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import java.util.concurrent.Executor;
+
 import org.slf4j.Logger;
 
+import io.zeebe.client.event.impl.GeneralEventImpl;
 import io.zeebe.client.event.impl.TaskEventImpl;
 import io.zeebe.client.impl.Loggers;
 import io.zeebe.client.impl.TasksClientImpl;
@@ -34,6 +37,8 @@ public class TaskSubscriber extends Subscriber
 
     protected MsgPackMapper msgPackMapper;
 
+    protected final AdaptiveReplenishmentThreshold replenishmentThreshold = new AdaptiveReplenishmentThreshold(REPLENISHMENT_THRESHOLD);
+
     public TaskSubscriber(
             TasksClientImpl client,
             TaskSubscriptionSpec subscription,
@@ -52,34 +57,73 @@ public class TaskSubscriber extends Subscriber
 
     public int pollEvents(TaskHandler taskHandler)
     {
-        int polledEvents = pollEvents((e) ->
+        final Executor taskHandlerExecutor = acquisition.getTaskHandlerExecutor();
+
+        if (taskHandlerExecutor != null && group.isManagedGroup())
+        {
+            // tasks are independent of each other, so they can be handled in any order
+            return dispatchEvents(taskHandlerExecutor, GeneralEventImpl::toTaskEventCopy, (taskEvent) -> handleTask(taskHandler, taskEvent));
+        }
+        else
         {
-            final TaskEventImpl taskEvent = msgPackMapper.convert(e.getAsMsgPack(), TaskEventImpl.class);
-            taskEvent.updateMetadata(e.getMetadata());
+            // the handler can keep the task, e.g. to complete it later
+            return pollEvents((e) -> handleTask(taskHandler, e.toTaskEventCopy()));
+        }
+    }
 
+    private void handleTask(TaskHandler taskHandler, TaskEventImpl taskEvent)
+    {
+        try
+        {
+            taskHandler.handle(taskClient, taskEvent);
+        }
+        catch (Exception handlingException)
+        {
+            LOGGER.info("An error occurred when handling task " + taskEvent.getMetadata().getKey() +
+                    ". Reporting failure to broker.", handlingException);
             try
             {
-                taskHandler.handle(taskClient, taskEvent);
+                taskClient.fail(taskEvent)
+                    .retries(taskEvent.getRetries() - 1)
+                    .execute();
             }
-            catch (Exception handlingException)
+            catch (Exception failureException)
             {
-                LOGGER.info("An error occurred when handling task " + taskEvent.getMetadata().getKey() +
-                        ". Reporting failure to broker.", handlingException);
-                try
-                {
-                    taskClient.fail(taskEvent)
-                        .retries(taskEvent.getRetries() - 1)
-                        .execute();
-                }
-                catch (Exception failureException)
-                {
-                    LOGGER.info("Could not report failure of task " + taskEvent.getMetadata().getKey() +
-                        " to broker. Continuing with next task", failureException);
-                }
+                LOGGER.info("Could not report failure of task " + taskEvent.getMetadata().getKey() +
+                    " to broker. Continuing with next task", failureException);
             }
-        });
+        }
+    }
+
+    @Override
+    protected double getReplenishmentThreshold()
+    {
+        return replenishmentThreshold.get();
+    }
 
-        return polledEvents;
+    @Override
+    protected void onReplenishment()
+    {
+        replenishmentThreshold.onReplenishment();
+    }
+
+    @Override
+    protected void onEventsDrained()
+    {
+        replenishmentThreshold.onEventsDrained();
+    }
+
+    @Override
+    protected void onEventReceived(boolean isAdded)
+    {
+        if (isAdded)
+        {
+            replenishmentThreshold.onEventReceived();
+        }
+        else
+        {
+            replenishmentThreshold.onEventRejected();
+        }
     }
 
     @Override
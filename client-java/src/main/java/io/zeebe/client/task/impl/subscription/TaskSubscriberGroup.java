@@ -70,6 +70,8 @@ public class TaskSubscriberGroup extends SubscriberGroup<TaskSubscriber> impleme
                 .lockDuration(subscription.getLockTime())
                 .lockOwner(subscription.getLockOwner())
                 .initialCredits(subscription.getCapacity())
+                .lockBatchSize(subscription.getLockBatchSize())
+                .distribution(subscription.getDistribution())
                 .executeAsync();
     }
 
@@ -18,18 +18,22 @@ package io.zeebe.client.task.impl.subscription;
 import java.util.concurrent.Future;
 
 import io.zeebe.client.ZeebeClient;
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.util.EnsureUtil;
 
 public class TaskSubscriberGroupBuilder
 {
     public static final int DEFAULT_TASK_FETCH_SIZE = 32;
+    public static final int DEFAULT_LOCK_BATCH_SIZE = 1;
 
     protected String taskType;
     protected long lockTime = -1L;
     protected String lockOwner;
     protected TaskHandler taskHandler;
     protected int taskFetchSize = DEFAULT_TASK_FETCH_SIZE;
+    protected int lockBatchSize = DEFAULT_LOCK_BATCH_SIZE;
+    protected TaskDistribution distribution = TaskDistribution.ROUND_ROBIN;
 
     protected final ZeebeClient client;
     protected final SubscriptionManager taskAcquisition;
@@ -75,15 +79,29 @@ public class TaskSubscriberGroupBuilder
         return this;
     }
 
+    public TaskSubscriberGroupBuilder lockBatchSize(int lockBatchSize)
+    {
+        this.lockBatchSize = lockBatchSize;
+        return this;
+    }
+
+    public TaskSubscriberGroupBuilder distribution(TaskDistribution distribution)
+    {
+        this.distribution = distribution;
+        return this;
+    }
+
     public Future<TaskSubscriberGroup> build()
     {
         EnsureUtil.ensureNotNullOrEmpty("taskType", taskType);
         EnsureUtil.ensureGreaterThan("lockTime", lockTime, 0L);
         EnsureUtil.ensureNotNullOrEmpty("lockOwner", lockOwner);
         EnsureUtil.ensureGreaterThan("taskFetchSize", taskFetchSize, 0);
+        EnsureUtil.ensureGreaterThan("lockBatchSize", lockBatchSize, 0);
+        EnsureUtil.ensureNotNull("distribution", distribution);
 
         final TaskSubscriptionSpec subscription =
-                new TaskSubscriptionSpec(topic, taskHandler, taskType, lockTime, lockOwner, taskFetchSize);
+                new TaskSubscriptionSpec(topic, taskHandler, taskType, lockTime, lockOwner, taskFetchSize, lockBatchSize, distribution);
 
         return taskAcquisition.openTaskSubscription(subscription);
     }
@@ -21,6 +21,7 @@ import java.util.concurrent.Future;
 
 import io.zeebe.client.cmd.ClientException;
 import io.zeebe.client.impl.ZeebeClientImpl;
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.client.task.TaskSubscription;
 import io.zeebe.client.task.TaskSubscriptionBuilder;
@@ -74,6 +75,20 @@ public class TaskSubscriptionBuilderImpl implements TaskSubscriptionBuilder
         return this;
     }
 
+    @Override
+    public TaskSubscriptionBuilder lockBatchSize(int lockBatchSize)
+    {
+        subscriberBuilder.lockBatchSize(lockBatchSize);
+        return this;
+    }
+
+    @Override
+    public TaskSubscriptionBuilder distribution(TaskDistribution distribution)
+    {
+        subscriberBuilder.distribution(distribution);
+        return this;
+    }
+
     @Override
     public TaskSubscriptionBuilder lockOwner(String lockOwner)
     {
@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.task.impl.subscription;
 
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.client.task.TaskHandler;
 
 public class TaskSubscriptionSpec
@@ -26,6 +27,8 @@ public class TaskSubscriptionSpec
     protected final long lockTime;
     protected final String lockOwner;
     protected final int capacity;
+    protected final int lockBatchSize;
+    protected final TaskDistribution distribution;
 
     public TaskSubscriptionSpec(
             String topic,
@@ -33,7 +36,9 @@ public class TaskSubscriptionSpec
             String taskType,
             long lockTime,
             String lockOwner,
-            int capacity)
+            int capacity,
+            int lockBatchSize,
+            TaskDistribution distribution)
     {
         this.topic = topic;
         this.taskHandler = taskHandler;
@@ -41,6 +46,8 @@ public class TaskSubscriptionSpec
         this.lockTime = lockTime;
         this.lockOwner = lockOwner;
         this.capacity = capacity;
+        this.lockBatchSize = lockBatchSize;
+        this.distribution = distribution;
     }
 
     public String getTopic()
@@ -73,6 +80,16 @@ public class TaskSubscriptionSpec
         return capacity;
     }
 
+    public int getLockBatchSize()
+    {
+        return lockBatchSize;
+    }
+
+    public TaskDistribution getDistribution()
+    {
+        return distribution;
+    }
+
     public boolean isManaged()
     {
         return taskHandler != null;
@@ -94,6 +111,10 @@ public class TaskSubscriptionSpec
         builder.append(lockOwner);
         builder.append(", capacity=");
         builder.append(capacity);
+        builder.append(", lockBatchSize=");
+        builder.append(lockBatchSize);
+        builder.append(", distribution=");
+        builder.append(distribution);
         builder.append("]");
         return builder.toString();
     }
@@ -99,4 +99,15 @@ public interface CreateWorkflowInstanceCommand extends Request<WorkflowInstanceE
      * Set the payload of the command as JSON string.
      */
     CreateWorkflowInstanceCommand payload(String payload);
+
+    /**
+     * Sets a key which relates workflow instances. Instances with the same
+     * key are created on the same partition of the topic, as long as the
+     * partitions of the topic don't change.
+     *
+     * @param key
+     *            the key of related workflow instances
+     * @return the current create command
+     */
+    CreateWorkflowInstanceCommand affinityKey(String key);
 }
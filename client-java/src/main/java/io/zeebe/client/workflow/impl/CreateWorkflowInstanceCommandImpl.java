@@ -30,6 +30,7 @@ import io.zeebe.client.workflow.cmd.CreateWorkflowInstanceCommand;
 public class CreateWorkflowInstanceCommandImpl extends CommandImpl<WorkflowInstanceEvent> implements CreateWorkflowInstanceCommand
 {
     private final WorkflowInstanceEventImpl workflowInstanceEvent;
+    private String affinityKey;
 
     public CreateWorkflowInstanceCommandImpl(final RequestManager commandManager,
             MsgPackConverter converter,
@@ -90,6 +91,19 @@ public class CreateWorkflowInstanceCommandImpl extends CommandImpl<WorkflowInsta
         return this;
     }
 
+    @Override
+    public CreateWorkflowInstanceCommand affinityKey(String key)
+    {
+        this.affinityKey = key;
+        return this;
+    }
+
+    @Override
+    public String getAffinityKey()
+    {
+        return affinityKey;
+    }
+
     @Override
     public EventImpl getEvent()
     {
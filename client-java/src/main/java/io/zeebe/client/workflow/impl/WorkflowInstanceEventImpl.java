@@ -22,6 +22,7 @@ import io.zeebe.client.event.TopicEventType;
 import io.zeebe.client.event.WorkflowInstanceEvent;
 import io.zeebe.client.event.impl.EventImpl;
 import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.MsgPackDocument;
 import io.zeebe.client.task.impl.subscription.MsgPackField;
 
 /**
@@ -29,6 +30,12 @@ import io.zeebe.client.task.impl.subscription.MsgPackField;
  */
 public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInstanceEvent
 {
+    protected static final int BPMN_PROCESS_ID = 1 << 0;
+    protected static final int VERSION = 1 << 1;
+    protected static final int WORKFLOW_KEY = 1 << 2;
+    protected static final int WORKFLOW_INSTANCE_KEY = 1 << 3;
+    protected static final int ACTIVITY_ID = 1 << 4;
+    protected static final int PAYLOAD = 1 << 5;
 
     protected String bpmnProcessId;
     protected int version = -1;
@@ -37,65 +44,107 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
     protected String activityId;
     protected final MsgPackField payload;
 
+    /**
+     * The encoded event if it is received by a subscription, or
+     * <code>null</code>. A property is decoded on its first access.
+     */
+    protected final MsgPackDocument document;
+    protected int decodedProperties = 0;
+
     @JsonCreator
     public WorkflowInstanceEventImpl(@JsonProperty("state") String state, @JacksonInject MsgPackConverter converter)
     {
         super(TopicEventType.WORKFLOW_INSTANCE, state);
         this.payload = new MsgPackField(converter);
+        this.document = null;
+    }
+
+    /**
+     * Creates an event which decodes its properties from the given document
+     * when they are accessed.
+     */
+    public WorkflowInstanceEventImpl(MsgPackDocument document, MsgPackConverter converter)
+    {
+        super(TopicEventType.WORKFLOW_INSTANCE, document.getString("state"));
+        this.payload = new MsgPackField(converter);
+        this.document = document;
     }
 
     public WorkflowInstanceEventImpl(WorkflowInstanceEventImpl baseEvent, String state)
     {
         super(baseEvent, state);
-        this.bpmnProcessId = baseEvent.bpmnProcessId;
-        this.version = baseEvent.version;
-        this.workflowKey = baseEvent.workflowKey;
-        this.workflowInstanceKey = baseEvent.workflowInstanceKey;
-        this.activityId = baseEvent.activityId;
-        this.payload = new MsgPackField(baseEvent.payload);
+        this.bpmnProcessId = baseEvent.getBpmnProcessId();
+        this.version = baseEvent.getVersion();
+        this.workflowKey = baseEvent.getWorkflowKey();
+        this.workflowInstanceKey = baseEvent.getWorkflowInstanceKey();
+        this.activityId = baseEvent.getActivityId();
+        this.payload = new MsgPackField(baseEvent.getPayloadField());
+        this.document = null;
     }
 
     @Override
     public String getBpmnProcessId()
     {
+        if (isEncoded(BPMN_PROCESS_ID))
+        {
+            bpmnProcessId = document.getString("bpmnProcessId");
+        }
         return bpmnProcessId;
     }
 
     public void setBpmnProcessId(String bpmnProcessId)
     {
+        this.decodedProperties |= BPMN_PROCESS_ID;
         this.bpmnProcessId = bpmnProcessId;
     }
 
     @Override
     public int getVersion()
     {
+        if (isEncoded(VERSION))
+        {
+            final Integer version = document.getInteger("version");
+            this.version = version != null ? version : -1;
+        }
         return version;
     }
 
     public void setVersion(int version)
     {
+        this.decodedProperties |= VERSION;
         this.version = version;
     }
 
     @Override
     public long getWorkflowInstanceKey()
     {
+        if (isEncoded(WORKFLOW_INSTANCE_KEY))
+        {
+            final Long workflowInstanceKey = document.getLong("workflowInstanceKey");
+            this.workflowInstanceKey = workflowInstanceKey != null ? workflowInstanceKey : -1L;
+        }
         return workflowInstanceKey;
     }
 
     public void setWorkflowInstanceKey(long workflowInstanceKey)
     {
+        this.decodedProperties |= WORKFLOW_INSTANCE_KEY;
         this.workflowInstanceKey = workflowInstanceKey;
     }
 
     @Override
     public String getActivityId()
     {
+        if (isEncoded(ACTIVITY_ID))
+        {
+            activityId = document.getString("activityId");
+        }
         return activityId;
     }
 
     public void setActivityId(String activityId)
     {
+        this.decodedProperties |= ACTIVITY_ID;
         this.activityId = activityId;
     }
 
@@ -103,42 +152,104 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
     @JsonIgnore
     public String getPayload()
     {
-        return payload.getAsJson();
+        return getPayloadField().getAsJson();
     }
 
     @JsonProperty("payload")
     public byte[] getPayloadMsgPack()
     {
-        return this.payload.getMsgPack();
+        return getPayloadField().getMsgPack();
+    }
+
+    /**
+     * @return a view on the payload which decodes only the accessed properties
+     */
+    @JsonIgnore
+    public MsgPackDocument getPayloadDocument()
+    {
+        if (document != null && (decodedProperties & PAYLOAD) == 0)
+        {
+            // a view on the received payload, without copying it
+            return document.getDocument("payload");
+        }
+
+        final byte[] msgPack = getPayloadMsgPack();
+        return msgPack != null ? new MsgPackDocument(msgPack) : null;
     }
 
     @JsonProperty("payload")
     public void setPayload(byte[] msgpack)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setMsgPack(msgpack);
     }
 
     public void setPayloadAsJson(String json)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setJson(json);
     }
 
     public void setPayloadAsJson(InputStream json)
     {
+        this.decodedProperties |= PAYLOAD;
         this.payload.setJson(json);
     }
 
+    protected MsgPackField getPayloadField()
+    {
+        if (isEncoded(PAYLOAD))
+        {
+            final MsgPackDocument payloadDocument = document.getDocument("payload");
+            payload.setMsgPack(payloadDocument != null ? payloadDocument.toMsgPack() : null);
+        }
+        return payload;
+    }
+
     @Override
     public long getWorkflowKey()
     {
+        if (isEncoded(WORKFLOW_KEY))
+        {
+            final Long workflowKey = document.getLong("workflowKey");
+            this.workflowKey = workflowKey != null ? workflowKey : -1L;
+        }
         return workflowKey;
     }
 
     public void setWorkflowKey(long workflowKey)
     {
+        this.decodedProperties |= WORKFLOW_KEY;
         this.workflowKey = workflowKey;
     }
 
+    /**
+     * @return <code>true</code> if the property is not decoded yet, the
+     *         property is marked as decoded
+     */
+    protected boolean isEncoded(int property)
+    {
+        if (document != null && (decodedProperties & property) == 0)
+        {
+            decodedProperties |= property;
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes all properties, so that the copy doesn't refer to the content
+     * of a received event.
+     */
+    @Override
+    public WorkflowInstanceEventImpl copy()
+    {
+        return new WorkflowInstanceEventImpl(this, getState());
+    }
+
     @Override
     public String toString()
     {
@@ -146,17 +257,17 @@ public class WorkflowInstanceEventImpl extends EventImpl implements WorkflowInst
         builder.append("WorkflowInstanceEvent [state=");
         builder.append(state);
         builder.append(", workflowInstanceKey=");
-        builder.append(workflowInstanceKey);
+        builder.append(getWorkflowInstanceKey());
         builder.append(", workflowKey=");
-        builder.append(workflowKey);
+        builder.append(getWorkflowKey());
         builder.append(", bpmnProcessId=");
-        builder.append(bpmnProcessId);
+        builder.append(getBpmnProcessId());
         builder.append(", version=");
-        builder.append(version);
+        builder.append(getVersion());
         builder.append(", activityId=");
-        builder.append(activityId);
+        builder.append(getActivityId());
         builder.append(", payload=");
-        builder.append(payload.getAsJson());
+        builder.append(getPayload());
         builder.append("]");
         return builder.toString();
     }
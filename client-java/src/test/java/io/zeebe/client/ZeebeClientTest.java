@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -39,6 +40,7 @@ import org.junit.rules.TestName;
 import io.zeebe.client.clustering.impl.ClientTopologyManager;
 import io.zeebe.client.cmd.ClientCommandRejectedException;
 import io.zeebe.client.cmd.ClientException;
+import io.zeebe.client.cmd.RequestPoolExhaustedException;
 import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.event.TopicSubscription;
 import io.zeebe.client.event.impl.TaskEventImpl;
@@ -272,6 +274,80 @@ public class ZeebeClientTest
 
     }
 
+    @Test
+    public void shouldSubmitRequest() throws Exception
+    {
+        // given
+        final String topic = "foo";
+
+        broker.clearTopology();
+        broker.addSystemTopic();
+        broker.addTopic(topic, 0);
+
+        stubTaskResponse();
+
+        // when
+        final CompletableFuture<TaskEvent> future = client.tasks().create(topic, "bar").submit();
+
+        // then
+        final TaskEvent taskEvent = future.get();
+        assertThat(taskEvent.getState()).isEqualTo("CREATED");
+        assertThat(taskEvent.getMetadata().getKey()).isEqualTo(123L);
+    }
+
+    @Test
+    public void shouldSignalBackpressureOnSubmitPastPoolCapacity() throws Exception
+    {
+        // given
+        final String topic = "foo";
+
+        broker.clearTopology();
+        broker.addSystemTopic();
+        broker.addTopic(topic, 0);
+
+        broker.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+            .doNotRespond();
+
+        for (int i = 0; i < clientMaxRequests; i++)
+        {
+            client.tasks().create(topic, "bar").submit();
+        }
+
+        // when
+        final CompletableFuture<TaskEvent> future = client.tasks().create(topic, "bar").submit();
+
+        // then
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(() -> future.get())
+            .hasCauseInstanceOf(RequestPoolExhaustedException.class);
+    }
+
+    @Test
+    public void shouldReleaseRequestsOnSubmitResponse() throws Exception
+    {
+        // given
+        final String topic = "foo";
+
+        broker.clearTopology();
+        broker.addSystemTopic();
+        broker.addTopic(topic, 0);
+
+        stubTaskResponse();
+
+        final List<CompletableFuture<TaskEvent>> futures = new ArrayList<>();
+        for (int i = 0; i < clientMaxRequests; i++)
+        {
+            futures.add(client.tasks().create(topic, "bar").submit());
+        }
+
+        // when
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get();
+
+        // then
+        final CompletableFuture<TaskEvent> future = client.tasks().create(topic, "bar").submit();
+        assertThat(future.get().getState()).isEqualTo("CREATED");
+    }
+
     @Test
     public void shouldDistributeNewEntitiesRoundRobin()
     {
@@ -469,6 +545,8 @@ public class ZeebeClientTest
         final int sendBufferSize = 6;
         final Duration tcpChannelKeepAlivePeriod = Duration.ofSeconds(7);
         final int topicSubscriptionPrefetchCapacity = 8;
+        final DispatchStrategy dispatchStrategy = DispatchStrategy.LEAST_IN_FLIGHT;
+        final int numTaskHandlerThreads = 9;
 
         // when
         final ZeebeClient client = ZeebeClient.newClient()
@@ -481,6 +559,8 @@ public class ZeebeClientTest
                 .sendBufferSize(sendBufferSize)
                 .tcpChannelKeepAlivePeriod(tcpChannelKeepAlivePeriod)
                 .topicSubscriptionPrefetchCapacity(topicSubscriptionPrefetchCapacity)
+                .dispatchStrategy(dispatchStrategy)
+                .numTaskHandlerThreads(numTaskHandlerThreads)
                 .create();
 
         // then
@@ -494,6 +574,8 @@ public class ZeebeClientTest
         assertThat(configuration.getSendBufferSize()).isEqualTo(sendBufferSize);
         assertThat(configuration.getTcpChannelKeepAlivePeriod()).isEqualTo(tcpChannelKeepAlivePeriod);
         assertThat(configuration.getTopicSubscriptionPrefetchCapacity()).isEqualTo(topicSubscriptionPrefetchCapacity);
+        assertThat(configuration.getDispatchStrategy()).isEqualTo(dispatchStrategy);
+        assertThat(configuration.getNumTaskHandlerThreads()).isEqualTo(numTaskHandlerThreads);
     }
 
     protected TopicSubscription openSubscription()
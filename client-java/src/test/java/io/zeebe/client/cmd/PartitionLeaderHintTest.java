@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.cmd;
+
+package io.zeebe.client.cmd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import io.zeebe.client.ZeebeClient;
+import io.zeebe.client.event.TaskEvent;
+import io.zeebe.client.util.ClientRule;
+import io.zeebe.protocol.Protocol;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.EventType;
+import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
+import io.zeebe.test.broker.protocol.brokerapi.data.Topology;
+
+public class PartitionLeaderHintTest
+{
+    public ClientRule clientRule = new ClientRule(b -> b.requestTimeout(Duration.ofSeconds(3)));
+    public StubBrokerRule broker1 = new StubBrokerRule("127.0.0.1", 51015);
+    public StubBrokerRule broker2 = new StubBrokerRule("127.0.0.1", 51016);
+
+    @Rule
+    public RuleChain ruleChain = RuleChain
+        .outerRule(broker1)
+        .around(broker2)
+        .around(clientRule);
+
+    protected ZeebeClient client;
+
+    @Before
+    public void setUp()
+    {
+        // the topology of both brokers points to broker1, so only the hint leads to broker2
+        final Topology topology = new Topology()
+            .addLeader(broker1, Protocol.SYSTEM_TOPIC, Protocol.SYSTEM_PARTITION)
+            .addLeader(broker1, StubBrokerRule.TEST_TOPIC_NAME, StubBrokerRule.TEST_PARTITION_ID);
+
+        broker1.setCurrentTopology(topology);
+        broker2.setCurrentTopology(topology);
+
+        client = clientRule.getClient();
+    }
+
+    @Test
+    public void shouldRetryRequestAtHintedLeader()
+    {
+        // given
+        broker1.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+            .respondWithError()
+                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                .errorData("Cannot execute command. Partition with id '99' not found. " + broker2.getLeaderHint())
+            .register();
+
+        broker2.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+            .respondWith()
+            .key(123)
+            .event()
+              .allOf((r) -> r.getCommand())
+              .put("state", "CREATED")
+              .put("lockTime", Protocol.INSTANT_NULL_VALUE)
+              .put("lockOwner", "")
+              .done()
+            .register();
+
+        // when
+        final TaskEvent taskEvent = client.tasks()
+            .create(clientRule.getDefaultTopicName(), "foo")
+            .execute();
+
+        // then
+        assertThat(taskEvent.getState()).isEqualTo("CREATED");
+
+        assertThat(broker1.getReceivedCommandRequests()).hasSize(1);
+        assertThat(broker2.getReceivedCommandRequests()).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotRetryAtHintedLeaderTwice()
+    {
+        // given
+        broker1.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+            .respondWithError()
+                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                .errorData("Cannot execute command. Partition with id '99' not found. " + broker2.getLeaderHint())
+            .register();
+
+        broker2.onExecuteCommandRequest(EventType.TASK_EVENT, "CREATE")
+            .respondWithError()
+                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                .errorData("Cannot execute command. Partition with id '99' not found. " + broker1.getLeaderHint())
+            .register();
+
+        // when
+        try
+        {
+            client.tasks()
+                .create(clientRule.getDefaultTopicName(), "foo")
+                .execute();
+        }
+        catch (RuntimeException e)
+        {
+            // expected timeout
+        }
+
+        // then the hint is used once, the further retries go to the leader of the topology
+        assertThat(broker2.getReceivedCommandRequests()).hasSize(1);
+    }
+}
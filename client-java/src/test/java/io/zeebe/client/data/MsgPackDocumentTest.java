@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.MsgPackDocument;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+
+public class MsgPackDocumentTest
+{
+    protected static final byte[] PAYLOAD = new MsgPackConverter().convertToMsgPack("{\"foo\":\"bar\"}");
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void shouldReadProperties() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // then
+        assertThat(document.size()).isEqualTo(6);
+        assertThat(document.getKeys()).containsExactly("state", "type", "lockTime", "retries", "headers", "payload");
+        assertThat(document.getString("state")).isEqualTo("CREATED");
+        assertThat(document.getString("type")).isEqualTo("foo");
+        assertThat(document.getLong("lockTime")).isEqualTo(Long.MAX_VALUE);
+        assertThat(document.getInteger("retries")).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReturnNullForMissingProperty() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // then
+        assertThat(document.containsKey("lockOwner")).isFalse();
+        assertThat(document.getString("lockOwner")).isNull();
+        assertThat(document.getDocument("lockOwner")).isNull();
+    }
+
+    @Test
+    public void shouldReadMap() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // when
+        final Map<String, Object> headers = document.getMap("headers");
+
+        // then
+        assertThat(headers).containsOnly(entry("workflowKey", 4L << 40), entry("activityId", "task"));
+    }
+
+    @Test
+    public void shouldReadNestedDocument() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // when
+        final MsgPackDocument headers = document.getDocument("headers");
+
+        // then
+        assertThat(headers.getLong("workflowKey")).isEqualTo(4L << 40);
+        assertThat(headers.getString("activityId")).isEqualTo("task");
+    }
+
+    @Test
+    public void shouldReadBinaryAsDocument() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // when
+        final MsgPackDocument payload = document.getDocument("payload");
+
+        // then
+        assertThat(payload.getString("foo")).isEqualTo("bar");
+        assertThat(payload.toMsgPack()).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    public void shouldReadDocumentAtOffset() throws Exception
+    {
+        // given
+        final byte[] taskEvent = createTaskEvent();
+        final byte[] buffer = new byte[taskEvent.length + 10];
+        System.arraycopy(taskEvent, 0, buffer, 5, taskEvent.length);
+
+        // when
+        final MsgPackDocument document = new MsgPackDocument(buffer, 5, taskEvent.length);
+
+        // then
+        assertThat(document.getString("type")).isEqualTo("foo");
+        assertThat(document.getDocument("payload").getString("foo")).isEqualTo("bar");
+        assertThat(document.toMsgPack()).isEqualTo(taskEvent);
+    }
+
+    @Test
+    public void shouldReadNilAsEmptyDocument() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(new byte[] { (byte) 0xc0 });
+
+        // then
+        assertThat(document.size()).isEqualTo(0);
+        assertThat(document.toMap()).isEmpty();
+    }
+
+    @Test
+    public void shouldConvertToMap() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(createTaskEvent());
+
+        // when
+        final Map<String, Object> map = document.toMap();
+
+        // then
+        assertThat(map).containsEntry("type", "foo").containsEntry("retries", 3);
+        assertThat((byte[]) map.get("payload")).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    public void shouldFailIfNotAMap() throws Exception
+    {
+        // given
+        final MsgPackDocument document = new MsgPackDocument(new byte[] { 0x01 });
+
+        // then
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Expected msgpack document to be a map");
+
+        // when
+        document.getString("foo");
+    }
+
+    protected static byte[] createTaskEvent() throws IOException
+    {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream())
+        {
+            final MessagePacker packer = MessagePack.newDefaultPacker(outputStream);
+
+            packer.packMapHeader(6)
+                .packString("state").packString("CREATED")
+                .packString("type").packString("foo")
+                .packString("lockTime").packLong(Long.MAX_VALUE)
+                .packString("retries").packInt(3)
+                .packString("headers").packMapHeader(2)
+                    .packString("workflowKey").packLong(4L << 40)
+                    .packString("activityId").packString("task")
+                .packString("payload").packBinaryHeader(PAYLOAD.length)
+                .writePayload(PAYLOAD);
+
+            packer.flush();
+            return outputStream.toByteArray();
+        }
+    }
+}
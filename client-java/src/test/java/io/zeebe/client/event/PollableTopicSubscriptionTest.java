@@ -21,7 +21,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -155,6 +159,44 @@ public class PollableTopicSubscriptionTest
         assertThat(handler.numRecordedEvents()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldReuseEventsAfterTheyAreHandled()
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        final PollableTopicSubscription subscription = clientRule.topics().newPollableSubscription(clientRule.getDefaultTopicName())
+            .startAtHeadOfTopic()
+            .name(SUBSCRIPTION_NAME)
+            .open();
+
+        final RemoteAddress clientAddress = broker.getReceivedCommandRequests().get(0).getSource();
+
+        final Set<GeneralEvent> handledEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<GeneralEvent> copiedEvents = new ArrayList<>();
+
+        // when handling one event after the other
+        for (int i = 1; i <= 10; i++)
+        {
+            broker.pushTopicEvent(clientAddress, 123L, i, i);
+
+            doRepeatedly(() -> subscription.poll(e ->
+            {
+                handledEvents.add(e);
+                copiedEvents.add(e.copy());
+            })).until(n -> n == 1);
+        }
+
+        // then no event is allocated after the first one, only the copies are
+        assertThat(handledEvents).hasSize(1);
+        assertThat(copiedEvents).hasSize(10);
+
+        for (int i = 0; i < copiedEvents.size(); i++)
+        {
+            assertThat(copiedEvents.get(i).getMetadata().getPosition()).isEqualTo(i + 1);
+        }
+    }
+
     @Test
     public void shouldCloseSubscriptionOnChannelClose() throws InterruptedException
     {
@@ -19,6 +19,7 @@ import static io.zeebe.test.util.TestUtil.waitUntil;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -552,6 +553,47 @@ public class TopicSubscriptionTest
         assertThat(eventHandler.numIncidentEvents()).isEqualTo(0);
     }
 
+    @Test
+    public void shouldKeepCopiedEventContentAfterEventIsHandled()
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        final RecordingTopicEventHandler eventHandler = subscribeToAllEvents();
+
+        final RemoteAddress clientAddress = broker.getReceivedCommandRequests().get(0).getSource();
+
+        // when pushing events with content of different length
+        for (int i = 0; i < 10; i++)
+        {
+            final long position = i;
+            final String type = String.join("", Collections.nCopies(10 - i, "x"));
+
+            broker.pushTopicEvent(clientAddress, b -> b
+                    .subscriberKey(123L)
+                    .key(1L)
+                    .position(position)
+                    .eventType(position % 2 == 0 ? EventType.TASK_EVENT : EventType.SUBSCRIBER_EVENT)
+                    .event()
+                        .put("type", type)
+                        .done());
+        }
+
+        // then the copies of the handled events are not reused
+        waitUntil(() -> eventHandler.numTaskEvents() + eventHandler.numTopicEvents() == 10);
+
+        for (int i = 0; i < 5; i++)
+        {
+            final TaskEvent taskEvent = eventHandler.taskEvents.get(i);
+            assertThat(taskEvent.getMetadata().getPosition()).isEqualTo(2 * i);
+            assertThat(taskEvent.getType()).isEqualTo(String.join("", Collections.nCopies(10 - 2 * i, "x")));
+
+            final GeneralEvent topicEvent = eventHandler.topicEvents.get(i);
+            assertThat(topicEvent.getMetadata().getPosition()).isEqualTo(2 * i + 1);
+            assertThat(topicEvent.getJson()).contains(String.join("", Collections.nCopies(10 - (2 * i + 1), "x")));
+        }
+    }
+
     @Test
     public void shouldInvokeTasktHandlerForTaskEvent()
     {
@@ -1060,19 +1102,19 @@ public class TopicSubscriptionTest
         @Override
         public void handle(GeneralEvent event) throws Exception
         {
-            topicEvents.add(event);
+            topicEvents.add(event.copy());
         }
 
         @Override
         public void handle(TaskEvent event) throws Exception
         {
-            taskEvents.add(event);
+            taskEvents.add(event.copy());
         }
 
         @Override
         public void handle(WorkflowInstanceEvent event) throws Exception
         {
-            workflowInstanceEvents.add(event);
+            workflowInstanceEvents.add(event.copy());
         }
 
         @Override
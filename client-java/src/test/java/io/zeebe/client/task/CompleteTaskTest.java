@@ -72,6 +72,8 @@ public class CompleteTaskTest
             .event()
               .allOf((r) -> r.getCommand())
               .put("state", "COMPLETED")
+              .put("headers", baseEvent.getHeaders())
+              .put("customHeaders", baseEvent.getCustomHeaders())
               .done()
             .register();
 
@@ -95,8 +97,6 @@ public class CompleteTaskTest
                 entry("lockOwner", baseEvent.getLockOwner()),
                 entry("retries", baseEvent.getRetries()),
                 entry("type", baseEvent.getType()),
-                entry("headers", baseEvent.getHeaders()),
-                entry("customHeaders", baseEvent.getCustomHeaders()),
                 entry("payload", converter.convertToMsgPack(updatedPayload)));
 
         assertThat(taskEvent.getMetadata().getKey()).isEqualTo(123L);
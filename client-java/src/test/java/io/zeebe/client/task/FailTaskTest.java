@@ -60,6 +60,8 @@ public class FailTaskTest
             .event()
               .allOf((r) -> r.getCommand())
               .put("state", "FAILED")
+              .put("headers", baseEvent.getHeaders())
+              .put("customHeaders", baseEvent.getCustomHeaders())
               .done()
             .register();
 
@@ -80,8 +82,6 @@ public class FailTaskTest
                 entry("lockOwner", baseEvent.getLockOwner()),
                 entry("retries", 4),
                 entry("type", baseEvent.getType()),
-                entry("headers", baseEvent.getHeaders()),
-                entry("customHeaders", baseEvent.getCustomHeaders()),
                 entry("payload", baseEvent.getPayloadMsgPack()));
 
         assertThat(taskEvent.getMetadata().getKey()).isEqualTo(123L);
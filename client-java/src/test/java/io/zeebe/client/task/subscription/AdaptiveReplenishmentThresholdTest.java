@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+import io.zeebe.client.task.impl.subscription.AdaptiveReplenishmentThreshold;
+
+public class AdaptiveReplenishmentThresholdTest
+{
+    private final AdaptiveReplenishmentThreshold threshold = new AdaptiveReplenishmentThreshold(0.3d);
+
+    @Test
+    public void shouldIncreaseThresholdIfEventsRunOutAfterReplenishment()
+    {
+        // given
+        threshold.onReplenishment();
+        threshold.onEventsDrained();
+
+        // when
+        threshold.onEventReceived();
+
+        // then
+        assertThat(threshold.get()).isCloseTo(0.35d, within(0.0001d));
+    }
+
+    @Test
+    public void shouldDecreaseThresholdSlowlyIfEventsArriveInTime()
+    {
+        // given
+        threshold.onReplenishment();
+
+        // when
+        threshold.onEventReceived();
+
+        // then
+        assertThat(threshold.get()).isCloseTo(0.29d, within(0.0001d));
+    }
+
+    @Test
+    public void shouldAdaptOncePerReplenishment()
+    {
+        // given
+        threshold.onReplenishment();
+        threshold.onEventsDrained();
+        threshold.onEventReceived();
+
+        // when
+        threshold.onEventsDrained();
+        threshold.onEventReceived();
+
+        // then
+        assertThat(threshold.get()).isCloseTo(0.35d, within(0.0001d));
+    }
+
+    @Test
+    public void shouldDecreaseThresholdMultiplicativelyOnRejectedEvent()
+    {
+        // when
+        threshold.onEventRejected();
+
+        // then
+        assertThat(threshold.get()).isCloseTo(0.15d, within(0.0001d));
+    }
+
+    @Test
+    public void shouldLimitThreshold()
+    {
+        // when
+        for (int i = 0; i < 100; i++)
+        {
+            threshold.onReplenishment();
+            threshold.onEventsDrained();
+            threshold.onEventReceived();
+        }
+
+        // then
+        assertThat(threshold.get()).isEqualTo(AdaptiveReplenishmentThreshold.MAX_THRESHOLD);
+
+        // when
+        for (int i = 0; i < 100; i++)
+        {
+            threshold.onEventRejected();
+        }
+
+        // then
+        assertThat(threshold.get()).isEqualTo(AdaptiveReplenishmentThreshold.MIN_THRESHOLD);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.task.subscription;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import io.zeebe.client.task.TaskHandler;
+import io.zeebe.client.util.ClientRule;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.test.broker.protocol.brokerapi.ControlMessageRequest;
+import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
+import io.zeebe.transport.RemoteAddress;
+
+public class TaskHandlerExecutionTest
+{
+    private static final int NUM_TASK_HANDLER_THREADS = 4;
+
+    public ClientRule clientRule = new ClientRule(b -> b
+            .numSubscriptionExecutionThreads(1)
+            .numTaskHandlerThreads(NUM_TASK_HANDLER_THREADS));
+    public StubBrokerRule broker = new StubBrokerRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(broker).around(clientRule);
+
+    private final CountDownLatch handlerLatch = new CountDownLatch(1);
+
+    @After
+    public void after()
+    {
+        handlerLatch.countDown();
+    }
+
+    @Test
+    public void shouldInvokeTaskHandlersInParallel()
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+
+        final AtomicInteger tasksInHandler = new AtomicInteger();
+        final AtomicInteger handledTasks = new AtomicInteger();
+
+        final TaskHandler handler = (c, t) ->
+        {
+            tasksInHandler.incrementAndGet();
+            try
+            {
+                handlerLatch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                throw new RuntimeException(e);
+            }
+            handledTasks.incrementAndGet();
+        };
+
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+            .handler(handler)
+            .lockOwner("owner")
+            .lockTime(1000L)
+            .taskFetchSize(NUM_TASK_HANDLER_THREADS)
+            .taskType("foo")
+            .open();
+
+        final RemoteAddress clientAddress = broker.getReceivedControlMessageRequests().get(0).getSource();
+
+        // when
+        for (int i = 0; i < NUM_TASK_HANDLER_THREADS; i++)
+        {
+            broker.pushLockedTask(clientAddress, 123L, i, i, "owner", "foo");
+        }
+
+        // then all tasks are in the handler at the same time
+        waitUntil(() -> tasksInHandler.get() == NUM_TASK_HANDLER_THREADS);
+
+        // and the credits are not replenished before the handlers completed
+        assertThat(getCreditRequests().count()).isEqualTo(0);
+
+        handlerLatch.countDown();
+
+        waitUntil(() -> handledTasks.get() == NUM_TASK_HANDLER_THREADS);
+        waitUntil(() -> getCreditRequests().count() >= 1);
+    }
+
+    private Stream<ControlMessageRequest> getCreditRequests()
+    {
+        return broker.getReceivedControlMessageRequests().stream()
+            .filter((r) -> r.messageType() == ControlMessageType.INCREASE_TASK_SUBSCRIPTION_CREDITS);
+    }
+}
@@ -49,6 +49,7 @@ import io.zeebe.client.event.TaskEvent;
 import io.zeebe.client.impl.TasksClientImpl;
 import io.zeebe.client.impl.data.MsgPackConverter;
 import io.zeebe.client.task.PollableTaskSubscription;
+import io.zeebe.client.task.TaskDistribution;
 import io.zeebe.client.task.TaskHandler;
 import io.zeebe.client.task.TaskSubscription;
 import io.zeebe.client.task.impl.subscription.Subscriber;
@@ -239,6 +240,68 @@ public class TaskSubscriptionTest
         assertThat(subscriptionRequest.getData()).containsEntry("credits", 32);
     }
 
+    @Test
+    public void shouldOpenSubscriptionWithLockBatchSize()
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+
+        // when
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+            .handler(DO_NOTHING)
+            .lockOwner("foo")
+            .lockTime(10000L)
+            .taskType("bar")
+            .lockBatchSize(8)
+            .open();
+
+        // then
+        final ControlMessageRequest subscriptionRequest = getSubscribeRequests().findFirst().get();
+
+        assertThat(subscriptionRequest.getData()).containsEntry("lockBatchSize", 8);
+    }
+
+    @Test
+    public void shouldOpenSubscriptionWithDistribution()
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+
+        // when
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+            .handler(DO_NOTHING)
+            .lockOwner("foo")
+            .lockTime(10000L)
+            .taskType("bar")
+            .distribution(TaskDistribution.LEAST_OUTSTANDING_LOCKS)
+            .open();
+
+        // then
+        final ControlMessageRequest subscriptionRequest = getSubscribeRequests().findFirst().get();
+
+        assertThat(subscriptionRequest.getData()).containsEntry("distribution", "LEAST_OUTSTANDING_LOCKS");
+    }
+
+    @Test
+    public void shouldValidateLockBatchSize()
+    {
+        // given
+        broker.stubTaskSubscriptionApi(123L);
+
+        // then
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("lockBatchSize must be greater than 0");
+
+        // when
+        clientRule.tasks().newTaskSubscription(clientRule.getDefaultTopicName())
+            .handler(DO_NOTHING)
+            .lockOwner("foo")
+            .lockTime(10000L)
+            .taskType("bar")
+            .lockBatchSize(0)
+            .open();
+    }
+
     @Test
     public void shouldValidateMissingLockTime()
     {
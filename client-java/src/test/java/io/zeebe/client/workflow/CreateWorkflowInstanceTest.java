@@ -19,6 +19,7 @@ import static io.zeebe.util.StringUtil.getBytes;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -31,6 +32,7 @@ import io.zeebe.client.cmd.ClientCommandRejectedException;
 import io.zeebe.client.event.WorkflowInstanceEvent;
 import io.zeebe.client.impl.data.MsgPackConverter;
 import io.zeebe.client.util.ClientRule;
+import io.zeebe.test.broker.protocol.brokerapi.ExecuteCommandRequest;
 import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
 
 
@@ -109,6 +111,40 @@ public class CreateWorkflowInstanceTest
         assertThat(workflowInstance.getPayload()).isEqualTo("{\"bar\":4}");
     }
 
+    @Test
+    public void shouldCreateWorkflowInstancesWithSameAffinityKeyOnSamePartition()
+    {
+        // given
+        final String topic = "affinity";
+        brokerRule.addTopic(topic, 10);
+        brokerRule.addTopic(topic, 11);
+        brokerRule.addTopic(topic, 12);
+
+        brokerRule.onWorkflowRequestRespondWith(1L)
+            .put("state", "WORKFLOW_INSTANCE_CREATED")
+            .put("version", 1)
+            .put("workflowInstanceKey", 1)
+            .put("payload", msgPackConverter.convertToMsgPack("null"))
+            .done()
+            .register();
+
+        // when
+        for (int i = 0; i < 5; i++)
+        {
+            clientRule.workflows()
+                .create(topic)
+                .bpmnProcessId("foo")
+                .affinityKey("order-123")
+                .execute();
+        }
+
+        // then
+        final List<ExecuteCommandRequest> requests = brokerRule.getReceivedCommandRequests();
+        assertThat(requests).hasSize(5);
+        assertThat(requests).extracting(ExecuteCommandRequest::partitionId)
+            .containsOnly(requests.get(0).partitionId());
+    }
+
     @Test
     public void shouldRejectCreateWorkflowInstanceByBpmnProcessId()
     {
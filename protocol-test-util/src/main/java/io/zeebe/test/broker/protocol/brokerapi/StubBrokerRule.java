@@ -52,6 +52,13 @@ public class StubBrokerRule extends ExternalResource
     public static final String TEST_TOPIC_NAME = DEFAULT_TOPIC_NAME;
     public static final int TEST_PARTITION_ID = 99;
 
+    /**
+     * The format of the leader hint which a broker appends to a
+     * PARTITION_NOT_FOUND error. The broker and the client are tested against
+     * it, so that the format can't change on one side only.
+     */
+    public static final String LEADER_HINT_FORMAT = "Leader of the partition is '%s:%d'";
+
 
     private ControlledActorClock clock = new ControlledActorClock();
     protected ActorScheduler scheduler;
@@ -440,4 +447,17 @@ public class StubBrokerRule extends ExternalResource
     {
         return clock;
     }
+
+    /**
+     * @return the leader hint which points to this broker
+     */
+    public String getLeaderHint()
+    {
+        return leaderHint(host, port);
+    }
+
+    public static String leaderHint(String host, int port)
+    {
+        return String.format(LEADER_HINT_FORMAT, host, port);
+    }
 }
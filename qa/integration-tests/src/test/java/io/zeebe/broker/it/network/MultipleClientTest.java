@@ -56,12 +56,12 @@ public class MultipleClientTest
 
         client1.topics().newSubscription(client1.getDefaultTopic())
             .name("client-1")
-            .taskEventHandler(e -> taskEventsClient1.add(e))
+            .taskEventHandler(e -> taskEventsClient1.add(e.copy()))
             .open();
 
         client2.topics().newSubscription(client2.getDefaultTopic())
             .name("client-2")
-            .taskEventHandler(e -> taskEventsClient2.add(e))
+            .taskEventHandler(e -> taskEventsClient2.add(e.copy()))
             .open();
 
         // when
@@ -39,7 +39,7 @@ public class RecordingEventHandler implements UniversalEventHandler
     @Override
     public void handle(GeneralEvent event)
     {
-        this.events.add(event);
+        this.events.add(event.copy());
     }
 
     public int numRecordedEvents()
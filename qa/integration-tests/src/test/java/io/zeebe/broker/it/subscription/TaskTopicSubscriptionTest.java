@@ -131,7 +131,7 @@ public class TaskTopicSubscriptionTest
         @Override
         public void handle(TaskEvent event) throws Exception
         {
-            this.events.add(event);
+            this.events.add(event.copy());
         }
 
         public TaskEvent getEvent(int index)
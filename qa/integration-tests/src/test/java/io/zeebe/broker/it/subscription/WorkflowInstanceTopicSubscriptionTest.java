@@ -118,7 +118,7 @@ public class WorkflowInstanceTopicSubscriptionTest
         @Override
         public void handle(WorkflowInstanceEvent event) throws Exception
         {
-            this.events.add(event);
+            this.events.add(event.copy());
         }
 
         public WorkflowInstanceEvent getEvent(int index)
@@ -85,9 +85,9 @@ public class TopicEventRecorder extends ExternalResource
 
             subscription = client.newSubscription(topicName)
                 .name(SUBSCRIPTION_NAME)
-                .taskEventHandler(e -> taskEvents.add(e))
+                .taskEventHandler(e -> taskEvents.add(e.copy()))
                 .workflowEventHandler(e -> wfEvents.add(e))
-                .workflowInstanceEventHandler(e -> wfInstanceEvents.add(e))
+                .workflowInstanceEventHandler(e -> wfInstanceEvents.add(e.copy()))
                 .incidentEventHandler(e -> incidentEvents.add(e))
                 .open();
         }